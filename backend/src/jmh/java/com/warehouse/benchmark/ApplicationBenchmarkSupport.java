@@ -0,0 +1,83 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.WarehouseInventoryApplication;
+import com.warehouse.config.QueryMetrics;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 需要完整应用上下文的基准测试公共方法
+ * 以测试环境配置（src/test/resources/application-test.yml）启动不带Web服务器的应用，
+ * 数据库为独立的H2内存库，语句数通过 QueryMetrics 的线程级计数统计。
+ */
+final class ApplicationBenchmarkSupport {
+
+    private ApplicationBenchmarkSupport() {
+    }
+
+    /**
+     * 启动应用，arguments 为附加的命令行参数（如 --hibernate 配置、额外的 profile 等），优先于配置文件
+     */
+    static ConfigurableApplicationContext start(String database, String... arguments) {
+        String[] defaults = {
+                "--spring.profiles.active=test",
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL"
+        };
+        String[] args = Stream.concat(Stream.of(defaults), Stream.of(arguments)).toArray(String[]::new);
+        return new SpringApplicationBuilder(WarehouseInventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    /**
+     * 以管理员身份执行后续业务方法（审批、创建人等取当前认证用户）
+     */
+    static void runAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    /**
+     * 创建一个分类及其下 count 个货物，编码为 prefix + 六位序号
+     */
+    static List<Goods> createGoods(ConfigurableApplicationContext context, String prefix, int count) {
+        GoodsCategory category = context.getBean(GoodsCategoryRepository.class)
+                .save(new GoodsCategory(prefix + "-CAT", "基准测试分类"));
+        List<Goods> goods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Goods item = new Goods(String.format("%s%06d", prefix, i), "基准测试货物" + i, category, "个");
+            item.setMinStock(BigDecimal.TEN);
+            goods.add(item);
+        }
+        return context.getBean(GoodsRepository.class).saveAll(goods);
+    }
+
+    /**
+     * 开始在当前线程上统计JDBC语句数
+     */
+    static void beginCounting(QueryMetrics queryMetrics) {
+        queryMetrics.beginRequest("benchmark");
+    }
+
+    /**
+     * 结束统计，返回 beginCounting 之后当前线程发出的JDBC语句数
+     */
+    static int endCounting(QueryMetrics queryMetrics) {
+        int statements = queryMetrics.currentStatementCount();
+        queryMetrics.endRequest("benchmark");
+        return statements;
+    }
+}
@@ -0,0 +1,95 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.Inventory;
+import com.warehouse.entity.Warehouse;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试公共方法
+ * 被测对象不启动Spring容器，直接构造后按字段名注入依赖；私有方法通过 MethodHandle 调用。
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 设置对象字段（包括 @Autowired、@Value 注入的私有字段）
+     */
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException(target.getClass().getSimpleName() + " 没有字段 " + name);
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * 查找私有实例方法
+     */
+    static MethodHandle privateMethod(Class<?> type, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+                    .findVirtual(type, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("找不到方法 " + type.getSimpleName() + "." + name, e);
+        }
+    }
+
+    /**
+     * 生成库存记录：数量、成本、库存上下限和有效期交替分布，覆盖各种库存状态
+     */
+    static List<Inventory> inventories(int count) {
+        return inventoryStream(count).collect(Collectors.toCollection(() -> new ArrayList<>(count)));
+    }
+
+    /**
+     * 按需逐条生成与 inventories 相同的库存记录，不在内存中保留整个列表
+     */
+    static Stream<Inventory> inventoryStream(int count) {
+        GoodsCategory category = new GoodsCategory();
+        category.setId(1L);
+        category.setCode("CAT001");
+        category.setName("电子元器件");
+
+        Warehouse warehouse = new Warehouse("WH001", "一号仓库");
+        warehouse.setId(1L);
+
+        LocalDate today = LocalDate.now();
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 8, 0);
+        return IntStream.range(0, count).mapToObj(i -> {
+            Goods goods = new Goods(String.format("G%06d", i), "货物" + i, category, "个");
+            goods.setId((long) i + 1);
+            goods.setSpecification("规格-" + (i % 50));
+            goods.setMinStock(BigDecimal.valueOf(20));
+            goods.setMaxStock(BigDecimal.valueOf(500));
+            goods.setCreatedTime(time);
+
+            Inventory inventory = new Inventory(warehouse, goods, new BigDecimal(i % 600 + ".250"));
+            inventory.setId((long) i + 1);
+            inventory.setLockedQuantity(BigDecimal.valueOf(i % 5));
+            inventory.setAvailableQuantity(inventory.getQuantity().subtract(inventory.getLockedQuantity()));
+            inventory.setAverageCost(new BigDecimal("12.3456").add(BigDecimal.valueOf(i % 100)));
+            inventory.setExpiryDate(i % 7 == 0 ? today.plusDays(i % 60) : null);
+            inventory.setCreatedTime(time);
+            inventory.setUpdatedTime(time.plusMinutes(i));
+            return inventory;
+        });
+    }
+}
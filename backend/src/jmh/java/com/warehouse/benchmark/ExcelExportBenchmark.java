@@ -0,0 +1,117 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.entity.Inventory;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.InventoryRepository;
+import com.warehouse.service.impl.GoodsSearchIndex;
+import com.warehouse.service.impl.GoodsServiceImpl;
+import com.warehouse.service.impl.InventoryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 库存、货物流式Excel导出的耗时和堆内存峰值
+ * 仓储层用 Mockito 桩替代，每次导出按需逐行生成数据，测试数据本身不占堆；输出写入空输出流。
+ * 堆上限与生产 Pod 一致（2GB）；peakHeapMb 为每次迭代内GC后存活堆内存的最大值，行数增加时应保持不变。
+ * 分配速率可加 -prof gc 查看。仓库导出（XSSFWorkbook 全量内存写入）见 WarehouseExportBenchmark。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExcelExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private InventoryServiceImpl inventoryService;
+
+    private GoodsServiceImpl goodsService;
+
+    /**
+     * 堆内存峰值，作为附加指标输出到结果中
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapUsage {
+
+        private final PeakHeapMonitor monitor = PeakHeapMonitor.start();
+
+        public long peakHeapMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            monitor.reset();
+            peakHeapMb = 0;
+        }
+
+        void record() {
+            peakHeapMb = Math.max(peakHeapMb, monitor.peakMegabytes());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        GoodsSearchIndex goodsSearchIndex = new GoodsSearchIndex(null, new SimpleMeterRegistry(), false);
+
+        MethodHandle convertToDTO = BenchmarkSupport.privateMethod(InventoryServiceImpl.class,
+                "convertToDTO", InventoryDTO.class, Inventory.class);
+        inventoryService = new InventoryServiceImpl();
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        when(inventoryRepository.streamByFilters(any(), anyBoolean(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> BenchmarkSupport.inventoryStream(rows).map(inventory -> {
+                    try {
+                        return (InventoryDTO) convertToDTO.invoke(inventoryService, inventory);
+                    } catch (Throwable e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+        BenchmarkSupport.setField(inventoryService, "inventoryRepository", inventoryRepository);
+        BenchmarkSupport.setField(inventoryService, "goodsSearchIndex", goodsSearchIndex);
+
+        goodsService = new GoodsServiceImpl();
+        GoodsRepository goodsRepository = mock(GoodsRepository.class);
+        when(goodsRepository.streamForExport(any(), anyBoolean(), any(), any(), any()))
+                .thenAnswer(invocation -> BenchmarkSupport.inventoryStream(rows).map(Inventory::getGoods));
+        BenchmarkSupport.setField(goodsService, "goodsRepository", goodsRepository);
+        BenchmarkSupport.setField(goodsService, "goodsSearchIndex", goodsSearchIndex);
+        BenchmarkSupport.setField(goodsService, "entityManager", mock(EntityManager.class));
+    }
+
+    @Benchmark
+    public void exportInventory(HeapUsage heap) {
+        inventoryService.exportInventoryToExcel(null, null, null, null, OutputStream.nullOutputStream());
+        heap.record();
+    }
+
+    @Benchmark
+    public void exportGoods(HeapUsage heap) {
+        goodsService.exportGoodsToExcel(null, null, null, OutputStream.nullOutputStream());
+        heap.record();
+    }
+}
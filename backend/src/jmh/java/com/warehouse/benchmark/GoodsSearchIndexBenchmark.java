@@ -0,0 +1,104 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.GoodsDTO;
+import com.warehouse.service.impl.GoodsSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 货物搜索索引查询延迟
+ * 在独立的H2内存库中生成 skus 条货物（名称由颜色、材质、品名、尺码组合，另有品牌、型号、条形码），全量构建索引后
+ * 按采样模式测量单次查询耗时，看 p0.99（目标小于 5ms）。match 与列表关键字筛选相同（最多 2000 个ID），
+ * suggest 为输入联想（10条）。关键字覆盖短词、长词、汉字单字、编码前缀、拼音首字母、条形码和无结果的情况。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GoodsSearchIndexBenchmark {
+
+    private static final String[] COLORS = {"红色", "白色", "黑色", "蓝色", "绿色", "灰色", "金色", "银色"};
+
+    private static final String[] MATERIALS = {"不锈钢", "塑料", "实木", "铝合金", "陶瓷", "玻璃", "棉质", "皮革"};
+
+    private static final String[] ITEMS = {"螺丝", "轴承", "货架", "托盘", "纸箱", "手套", "扳手", "电钻", "水杯", "毛巾",
+            "插座", "灯泡", "胶带", "标签", "推车", "锁具", "阀门", "水管", "电线", "开关"};
+
+    private static final String[] SIZES = {"大号", "中号", "小号"};
+
+    private static final String[] BRANDS = {"华力", "东方", "金象", "长城", "大地", "新星", "宏达", "永固", "盛世", "恒通"};
+
+    private static final String SNAPSHOT_TABLE = "CREATE TABLE goods (id BIGINT PRIMARY KEY, code VARCHAR(50), " +
+            "name VARCHAR(200), short_name VARCHAR(100), english_name VARCHAR(200), model VARCHAR(100), " +
+            "brand VARCHAR(100), barcode VARCHAR(50), specification VARCHAR(500), unit VARCHAR(20), " +
+            "category_id BIGINT, enabled BOOLEAN, deleted BOOLEAN, version BIGINT)";
+
+    @Param({"500000"})
+    private int skus;
+
+    @Param({"螺丝", "不锈钢螺丝", "钢", "g01234", "hsbxg", "6900001234", "红色螺丝"})
+    private String keyword;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private GoodsSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:goods_search_benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(SNAPSHOT_TABLE);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < skus; i++) {
+            rows.add(new Object[] {(long) i + 1, String.format("G%06d", i),
+                    COLORS[i % 8] + MATERIALS[i / 8 % 8] + ITEMS[i / 64 % 20] + SIZES[i / 1280 % 3] + "-" + i % 1000,
+                    "M" + i % 5000, BRANDS[i % 10], String.format("690%07d", i), "规格-" + i % 50,
+                    (long) (i % 20 + 1)});
+            if (rows.size() == 10_000 || i == skus - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO goods (id, code, name, model, brand, barcode, specification, " +
+                        "unit, category_id, enabled, deleted, version) VALUES (?, ?, ?, ?, ?, ?, ?, '个', ?, true, false, 0)",
+                        rows);
+                rows.clear();
+            }
+        }
+        index = new GoodsSearchIndex(new NamedParameterJdbcTemplate(jdbcTemplate), new SimpleMeterRegistry(), true);
+        index.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public List<Long> match() {
+        return index.match(keyword, GoodsSearchIndex.MAX_FILTER_IDS);
+    }
+
+    @Benchmark
+    public List<GoodsDTO.Suggestion> suggest() {
+        return index.suggest(keyword, 10);
+    }
+}
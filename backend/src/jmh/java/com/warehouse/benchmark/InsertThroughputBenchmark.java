@@ -0,0 +1,208 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.config.QueryMetrics;
+import com.warehouse.dto.InboundOrderDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.OperationLog;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.BusinessType;
+import com.warehouse.enums.UserRole;
+import com.warehouse.repository.OperationLogRepository;
+import com.warehouse.repository.UserRepository;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.service.InboundOrderService;
+import com.warehouse.service.impl.OperationLogWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高频写入实体的插入吞吐
+ * 500 行入库单：batchSize 为 hibernate.jdbc.batch_size，1 即关闭批量插入，相当于 IDENTITY 主键时逐行插入明细；
+ * 10000 条操作日志：对比 OperationLogWriter 的 JDBC 批量写入和逐条经 Hibernate 保存（IDENTITY 主键无法批量）。
+ * 结束时输出平均每次调用的JDBC语句数。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertThroughputBenchmark {
+
+    private static final int ORDER_LINES = 500;
+
+    private static final int LOG_ROWS = 10000;
+
+    /**
+     * 入库单写入环境，按批量大小分别启动应用
+     */
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        @Param({"1", "50"})
+        private int batchSize;
+
+        private ConfigurableApplicationContext context;
+
+        private InboundOrderService inboundOrderService;
+
+        private QueryMetrics queryMetrics;
+
+        private InboundOrderDTO.CreateRequest request;
+
+        private long calls;
+
+        private long statements;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = ApplicationBenchmarkSupport.start("insert_order_benchmark",
+                    "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+            inboundOrderService = context.getBean(InboundOrderService.class);
+            queryMetrics = context.getBean(QueryMetrics.class);
+            ApplicationBenchmarkSupport.runAsAdmin();
+
+            Warehouse warehouse = context.getBean(WarehouseRepository.class)
+                    .save(new Warehouse("BENCH-WH", "基准测试仓库"));
+            List<InboundOrderDTO.InboundOrderDetailDTO> details = new ArrayList<>(ORDER_LINES);
+            for (Goods goods : ApplicationBenchmarkSupport.createGoods(context, "INS", ORDER_LINES)) {
+                InboundOrderDTO.InboundOrderDetailDTO detail = new InboundOrderDTO.InboundOrderDetailDTO();
+                detail.setGoodsId(goods.getId());
+                detail.setQuantity(BigDecimal.valueOf(10));
+                detail.setUnitPrice(BigDecimal.valueOf(12.5));
+                details.add(detail);
+            }
+            request = new InboundOrderDTO.CreateRequest();
+            request.setWarehouseId(warehouse.getId());
+            request.setBusinessType(BusinessType.PURCHASE_IN);
+            request.setPlannedDate(LocalDate.now());
+            request.setDetails(details);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (calls > 0) {
+                System.out.printf("batch_size=%d：%d 行入库单平均每次 %.1f 条JDBC语句%n",
+                        batchSize, ORDER_LINES, (double) statements / calls);
+            }
+            context.close();
+        }
+    }
+
+    /**
+     * 操作日志写入环境
+     */
+    @State(Scope.Benchmark)
+    public static class LogState {
+
+        private ConfigurableApplicationContext context;
+
+        private OperationLogWriter operationLogWriter;
+
+        private OperationLogRepository operationLogRepository;
+
+        private TransactionTemplate transactionTemplate;
+
+        private QueryMetrics queryMetrics;
+
+        private User operator;
+
+        private Warehouse warehouse;
+
+        private long calls;
+
+        private long statements;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = ApplicationBenchmarkSupport.start("insert_log_benchmark");
+            operationLogWriter = context.getBean(OperationLogWriter.class);
+            operationLogRepository = context.getBean(OperationLogRepository.class);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            queryMetrics = context.getBean(QueryMetrics.class);
+            User user = new User();
+            user.setUsername("bench-operator");
+            user.setPassword("{noop}benchmark");
+            user.setEnabled(false);
+            user.setRealName("基准测试");
+            user.setRole(UserRole.ROLE_USER);
+            operator = context.getBean(UserRepository.class).save(user);
+            warehouse = context.getBean(WarehouseRepository.class).save(new Warehouse("BENCH-WH", "基准测试仓库"));
+        }
+
+        List<OperationLog> logs() {
+            List<OperationLog> logs = new ArrayList<>(LOG_ROWS);
+            for (int i = 0; i < LOG_ROWS; i++) {
+                OperationLog log = new OperationLog(operator, "INVENTORY_INBOUND", "基准测试入库 " + i);
+                log.setBusinessType("INBOUND");
+                log.setBusinessNumber(String.format("BENCH%06d", i));
+                log.setWarehouse(warehouse);
+                logs.add(log);
+            }
+            return logs;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (calls > 0) {
+                System.out.printf("%d 条操作日志平均每次 %.1f 条JDBC语句%n", LOG_ROWS, (double) statements / calls);
+            }
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public void inboundOrder(OrderState state) {
+        ApplicationBenchmarkSupport.beginCounting(state.queryMetrics);
+        try {
+            state.inboundOrderService.createInboundOrder(state.request);
+        } finally {
+            state.statements += ApplicationBenchmarkSupport.endCounting(state.queryMetrics);
+            state.calls++;
+        }
+    }
+
+    @Benchmark
+    public void operationLogsJdbcBatch(LogState state) {
+        List<OperationLog> logs = state.logs();
+        ApplicationBenchmarkSupport.beginCounting(state.queryMetrics);
+        try {
+            state.transactionTemplate.executeWithoutResult(status -> state.operationLogWriter.writeInTransaction(logs));
+        } finally {
+            state.statements += ApplicationBenchmarkSupport.endCounting(state.queryMetrics);
+            state.calls++;
+        }
+    }
+
+    @Benchmark
+    public void operationLogsHibernate(LogState state) {
+        List<OperationLog> logs = state.logs();
+        ApplicationBenchmarkSupport.beginCounting(state.queryMetrics);
+        try {
+            state.transactionTemplate.executeWithoutResult(status -> state.operationLogRepository.saveAll(logs));
+        } finally {
+            state.statements += ApplicationBenchmarkSupport.endCounting(state.queryMetrics);
+            state.calls++;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.entity.Inventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 库存实体出入库计算
+ * 入库后出库同样数量，库存数量保持不变，平均成本收敛，每次调用的计算量稳定。
+ * fixedPoint 走定点整数路径；decimal 的成本超出表字段精度（4位小数），走 BigDecimal 回退路径。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+
+    private final BigDecimal quantity = new BigDecimal("12.500");
+
+    private final BigDecimal cost = new BigDecimal("18.7500");
+
+    private final BigDecimal impreciseCost = new BigDecimal("18.750001");
+
+    private Inventory inventory;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkSupport.inventories(1).get(0);
+        inventory.setAverageCost(new BigDecimal("16.2000"));
+    }
+
+    @Benchmark
+    public Inventory fixedPointInboundOutbound() {
+        inventory.inbound(quantity, cost);
+        inventory.outbound(quantity);
+        return inventory;
+    }
+
+    @Benchmark
+    public Inventory decimalInboundOutbound() {
+        inventory.inbound(quantity, impreciseCost);
+        inventory.outbound(quantity);
+        return inventory;
+    }
+
+    @Benchmark
+    public BigDecimal totalValue() {
+        return inventory.getTotalValue();
+    }
+}
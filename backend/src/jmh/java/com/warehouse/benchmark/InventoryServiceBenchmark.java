@@ -0,0 +1,166 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.Inventory;
+import com.warehouse.service.impl.InventoryServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.BeanUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 库存服务中与数据库无关的热点方法：操作日志参数解析、实体到DTO的转换、库存状态计算
+ * 转换和状态计算按一批库存记录测量，结果为单条记录的平均耗时。
+ * 单条记录的映射有三种对照：convertToDTO 为当前实体转换（显式 setter），beanUtilsMapping 为改造前的
+ * BeanUtils.copyProperties 反射复制，projectionMapping 为列表查询使用的构造器投影（由已取出的查询列构造）。
+ * 分配量需加 GC 分析器，看 gc.alloc.rate.norm（字节/次）：
+ * mvn -Pbenchmark verify -Djmh.includes=InventoryServiceBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryServiceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String JSON_PARAMS =
+            "{\"warehouseId\": 3, \"goodsId\": 1024, \"quantity\": 125.500, \"reason\": \"盘点调整\", \"operationType\": \"ADJUST_IN\"}";
+
+    private static final String PLAIN_PARAMS =
+            "warehouseId: 3, goodsId: 1024, quantity: 125.500, reason: 盘点调整, operationType: ADJUST_IN";
+
+    private final MethodHandle extractValue = BenchmarkSupport.privateMethod(InventoryServiceImpl.class,
+            "extractValue", String.class, String.class, String.class);
+
+    private final MethodHandle convertToDTO = BenchmarkSupport.privateMethod(InventoryServiceImpl.class,
+            "convertToDTO", InventoryDTO.class, Inventory.class);
+
+    private final MethodHandle generateInventoryStatus = BenchmarkSupport.privateMethod(InventoryServiceImpl.class,
+            "generateInventoryStatus", InventoryDTO.InventoryStatus.class, Inventory.class);
+
+    private InventoryServiceImpl inventoryService;
+
+    private List<Inventory> inventories;
+
+    /**
+     * 投影查询每行取出的列，顺序与 InventoryRepository 中的构造器表达式一致
+     */
+    private List<Object[]> projectionRows;
+
+    @Setup
+    public void setUp() {
+        inventoryService = new InventoryServiceImpl();
+        inventories = BenchmarkSupport.inventories(BATCH_SIZE);
+        projectionRows = inventories.stream().map(InventoryServiceBenchmark::projectionRow).toList();
+    }
+
+    @Benchmark
+    public Object extractValueJson() throws Throwable {
+        return extractValue.invoke(inventoryService, JSON_PARAMS, "operationType");
+    }
+
+    @Benchmark
+    public Object extractValuePlain() throws Throwable {
+        return extractValue.invoke(inventoryService, PLAIN_PARAMS, "operationType");
+    }
+
+    @Benchmark
+    public Object extractValueMissing() throws Throwable {
+        return extractValue.invoke(inventoryService, JSON_PARAMS, "batchNumber");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void convertToDTO(Blackhole blackhole) throws Throwable {
+        for (Inventory inventory : inventories) {
+            blackhole.consume(convertToDTO.invoke(inventoryService, inventory));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void generateInventoryStatus(Blackhole blackhole) throws Throwable {
+        for (Inventory inventory : inventories) {
+            blackhole.consume(generateInventoryStatus.invoke(inventoryService, inventory));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void beanUtilsMapping(Blackhole blackhole) {
+        for (Inventory inventory : inventories) {
+            blackhole.consume(copyProperties(inventory));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void projectionMapping(Blackhole blackhole) {
+        for (Object[] row : projectionRows) {
+            blackhole.consume(new InventoryDTO((Long) row[0], (Long) row[1], (String) row[2],
+                    (Long) row[3], (String) row[4], (String) row[5], (String) row[6], (String) row[7],
+                    (String) row[8], (BigDecimal) row[9], (BigDecimal) row[10], (BigDecimal) row[11],
+                    (BigDecimal) row[12], (LocalDate) row[13], (LocalDate) row[14],
+                    (LocalDateTime) row[15], (LocalDateTime) row[16], (String) row[17], (String) row[18],
+                    (BigDecimal) row[19], (BigDecimal) row[20]));
+        }
+    }
+
+    /**
+     * 改造前的转换方式：反射复制同名属性，再逐个取关联对象
+     */
+    private static InventoryDTO copyProperties(Inventory inventory) {
+        InventoryDTO dto = new InventoryDTO();
+        BeanUtils.copyProperties(inventory, dto);
+        dto.setCostPrice(inventory.getAverageCost());
+        if (inventory.getWarehouse() != null) {
+            dto.setWarehouseId(inventory.getWarehouse().getId());
+            dto.setWarehouseName(inventory.getWarehouse().getName());
+        }
+        Goods goods = inventory.getGoods();
+        if (goods != null) {
+            dto.setGoodsId(goods.getId());
+            dto.setGoodsCode(goods.getCode());
+            dto.setGoodsName(goods.getName());
+            dto.setGoodsUnit(goods.getUnit());
+            dto.setSpecification(goods.getSpecification());
+            if (goods.getCategory() != null) {
+                dto.setCategoryName(goods.getCategory().getName());
+            }
+            dto.setInventoryStatus(InventoryDTO.InventoryStatus.of(inventory.getQuantity(),
+                    inventory.getLockedQuantity(), goods.getMinStock(), goods.getMaxStock(), inventory.getExpiryDate()));
+        }
+        return dto;
+    }
+
+    private static Object[] projectionRow(Inventory inventory) {
+        Goods goods = inventory.getGoods();
+        return new Object[] {inventory.getId(), inventory.getWarehouse().getId(), inventory.getWarehouse().getName(),
+                goods.getId(), goods.getCode(), goods.getName(), goods.getUnit(), goods.getSpecification(),
+                goods.getCategory() != null ? goods.getCategory().getName() : null,
+                inventory.getQuantity(), inventory.getAvailableQuantity(), inventory.getLockedQuantity(),
+                inventory.getAverageCost(), inventory.getProductionDate(), inventory.getExpiryDate(),
+                inventory.getCreatedTime(), inventory.getUpdatedTime(), inventory.getCreatedBy(), inventory.getUpdatedBy(),
+                goods.getMinStock(), goods.getMaxStock()};
+    }
+}
@@ -0,0 +1,119 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.config.CacheConfig;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.UserRole;
+import com.warehouse.repository.UserRepository;
+import com.warehouse.security.JwtAuthenticationFilter;
+import com.warehouse.security.JwtPrincipalResolver;
+import com.warehouse.security.JwtTokenUtil;
+import com.warehouse.security.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JWT认证过滤器的单次请求开销
+ * 声明模式：主体缓存命中时只做缓存读取和吊销检查；缓存未命中时验签并根据声明构建主体。
+ * 用户状态查询用 Mockito 桩替代（只在用户状态缓存过期时才会查库），缓存配置与 CacheConfig 一致。
+ * 验签路径预热较慢，预热轮次比其他基准测试多。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET =
+            "default-jwt-secret-key-warehouse-inventory-system-2024-very-long-secure-key-for-hmac-sha256-algorithm";
+
+    private JwtAuthenticationFilter filter;
+
+    private Cache principalCache;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+        BenchmarkSupport.setField(jwtTokenUtil, "secret", SECRET);
+        BenchmarkSupport.setField(jwtTokenUtil, "expiration", 86400000L);
+        BenchmarkSupport.setField(jwtTokenUtil, "refreshExpiration", 604800000L);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("admin");
+        user.setRealName("系统管理员");
+        user.setRole(UserRole.WAREHOUSE_ADMIN);
+        Warehouse warehouse = new Warehouse("WH001", "一号仓库");
+        warehouse.setId(1L);
+        user.setWarehouses(Set.of(warehouse));
+        token = jwtTokenUtil.generateTokenWithUserInfo(new UserDetailsServiceImpl.UserPrincipal(user));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        CacheManager cacheManager = new CacheConfig().cacheManager();
+        principalCache = cacheManager.getCache(CacheConfig.JWT_PRINCIPALS);
+
+        JwtPrincipalResolver resolver = new JwtPrincipalResolver();
+        BenchmarkSupport.setField(resolver, "jwtTokenUtil", jwtTokenUtil);
+        BenchmarkSupport.setField(resolver, "userRepository", userRepository);
+        BenchmarkSupport.setField(resolver, "cacheManager", cacheManager);
+        BenchmarkSupport.setField(resolver, "claimsAuthEnabled", true);
+
+        filter = new JwtAuthenticationFilter();
+        BenchmarkSupport.setField(filter, "jwtTokenUtil", jwtTokenUtil);
+        BenchmarkSupport.setField(filter, "jwtPrincipalResolver", resolver);
+    }
+
+    @Benchmark
+    public Authentication cachedPrincipal() throws Exception {
+        return filter(token);
+    }
+
+    @Benchmark
+    public Authentication uncachedPrincipal() throws Exception {
+        principalCache.evict(token);
+        return filter(token);
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws Exception {
+        return filter(null);
+    }
+
+    private Authentication filter(String bearerToken) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inventory");
+        if (bearerToken != null) {
+            request.addHeader("Authorization", "Bearer " + bearerToken);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
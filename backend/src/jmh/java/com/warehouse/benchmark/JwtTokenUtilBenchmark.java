@@ -0,0 +1,71 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.security.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 解析与签发，每个请求经过认证过滤器时都会执行校验和取用户名
+ * 密钥、有效期与 application.yml 的默认配置一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenUtilBenchmark {
+
+    private static final String SECRET =
+            "default-jwt-secret-key-warehouse-inventory-system-2024-very-long-secure-key-for-hmac-sha256-algorithm";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    private String token;
+
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        BenchmarkSupport.setField(jwtTokenUtil, "secret", SECRET);
+        BenchmarkSupport.setField(jwtTokenUtil, "expiration", 86400000L);
+        BenchmarkSupport.setField(jwtTokenUtil, "refreshExpiration", 604800000L);
+
+        token = jwtTokenUtil.generateTokenWithUserInfo("admin", 1L, "ADMIN", List.of(1L, 2L, 3L));
+        // 篡改签名的最后一个字符，校验失败路径
+        char last = token.charAt(token.length() - 1);
+        tamperedToken = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Boolean validateTamperedToken() {
+        return jwtTokenUtil.validateToken(tamperedToken);
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return jwtTokenUtil.getUsernameFromToken(token);
+    }
+
+    @Benchmark
+    public String generateTokenWithUserInfo() {
+        return jwtTokenUtil.generateTokenWithUserInfo("admin", 1L, "ADMIN", List.of(1L, 2L, 3L));
+    }
+}
@@ -0,0 +1,76 @@
+package com.warehouse.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 堆内存峰值监控
+ * 监听每次GC的通知，记录GC后堆的已用内存（即仍存活的对象）的最大值。
+ * 只看GC前的已用内存会把尚未回收的垃圾算进去，数值随年轻代大小变化；GC后的存活量才能反映导出过程实际持有的数据。
+ */
+final class PeakHeapMonitor {
+
+    private static final Set<String> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .map(pool -> pool.getName())
+            .collect(Collectors.toSet());
+
+    private final AtomicLong peakBytes = new AtomicLong();
+
+    private PeakHeapMonitor() {
+    }
+
+    /**
+     * 创建监控并注册到所有垃圾收集器
+     */
+    static PeakHeapMonitor start() {
+        PeakHeapMonitor monitor = new PeakHeapMonitor();
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                monitor.record(info.getGcInfo().getMemoryUsageAfterGc());
+            }
+        };
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+        return monitor;
+    }
+
+    /**
+     * 开始新的统计区间：先做一次完整GC，以当前存活量为起点
+     */
+    void reset() {
+        System.gc();
+        peakBytes.set(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * 统计区间内GC后存活量的最大值（MB）
+     */
+    long peakMegabytes() {
+        return peakBytes.get() / (1024 * 1024);
+    }
+
+    private void record(Map<String, MemoryUsage> usageAfterGc) {
+        long used = 0;
+        for (Map.Entry<String, MemoryUsage> entry : usageAfterGc.entrySet()) {
+            if (HEAP_POOLS.contains(entry.getKey())) {
+                used += entry.getValue().getUsed();
+            }
+        }
+        peakBytes.accumulateAndGet(used, Math::max);
+    }
+}
@@ -0,0 +1,100 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.config.QueryMetrics;
+import com.warehouse.service.ReportsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 报表趋势与业务汇总
+ * 用 dataset 配置文件生成一年的单据数据（含每日业务统计），测量最近 days 天的趋势数据和业务汇总，
+ * 分别统计所有仓库和单个仓库；结束时输出每次调用的JDBC语句数（数据库往返次数）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportEngineBenchmark {
+
+    @Param({"30", "90", "365"})
+    private int days;
+
+    private ConfigurableApplicationContext context;
+
+    private ReportsService reportsService;
+
+    private QueryMetrics queryMetrics;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private int statements;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationBenchmarkSupport.start("report_benchmark",
+                "--spring.profiles.active=dataset",
+                "--warehouse.dataset.goods=2000",
+                "--warehouse.dataset.years=1");
+        reportsService = context.getBean(ReportsService.class);
+        queryMetrics = context.getBean(QueryMetrics.class);
+        endDate = LocalDate.now();
+        startDate = endDate.minusDays(days - 1);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> trendData() {
+        ApplicationBenchmarkSupport.beginCounting(queryMetrics);
+        try {
+            return reportsService.getTrendData(startDate, endDate, "daily", null);
+        } finally {
+            statements = ApplicationBenchmarkSupport.endCounting(queryMetrics);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> businessSummary() {
+        ApplicationBenchmarkSupport.beginCounting(queryMetrics);
+        try {
+            return reportsService.getBusinessSummary(startDate, endDate, null);
+        } finally {
+            statements = ApplicationBenchmarkSupport.endCounting(queryMetrics);
+        }
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> warehouseBusinessSummary() {
+        ApplicationBenchmarkSupport.beginCounting(queryMetrics);
+        try {
+            return reportsService.getBusinessSummary(startDate, endDate, 1L);
+        } finally {
+            statements = ApplicationBenchmarkSupport.endCounting(queryMetrics);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%d 天报表每次调用 %d 条JDBC语句%n", days, statements);
+        context.close();
+    }
+}
@@ -0,0 +1,133 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.config.QueryMetrics;
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.dto.TransferOrderDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.ApprovalStatus;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.service.InventoryService;
+import com.warehouse.service.TransferOrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调拨单执行
+ * 两个仓库各有 lines 个货物的充足库存，每次调用前新建并审批一张 lines 行的调拨单（不计时），
+ * 测量 executeTransferOrder：按仓库ID顺序锁定两侧库存、批量出入库、写统计和自动生成出入库单。
+ * 调拨方向每次交替，库存不会耗尽；结束时输出平均每次执行的JDBC语句数。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferExecutionBenchmark {
+
+    @Param({"300"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+
+    private TransferOrderService transferOrderService;
+
+    private QueryMetrics queryMetrics;
+
+    private Long firstWarehouseId;
+
+    private Long secondWarehouseId;
+
+    private List<Goods> goods;
+
+    private boolean reverse;
+
+    private Long orderId;
+
+    private long executions;
+
+    private long statements;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ApplicationBenchmarkSupport.start("transfer_benchmark");
+        transferOrderService = context.getBean(TransferOrderService.class);
+        queryMetrics = context.getBean(QueryMetrics.class);
+        ApplicationBenchmarkSupport.runAsAdmin();
+
+        WarehouseRepository warehouseRepository = context.getBean(WarehouseRepository.class);
+        firstWarehouseId = warehouseRepository.save(new Warehouse("BENCH-WH1", "基准测试仓库一")).getId();
+        secondWarehouseId = warehouseRepository.save(new Warehouse("BENCH-WH2", "基准测试仓库二")).getId();
+        goods = ApplicationBenchmarkSupport.createGoods(context, "TRF", lines);
+
+        List<InventoryDTO.StockMovement> movements = new ArrayList<>(lines);
+        for (Goods item : goods) {
+            movements.add(new InventoryDTO.StockMovement(item.getId(), BigDecimal.valueOf(1_000_000),
+                    BigDecimal.TEN, null, null));
+        }
+        InventoryService inventoryService = context.getBean(InventoryService.class);
+        inventoryService.batchInbound(firstWarehouseId, movements, "INBOUND", "BENCH-INIT-1");
+        inventoryService.batchInbound(secondWarehouseId, movements, "INBOUND", "BENCH-INIT-2");
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareOrder() {
+        TransferOrderDTO.CreateRequest request = new TransferOrderDTO.CreateRequest();
+        request.setSourceWarehouseId(reverse ? secondWarehouseId : firstWarehouseId);
+        request.setTargetWarehouseId(reverse ? firstWarehouseId : secondWarehouseId);
+        request.setPlannedDate(LocalDate.now());
+        List<TransferOrderDTO.TransferOrderDetailDTO> details = new ArrayList<>(lines);
+        for (int i = 0; i < goods.size(); i++) {
+            TransferOrderDTO.TransferOrderDetailDTO detail = new TransferOrderDTO.TransferOrderDetailDTO();
+            detail.setGoodsId(goods.get(i).getId());
+            detail.setQuantity(BigDecimal.valueOf(i % 20 + 1));
+            detail.setUnitPrice(BigDecimal.TEN);
+            details.add(detail);
+        }
+        request.setDetails(details);
+        reverse = !reverse;
+
+        orderId = transferOrderService.createTransferOrder(request).getId();
+        TransferOrderDTO.ApprovalRequest approval = new TransferOrderDTO.ApprovalRequest();
+        approval.setStatus(ApprovalStatus.APPROVED);
+        transferOrderService.approveTransferOrder(orderId, approval);
+    }
+
+    @Benchmark
+    public void executeTransferOrder() {
+        ApplicationBenchmarkSupport.beginCounting(queryMetrics);
+        try {
+            transferOrderService.executeTransferOrder(orderId);
+        } finally {
+            statements += ApplicationBenchmarkSupport.endCounting(queryMetrics);
+            executions++;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (executions > 0) {
+            System.out.printf("%d 行调拨单平均每次执行 %.1f 条JDBC语句%n", lines, (double) statements / executions);
+        }
+        context.close();
+    }
+}
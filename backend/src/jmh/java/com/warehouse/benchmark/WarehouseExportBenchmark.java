@@ -0,0 +1,69 @@
+package com.warehouse.benchmark;
+
+import com.warehouse.entity.Warehouse;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.service.impl.WarehouseServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 仓库Excel导出
+ * XSSFWorkbook 全量内存写入并自动列宽，作为流式导出（ExcelExportBenchmark）的对照；仓储层用 Mockito 桩替代。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class WarehouseExportBenchmark {
+
+    @Param({"1000", "10000"})
+    private int rows;
+
+    private WarehouseServiceImpl warehouseService;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Warehouse> warehouses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Warehouse warehouse = new Warehouse(String.format("WH%05d", i), "仓库" + i);
+            warehouse.setId((long) i + 1);
+            warehouse.setAddress("工业园区" + (i % 30) + "号");
+            warehouse.setContactPerson("负责人" + (i % 10));
+            warehouse.setContactPhone("1380000" + String.format("%04d", i % 10000));
+            warehouse.setEnabled(i % 10 != 0);
+            warehouse.setCreatedTime(time);
+            warehouses.add(warehouse);
+        }
+        warehouseService = new WarehouseServiceImpl();
+        WarehouseRepository warehouseRepository = mock(WarehouseRepository.class);
+        when(warehouseRepository.findByKeyword(any(), any())).thenReturn(new PageImpl<>(warehouses));
+        BenchmarkSupport.setField(warehouseService, "warehouseRepository", warehouseRepository);
+    }
+
+    @Benchmark
+    public byte[] exportWarehouses() {
+        return warehouseService.exportWarehousesToExcel(null, null);
+    }
+}
@@ -4,100 +4,68 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 /**
  * 缓存配置
+ * 每个缓存名称单独配置过期时间和容量，并开启统计（由 Actuator 自动注册到 Micrometer，指标名 cache.gets 等）。
+ * 缓存管理器包装为事务感知的代理，清除操作在事务提交后执行，避免提交前被并发读请求回填旧数据。
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final String DASHBOARD_STATS = "dashboard-stats";
+    public static final String DASHBOARD_ALERTS = "dashboard-alerts";
+    public static final String DASHBOARD_TODOS = "dashboard-todos";
+    public static final String USER_PERMISSIONS = "user-permissions";
+    public static final String USER_WAREHOUSES = "user-warehouses";
+    public static final String GOODS_CATEGORIES = "goods-categories";
+    public static final String WAREHOUSES = "warehouses";
+    public static final String INVENTORY_STATS = "inventory-stats";
+    public static final String BUSINESS_TREND = "business-trend";
+    public static final String JWT_PRINCIPALS = "jwt-principals";
+    public static final String USER_TOKEN_STATES = "user-token-states";
+
     /**
      * 配置缓存管理器
      */
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        
-        // 设置默认缓存配置
+
+        // 未预定义的缓存名称使用默认配置
         cacheManager.setCaffeine(Caffeine.newBuilder()
             .maximumSize(1000)
             .expireAfterWrite(30, TimeUnit.MINUTES)
             .recordStats());
-            
-        // 预定义缓存名称
-        cacheManager.setCacheNames(Arrays.asList(
-            "dashboard-stats",      // 仪表盘统计数据 - 5分钟
-            "dashboard-alerts",     // 告警信息 - 2分钟
-            "dashboard-todos",      // 待办事项 - 5分钟
-            "user-permissions",     // 用户权限 - 30分钟
-            "user-warehouses",      // 用户仓库 - 30分钟
-            "goods-categories",     // 货物分类 - 1小时
-            "warehouses",           // 仓库列表 - 1小时
-            "inventory-stats",      // 库存统计 - 10分钟
-            "business-trend"        // 业务趋势 - 15分钟
-        ));
-        
-        return cacheManager;
-    }
 
-    /**
-     * 仪表盘统计数据缓存 - 5分钟过期
-     */
-    @Bean("dashboardStatsCache")
-    public Caffeine<Object, Object> dashboardStatsCache() {
-        return Caffeine.newBuilder()
-            .maximumSize(100)
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .recordStats();
-    }
+        // 预定义缓存
+        registerCache(cacheManager, DASHBOARD_STATS, 100, 5, TimeUnit.MINUTES);     // 仪表盘统计数据 - 5分钟
+        registerCache(cacheManager, DASHBOARD_ALERTS, 100, 2, TimeUnit.MINUTES);    // 告警信息 - 2分钟
+        registerCache(cacheManager, DASHBOARD_TODOS, 100, 5, TimeUnit.MINUTES);     // 待办事项 - 5分钟
+        registerCache(cacheManager, USER_PERMISSIONS, 500, 30, TimeUnit.MINUTES);   // 用户权限 - 30分钟
+        registerCache(cacheManager, USER_WAREHOUSES, 500, 30, TimeUnit.MINUTES);    // 用户仓库 - 30分钟
+        registerCache(cacheManager, GOODS_CATEGORIES, 200, 1, TimeUnit.HOURS);      // 货物分类 - 1小时
+        registerCache(cacheManager, WAREHOUSES, 200, 1, TimeUnit.HOURS);            // 仓库列表 - 1小时
+        registerCache(cacheManager, INVENTORY_STATS, 100, 10, TimeUnit.MINUTES);    // 库存统计 - 10分钟
+        registerCache(cacheManager, BUSINESS_TREND, 50, 15, TimeUnit.MINUTES);      // 业务趋势 - 15分钟
+        registerCache(cacheManager, JWT_PRINCIPALS, 10000, 5, TimeUnit.MINUTES);    // 令牌解析出的用户主体 - 5分钟
+        registerCache(cacheManager, USER_TOKEN_STATES, 2000, 1, TimeUnit.MINUTES);  // 用户令牌状态（吊销检查） - 1分钟
 
-    /**
-     * 告警信息缓存 - 2分钟过期
-     */
-    @Bean("dashboardAlertsCache")
-    public Caffeine<Object, Object> dashboardAlertsCache() {
-        return Caffeine.newBuilder()
-            .maximumSize(100)
-            .expireAfterWrite(2, TimeUnit.MINUTES)
-            .recordStats();
+        return new TransactionAwareCacheManagerProxy(cacheManager);
     }
 
-    /**
-     * 用户权限缓存 - 30分钟过期
-     */
-    @Bean("userPermissionsCache")
-    public Caffeine<Object, Object> userPermissionsCache() {
-        return Caffeine.newBuilder()
-            .maximumSize(500)
-            .expireAfterWrite(30, TimeUnit.MINUTES)
-            .recordStats();
-    }
-
-    /**
-     * 基础数据缓存 - 1小时过期
-     */
-    @Bean("basicDataCache")
-    public Caffeine<Object, Object> basicDataCache() {
-        return Caffeine.newBuilder()
-            .maximumSize(200)
-            .expireAfterWrite(1, TimeUnit.HOURS)
-            .recordStats();
-    }
-
-    /**
-     * 业务趋势缓存 - 15分钟过期
-     */
-    @Bean("businessTrendCache")
-    public Caffeine<Object, Object> businessTrendCache() {
-        return Caffeine.newBuilder()
-            .maximumSize(50)
-            .expireAfterWrite(15, TimeUnit.MINUTES)
-            .recordStats();
+    private void registerCache(CaffeineCacheManager cacheManager, String name,
+                               long maximumSize, long duration, TimeUnit unit) {
+        cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(duration, unit)
+            .recordStats()
+            .build());
     }
 }
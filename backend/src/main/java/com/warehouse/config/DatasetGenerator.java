@@ -0,0 +1,1034 @@
+package com.warehouse.config;
+
+import com.warehouse.repository.InventoryMovementRepository;
+import com.warehouse.repository.OperationLogRepository;
+import com.warehouse.service.DailyBusinessStatsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 压测数据集生成器（dataset 配置文件）
+ * 按配置规模生成货物分类、货物、仓库和库存记录，再按天模拟若干年的入库、出库、调拨单据：
+ * 单据明细、库存流水和操作日志按内存中模拟的库存数量和移动加权平均成本生成，用 JDBC 批量插入，
+ * 最后一次性写回库存并重建每日业务统计。数据按随机种子生成，同样的配置得到同样的数据集。
+ * 在其他启动预热（货物搜索索引、库存投影、库存预警）之前执行，预热直接加载生成的数据。
+ * 用法：--spring.profiles.active=dev,dataset --warehouse.dataset.goods=80000；已生成过数据集时跳过。
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final String GOODS_CODE_PREFIX = "SKU";
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String[] CATEGORY_NAMES = {
+        "电子元器件", "办公用品", "五金工具", "劳保用品", "包装材料", "清洁用品", "电工电料", "化工原料",
+        "机械配件", "食品饮料", "医疗器械", "实验耗材", "汽车配件", "家居日用", "建筑材料", "仪器仪表",
+        "网络设备", "照明灯具", "消防器材", "文具耗材"
+    };
+
+    /**
+     * 有保质期的分类
+     */
+    private static final Set<String> PERISHABLE_CATEGORIES = Set.of("化工原料", "食品饮料", "医疗器械", "实验耗材");
+
+    private static final String[] GOODS_NOUNS = {
+        "螺丝", "轴承", "电阻", "电容", "手套", "口罩", "胶带", "纸箱", "扳手", "钻头", "电缆", "开关",
+        "插座", "灯管", "清洁剂", "打印纸", "签字笔", "文件夹", "试剂瓶", "滤芯", "传感器", "继电器",
+        "保险丝", "密封圈", "润滑油", "标签纸", "安全帽", "工作服", "电池", "硒鼓"
+    };
+
+    private static final String[] BRANDS = {
+        "得力", "晨光", "正泰", "德力西", "公牛", "世达", "史丹利", "欧普", "霍尼韦尔", "西门子", "施耐德", "飞利浦"
+    };
+
+    private static final String[] UNITS = {"个", "件", "箱", "包", "盒", "卷", "米", "瓶", "套", "支"};
+
+    private static final String[] CITIES = {
+        "北京", "上海", "广州", "深圳", "成都", "武汉", "西安", "杭州", "南京", "天津", "重庆", "苏州", "郑州", "长沙"
+    };
+
+    private static final String CATEGORY_INSERT_SQL =
+            "INSERT INTO goods_categories (code, name, description, level, sort_order, enabled, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:code, :name, :description, 1, :sortOrder, true, :createdBy, :time, :time, false, 0)";
+
+    private static final String GOODS_INSERT_SQL =
+            "INSERT INTO goods (code, name, category_id, unit, specification, model, brand, barcode, " +
+            "min_stock, max_stock, safety_stock, shelf_life_days, enabled, created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:code, :name, :categoryId, :unit, :specification, :model, :brand, :barcode, " +
+            ":minStock, :maxStock, :safetyStock, :shelfLifeDays, true, :createdBy, :time, :time, false, 0)";
+
+    private static final String WAREHOUSE_INSERT_SQL =
+            "INSERT INTO warehouses (code, name, address, contact_person, contact_phone, area, capacity, enabled, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:code, :name, :address, :contactPerson, :contactPhone, :area, :capacity, true, " +
+            ":createdBy, :time, :time, false, 0)";
+
+    private static final String INVENTORY_INSERT_SQL =
+            "INSERT INTO inventories (warehouse_id, goods_id, quantity, available_quantity, locked_quantity, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:warehouseId, :goodsId, 0, 0, 0, :createdBy, :time, :time, false, 0)";
+
+    private static final String INVENTORY_UPDATE_SQL =
+            "UPDATE inventories SET quantity = :quantity, available_quantity = :quantity, average_cost = :averageCost, " +
+            "latest_cost = :latestCost, last_inbound_date = :lastInboundDate, last_outbound_date = :lastOutboundDate, " +
+            "production_date = :productionDate, expiry_date = :expiryDate, updated_time = :updatedTime WHERE id = :id";
+
+    private static final String INBOUND_ORDER_INSERT_SQL =
+            "INSERT INTO inbound_orders (id, order_number, warehouse_id, business_type, status, planned_date, actual_date, " +
+            "operation_time, total_quantity, total_amount, reference_number, remark, applicant_id, approver_id, approval_time, " +
+            "operator_id, created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderNumber, :warehouseId, :businessType, :status, :plannedDate, :actualDate, " +
+            ":operationTime, :totalQuantity, :totalAmount, :referenceNumber, :remark, :operatorId, :approverId, :operationTime, " +
+            ":executorId, :createdBy, :createdTime, :updatedTime, false, 0)";
+
+    private static final String INBOUND_DETAIL_INSERT_SQL =
+            "INSERT INTO inbound_order_details (id, inbound_order_id, goods_id, quantity, actual_quantity, unit_price, amount, " +
+            "production_date, expiry_date, created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderId, :goodsId, :quantity, :actualQuantity, :unitPrice, :amount, " +
+            ":productionDate, :expiryDate, :createdBy, :time, :time, false, 0)";
+
+    private static final String OUTBOUND_ORDER_INSERT_SQL =
+            "INSERT INTO outbound_orders (id, order_number, warehouse_id, business_type, status, planned_date, actual_date, " +
+            "operation_time, total_quantity, total_amount, recipient_name, reference_number, remark, applicant_id, approver_id, " +
+            "approval_time, operator_id, created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderNumber, :warehouseId, :businessType, :status, :plannedDate, :actualDate, " +
+            ":operationTime, :totalQuantity, :totalAmount, :recipientName, :referenceNumber, :remark, :operatorId, :approverId, " +
+            ":operationTime, :executorId, :createdBy, :createdTime, :updatedTime, false, 0)";
+
+    private static final String OUTBOUND_DETAIL_INSERT_SQL =
+            "INSERT INTO outbound_order_details (id, outbound_order_id, goods_id, quantity, actual_quantity, unit_price, amount, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderId, :goodsId, :quantity, :actualQuantity, :unitPrice, :amount, " +
+            ":createdBy, :time, :time, false, 0)";
+
+    private static final String TRANSFER_ORDER_INSERT_SQL =
+            "INSERT INTO transfer_orders (id, order_number, from_warehouse_id, to_warehouse_id, status, priority, planned_date, " +
+            "actual_date, operation_time, total_quantity, transfer_reason, applicant_id, approver_id, approval_time, operator_id, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderNumber, :fromWarehouseId, :toWarehouseId, :status, :priority, :plannedDate, " +
+            ":actualDate, :operationTime, :totalQuantity, :transferReason, :operatorId, :approverId, :operationTime, :executorId, " +
+            ":createdBy, :createdTime, :updatedTime, false, 0)";
+
+    private static final String TRANSFER_DETAIL_INSERT_SQL =
+            "INSERT INTO transfer_order_details (id, transfer_order_id, goods_id, quantity, actual_quantity, unit_price, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "VALUES (:id, :orderId, :goodsId, :quantity, :actualQuantity, :unitPrice, :createdBy, :time, :time, false, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DailyBusinessStatsService dailyBusinessStatsService;
+
+    private final PooledIdSequenceAligner pooledIdSequenceAligner;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final int warehouseCount;
+
+    private final int categoryCount;
+
+    private final int goodsCount;
+
+    private final double stockCoverage;
+
+    private final int years;
+
+    private final int inboundPerDay;
+
+    private final int outboundPerDay;
+
+    private final int transfersPerDay;
+
+    private final int maxLines;
+
+    private final int batchSize;
+
+    private final long seed;
+
+    public DatasetGenerator(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            DailyBusinessStatsService dailyBusinessStatsService,
+                            PooledIdSequenceAligner pooledIdSequenceAligner,
+                            EntityManagerFactory entityManagerFactory, CacheManager cacheManager,
+                            @Value("${warehouse.dataset.warehouses:10}") int warehouseCount,
+                            @Value("${warehouse.dataset.categories:20}") int categoryCount,
+                            @Value("${warehouse.dataset.goods:10000}") int goodsCount,
+                            @Value("${warehouse.dataset.stock-coverage:0.6}") double stockCoverage,
+                            @Value("${warehouse.dataset.years:2}") int years,
+                            @Value("${warehouse.dataset.inbound-per-day:20}") int inboundPerDay,
+                            @Value("${warehouse.dataset.outbound-per-day:30}") int outboundPerDay,
+                            @Value("${warehouse.dataset.transfers-per-day:4}") int transfersPerDay,
+                            @Value("${warehouse.dataset.max-lines:10}") int maxLines,
+                            @Value("${warehouse.dataset.batch-size:1000}") int batchSize,
+                            @Value("${warehouse.dataset.seed:20240101}") long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dailyBusinessStatsService = dailyBusinessStatsService;
+        this.pooledIdSequenceAligner = pooledIdSequenceAligner;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.warehouseCount = warehouseCount;
+        this.categoryCount = categoryCount;
+        this.goodsCount = goodsCount;
+        this.stockCoverage = stockCoverage;
+        this.years = years;
+        this.inboundPerDay = inboundPerDay;
+        this.outboundPerDay = outboundPerDay;
+        this.transfersPerDay = transfersPerDay;
+        this.maxLines = maxLines;
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    /**
+     * 启动完成后最先执行，生成完成后其他预热才开始
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void generate() {
+        Long generatedGoods = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM goods WHERE code LIKE :prefix",
+                new MapSqlParameterSource("prefix", GOODS_CODE_PREFIX + "%"), Long.class);
+        if (generatedGoods != null && generatedGoods > 0) {
+            logger.info("已存在生成的数据集（{}条{}开头的货物），跳过生成", generatedGoods, GOODS_CODE_PREFIX);
+            return;
+        }
+        List<Map<String, Object>> admins = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT id, username, real_name FROM users WHERE role = 'ROLE_ADMIN' AND deleted = false ORDER BY id");
+        if (admins.isEmpty()) {
+            logger.warn("没有可用的管理员用户作为单据操作人，跳过生成数据集");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        logger.info("开始生成数据集: {}个仓库，{}个分类，{}个货物，{}年单据（每天入库{}、出库{}、调拨{}单）",
+                warehouseCount, categoryCount, goodsCount, years, inboundPerDay, outboundPerDay, transfersPerDay);
+
+        Run run = new Run(admins.get(0));
+        run.createCategories();
+        run.createGoods();
+        run.createWarehouses();
+        run.createInventories();
+        run.simulateOrders();
+        run.writeInventories();
+
+        pooledIdSequenceAligner.alignAll();
+        dailyBusinessStatsService.rebuild(run.firstDay, run.lastDay);
+        evictCaches();
+
+        logger.info("数据集生成完成，耗时{}s: 入库单{}，出库单{}，调拨单{}，单据明细{}，库存流水{}，操作日志{}",
+                (System.currentTimeMillis() - start) / 1000, run.inboundOrders, run.outboundOrders, run.transferOrders,
+                run.detailRows, run.movementRows, run.logRows);
+    }
+
+    /**
+     * 数据绕过 JPA 写入，清空启动过程中可能已缓存的实体、查询结果和业务缓存
+     */
+    private void evictCaches() {
+        sessionFactory.getCache().evictAllRegions();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * 一次生成过程的状态
+     */
+    private class Run {
+
+        private final SplittableRandom random = new SplittableRandom(seed);
+
+        private final long operatorId;
+
+        private final String operatorUsername;
+
+        private final String operatorName;
+
+        private final LocalDate firstDay;
+
+        private final LocalDate lastDay;
+
+        private final LocalDateTime createdTime;
+
+        private long[] categoryIds;
+
+        private boolean[] perishableCategories;
+
+        private long[] goodsIds;
+
+        private String[] goodsNames;
+
+        private BigDecimal[] goodsPrices;
+
+        private int[] goodsShelfLifeDays;
+
+        private long[] warehouseIds;
+
+        private String[] warehouseNames;
+
+        /**
+         * 每个仓库经营的货物
+         */
+        private List<List<Stock>> warehouseStocks;
+
+        /**
+         * 仓库ID << 32 | 货物ID → 库存
+         */
+        private final Map<Long, Stock> stocks = new HashMap<>();
+
+        private final Set<String> existingOrderNumbers = new HashSet<>();
+
+        private final Map<String, Integer> dailyNumbers = new HashMap<>();
+
+        private final List<PendingOrder> pendingInbound = new ArrayList<>();
+
+        private final List<PendingOrder> pendingOutbound = new ArrayList<>();
+
+        private final List<PendingOrder> pendingTransfers = new ArrayList<>();
+
+        private final List<MapSqlParameterSource> pendingMovements = new ArrayList<>();
+
+        private final List<MapSqlParameterSource> pendingLogs = new ArrayList<>();
+
+        private long nextInboundDetailId;
+
+        private long nextOutboundDetailId;
+
+        private long nextTransferDetailId;
+
+        private int pendingDetails;
+
+        private long inboundOrders;
+
+        private long outboundOrders;
+
+        private long transferOrders;
+
+        private long detailRows;
+
+        private long movementRows;
+
+        private long logRows;
+
+        Run(Map<String, Object> operator) {
+            this.operatorId = ((Number) operator.get("id")).longValue();
+            this.operatorUsername = (String) operator.get("username");
+            this.operatorName = (String) operator.get("real_name");
+            this.lastDay = LocalDate.now().minusDays(1);
+            this.firstDay = lastDay.minusYears(years).plusDays(1);
+            this.createdTime = firstDay.minusDays(1).atTime(9, 0);
+        }
+
+        void createCategories() {
+            List<MapSqlParameterSource> rows = new ArrayList<>(categoryCount);
+            for (int i = 0; i < categoryCount; i++) {
+                String name = CATEGORY_NAMES[i % CATEGORY_NAMES.length];
+                if (i >= CATEGORY_NAMES.length) {
+                    name += (i / CATEGORY_NAMES.length + 1);
+                }
+                rows.add(new MapSqlParameterSource()
+                        .addValue("code", String.format("DSC%03d", i + 1))
+                        .addValue("name", name)
+                        .addValue("description", name + "（生成数据）")
+                        .addValue("sortOrder", i + 1)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", createdTime));
+            }
+            insert(CATEGORY_INSERT_SQL, rows);
+
+            Map<String, Long> ids = loadIds("SELECT id, code AS k FROM goods_categories WHERE code LIKE 'DSC%'");
+            categoryIds = new long[categoryCount];
+            perishableCategories = new boolean[categoryCount];
+            for (int i = 0; i < categoryCount; i++) {
+                categoryIds[i] = ids.get(String.format("DSC%03d", i + 1));
+                perishableCategories[i] = PERISHABLE_CATEGORIES.contains(CATEGORY_NAMES[i % CATEGORY_NAMES.length]);
+            }
+        }
+
+        void createGoods() {
+            goodsNames = new String[goodsCount];
+            goodsPrices = new BigDecimal[goodsCount];
+            goodsShelfLifeDays = new int[goodsCount];
+            List<MapSqlParameterSource> rows = new ArrayList<>(batchSize);
+            for (int i = 0; i < goodsCount; i++) {
+                int category = random.nextInt(categoryCount);
+                String brand = BRANDS[random.nextInt(BRANDS.length)];
+                String noun = GOODS_NOUNS[random.nextInt(GOODS_NOUNS.length)];
+                // 价格集中在几元到几百元，少量高价货物
+                BigDecimal price = BigDecimal.valueOf(Math.exp(random.nextDouble(0.5, 7.0))).setScale(2, RoundingMode.HALF_UP);
+                int minStock = 10 * random.nextInt(1, 10);
+
+                goodsNames[i] = brand + noun;
+                goodsPrices[i] = price;
+                goodsShelfLifeDays[i] = perishableCategories[category] ? 30 * random.nextInt(6, 25) : 0;
+                rows.add(new MapSqlParameterSource()
+                        .addValue("code", goodsCode(i))
+                        .addValue("name", goodsNames[i])
+                        .addValue("categoryId", categoryIds[category])
+                        .addValue("unit", UNITS[random.nextInt(UNITS.length)])
+                        .addValue("specification", String.format("规格-%05d", i + 1))
+                        .addValue("model", String.format("%c%03d", (char) ('A' + random.nextInt(26)), random.nextInt(1000)))
+                        .addValue("brand", brand)
+                        .addValue("barcode", String.valueOf(6900000000000L + i))
+                        .addValue("minStock", BigDecimal.valueOf(minStock))
+                        .addValue("maxStock", BigDecimal.valueOf(minStock * 50L))
+                        .addValue("safetyStock", BigDecimal.valueOf(minStock * 2L))
+                        .addValue("shelfLifeDays", goodsShelfLifeDays[i] > 0 ? goodsShelfLifeDays[i] : null)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", createdTime));
+                if (rows.size() >= batchSize) {
+                    insert(GOODS_INSERT_SQL, rows);
+                    rows.clear();
+                }
+            }
+            insert(GOODS_INSERT_SQL, rows);
+
+            Map<String, Long> ids = loadIds("SELECT id, code AS k FROM goods WHERE code LIKE '" + GOODS_CODE_PREFIX + "%'");
+            goodsIds = new long[goodsCount];
+            for (int i = 0; i < goodsCount; i++) {
+                goodsIds[i] = ids.get(goodsCode(i));
+            }
+            logger.info("已生成{}个分类、{}个货物", categoryCount, goodsCount);
+        }
+
+        /**
+         * 已有的仓库（如默认仓库）计入仓库数，只补足不足的部分
+         */
+        void createWarehouses() {
+            Map<String, Long> existing = loadIds("SELECT id, code AS k FROM warehouses WHERE deleted = false");
+            List<MapSqlParameterSource> rows = new ArrayList<>();
+            for (int i = 1; existing.size() + rows.size() < warehouseCount; i++) {
+                String code = String.format("WH%03d", i);
+                if (existing.containsKey(code)) {
+                    continue;
+                }
+                String city = CITIES[i % CITIES.length];
+                rows.add(new MapSqlParameterSource()
+                        .addValue("code", code)
+                        .addValue("name", String.format("%s%d号仓", city, i / CITIES.length + 1))
+                        .addValue("address", city + "市物流园区" + (i % 20 + 1) + "号")
+                        .addValue("contactPerson", "仓管员" + i)
+                        .addValue("contactPhone", String.format("138%08d", i))
+                        .addValue("area", 500.0 + 100 * random.nextInt(50))
+                        .addValue("capacity", 2000.0 + 500 * random.nextInt(40))
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", createdTime));
+            }
+            insert(WAREHOUSE_INSERT_SQL, rows);
+
+            List<Map<String, Object>> warehouses = jdbcTemplate.getJdbcTemplate().queryForList(
+                    "SELECT id, name FROM warehouses WHERE deleted = false AND enabled = true ORDER BY id");
+            int count = Math.min(warehouseCount, warehouses.size());
+            warehouseIds = new long[count];
+            warehouseNames = new String[count];
+            for (int i = 0; i < count; i++) {
+                warehouseIds[i] = ((Number) warehouses.get(i).get("id")).longValue();
+                warehouseNames[i] = (String) warehouses.get(i).get("name");
+            }
+        }
+
+        /**
+         * 每个仓库按经营比例选取货物建立零库存记录，模拟过程只在这些记录上发生
+         */
+        void createInventories() {
+            warehouseStocks = new ArrayList<>(warehouseIds.length);
+            List<MapSqlParameterSource> rows = new ArrayList<>(batchSize);
+            for (int w = 0; w < warehouseIds.length; w++) {
+                List<Stock> list = new ArrayList<>();
+                for (int g = 0; g < goodsCount; g++) {
+                    if (random.nextDouble() >= stockCoverage) {
+                        continue;
+                    }
+                    Stock stock = new Stock(w, g);
+                    list.add(stock);
+                    stocks.put(key(warehouseIds[w], goodsIds[g]), stock);
+                    rows.add(new MapSqlParameterSource()
+                            .addValue("warehouseId", warehouseIds[w])
+                            .addValue("goodsId", goodsIds[g])
+                            .addValue("createdBy", operatorUsername)
+                            .addValue("time", createdTime));
+                    if (rows.size() >= batchSize) {
+                        insert(INVENTORY_INSERT_SQL, rows);
+                        rows.clear();
+                    }
+                }
+                warehouseStocks.add(list);
+            }
+            insert(INVENTORY_INSERT_SQL, rows);
+
+            jdbcTemplate.getJdbcTemplate().query("SELECT id, warehouse_id, goods_id FROM inventories WHERE deleted = false", rs -> {
+                Stock stock = stocks.get(key(rs.getLong("warehouse_id"), rs.getLong("goods_id")));
+                if (stock != null) {
+                    stock.id = rs.getLong("id");
+                }
+            });
+            logger.info("已生成{}个仓库、{}条库存记录", warehouseIds.length, stocks.size());
+        }
+
+        /**
+         * 逐日模拟单据：工作日满负荷、周末约四成，每天在基准量上下浮动；最后一天部分单据保持待审批
+         */
+        void simulateOrders() {
+            for (String table : List.of("inbound_orders", "outbound_orders", "transfer_orders")) {
+                existingOrderNumbers.addAll(jdbcTemplate.getJdbcTemplate().queryForList(
+                        "SELECT order_number FROM " + table, String.class));
+            }
+            nextInboundDetailId = nextId("inbound_order_details");
+            nextOutboundDetailId = nextId("outbound_order_details");
+            nextTransferDetailId = nextId("transfer_order_details");
+
+            for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                dailyNumbers.clear();
+                double factor = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY ? 0.4 : 1.0;
+                boolean pendingDay = day.equals(lastDay);
+
+                addLoginLog(day);
+                for (int i = dailyCount(inboundPerDay, factor); i > 0; i--) {
+                    inbound(day, pendingDay && random.nextInt(10) < 3);
+                }
+                for (int i = dailyCount(outboundPerDay, factor); i > 0; i--) {
+                    outbound(day, pendingDay && random.nextInt(10) < 3);
+                }
+                for (int i = dailyCount(transfersPerDay, factor); i > 0; i--) {
+                    transfer(day);
+                }
+                if (pendingDetails >= batchSize) {
+                    flush();
+                }
+                if (day.getDayOfMonth() == 1) {
+                    logger.info("单据模拟进度: {}，已生成入库单{}、出库单{}、调拨单{}", day, inboundOrders, outboundOrders, transferOrders);
+                }
+            }
+            flush();
+        }
+
+        void writeInventories() {
+            List<MapSqlParameterSource> rows = new ArrayList<>(batchSize);
+            for (Stock stock : stocks.values()) {
+                if (stock.updatedTime == null) {
+                    continue;
+                }
+                rows.add(new MapSqlParameterSource()
+                        .addValue("id", stock.id)
+                        .addValue("quantity", BigDecimal.valueOf(stock.quantity))
+                        .addValue("averageCost", stock.averageCost)
+                        .addValue("latestCost", stock.latestCost)
+                        .addValue("lastInboundDate", stock.lastInboundDate)
+                        .addValue("lastOutboundDate", stock.lastOutboundDate)
+                        .addValue("productionDate", stock.productionDate)
+                        .addValue("expiryDate", stock.expiryDate)
+                        .addValue("updatedTime", stock.updatedTime));
+                if (rows.size() >= batchSize) {
+                    insert(INVENTORY_UPDATE_SQL, rows);
+                    rows.clear();
+                }
+            }
+            insert(INVENTORY_UPDATE_SQL, rows);
+        }
+
+        private void inbound(LocalDate day, boolean pending) {
+            int w = random.nextInt(warehouseIds.length);
+            List<Stock> candidates = warehouseStocks.get(w);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            int roll = random.nextInt(100);
+            String businessType = roll < 85 ? "PURCHASE_IN" : roll < 95 ? "RETURN_IN" : "OTHER_IN";
+            String orderNumber = nextOrderNumber("IN", day);
+            LocalDateTime created = day.atTime(8, 0).plusMinutes(random.nextInt(600));
+            LocalDateTime executed = created.plusMinutes(random.nextInt(30, 240));
+
+            PendingOrder order = new PendingOrder(orderNumber);
+            BigDecimal totalQuantity = BigDecimal.ZERO;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Stock stock : pickStocks(candidates, false)) {
+                long quantity = 10L * random.nextInt(1, 40);
+                BigDecimal unitPrice = goodsPrices[stock.goods]
+                        .multiply(BigDecimal.valueOf(random.nextDouble(0.9, 1.1))).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal amount = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+                LocalDate productionDate = null;
+                LocalDate expiryDate = null;
+                if (goodsShelfLifeDays[stock.goods] > 0) {
+                    productionDate = day.minusDays(random.nextInt(30));
+                    expiryDate = productionDate.plusDays(goodsShelfLifeDays[stock.goods]);
+                }
+                order.details.add(new MapSqlParameterSource()
+                        .addValue("id", nextInboundDetailId++)
+                        .addValue("goodsId", goodsIds[stock.goods])
+                        .addValue("quantity", BigDecimal.valueOf(quantity))
+                        .addValue("actualQuantity", pending ? null : BigDecimal.valueOf(quantity))
+                        .addValue("unitPrice", unitPrice)
+                        .addValue("amount", amount)
+                        .addValue("productionDate", productionDate)
+                        .addValue("expiryDate", expiryDate)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", created));
+                totalQuantity = totalQuantity.add(BigDecimal.valueOf(quantity));
+                totalAmount = totalAmount.add(amount);
+
+                if (!pending) {
+                    long before = stock.quantity;
+                    stock.inbound(quantity, unitPrice, day, executed);
+                    if (productionDate != null) {
+                        stock.productionDate = productionDate;
+                        stock.expiryDate = expiryDate;
+                    }
+                    addStockChange(stock, "入库", "INBOUND", orderNumber, quantity, before, executed);
+                }
+            }
+            order.header = orderHeader(orderNumber, warehouseIds[w], businessType, day, created, executed, pending,
+                    totalQuantity, totalAmount)
+                    .addValue("referenceNumber", "PO" + orderNumber.substring(2))
+                    .addValue("remark", null);
+            pendingInbound.add(order);
+            pendingDetails += order.details.size();
+            inboundOrders++;
+        }
+
+        private void outbound(LocalDate day, boolean pending) {
+            int w = random.nextInt(warehouseIds.length);
+            List<Stock> candidates = warehouseStocks.get(w);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            List<Stock> lines = pickStocks(candidates, true);
+            if (lines.isEmpty()) {
+                return;
+            }
+            int roll = random.nextInt(100);
+            String businessType = roll < 90 ? "SALE_OUT" : roll < 95 ? "DAMAGE_OUT" : "OTHER_OUT";
+            String orderNumber = nextOrderNumber("OUT", day);
+            LocalDateTime created = day.atTime(8, 0).plusMinutes(random.nextInt(600));
+            LocalDateTime executed = created.plusMinutes(random.nextInt(30, 240));
+
+            PendingOrder order = new PendingOrder(orderNumber);
+            BigDecimal totalQuantity = BigDecimal.ZERO;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Stock stock : lines) {
+                long quantity = 1 + random.nextInt((int) Math.max(1, Math.min(stock.quantity / 3, Integer.MAX_VALUE)));
+                BigDecimal unitPrice = stock.averageCost
+                        .multiply(BigDecimal.valueOf(random.nextDouble(1.2, 1.5))).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal amount = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+                order.details.add(new MapSqlParameterSource()
+                        .addValue("id", nextOutboundDetailId++)
+                        .addValue("goodsId", goodsIds[stock.goods])
+                        .addValue("quantity", BigDecimal.valueOf(quantity))
+                        .addValue("actualQuantity", pending ? null : BigDecimal.valueOf(quantity))
+                        .addValue("unitPrice", unitPrice)
+                        .addValue("amount", amount)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", created));
+                totalQuantity = totalQuantity.add(BigDecimal.valueOf(quantity));
+                totalAmount = totalAmount.add(amount);
+
+                if (!pending) {
+                    long before = stock.quantity;
+                    stock.outbound(quantity, day, executed);
+                    addStockChange(stock, "出库", "OUTBOUND", orderNumber, -quantity, before, executed);
+                }
+            }
+            order.header = orderHeader(orderNumber, warehouseIds[w], businessType, day, created, executed, pending,
+                    totalQuantity, totalAmount)
+                    .addValue("recipientName", "领用部门" + (random.nextInt(20) + 1))
+                    .addValue("referenceNumber", null)
+                    .addValue("remark", null);
+            pendingOutbound.add(order);
+            pendingDetails += order.details.size();
+            outboundOrders++;
+        }
+
+        /**
+         * 调拨只在两个仓库都经营的货物上发生；与执行调拨单一致，同时生成调拨出库单和调拨入库单
+         */
+        private void transfer(LocalDate day) {
+            if (warehouseIds.length < 2) {
+                return;
+            }
+            int from = random.nextInt(warehouseIds.length);
+            int to = (from + random.nextInt(1, warehouseIds.length)) % warehouseIds.length;
+            List<Stock> sources = new ArrayList<>();
+            for (Stock stock : pickStocks(warehouseStocks.get(from), true)) {
+                if (stocks.containsKey(key(warehouseIds[to], goodsIds[stock.goods]))) {
+                    sources.add(stock);
+                }
+            }
+            if (sources.isEmpty()) {
+                return;
+            }
+            String transferNumber = nextOrderNumber("TR", day);
+            String outboundNumber = nextOrderNumber("OUT", day);
+            String inboundNumber = nextOrderNumber("IN", day);
+            LocalDateTime created = day.atTime(8, 0).plusMinutes(random.nextInt(600));
+            LocalDateTime executed = created.plusMinutes(random.nextInt(30, 240));
+
+            PendingOrder transfer = new PendingOrder(transferNumber);
+            PendingOrder outbound = new PendingOrder(outboundNumber);
+            PendingOrder inbound = new PendingOrder(inboundNumber);
+            BigDecimal totalQuantity = BigDecimal.ZERO;
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Stock source : sources) {
+                Stock target = stocks.get(key(warehouseIds[to], goodsIds[source.goods]));
+                long quantity = 1 + random.nextInt((int) Math.max(1, Math.min(source.quantity / 2, Integer.MAX_VALUE)));
+                BigDecimal unitPrice = source.averageCost.setScale(2, RoundingMode.HALF_UP);
+                BigDecimal amount = unitPrice.multiply(BigDecimal.valueOf(quantity)).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal decimalQuantity = BigDecimal.valueOf(quantity);
+                transfer.details.add(new MapSqlParameterSource()
+                        .addValue("id", nextTransferDetailId++)
+                        .addValue("goodsId", goodsIds[source.goods])
+                        .addValue("quantity", decimalQuantity)
+                        .addValue("actualQuantity", decimalQuantity)
+                        .addValue("unitPrice", unitPrice)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", created));
+                outbound.details.add(new MapSqlParameterSource()
+                        .addValue("id", nextOutboundDetailId++)
+                        .addValue("goodsId", goodsIds[source.goods])
+                        .addValue("quantity", decimalQuantity)
+                        .addValue("actualQuantity", decimalQuantity)
+                        .addValue("unitPrice", unitPrice)
+                        .addValue("amount", amount)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", executed));
+                inbound.details.add(new MapSqlParameterSource()
+                        .addValue("id", nextInboundDetailId++)
+                        .addValue("goodsId", goodsIds[source.goods])
+                        .addValue("quantity", decimalQuantity)
+                        .addValue("actualQuantity", decimalQuantity)
+                        .addValue("unitPrice", unitPrice)
+                        .addValue("amount", amount)
+                        .addValue("productionDate", source.productionDate)
+                        .addValue("expiryDate", source.expiryDate)
+                        .addValue("createdBy", operatorUsername)
+                        .addValue("time", executed));
+                totalQuantity = totalQuantity.add(decimalQuantity);
+                totalAmount = totalAmount.add(amount);
+
+                long sourceBefore = source.quantity;
+                source.outbound(quantity, day, executed);
+                addStockChange(source, "出库", "TRANSFER", transferNumber, -quantity, sourceBefore, executed);
+                long targetBefore = target.quantity;
+                target.inbound(quantity, unitPrice, day, executed);
+                if (source.expiryDate != null) {
+                    target.productionDate = source.productionDate;
+                    target.expiryDate = source.expiryDate;
+                }
+                addStockChange(target, "入库", "TRANSFER", transferNumber, quantity, targetBefore, executed);
+            }
+
+            transfer.header = new MapSqlParameterSource()
+                    .addValue("orderNumber", transferNumber)
+                    .addValue("fromWarehouseId", warehouseIds[from])
+                    .addValue("toWarehouseId", warehouseIds[to])
+                    .addValue("status", "EXECUTED")
+                    .addValue("priority", random.nextInt(10) == 0 ? "URGENT" : "NORMAL")
+                    .addValue("plannedDate", day)
+                    .addValue("actualDate", day)
+                    .addValue("operationTime", executed)
+                    .addValue("totalQuantity", totalQuantity)
+                    .addValue("transferReason", "库存调配")
+                    .addValue("operatorId", operatorId)
+                    .addValue("approverId", operatorId)
+                    .addValue("executorId", operatorId)
+                    .addValue("createdBy", operatorUsername)
+                    .addValue("createdTime", created)
+                    .addValue("updatedTime", executed);
+            String remark = "调拨单自动生成 - " + transferNumber;
+            outbound.header = orderHeader(outboundNumber, warehouseIds[from], "TRANSFER_OUT", day, executed, executed, false,
+                    totalQuantity, totalAmount)
+                    .addValue("recipientName", warehouseNames[to])
+                    .addValue("referenceNumber", transferNumber)
+                    .addValue("remark", remark);
+            inbound.header = orderHeader(inboundNumber, warehouseIds[to], "TRANSFER_IN", day, executed, executed, false,
+                    totalQuantity, totalAmount)
+                    .addValue("referenceNumber", transferNumber)
+                    .addValue("remark", remark);
+
+            pendingTransfers.add(transfer);
+            pendingOutbound.add(outbound);
+            pendingInbound.add(inbound);
+            pendingDetails += transfer.details.size() * 3;
+            transferOrders++;
+        }
+
+        /**
+         * 从仓库经营的货物中选取不重复的明细货物，越靠前的货物被选中的概率越高（少数货物占多数业务量）；
+         * 出库只选有库存的货物
+         */
+        private List<Stock> pickStocks(List<Stock> candidates, boolean inStockOnly) {
+            int lines = random.nextInt(1, maxLines + 1);
+            List<Stock> picked = new ArrayList<>(lines);
+            for (int attempt = 0; attempt < lines * 3 && picked.size() < lines; attempt++) {
+                double r = random.nextDouble();
+                Stock stock = candidates.get((int) (r * r * candidates.size()));
+                if ((inStockOnly && stock.quantity <= 0) || picked.contains(stock)) {
+                    continue;
+                }
+                picked.add(stock);
+            }
+            return picked;
+        }
+
+        /**
+         * 入库单、出库单表头的公共字段；待审批单据没有执行信息
+         */
+        private MapSqlParameterSource orderHeader(String orderNumber, long warehouseId, String businessType, LocalDate day,
+                                                  LocalDateTime created, LocalDateTime executed, boolean pending,
+                                                  BigDecimal totalQuantity, BigDecimal totalAmount) {
+            return new MapSqlParameterSource()
+                    .addValue("orderNumber", orderNumber)
+                    .addValue("warehouseId", warehouseId)
+                    .addValue("businessType", businessType)
+                    .addValue("status", pending ? "PENDING" : "EXECUTED")
+                    .addValue("plannedDate", day)
+                    .addValue("actualDate", pending ? null : day)
+                    .addValue("operationTime", pending ? null : executed)
+                    .addValue("totalQuantity", totalQuantity)
+                    .addValue("totalAmount", totalAmount)
+                    .addValue("operatorId", operatorId)
+                    .addValue("approverId", pending ? null : operatorId)
+                    .addValue("executorId", pending ? null : operatorId)
+                    .addValue("createdBy", operatorUsername)
+                    .addValue("createdTime", created)
+                    .addValue("updatedTime", pending ? created : executed);
+        }
+
+        /**
+         * 库存流水和操作日志，格式与库存服务批量出入库时写入的一致
+         */
+        private void addStockChange(Stock stock, String operationType, String businessType, String orderNumber,
+                                    long change, long before, LocalDateTime time) {
+            long warehouseId = warehouseIds[stock.warehouse];
+            long goodsId = goodsIds[stock.goods];
+            pendingMovements.add(new MapSqlParameterSource()
+                    .addValue("inventoryId", stock.id)
+                    .addValue("warehouseId", warehouseId)
+                    .addValue("goodsId", goodsId)
+                    .addValue("operationType", operationType)
+                    .addValue("businessType", businessType)
+                    .addValue("orderNumber", orderNumber)
+                    .addValue("changeQuantity", BigDecimal.valueOf(change))
+                    .addValue("beforeQuantity", BigDecimal.valueOf(before))
+                    .addValue("afterQuantity", BigDecimal.valueOf(stock.quantity))
+                    .addValue("operatorId", operatorId)
+                    .addValue("operatorName", operatorName)
+                    .addValue("operationTime", time)
+                    .addValue("remark", null));
+
+            String operationDesc = String.format("%s %s - %s，变动数量：%s，调整前：%s，调整后：%s",
+                    operationType, goodsNames[stock.goods], warehouseNames[stock.warehouse], Math.abs(change), before, stock.quantity);
+            String requestParams = String.format(
+                    "{\"warehouseId\":%d,\"goodsId\":%d,\"adjustQuantity\":%s,\"beforeQuantity\":%s,\"afterQuantity\":%s}",
+                    warehouseId, goodsId, change, before, stock.quantity);
+            pendingLogs.add(logParams(operationType, operationDesc, time)
+                    .addValue("businessType", businessType)
+                    .addValue("businessId", stock.id)
+                    .addValue("businessNumber", orderNumber)
+                    .addValue("warehouseId", warehouseId)
+                    .addValue("requestUri", null)
+                    .addValue("requestMethod", null)
+                    .addValue("requestParams", requestParams));
+        }
+
+        private void addLoginLog(LocalDate day) {
+            pendingLogs.add(logParams("LOGIN", "用户登录系统", day.atTime(8, 0).plusMinutes(random.nextInt(60)))
+                    .addValue("businessType", null)
+                    .addValue("businessId", null)
+                    .addValue("businessNumber", null)
+                    .addValue("warehouseId", null)
+                    .addValue("requestUri", "/api/auth/login")
+                    .addValue("requestMethod", "POST")
+                    .addValue("requestParams", null));
+        }
+
+        private MapSqlParameterSource logParams(String operationType, String operationDesc, LocalDateTime time) {
+            return new MapSqlParameterSource()
+                    .addValue("operatorId", operatorId)
+                    .addValue("operationType", operationType)
+                    .addValue("operationDesc", operationDesc)
+                    .addValue("operationTime", time)
+                    .addValue("ipAddress", "192.168.1." + (random.nextInt(200) + 10))
+                    .addValue("userAgent", null)
+                    .addValue("responseResult", null)
+                    .addValue("errorMessage", null)
+                    .addValue("executionTime", null);
+        }
+
+        /**
+         * 写入缓存的单据、流水和日志：先插入表头并按单号取回主键，再插入明细
+         */
+        private void flush() {
+            transactionTemplate.executeWithoutResult(status -> {
+                insertOrders("inbound_orders", INBOUND_ORDER_INSERT_SQL, INBOUND_DETAIL_INSERT_SQL, pendingInbound);
+                insertOrders("outbound_orders", OUTBOUND_ORDER_INSERT_SQL, OUTBOUND_DETAIL_INSERT_SQL, pendingOutbound);
+                insertOrders("transfer_orders", TRANSFER_ORDER_INSERT_SQL, TRANSFER_DETAIL_INSERT_SQL, pendingTransfers);
+                insert(InventoryMovementRepository.INSERT_SQL, pendingMovements);
+                insert(OperationLogRepository.INSERT_SQL, pendingLogs);
+            });
+            movementRows += pendingMovements.size();
+            logRows += pendingLogs.size();
+            pendingMovements.clear();
+            pendingLogs.clear();
+            pendingDetails = 0;
+        }
+
+        private void insertOrders(String table, String headerSql, String detailSql, List<PendingOrder> orders) {
+            if (orders.isEmpty()) {
+                return;
+            }
+            long orderId = nextId(table);
+            List<MapSqlParameterSource> headers = new ArrayList<>(orders.size());
+            List<MapSqlParameterSource> details = new ArrayList<>();
+            for (PendingOrder order : orders) {
+                headers.add(order.header.addValue("id", orderId));
+                for (MapSqlParameterSource detail : order.details) {
+                    details.add(detail.addValue("orderId", orderId));
+                }
+                orderId++;
+            }
+            insert(headerSql, headers);
+            insert(detailSql, details);
+            detailRows += details.size();
+            orders.clear();
+        }
+
+        private void insert(String sql, List<MapSqlParameterSource> rows) {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(sql,
+                        rows.subList(from, Math.min(from + batchSize, rows.size())).toArray(new MapSqlParameterSource[0]));
+            }
+        }
+
+        private Map<String, Long> loadIds(String sql) {
+            Map<String, Long> ids = new HashMap<>();
+            jdbcTemplate.getJdbcTemplate().query(sql, rs -> {
+                ids.put(rs.getString("k"), rs.getLong("id"));
+            });
+            return ids;
+        }
+
+        /**
+         * 单据和明细表主键由序列分配，生成时直接接在现有最大主键之后，结束后再对齐序列
+         */
+        private long nextId(String table) {
+            Long maxId = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            return maxId != null ? maxId + 1 : 1;
+        }
+
+        /**
+         * 前缀 + 日期 + 当天序号，跳过库中已存在的单号
+         */
+        private String nextOrderNumber(String prefix, LocalDate day) {
+            String dayPrefix = prefix + day.format(DAY_FORMATTER);
+            String number;
+            do {
+                number = dayPrefix + String.format("%03d", dailyNumbers.merge(prefix, 1, Integer::sum));
+            } while (existingOrderNumbers.contains(number));
+            return number;
+        }
+
+        private int dailyCount(int base, double factor) {
+            return (int) Math.round(base * factor * random.nextDouble(0.7, 1.3));
+        }
+
+        private String goodsCode(int index) {
+            return String.format("%s%06d", GOODS_CODE_PREFIX, index + 1);
+        }
+
+        private long key(long warehouseId, long goodsId) {
+            return (warehouseId << 32) | goodsId;
+        }
+    }
+
+    /**
+     * 模拟中的库存，数量为整数，成本按移动加权平均保留4位小数（与库存实体入库计算一致）
+     */
+    private static final class Stock {
+        private final int warehouse;
+        private final int goods;
+        private long id;
+        private long quantity;
+        private BigDecimal averageCost;
+        private BigDecimal latestCost;
+        private LocalDate lastInboundDate;
+        private LocalDate lastOutboundDate;
+        private LocalDate productionDate;
+        private LocalDate expiryDate;
+        private LocalDateTime updatedTime;
+
+        Stock(int warehouse, int goods) {
+            this.warehouse = warehouse;
+            this.goods = goods;
+        }
+
+        void inbound(long inboundQuantity, BigDecimal cost, LocalDate day, LocalDateTime time) {
+            if (quantity == 0 || averageCost == null) {
+                averageCost = cost.setScale(4, RoundingMode.HALF_UP);
+            } else {
+                BigDecimal totalCost = averageCost.multiply(BigDecimal.valueOf(quantity))
+                        .add(cost.multiply(BigDecimal.valueOf(inboundQuantity)));
+                averageCost = totalCost.divide(BigDecimal.valueOf(quantity + inboundQuantity), 4, RoundingMode.HALF_UP);
+            }
+            quantity += inboundQuantity;
+            latestCost = cost;
+            lastInboundDate = day;
+            updatedTime = time;
+        }
+
+        void outbound(long outboundQuantity, LocalDate day, LocalDateTime time) {
+            quantity -= outboundQuantity;
+            lastOutboundDate = day;
+            updatedTime = time;
+        }
+    }
+
+    /**
+     * 待写入的单据：表头和明细（明细的单据主键在表头插入后补上）
+     */
+    private static final class PendingOrder {
+        private final String orderNumber;
+        private final List<MapSqlParameterSource> details = new ArrayList<>();
+        private MapSqlParameterSource header;
+
+        PendingOrder(String orderNumber) {
+            this.orderNumber = orderNumber;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.warehouse.config;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 库存数量变化后清除依赖库存的缓存（仪表盘统计、库存预警、库存统计）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@CacheEvict(cacheNames = {CacheConfig.DASHBOARD_STATS, CacheConfig.DASHBOARD_ALERTS, CacheConfig.INVENTORY_STATS},
+        allEntries = true)
+public @interface EvictInventoryCaches {
+}
@@ -0,0 +1,20 @@
+package com.warehouse.config;
+
+import org.springframework.cache.annotation.CacheEvict;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 单据新增、审批、执行、取消后清除依赖单据状态的缓存（仪表盘统计、待办事项、业务趋势）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@CacheEvict(cacheNames = {CacheConfig.DASHBOARD_STATS, CacheConfig.DASHBOARD_TODOS, CacheConfig.BUSINESS_TREND},
+        allEntries = true)
+public @interface EvictOrderCaches {
+}
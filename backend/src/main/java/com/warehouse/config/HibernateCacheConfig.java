@@ -0,0 +1,88 @@
+package com.warehouse.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate二级缓存配置
+ * 货物、仓库、货物分类、用户等读多写少的实体缓存在 JCache（Caffeine 实现）中，按主键加载和延迟关联初始化优先命中缓存。
+ * 实体通过 Hibernate 写入时缓存随事务提交更新（READ_WRITE）；查询缓存按表的更新时间戳失效。
+ * 区域在此预先创建（未配置的区域启动失败），命中率通过 /actuator/hibernatecache 查看。
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * 用户可访问仓库集合的缓存区域
+     */
+    public static final String USER_WAREHOUSES_REGION = User.class.getName() + ".warehouses";
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Value("${warehouse.hibernate-cache.goods-max-size:50000}")
+    private long goodsMaxSize;
+
+    @Value("${warehouse.hibernate-cache.reference-max-size:2000}")
+    private long referenceMaxSize;
+
+    @Value("${warehouse.hibernate-cache.entity-ttl-minutes:60}")
+    private long entityTtlMinutes;
+
+    @Value("${warehouse.hibernate-cache.query-max-size:1000}")
+    private long queryMaxSize;
+
+    @Value("${warehouse.hibernate-cache.query-ttl-minutes:10}")
+    private long queryTtlMinutes;
+
+    /**
+     * 二级缓存使用的 JCache 管理器，每个应用上下文独立创建，避免多个上下文共用同一区域
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("warehouse-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        createRegion(cacheManager, Goods.class.getName(), goodsMaxSize, entityTtlMinutes);             // 货物
+        createRegion(cacheManager, Warehouse.class.getName(), referenceMaxSize, entityTtlMinutes);     // 仓库
+        createRegion(cacheManager, GoodsCategory.class.getName(), referenceMaxSize, entityTtlMinutes); // 货物分类
+        createRegion(cacheManager, User.class.getName(), referenceMaxSize, entityTtlMinutes);          // 用户
+        createRegion(cacheManager, USER_WAREHOUSES_REGION, referenceMaxSize, entityTtlMinutes);        // 用户可访问仓库
+        createRegion(cacheManager, QUERY_RESULTS_REGION, queryMaxSize, queryTtlMinutes);               // 查询结果
+        // 表更新时间戳用于判断查询缓存是否失效，条目数等于表数量，不能先于查询结果过期
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>().setStoreByValue(false));
+
+        return cacheManager;
+    }
+
+    /**
+     * 将 JCache 管理器交给 Hibernate，其余二级缓存开关在 application.yml 的 spring.jpa.properties 中配置
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maximumSize, long ttlMinutes) {
+        cacheManager.createCache(region, new CaffeineConfiguration<>()
+            .setStoreByValue(false)
+            .setMaximumSize(OptionalLong.of(maximumSize))
+            .setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes))));
+    }
+}
@@ -0,0 +1,89 @@
+package com.warehouse.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate二级缓存监控端点（/actuator/hibernatecache）
+ * 返回整体及各区域的命中、未命中、写入次数和命中率，以及实体加载、SQL执行次数，用于核对缓存效果。
+ * DELETE 请求清零统计，便于压测前后对比。
+ */
+@Component
+@Endpoint(id = "hibernatecache")
+public class HibernateCacheEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * 整体统计及各区域统计
+     */
+    @ReadOperation
+    public Map<String, Object> cacheStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStart());
+        result.put("secondLevelCache", hitStatistics(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", hitStatistics(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("entityFetchCount", statistics.getEntityFetchCount());
+        result.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted()
+                .forEach(region -> regions.put(region, regionStatistics(region)));
+        result.put("regions", regions);
+        return result;
+    }
+
+    /**
+     * 单个区域统计
+     */
+    @ReadOperation
+    public Map<String, Object> regionStatistics(@Selector String region) {
+        if (!Arrays.asList(statistics.getSecondLevelCacheRegionNames()).contains(region)) {
+            return null;
+        }
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        if (regionStatistics == null) {
+            return null;
+        }
+        return hitStatistics(regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount());
+    }
+
+    /**
+     * 清零统计
+     */
+    @DeleteOperation
+    public void clearStatistics() {
+        statistics.clear();
+    }
+
+    private Map<String, Object> hitStatistics(long hits, long misses, long puts) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", hits);
+        result.put("misses", misses);
+        result.put("puts", puts);
+        long requests = hits + misses;
+        result.put("hitRatio", requests == 0 ? 0.0 : Math.round(hits * 10000.0 / requests) / 10000.0);
+        return result;
+    }
+}
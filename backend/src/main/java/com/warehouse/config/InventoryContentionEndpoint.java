@@ -0,0 +1,56 @@
+package com.warehouse.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 库存并发冲突监控端点（/actuator/contention）
+ * 返回各操作的冲突次数和重试耗尽次数，以及冲突最多的库存位置。DELETE 请求清空库存位置统计。
+ */
+@Component
+@Endpoint(id = "contention")
+public class InventoryContentionEndpoint {
+
+    private static final int TOP_HOT_SPOTS = 20;
+
+    private final InventoryContentionMetrics contentionMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    public InventoryContentionEndpoint(InventoryContentionMetrics contentionMetrics, MeterRegistry meterRegistry) {
+        this.contentionMetrics = contentionMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> contentionStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("conflicts", countByOperation("inventory.contention.conflicts"));
+        result.put("exhausted", countByOperation("inventory.contention.exhausted"));
+        result.put("hotSpots", contentionMetrics.topHotSpots(TOP_HOT_SPOTS));
+        return result;
+    }
+
+    @DeleteOperation
+    public void clearHotSpots() {
+        contentionMetrics.clearHotSpots();
+    }
+
+    /**
+     * 按操作汇总计数（冲突计数另按仓库分开，这里合并）
+     */
+    private Map<String, Double> countByOperation(String name) {
+        Map<String, Double> counts = new LinkedHashMap<>();
+        for (Counter counter : meterRegistry.find(name).counters()) {
+            counts.merge(counter.getId().getTag("operation"), counter.count(), Double::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,110 @@
+package com.warehouse.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.warehouse.entity.Inventory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 库存并发冲突指标
+ * inventory.contention.conflicts 按操作、仓库统计乐观锁冲突次数；inventory.contention.exhausted 统计重试耗尽后返回给调用方的次数。
+ * 货物级明细不作为指标标签（时间序列数会随货物数增长），只保留冲突最多的有限个库存位置，
+ * 通过 /actuator/contention 查看，每次冲突另有一条调试日志。
+ * 仓库和货物ID取自调用方参数，无法提供时使用异常中的库存记录ID，冲突路径上不再查询数据库。
+ */
+@Component
+public class InventoryContentionMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryContentionMetrics.class);
+
+    private static final String UNKNOWN = "unknown";
+
+    /**
+     * 跟踪的库存位置上限，超出时按访问频率淘汰
+     */
+    private static final int MAX_HOT_SPOTS = 500;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Cache<String, LongAdder> hotSpots = Caffeine.newBuilder()
+            .maximumSize(MAX_HOT_SPOTS)
+            .build();
+
+    /**
+     * 记录一次冲突：仓库和货物ID由调用方提供，批量更新等没有货物ID时以冲突的库存记录定位
+     */
+    public void recordConflict(String operation, Exception e, Object warehouseId, Object goodsId) {
+        String warehouse = warehouseId != null ? warehouseId.toString() : UNKNOWN;
+        Counter.builder("inventory.contention.conflicts")
+                .description("库存乐观锁冲突次数")
+                .tag("operation", operation)
+                .tag("warehouse", warehouse)
+                .register(meterRegistry)
+                .increment();
+
+        String location = location(warehouse, goodsId, e);
+        if (location != null) {
+            hotSpots.get(location, key -> new LongAdder()).increment();
+        }
+        logger.debug("库存并发冲突: 操作={}, 位置={}", operation, location != null ? location : warehouse);
+    }
+
+    /**
+     * 记录一次重试耗尽
+     */
+    public void recordExhausted(String operation) {
+        Counter.builder("inventory.contention.exhausted")
+                .description("库存并发冲突重试耗尽次数")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 冲突次数最多的库存位置，按次数倒序
+     */
+    public List<Map<String, Object>> topHotSpots(int limit) {
+        return hotSpots.asMap().entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(entry -> {
+                    Map<String, Object> hotSpot = new LinkedHashMap<>();
+                    hotSpot.put("location", entry.getKey());
+                    hotSpot.put("conflicts", entry.getValue().sum());
+                    return hotSpot;
+                })
+                .toList();
+    }
+
+    /**
+     * 清空库存位置统计
+     */
+    public void clearHotSpots() {
+        hotSpots.invalidateAll();
+    }
+
+    private String location(String warehouse, Object goodsId, Exception e) {
+        if (goodsId != null) {
+            return "warehouse:" + warehouse + "/goods:" + goodsId;
+        }
+        if (e instanceof ObjectOptimisticLockingFailureException lockFailure
+                && Inventory.class.getName().equals(lockFailure.getPersistentClassName())
+                && lockFailure.getIdentifier() != null) {
+            return "inventory:" + lockFailure.getIdentifier();
+        }
+        return null;
+    }
+}
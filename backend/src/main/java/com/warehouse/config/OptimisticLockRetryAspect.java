@@ -0,0 +1,105 @@
+package com.warehouse.config;
+
+import com.warehouse.exception.BusinessException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 乐观锁重试切面
+ * 优先级高于事务拦截器，每次重试都在新的事务中重新读取最新数据；
+ * 退避时间按重试次数指数增长并加入随机抖动，避免热点货物上的并发请求同时重试再次冲突。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticLockRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticLockRetryAspect.class);
+
+    @Value("${warehouse.inventory.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${warehouse.inventory.retry.backoff-ms:20}")
+    private long backoffMillis;
+
+    @Autowired
+    private InventoryContentionMetrics contentionMetrics;
+
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.warehouse.config.RetryOnOptimisticLock)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        Method method = AopUtils.getMostSpecificMethod(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+        RetryOnOptimisticLock retryOnOptimisticLock = method.getAnnotation(RetryOnOptimisticLock.class);
+        String operation = method.getName();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                contentionMetrics.recordConflict(operation, e,
+                        evaluate(retryOnOptimisticLock.warehouse(), method, joinPoint),
+                        evaluate(retryOnOptimisticLock.goods(), method, joinPoint));
+                if (attempt >= maxAttempts) {
+                    contentionMetrics.recordExhausted(operation);
+                    logger.warn("{} 重试 {} 次后仍发生并发冲突: {}", operation, attempt, e.getMessage());
+                    throw new BusinessException("库存正在被其他操作修改，请稍后重试");
+                }
+                logger.debug("{} 发生并发冲突，第 {} 次重试: {}", operation, attempt, e.getMessage());
+                Thread.sleep(backoff(attempt));
+            }
+        }
+    }
+
+    /**
+     * 计算注解中的 SpEL 表达式，未配置或计算失败时返回 null
+     */
+    private Object evaluate(String expression, Method method, ProceedingJoinPoint joinPoint) {
+        if (expression.isEmpty()) {
+            return null;
+        }
+        try {
+            EvaluationContext context = new MethodBasedEvaluationContext(
+                    joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNameDiscoverer);
+            return expressionCache.computeIfAbsent(expression, parser::parseExpression).getValue(context);
+        } catch (RuntimeException e) {
+            logger.debug("计算表达式 {} 失败: {}", expression, e.getMessage());
+            return null;
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+}
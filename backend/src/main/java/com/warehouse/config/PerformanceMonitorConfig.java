@@ -1,5 +1,7 @@
 package com.warehouse.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -7,23 +9,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 性能监控配置 - 简化版本
+ * 语句数、慢语句等JDBC统计见 QueryMetrics（/actuator/queries）
  */
 @Configuration
 @EnableScheduling
 public class PerformanceMonitorConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitorConfig.class);
+
     @Autowired
     private DataSource dataSource;
 
-    // 简单的性能计数器
-    private final AtomicLong activeConnections = new AtomicLong(0);
-    private final AtomicLong totalQueries = new AtomicLong(0);
-    private final AtomicLong slowQueries = new AtomicLong(0);
-
     /**
      * 简单的数据库健康检查
      */
@@ -35,10 +34,10 @@ public class PerformanceMonitorConfig {
             long duration = System.currentTimeMillis() - start;
 
             if (duration > 1000) {
-                System.out.println("Warning: Database connection check took " + duration + "ms");
+                logger.warn("Database connection check took {}ms", duration);
             }
         } catch (Exception e) {
-            System.err.println("Database health check failed: " + e.getMessage());
+            logger.error("Database health check failed: {}", e.getMessage());
         }
     }
 
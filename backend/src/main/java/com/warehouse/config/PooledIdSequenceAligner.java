@@ -0,0 +1,87 @@
+package com.warehouse.config;
+
+import com.warehouse.entity.PooledIdEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 池化序列主键对齐
+ * 明细表由数据库自增改为序列取号后，已有数据的库中序列仍从初始值开始，会与现有主键冲突。
+ * 启动时（Web服务开放前）逐个检查 PooledIdEntity 实体的序列，落后于表中最大主键时推进到最大主键之后。
+ * 物理序列（H2）通过 ALTER SEQUENCE 重置；不支持序列的库（MySQL）直接更新模拟序列的单行表。
+ */
+@Component
+public class PooledIdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledIdSequenceAligner.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PooledIdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alignAll();
+    }
+
+    /**
+     * 对齐所有池化序列（绕过 Hibernate 直接插入明细后也需调用）
+     */
+    public void alignAll() {
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (PooledIdEntity.class.isAssignableFrom(persister.getMappedClass())
+                    && persister.getGenerator() instanceof SequenceStyleGenerator generator) {
+                AbstractEntityPersister entityPersister = (AbstractEntityPersister) persister;
+                align(entityPersister.getTableName(), entityPersister.getIdentifierColumnNames()[0],
+                        generator.getDatabaseStructure());
+            }
+        });
+    }
+
+    private void align(String tableName, String idColumn, DatabaseStructure structure) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + tableName, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // 池化优化器取到的值 V 对应主键区间 (V - 步长, V]，序列值不小于 最大主键 + 步长 即不会冲突
+        long required = maxId + structure.getIncrementSize();
+        String sequenceName = sessionFactory.getSqlStringGenerationContext().format(structure.getPhysicalName());
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+
+        if (structure.isPhysicalSequence()) {
+            Long current = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequenceName), Long.class);
+            if (current != null && current >= required) {
+                return;
+            }
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequenceName + " RESTART WITH " + required);
+        } else {
+            String valueColumn = SequenceStyleGenerator.DEF_VALUE_COLUMN;
+            Long current = jdbcTemplate.queryForObject("SELECT MAX(" + valueColumn + ") FROM " + sequenceName, Long.class);
+            if (current != null && current >= required) {
+                return;
+            }
+            if (current == null) {
+                jdbcTemplate.update("INSERT INTO " + sequenceName + " (" + valueColumn + ") VALUES (?)", required);
+            } else {
+                jdbcTemplate.update("UPDATE " + sequenceName + " SET " + valueColumn + " = ?", required);
+            }
+        }
+        logger.info("主键序列 {} 已推进到 {}（{} 表最大主键 {}）", sequenceName, required, tableName, maxId);
+    }
+}
@@ -0,0 +1,291 @@
+package com.warehouse.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC语句统计
+ * 由 QueryMetricsConfig 挂到数据源代理上，记录每条语句的耗时；请求范围内（QueryMetricsFilter 开启）额外累计语句数和数据库耗时，
+ * 请求结束时同一语句（非批量）执行次数达到阈值的记为 N+1。慢语句、N+1 记录保留最近若干条，通过 /actuator/queries 查看。
+ * 慢语句的绑定参数可能包含密码哈希、令牌等敏感值，默认只记录参数个数（显示为 ?），log-parameters 开启后才记录实际值。
+ * 指标：db.statement（按语句类型）、db.statement.slow、db.statement.nplusone、db.request.statements、db.request.time（按请求路径模式）。
+ */
+@Component
+@ConditionalOnProperty(prefix = "warehouse.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetrics implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String DB_TIME_HEADER = "X-DB-Time";
+
+    private static final int MAX_SQL_LENGTH = 2000;
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdMillis;
+
+    private final int nPlusOneThreshold;
+
+    private final int recentSize;
+
+    private final boolean logParameters;
+
+    private final Counter slowCounter;
+
+    private final Counter nPlusOneCounter;
+
+    private final ThreadLocal<RequestStats> currentRequest = new ThreadLocal<>();
+
+    private final Deque<Map<String, Object>> recentSlowStatements = new ArrayDeque<>();
+
+    private final Deque<Map<String, Object>> recentNPlusOne = new ArrayDeque<>();
+
+    public QueryMetrics(MeterRegistry meterRegistry,
+                        @Value("${warehouse.query-metrics.slow-threshold-ms:200}") long slowThresholdMillis,
+                        @Value("${warehouse.query-metrics.n-plus-one-threshold:10}") int nPlusOneThreshold,
+                        @Value("${warehouse.query-metrics.recent-size:50}") int recentSize,
+                        @Value("${warehouse.query-metrics.log-parameters:false}") boolean logParameters) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.recentSize = recentSize;
+        this.logParameters = logParameters;
+        this.slowCounter = Counter.builder("db.statement.slow")
+                .description("超过慢语句阈值的JDBC语句数")
+                .register(meterRegistry);
+        this.nPlusOneCounter = Counter.builder("db.statement.nplusone")
+                .description("单个请求内重复执行达到阈值的语句数（疑似N+1）")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+
+        Timer.builder("db.statement")
+                .description("JDBC语句执行耗时")
+                .tag("type", statementType(sql))
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.MILLISECONDS);
+
+        RequestStats stats = currentRequest.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.dbTimeMillis += elapsed;
+            if (!execInfo.isBatch()) {
+                stats.executions.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        if (elapsed >= slowThresholdMillis) {
+            slowCounter.increment();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("time", LocalDateTime.now());
+            entry.put("elapsedMs", elapsed);
+            entry.put("request", stats != null ? stats.request : null);
+            entry.put("batchSize", execInfo.isBatch() ? execInfo.getBatchSize() : null);
+            entry.put("sql", truncate(sql, MAX_SQL_LENGTH));
+            entry.put("parameters", parameters(queryInfoList));
+            addRecent(recentSlowStatements, entry);
+            logger.warn("慢语句 {}ms [{}]: {} 参数 {}", elapsed, entry.get("request"), entry.get("sql"), entry.get("parameters"));
+        }
+    }
+
+    /**
+     * 开始统计当前线程上的请求
+     */
+    public void beginRequest(String request) {
+        currentRequest.set(new RequestStats(request));
+    }
+
+    /**
+     * 当前请求已执行的语句数，不在请求范围内返回 0
+     */
+    public int currentStatementCount() {
+        RequestStats stats = currentRequest.get();
+        return stats != null ? stats.statements : 0;
+    }
+
+    /**
+     * 当前请求累计的数据库耗时（毫秒）
+     */
+    public long currentDbTimeMillis() {
+        RequestStats stats = currentRequest.get();
+        return stats != null ? stats.dbTimeMillis : 0;
+    }
+
+    /**
+     * 结束当前请求：按路径模式记录语句数和数据库耗时，检查N+1
+     */
+    public void endRequest(String uriPattern) {
+        RequestStats stats = currentRequest.get();
+        currentRequest.remove();
+        if (stats == null) {
+            return;
+        }
+
+        DistributionSummary.builder("db.request.statements")
+                .description("单个请求执行的JDBC语句数")
+                .tag("uri", uriPattern)
+                .register(meterRegistry)
+                .record(stats.statements);
+        Timer.builder("db.request.time")
+                .description("单个请求的数据库累计耗时")
+                .tag("uri", uriPattern)
+                .register(meterRegistry)
+                .record(stats.dbTimeMillis, TimeUnit.MILLISECONDS);
+
+        stats.executions.forEach((sql, count) -> {
+            if (count >= nPlusOneThreshold) {
+                nPlusOneCounter.increment();
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("time", LocalDateTime.now());
+                entry.put("request", stats.request);
+                entry.put("executions", count);
+                entry.put("sql", truncate(sql, MAX_SQL_LENGTH));
+                addRecent(recentNPlusOne, entry);
+                logger.warn("疑似N+1 [{}]: 同一语句执行 {} 次: {}", stats.request, count, entry.get("sql"));
+            }
+        });
+    }
+
+    /**
+     * 最近的慢语句，按时间倒序
+     */
+    public List<Map<String, Object>> recentSlowStatements() {
+        return snapshot(recentSlowStatements);
+    }
+
+    /**
+     * 最近的N+1记录，按时间倒序
+     */
+    public List<Map<String, Object>> recentNPlusOne() {
+        return snapshot(recentNPlusOne);
+    }
+
+    /**
+     * 清空最近记录
+     */
+    public void clearRecent() {
+        synchronized (recentSlowStatements) {
+            recentSlowStatements.clear();
+        }
+        synchronized (recentNPlusOne) {
+            recentNPlusOne.clear();
+        }
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public int getNPlusOneThreshold() {
+        return nPlusOneThreshold;
+    }
+
+    private void addRecent(Deque<Map<String, Object>> recent, Map<String, Object> entry) {
+        synchronized (recent) {
+            recent.addFirst(entry);
+            while (recent.size() > recentSize) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    private List<Map<String, Object>> snapshot(Deque<Map<String, Object>> recent) {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * 绑定参数按位置排序格式化，未开启 log-parameters 时值显示为 ?；批量语句只取第一组
+     */
+    private String parameters(List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+            return "[]";
+        }
+        return queryInfoList.get(0).getParametersList().get(0).stream()
+                .filter(operation -> operation.getArgs() != null && operation.getArgs().length > 0)
+                .sorted(Comparator.comparing(operation -> String.valueOf(operation.getArgs()[0]),
+                        Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder())))
+                .map(this::formatParameter)
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private String formatParameter(ParameterSetOperation operation) {
+        if (!logParameters) {
+            return "?";
+        }
+        if (ParameterSetOperation.isSetNullParameterOperation(operation) || operation.getArgs().length < 2) {
+            return "null";
+        }
+        Object value = operation.getArgs()[1];
+        if (value instanceof CharSequence) {
+            return "'" + truncate(value.toString(), MAX_PARAMETER_LENGTH) + "'";
+        }
+        return truncate(String.valueOf(value), MAX_PARAMETER_LENGTH);
+    }
+
+    private String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "insert", "update", "delete", "merge" -> keyword;
+            default -> "other";
+        };
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength) + "...";
+    }
+
+    /**
+     * 单个请求的语句统计，只在处理请求的线程上访问
+     */
+    private static class RequestStats {
+        private final String request;
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+        private long dbTimeMillis;
+
+        RequestStats(String request) {
+            this.request = request;
+        }
+    }
+}
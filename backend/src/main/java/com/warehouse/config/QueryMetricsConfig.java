@@ -0,0 +1,53 @@
+package com.warehouse.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * JDBC语句统计配置
+ * 用 datasource-proxy 包装应用数据源，所有经连接池执行的语句交给 QueryMetrics 统计。
+ * 单据编号号段使用的独立连接池不经过代理。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "warehouse.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    /**
+     * 数据源代理；后置处理器先于普通 Bean 创建，QueryMetrics 在首次执行语句时再获取
+     */
+    @Bean
+    public static BeanPostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !DATA_SOURCE_BEAN.equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(new QueryExecutionListener() {
+                            @Override
+                            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            }
+
+                            @Override
+                            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                queryMetrics.getObject().afterQuery(execInfo, queryInfoList);
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+}
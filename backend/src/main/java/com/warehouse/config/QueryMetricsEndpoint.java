@@ -0,0 +1,91 @@
+package com.warehouse.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC语句监控端点（/actuator/queries）
+ * 返回语句总数及耗时（按类型）、慢语句和N+1次数、各接口平均语句数和数据库耗时，以及最近的慢语句（含绑定参数）和N+1记录。
+ * DELETE 请求清空最近记录。
+ */
+@Component
+@Endpoint(id = "queries")
+@ConditionalOnProperty(prefix = "warehouse.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsEndpoint {
+
+    private final QueryMetrics queryMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetricsEndpoint(QueryMetrics queryMetrics, MeterRegistry meterRegistry) {
+        this.queryMetrics = queryMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> queryStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMs", queryMetrics.getSlowThresholdMillis());
+        result.put("nPlusOneThreshold", queryMetrics.getNPlusOneThreshold());
+
+        Map<String, Object> statements = new LinkedHashMap<>();
+        for (Timer timer : meterRegistry.find("db.statement").timers()) {
+            Map<String, Object> type = new LinkedHashMap<>();
+            type.put("count", timer.count());
+            type.put("totalTimeMs", Math.round(timer.totalTime(TimeUnit.MILLISECONDS)));
+            type.put("maxMs", Math.round(timer.max(TimeUnit.MILLISECONDS)));
+            statements.put(timer.getId().getTag("type"), type);
+        }
+        result.put("statements", statements);
+        result.put("slowStatements", count("db.statement.slow"));
+        result.put("nPlusOne", count("db.statement.nplusone"));
+        result.put("requests", requestStatistics());
+        result.put("recentSlowStatements", queryMetrics.recentSlowStatements());
+        result.put("recentNPlusOne", queryMetrics.recentNPlusOne());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clearRecent() {
+        queryMetrics.clearRecent();
+    }
+
+    /**
+     * 各接口的请求数、平均和最大语句数、平均数据库耗时，按平均语句数倒序
+     */
+    private List<Map<String, Object>> requestStatistics() {
+        return meterRegistry.find("db.request.statements").summaries().stream()
+                .sorted(Comparator.comparingDouble(DistributionSummary::mean).reversed())
+                .map(summary -> {
+                    String uri = summary.getId().getTag("uri");
+                    Timer dbTime = meterRegistry.find("db.request.time").tag("uri", uri).timer();
+                    Map<String, Object> request = new LinkedHashMap<>();
+                    request.put("uri", uri);
+                    request.put("requests", summary.count());
+                    request.put("meanStatements", Math.round(summary.mean() * 10) / 10.0);
+                    request.put("maxStatements", Math.round(summary.max()));
+                    request.put("meanDbTimeMs", dbTime != null ? Math.round(dbTime.mean(TimeUnit.MILLISECONDS) * 10) / 10.0 : null);
+                    return request;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private double count(String name) {
+        Counter counter = meterRegistry.find(name).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
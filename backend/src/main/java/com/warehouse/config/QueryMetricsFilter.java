@@ -0,0 +1,75 @@
+package com.warehouse.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 请求级JDBC语句统计
+ * 请求开始时开启 QueryMetrics 的统计范围，结束时按路径模式记录指标并检查N+1。
+ * 开启 response-headers 时（开发环境）在响应提交前写入 X-Query-Count、X-DB-Time 响应头，接口语句数变化在浏览器中即可看到。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "warehouse.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final QueryMetrics queryMetrics;
+
+    private final boolean responseHeaders;
+
+    public QueryMetricsFilter(QueryMetrics queryMetrics,
+                              @Value("${warehouse.query-metrics.response-headers:false}") boolean responseHeaders) {
+        this.queryMetrics = queryMetrics;
+        this.responseHeaders = responseHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryMetrics.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        HttpServletResponse target = responseHeaders ? new QueryHeadersResponseWrapper(response) : response;
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            if (responseHeaders && !response.isCommitted()) {
+                writeHeaders(response);
+            }
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            queryMetrics.endRequest(pattern != null ? pattern.toString() : UNKNOWN_URI);
+        }
+    }
+
+    private void writeHeaders(HttpServletResponse response) {
+        response.setHeader(QueryMetrics.QUERY_COUNT_HEADER, String.valueOf(queryMetrics.currentStatementCount()));
+        response.setHeader(QueryMetrics.DB_TIME_HEADER, String.valueOf(queryMetrics.currentDbTimeMillis()));
+    }
+
+    /**
+     * 响应即将提交时写入统计响应头（之后执行的语句只计入指标）
+     */
+    private class QueryHeadersResponseWrapper extends OnCommittedResponseWrapper {
+
+        QueryHeadersResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders(this);
+        }
+    }
+}
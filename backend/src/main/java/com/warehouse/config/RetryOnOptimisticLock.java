@@ -0,0 +1,27 @@
+package com.warehouse.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 乐观锁冲突时自动重试整个事务（重试次数与退避时间见 warehouse.inventory.retry 配置）
+ * 仅在方法开启最外层事务时生效，已处于外层事务中时由外层方法负责重试
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnOptimisticLock {
+
+    /**
+     * 仓库ID的 SpEL 表达式（如 #warehouseId），冲突异常无法识别库存记录时用于指标标签
+     */
+    String warehouse() default "";
+
+    /**
+     * 货物ID的 SpEL 表达式（如 #request.goodsId），冲突异常无法识别库存记录时用于指标标签
+     */
+    String goods() default "";
+}
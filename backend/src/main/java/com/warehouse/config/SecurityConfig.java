@@ -86,6 +86,7 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(QueryMetrics.QUERY_COUNT_HEADER, QueryMetrics.DB_TIME_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -121,13 +122,18 @@ public class SecurityConfig {
                 // 公开接口
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/test/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/health").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                // WebSocket握手放行，令牌在STOMP CONNECT帧中校验
+                .requestMatchers("/ws/**").permitAll()
 
                 // 允许OPTIONS预检请求
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                // 其余监控端点（指标、缓存命中率）仅管理员可访问
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+
                 // 临时允许所有认证用户访问API，权限控制在业务层处理
                 .requestMatchers("/api/**").authenticated()
 
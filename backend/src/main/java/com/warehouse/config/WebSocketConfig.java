@@ -0,0 +1,70 @@
+package com.warehouse.config;
+
+import com.warehouse.security.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * WebSocket（STOMP）配置
+ * 客户端连接 /ws，CONNECT 帧携带 Authorization: Bearer 令牌，订阅 /topic/warehouses/{仓库ID} 和 /topic/dashboard。
+ * 每个会话的发送缓冲区和单次发送耗时有上限，慢客户端超过上限时断开连接，不会拖慢其他会话。
+ *
+ * @author Warehouse Team
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+
+    private final int sendBufferSizeLimit;
+
+    private final int sendTimeLimit;
+
+    private final int messageSizeLimit;
+
+    public WebSocketConfig(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                           @Value("${warehouse.push.send-buffer-bytes:524288}") int sendBufferSizeLimit,
+                           @Value("${warehouse.push.send-time-limit-ms:10000}") int sendTimeLimit,
+                           @Value("${warehouse.push.message-size-limit:65536}") int messageSizeLimit) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sendTimeLimit = sendTimeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // 与 SecurityConfig 的 CORS 配置保持一致
+        registry.addEndpoint("/ws")
+                .setAllowedOrigins(
+                        "http://localhost:3000",
+                        "http://127.0.0.1:3000",
+                        "http://localhost:8080",
+                        "http://127.0.0.1:8080");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+}
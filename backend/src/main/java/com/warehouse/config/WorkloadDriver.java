@@ -0,0 +1,451 @@
+package com.warehouse.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 接口压测驱动（workload 配置文件）
+ * 应用启动后以管理员身份登录，用多个线程按配置的权重混合调用接口，预热阶段结束后开始计时，
+ * 按接口统计请求数、失败数、吞吐量和延迟分位数，结果输出到日志并写入 JSON 报告。
+ * 请求中的仓库、货物、库存ID从接口返回的数据中随机选取。
+ * 用法：WORKLOAD_USERNAME=... WORKLOAD_PASSWORD=... --spring.profiles.active=dev,dataset,workload --warehouse.workload.threads=16；
+ * 指定 base-url 时可以压测其他已启动的实例。
+ */
+@Component
+@Profile("workload")
+public class WorkloadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkloadDriver.class);
+
+    private static final int REFERENCE_SIZE = 200;
+
+    /**
+     * 可选的请求及默认权重，{warehouseId}、{goodsId}、{inventoryId}、{keyword}、{startDate}、{endDate} 在发送时替换
+     */
+    private static final Map<String, String> CATALOG = new LinkedHashMap<>();
+
+    static {
+        CATALOG.put("inventory-page", "GET /api/inventory?page=0&size=20");
+        CATALOG.put("inventory-search", "GET /api/inventory?keyword={keyword}&warehouseId={warehouseId}&page=0&size=20");
+        CATALOG.put("inventory-cursor", "GET /api/inventory/cursor?warehouseId={warehouseId}&size=50");
+        CATALOG.put("inventory-detail", "GET /api/inventory/{inventoryId}");
+        CATALOG.put("inventory-history", "GET /api/inventory/{inventoryId}/history/page?size=20");
+        CATALOG.put("stock-info", "GET /api/inventory/goods/{goodsId}/stock-info?warehouseId={warehouseId}");
+        CATALOG.put("goods-page", "GET /api/goods?page=0&size=20&sort=code");
+        CATALOG.put("goods-search", "GET /api/goods?keyword={keyword}&page=0&size=20");
+        CATALOG.put("goods-suggest", "GET /api/goods/suggest?keyword={keyword}&limit=10");
+        CATALOG.put("goods-detail", "GET /api/goods/{goodsId}");
+        CATALOG.put("warehouses", "GET /api/warehouses/all");
+        CATALOG.put("inbound-orders", "GET /api/inbound-orders?page=0&size=20");
+        CATALOG.put("outbound-orders", "GET /api/outbound-orders?page=0&size=20");
+        CATALOG.put("transfer-orders", "GET /api/transfer-orders?page=0&size=20");
+        CATALOG.put("outbound-pending", "GET /api/outbound-orders/pending");
+        CATALOG.put("dashboard-stats", "GET /api/dashboard/stats");
+        CATALOG.put("dashboard-trend", "GET /api/dashboard/trend?period=30");
+        CATALOG.put("report-overview", "GET /api/reports/overview?startDate={startDate}&endDate={endDate}");
+        CATALOG.put("inbound-create", "POST /api/inbound-orders");
+    }
+
+    private static final String INBOUND_CREATE_BODY =
+            "{\"warehouseId\":%s,\"businessType\":\"PURCHASE_IN\",\"plannedDate\":\"%s\",\"remark\":\"压测数据\"," +
+            "\"details\":[{\"goodsId\":%s,\"quantity\":10,\"unitPrice\":12.50}]}";
+
+    private final ApplicationContext applicationContext;
+
+    private final Environment environment;
+
+    private final ObjectMapper objectMapper;
+
+    private final String configuredBaseUrl;
+
+    private final String username;
+
+    private final String password;
+
+    private final int threads;
+
+    private final int warmupSeconds;
+
+    private final int durationSeconds;
+
+    private final String mix;
+
+    private final String reportFile;
+
+    private final boolean exitOnFinish;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public WorkloadDriver(ApplicationContext applicationContext, Environment environment, ObjectMapper objectMapper,
+                          @Value("${warehouse.workload.base-url:}") String configuredBaseUrl,
+                          @Value("${warehouse.workload.username:}") String username,
+                          @Value("${warehouse.workload.password:}") String password,
+                          @Value("${warehouse.workload.threads:8}") int threads,
+                          @Value("${warehouse.workload.warmup-seconds:10}") int warmupSeconds,
+                          @Value("${warehouse.workload.duration-seconds:60}") int durationSeconds,
+                          @Value("${warehouse.workload.mix:}") String mix,
+                          @Value("${warehouse.workload.report-file:workload-report.json}") String reportFile,
+                          @Value("${warehouse.workload.exit-on-finish:false}") boolean exitOnFinish) {
+        this.applicationContext = applicationContext;
+        this.environment = environment;
+        this.objectMapper = objectMapper;
+        this.configuredBaseUrl = configuredBaseUrl;
+        this.username = username;
+        this.password = password;
+        this.threads = threads;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.mix = mix;
+        this.reportFile = reportFile;
+        this.exitOnFinish = exitOnFinish;
+    }
+
+    /**
+     * 在独立线程中执行，不阻塞启动流程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("压测执行失败: {}", e.getMessage(), e);
+            }
+            if (exitOnFinish) {
+                System.exit(SpringApplication.exit(applicationContext));
+            }
+        }, "workload-driver");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 执行一轮压测并返回各接口的统计结果
+     */
+    public List<EndpointReport> run() throws IOException, InterruptedException {
+        String baseUrl = configuredBaseUrl.isBlank()
+                ? "http://localhost:" + environment.getProperty("local.server.port", "8080")
+                : configuredBaseUrl.replaceAll("/+$", "");
+        String token = login(baseUrl);
+        ReferenceData reference = loadReferenceData(baseUrl, token);
+        List<String> names = new ArrayList<>();
+        int[] cumulativeWeights = parseMix(names);
+
+        logger.info("开始压测 {}: {}个线程，预热{}s，计时{}s，请求组合 {}",
+                baseUrl, threads, warmupSeconds, durationSeconds, mix.isBlank() ? defaultMix() : mix);
+        long measureStart = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = measureStart + durationSeconds * 1_000_000_000L;
+        List<Map<String, LatencyRecorder>> perThread = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+            perThread.add(recorders);
+            Thread worker = new Thread(() -> {
+                try {
+                    runWorker(baseUrl, token, reference, names, cumulativeWeights, recorders, measureStart, end);
+                } finally {
+                    finished.countDown();
+                }
+            }, "workload-worker-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        finished.await();
+
+        Map<String, LatencyRecorder> merged = new LinkedHashMap<>();
+        for (String name : names) {
+            LatencyRecorder total = new LatencyRecorder();
+            for (Map<String, LatencyRecorder> recorders : perThread) {
+                LatencyRecorder recorder = recorders.get(name);
+                if (recorder != null) {
+                    total.merge(recorder);
+                }
+            }
+            merged.put(name, total);
+        }
+        List<EndpointReport> reports = new ArrayList<>();
+        LatencyRecorder overall = new LatencyRecorder();
+        for (Map.Entry<String, LatencyRecorder> entry : merged.entrySet()) {
+            reports.add(entry.getValue().report(entry.getKey(), durationSeconds));
+            overall.merge(entry.getValue());
+        }
+        reports.add(overall.report("TOTAL", durationSeconds));
+        logReport(reports);
+        writeReport(reports);
+        return reports;
+    }
+
+    private void runWorker(String baseUrl, String token, ReferenceData reference, List<String> names,
+                           int[] cumulativeWeights, Map<String, LatencyRecorder> recorders, long measureStart, long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+        while (System.nanoTime() < end) {
+            int roll = random.nextInt(totalWeight);
+            int index = 0;
+            while (cumulativeWeights[index] <= roll) {
+                index++;
+            }
+            String name = names.get(index);
+            HttpRequest request = buildRequest(baseUrl, token, CATALOG.get(name), reference, random);
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                success = response.statusCode() / 100 == 2 && !response.body().contains("\"success\":false");
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long elapsed = System.nanoTime() - start;
+            if (start >= measureStart) {
+                recorders.computeIfAbsent(name, key -> new LatencyRecorder()).record(elapsed, success);
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(String baseUrl, String token, String template, ReferenceData reference,
+                                     ThreadLocalRandom random) {
+        int space = template.indexOf(' ');
+        String method = template.substring(0, space);
+        String warehouseId = String.valueOf(pick(reference.warehouseIds, random));
+        String goodsId = String.valueOf(pick(reference.goodsIds, random));
+        LocalDate today = LocalDate.now();
+        String path = template.substring(space + 1)
+                .replace("{warehouseId}", warehouseId)
+                .replace("{goodsId}", goodsId)
+                .replace("{inventoryId}", String.valueOf(pick(reference.inventoryIds, random)))
+                .replace("{keyword}", URLEncoder.encode(pick(reference.keywords, random), StandardCharsets.UTF_8))
+                .replace("{startDate}", today.minusDays(30).toString())
+                .replace("{endDate}", today.toString());
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+        if ("POST".equals(method)) {
+            String body = String.format(INBOUND_CREATE_BODY, warehouseId, today, goodsId);
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            builder.GET();
+        }
+        return builder.build();
+    }
+
+    private String login(String baseUrl) throws IOException, InterruptedException {
+        if (username.isBlank() || password.isEmpty()) {
+            throw new IllegalStateException("未配置压测用户，请设置环境变量 WORKLOAD_USERNAME、WORKLOAD_PASSWORD");
+        }
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode token = objectMapper.readTree(response.body()).path("data").path("accessToken");
+        if (response.statusCode() != 200 || token.isMissingNode()) {
+            throw new IllegalStateException("压测用户登录失败: HTTP " + response.statusCode());
+        }
+        return token.asText();
+    }
+
+    /**
+     * 从接口取仓库、货物、库存的ID和货物名称关键词，作为请求参数的取值范围
+     */
+    private ReferenceData loadReferenceData(String baseUrl, String token) throws IOException, InterruptedException {
+        ReferenceData reference = new ReferenceData();
+        for (JsonNode warehouse : get(baseUrl, token, "/api/warehouses/all").path("data")) {
+            reference.warehouseIds.add(warehouse.path("id").asLong());
+        }
+        for (JsonNode goods : get(baseUrl, token, "/api/goods?page=0&size=" + REFERENCE_SIZE).path("data").path("content")) {
+            reference.goodsIds.add(goods.path("id").asLong());
+            String name = goods.path("name").asText();
+            if (name.length() >= 2) {
+                reference.keywords.add(name.substring(name.length() - 2));
+            }
+        }
+        for (JsonNode inventory : get(baseUrl, token, "/api/inventory?page=0&size=" + REFERENCE_SIZE).path("data").path("content")) {
+            reference.inventoryIds.add(inventory.path("id").asLong());
+        }
+        if (reference.warehouseIds.isEmpty() || reference.goodsIds.isEmpty() || reference.inventoryIds.isEmpty()) {
+            throw new IllegalStateException("压测需要已有的仓库、货物和库存数据，可同时启用 dataset 配置文件生成");
+        }
+        return reference;
+    }
+
+    private JsonNode get(String baseUrl, String token, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    /**
+     * 解析 "名称:权重,名称:权重" 形式的请求组合，返回累计权重
+     */
+    private int[] parseMix(List<String> names) {
+        String spec = mix.isBlank() ? defaultMix() : mix;
+        List<Integer> weights = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(":");
+            String name = parts[0].trim();
+            if (!CATALOG.containsKey(name)) {
+                throw new IllegalArgumentException("未知的压测请求: " + name + "，可选: " + CATALOG.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                names.add(name);
+                weights.add(weight);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("压测请求组合为空");
+        }
+        int[] cumulative = new int[weights.size()];
+        int sum = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            sum += weights.get(i);
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    /**
+     * 默认以库存和货物查询为主，少量报表和写入
+     */
+    private String defaultMix() {
+        return "inventory-page:15,inventory-search:15,inventory-cursor:10,inventory-detail:8,inventory-history:5," +
+                "stock-info:5,goods-page:8,goods-search:8,goods-suggest:10,goods-detail:5,warehouses:3," +
+                "inbound-orders:2,outbound-orders:2,transfer-orders:1,outbound-pending:1,dashboard-stats:1," +
+                "dashboard-trend:1,report-overview:1,inbound-create:1";
+    }
+
+    private void logReport(List<EndpointReport> reports) {
+        StringBuilder table = new StringBuilder(String.format("%n%-20s %8s %6s %9s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "errors", "req/s", "mean", "p50", "p90", "p95", "p99", "max"));
+        for (EndpointReport report : reports) {
+            table.append(String.format("%n%-20s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    report.endpoint(), report.count(), report.errors(), report.throughput(), report.meanMs(),
+                    report.p50Ms(), report.p90Ms(), report.p95Ms(), report.p99Ms(), report.maxMs()));
+        }
+        logger.info("压测结束（{}个线程，{}s，延迟单位ms）:{}", threads, durationSeconds, table);
+    }
+
+    private void writeReport(List<EndpointReport> reports) throws IOException {
+        if (reportFile.isBlank()) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", threads);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", durationSeconds);
+        report.put("mix", mix.isBlank() ? defaultMix() : mix);
+        report.put("endpoints", reports);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(new File(reportFile), report);
+        logger.info("压测报告已写入 {}", new File(reportFile).getAbsolutePath());
+    }
+
+    private static <T> T pick(List<T> values, ThreadLocalRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    /**
+     * 单个接口的统计结果，延迟单位为毫秒
+     */
+    public record EndpointReport(String endpoint, long count, long errors, double throughput, double meanMs,
+                                 double p50Ms, double p90Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    private static final class ReferenceData {
+        private final List<Long> warehouseIds = new ArrayList<>();
+        private final List<Long> goodsIds = new ArrayList<>();
+        private final List<Long> inventoryIds = new ArrayList<>();
+        private final List<String> keywords = new ArrayList<>();
+    }
+
+    /**
+     * 单线程记录的请求延迟（纳秒），结束后合并计算分位数
+     */
+    private static final class LatencyRecorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void merge(LatencyRecorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        EndpointReport report(String endpoint, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long sum = 0;
+            for (long latency : sorted) {
+                sum += latency;
+            }
+            return new EndpointReport(endpoint, count, errors, seconds > 0 ? (double) count / seconds : 0,
+                    count > 0 ? toMillis(sum / count) : 0, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.95), percentile(sorted, 0.99), count > 0 ? toMillis(sorted[count - 1]) : 0);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+        }
+
+        private static double toMillis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+    }
+}
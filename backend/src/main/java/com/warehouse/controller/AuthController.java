@@ -3,10 +3,12 @@ package com.warehouse.controller;
 import com.warehouse.dto.ApiResponse;
 import com.warehouse.dto.WarehouseDTO;
 import com.warehouse.security.JwtTokenUtil;
+import com.warehouse.security.UserDetailsServiceImpl;
 import com.warehouse.security.UserDetailsServiceImpl.UserPrincipal;
 import com.warehouse.service.WarehouseService;
 import com.warehouse.service.UserService;
 import com.warehouse.service.OperationLogService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -41,6 +43,9 @@ public class AuthController {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     @Autowired
     private WarehouseService warehouseService;
 
@@ -67,12 +72,7 @@ public class AuthController {
             UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
             
             // 生成token
-            String accessToken = jwtTokenUtil.generateTokenWithUserInfo(
-                userPrincipal.getUsername(),
-                userPrincipal.getId(),
-                userPrincipal.getRole(),
-                userPrincipal.getWarehouseIds()
-            );
+            String accessToken = jwtTokenUtil.generateTokenWithUserInfo(userPrincipal);
             
             String refreshToken = jwtTokenUtil.generateRefreshToken(userPrincipal);
 
@@ -127,12 +127,20 @@ public class AuthController {
         try {
             String refreshToken = request.getRefreshToken();
             
-            if (!jwtTokenUtil.validateToken(refreshToken)) {
+            Claims claims = jwtTokenUtil.parseToken(refreshToken);
+            if (claims == null) {
                 return ApiResponse.error(401, "刷新token无效");
             }
 
-            String username = jwtTokenUtil.getUsernameFromToken(refreshToken);
-            String newAccessToken = jwtTokenUtil.refreshToken(refreshToken);
+            // 按当前用户信息重新签发，已禁用或令牌已被吊销的用户不能刷新
+            UserPrincipal userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+            Object tokenVersion = claims.get(JwtTokenUtil.CLAIM_TOKEN_VERSION);
+            if (!userPrincipal.isEnabled() || !userPrincipal.isAccountNonLocked()
+                    || (tokenVersion instanceof Number number && number.intValue() != userPrincipal.getTokenVersion())) {
+                return ApiResponse.error(401, "刷新token已失效，请重新登录");
+            }
+
+            String newAccessToken = jwtTokenUtil.generateTokenWithUserInfo(userPrincipal);
             
             RefreshResponse response = new RefreshResponse();
             response.setAccessToken(newAccessToken);
@@ -4,6 +4,7 @@ import com.warehouse.dto.ApiResponse;
 import com.warehouse.dto.GoodsDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.service.GoodsService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -12,10 +13,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -118,6 +121,18 @@ public class GoodsController {
         return ApiResponse.success(goods);
     }
 
+    /**
+     * 货物输入联想（编码、名称、拼音首字母等，只返回启用的货物）
+     */
+    @GetMapping("/suggest")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<List<GoodsDTO.Suggestion>> suggestGoods(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<GoodsDTO.Suggestion> suggestions = goodsService.suggest(keyword, limit);
+        return ApiResponse.success(suggestions);
+    }
+
     /**
      * 根据分类分页查询货物
      */
@@ -340,6 +355,32 @@ public class GoodsController {
         }
     }
 
+    /**
+     * 上传Excel导入货物（后台执行，通过任务ID查询进度）
+     */
+    @PostMapping("/import/excel")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<GoodsDTO.ImportProgress> importGoodsExcel(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            return ApiResponse.error("请选择要上传的文件");
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            GoodsDTO.ImportProgress progress = goodsService.startExcelImport(inputStream, file.getOriginalFilename());
+            return ApiResponse.success("导入任务已提交", progress);
+        } catch (IOException e) {
+            return ApiResponse.error("读取上传文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 查询货物导入任务进度
+     */
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<GoodsDTO.ImportProgress> getImportProgress(@PathVariable String jobId) {
+        return ApiResponse.success(goodsService.getImportProgress(jobId));
+    }
+
 
 
     /**
@@ -347,23 +388,24 @@ public class GoodsController {
      */
     @GetMapping("/export")
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
-    public ResponseEntity<byte[]> exportGoods(
+    public void exportGoods(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) Boolean enabled) {
+            @RequestParam(required = false) Boolean enabled,
+            HttpServletResponse response) {
         try {
-            byte[] excelData = goodsService.exportGoodsToExcel(keyword, categoryId, enabled);
-
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
             headers.setContentDispositionFormData("attachment",
                 "goods_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
+            goodsService.exportGoodsToExcel(keyword, categoryId, enabled, response.getOutputStream());
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         }
     }
 }
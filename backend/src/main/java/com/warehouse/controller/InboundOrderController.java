@@ -1,6 +1,7 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InboundOrderDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.enums.ApprovalStatus;
@@ -67,6 +68,26 @@ public class InboundOrderController {
         return ApiResponse.success(orders);
     }
 
+    /**
+     * 游标分页查询入库单（按创建时间倒序，翻页开销与页码无关）
+     */
+    @GetMapping("/cursor")
+    public ApiResponse<CursorPageResponse<InboundOrderDTO>> getInboundOrdersByCursor(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) BusinessType businessType,
+            @RequestParam(required = false) ApprovalStatus status,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        String startDateStr = startDate != null ? startDate.toString() : "";
+        String endDateStr = endDate != null ? endDate.toString() : "";
+        return ApiResponse.success(inboundOrderService.findByCursorWithFilters(
+                keyword, warehouseId, businessType, status, startDateStr, endDateStr, cursor, size, withTotal));
+    }
+
     /**
      * 创建入库单
      */
@@ -1,11 +1,13 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.InventoryHistoryDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.service.InventoryService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,7 +18,6 @@ import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -89,6 +90,23 @@ public class InventoryController {
         return ApiResponse.success(inventory);
     }
 
+    /**
+     * 游标分页查询库存（按创建时间倒序，翻页开销与页码无关）
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<CursorPageResponse<InventoryDTO>> getInventoryByCursor(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String stockStatus,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(inventoryService.findByCursorWithFilters(
+                keyword, warehouseId, categoryId, stockStatus, cursor, size, withTotal));
+    }
+
     /**
      * 根据仓库分页查询库存
      */
@@ -313,29 +331,24 @@ public class InventoryController {
     @GetMapping("/export")
     @CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.OPTIONS})
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
-    public ResponseEntity<byte[]> exportInventory(
+    public void exportInventory(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) Long warehouseId,
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false) String stockStatus) {
+            @RequestParam(required = false) String stockStatus,
+            HttpServletResponse response) {
         try {
-            byte[] excelData = inventoryService.exportInventoryToExcel(keyword, warehouseId, categoryId, stockStatus);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment",
-                "inventory_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
+            prepareExcelResponse(response);
 
             // 添加CORS头
-            headers.add("Access-Control-Allow-Origin", "*");
-            headers.add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-            headers.add("Access-Control-Allow-Headers", "*");
+            response.addHeader("Access-Control-Allow-Origin", "*");
+            response.addHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
+            response.addHeader("Access-Control-Allow-Headers", "*");
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
+            inventoryService.exportInventoryToExcel(keyword, warehouseId, categoryId, stockStatus, response.getOutputStream());
         } catch (Exception e) {
             logger.error("导出库存数据失败", e);
+            resetExcelResponse(response);
             throw new BusinessException("导出失败: " + e.getMessage());
         }
     }
@@ -381,29 +394,43 @@ public class InventoryController {
      */
     @PostMapping("/export")
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
-    public ResponseEntity<byte[]> exportInventoryPost(@RequestBody InventoryDTO.ExportRequest request) {
+    public void exportInventoryPost(@RequestBody InventoryDTO.ExportRequest request, HttpServletResponse response) {
         try {
-            byte[] excelData = inventoryService.exportInventoryToExcel(
+            prepareExcelResponse(response);
+            inventoryService.exportInventoryToExcel(
                 request.getKeyword(),
                 request.getWarehouseId(),
                 request.getCategoryId(),
-                request.getStockStatus()
+                request.getStockStatus(),
+                response.getOutputStream()
             );
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment",
-                "inventory_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(excelData);
         } catch (Exception e) {
             logger.error("导出库存数据失败", e);
+            resetExcelResponse(response);
             throw new BusinessException("导出失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 设置Excel下载响应头，工作簿直接写入响应输出流
+     */
+    private void prepareExcelResponse(HttpServletResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDispositionFormData("attachment",
+            "inventory_report_" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".xlsx");
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, headers.getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    }
+
+    /**
+     * 导出失败且尚未开始输出时清除下载响应头，由全局异常处理返回错误信息
+     */
+    private void resetExcelResponse(HttpServletResponse response) {
+        if (!response.isCommitted()) {
+            response.reset();
+        }
+    }
+
     /**
      * 库存预警检查
      */
@@ -423,4 +450,16 @@ public class InventoryController {
         List<InventoryHistoryDTO> history = inventoryService.getInventoryHistory(id);
         return ApiResponse.success(history);
     }
+
+    /**
+     * 游标分页获取库存历史记录
+     */
+    @GetMapping("/{id}/history/page")
+    @PreAuthorize("isAuthenticated()")
+    public ApiResponse<CursorPageResponse<InventoryHistoryDTO>> getInventoryHistoryPage(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(inventoryService.getInventoryHistoryPage(id, cursor, size));
+    }
 }
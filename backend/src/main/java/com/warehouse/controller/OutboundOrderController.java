@@ -1,6 +1,7 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.OutboundOrderDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.enums.ApprovalStatus;
@@ -57,6 +58,23 @@ public class OutboundOrderController {
         return ApiResponse.success(orders);
     }
 
+    /**
+     * 游标分页查询出库单（按创建时间倒序，翻页开销与页码无关）
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<CursorPageResponse<OutboundOrderDTO>> getOutboundOrdersByCursor(
+            @RequestParam(defaultValue = "") String orderNumber,
+            @RequestParam(required = false) BusinessType businessType,
+            @RequestParam(required = false) ApprovalStatus status,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(outboundOrderService.findByCursorWithFilters(
+                "", orderNumber, warehouseId, businessType, status, "", "", cursor, size, withTotal));
+    }
+
     /**
      * 生成出库单号
      */
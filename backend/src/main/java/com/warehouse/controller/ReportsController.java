@@ -1,6 +1,7 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.ReportsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,6 +24,9 @@ public class ReportsController {
     @Autowired
     private ReportsService reportsService;
 
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
     /**
      * 获取概览统计
      */
@@ -250,4 +254,20 @@ public class ReportsController {
         // 这里应该实现实际的导出逻辑
         return ApiResponse.success("报表导出功能待实现");
     }
+
+    /**
+     * 重建每日业务统计
+     */
+    @PostMapping("/daily-stats/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ApiResponse<Integer> rebuildDailyStats(
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+
+        LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+        LocalDate end = LocalDate.parse(endDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+
+        int rows = dailyBusinessStatsService.rebuild(start, end);
+        return ApiResponse.success("重建完成", rows);
+    }
 }
@@ -0,0 +1,238 @@
+package com.warehouse.controller;
+
+import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.PageResponse;
+import com.warehouse.dto.StocktakeOrderDTO;
+import com.warehouse.service.StocktakeOrderService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 盘点单控制器
+ *
+ * @author Warehouse Team
+ */
+@RestController
+@RequestMapping("/api/stocktake-orders")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class StocktakeOrderController {
+
+    @Autowired
+    private StocktakeOrderService stocktakeOrderService;
+
+    /**
+     * 分页查询盘点单
+     */
+    @GetMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<PageResponse<StocktakeOrderDTO>> getStocktakeOrders(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdTime"));
+        return ApiResponse.success(stocktakeOrderService.findByPage(keyword, pageable));
+    }
+
+    /**
+     * 创建盘点单
+     */
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderDTO> createStocktakeOrder(@Valid @RequestBody StocktakeOrderDTO.CreateRequest request) {
+        try {
+            StocktakeOrderDTO order = stocktakeOrderService.createStocktakeOrder(request);
+            return ApiResponse.success("盘点单创建成功", order);
+        } catch (Exception e) {
+            return ApiResponse.error("创建盘点单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据ID查找盘点单
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<StocktakeOrderDTO> getStocktakeOrderById(@PathVariable Long id) {
+        return stocktakeOrderService.findById(id)
+                .map(order -> ApiResponse.success(order))
+                .orElse(ApiResponse.notFound("盘点单不存在"));
+    }
+
+    /**
+     * 更新盘点单
+     */
+    @PutMapping("/{id}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderDTO> updateStocktakeOrder(@PathVariable Long id, @Valid @RequestBody StocktakeOrderDTO.UpdateRequest request) {
+        try {
+            StocktakeOrderDTO order = stocktakeOrderService.updateStocktakeOrder(id, request);
+            return ApiResponse.success("盘点单更新成功", order);
+        } catch (Exception e) {
+            return ApiResponse.error("更新盘点单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除盘点单
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ApiResponse<String> deleteStocktakeOrder(@PathVariable Long id) {
+        try {
+            stocktakeOrderService.deleteStocktakeOrder(id);
+            return ApiResponse.success("盘点单删除成功");
+        } catch (Exception e) {
+            return ApiResponse.error("删除盘点单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 审批盘点单
+     */
+    @PutMapping("/{id}/approve")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderDTO> approveStocktakeOrder(@PathVariable Long id, @Valid @RequestBody StocktakeOrderDTO.ApprovalRequest request) {
+        try {
+            StocktakeOrderDTO order = stocktakeOrderService.approveStocktakeOrder(id, request);
+            return ApiResponse.success("盘点单审批成功", order);
+        } catch (Exception e) {
+            return ApiResponse.error("审批盘点单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 开始盘点（快照账面数量）
+     */
+    @PutMapping("/{id}/start")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderDTO> startStocktake(@PathVariable Long id) {
+        try {
+            StocktakeOrderDTO order = stocktakeOrderService.startStocktake(id);
+            return ApiResponse.success("盘点已开始", order);
+        } catch (Exception e) {
+            return ApiResponse.error("开始盘点失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 完成盘点（按差异调整库存）
+     */
+    @PutMapping("/{id}/complete")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderDTO> completeStocktake(@PathVariable Long id) {
+        try {
+            StocktakeOrderDTO order = stocktakeOrderService.completeStocktake(id);
+            return ApiResponse.success("盘点已完成", order);
+        } catch (Exception e) {
+            return ApiResponse.error("完成盘点失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 取消盘点单
+     */
+    @PutMapping("/{id}/cancel")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<String> cancelStocktakeOrder(@PathVariable Long id, @RequestBody CancelRequest request) {
+        try {
+            stocktakeOrderService.cancelStocktakeOrder(id, request.getReason());
+            return ApiResponse.success("盘点单取消成功");
+        } catch (Exception e) {
+            return ApiResponse.error("取消盘点单失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取盘点明细
+     */
+    @GetMapping("/{id}/details")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<List<StocktakeOrderDTO.StocktakeOrderDetailDTO>> getStocktakeOrderDetails(@PathVariable Long id) {
+        try {
+            return ApiResponse.success(stocktakeOrderService.getStocktakeOrderDetails(id));
+        } catch (Exception e) {
+            return ApiResponse.error("查询盘点明细失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量提交实盘数量（手持终端按明细ID或货物ID提交）
+     */
+    @PutMapping("/{id}/details")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<List<StocktakeOrderDTO.StocktakeOrderDetailDTO>> submitCounts(
+            @PathVariable Long id, @RequestBody List<StocktakeOrderDTO.UpdateDetailRequest> requests) {
+        try {
+            return ApiResponse.success("实盘数量提交成功", stocktakeOrderService.batchUpdateStocktakeOrderDetails(id, requests));
+        } catch (Exception e) {
+            return ApiResponse.error("提交实盘数量失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 提交单条明细的实盘数量
+     */
+    @PutMapping("/{id}/details/{detailId}")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER') or hasAuthority('ROLE_USER')")
+    public ApiResponse<StocktakeOrderDTO.StocktakeOrderDetailDTO> updateStocktakeOrderDetail(
+            @PathVariable Long id, @PathVariable Long detailId, @Valid @RequestBody StocktakeOrderDTO.UpdateDetailRequest request) {
+        try {
+            return ApiResponse.success("实盘数量提交成功", stocktakeOrderService.updateStocktakeOrderDetail(id, detailId, request));
+        } catch (Exception e) {
+            return ApiResponse.error("提交实盘数量失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取盘点差异明细
+     */
+    @GetMapping("/{id}/differences")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER')")
+    public ApiResponse<List<StocktakeOrderDTO.StocktakeOrderDetailDTO>> getStocktakeDifferences(@PathVariable Long id) {
+        try {
+            return ApiResponse.success(stocktakeOrderService.getStocktakeDifferences(id));
+        } catch (Exception e) {
+            return ApiResponse.error("查询盘点差异失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取盘点报告
+     */
+    @GetMapping("/{id}/report")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN') or hasAuthority('TEAM_LEADER') or hasAuthority('SQUAD_LEADER')")
+    public ApiResponse<StocktakeOrderDTO.StocktakeReport> getStocktakeReport(@PathVariable Long id) {
+        try {
+            return ApiResponse.success(stocktakeOrderService.generateStocktakeReport(id));
+        } catch (Exception e) {
+            return ApiResponse.error("生成盘点报告失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取盘点单统计信息
+     */
+    @GetMapping("/statistics")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN') or hasAuthority('WAREHOUSE_ADMIN')")
+    public ApiResponse<StocktakeOrderService.StocktakeStatistics> getStocktakeStatistics() {
+        try {
+            return ApiResponse.success(stocktakeOrderService.getStocktakeStatistics());
+        } catch (Exception e) {
+            return ApiResponse.error("获取统计信息失败: " + e.getMessage());
+        }
+    }
+
+    // 内部DTO类
+    public static class CancelRequest {
+        private String reason;
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+}
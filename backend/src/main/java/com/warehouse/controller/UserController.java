@@ -1,6 +1,7 @@
 package com.warehouse.controller;
 
 import com.warehouse.dto.ApiResponse;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.dto.UserDTO;
 import com.warehouse.dto.WarehouseDTO;
@@ -387,6 +388,19 @@ public class UserController {
         }
     }
 
+    /**
+     * 游标分页查询操作日志（按操作时间倒序）
+     */
+    @GetMapping("/operation-logs")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ApiResponse<CursorPageResponse<OperationLogDTO>> getOperationLogs(
+            @RequestParam(defaultValue = "") String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ApiResponse.success(operationLogService.findByCursor(keyword, cursor, size, withTotal));
+    }
+
     /**
      * 获取当前用户的操作日志
      */
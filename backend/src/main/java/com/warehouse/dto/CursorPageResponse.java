@@ -0,0 +1,118 @@
+package com.warehouse.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 游标分页响应DTO
+ * 用于键集分页：默认不统计总数，客户端将 nextCursor 原样作为下一次请求的游标。
+ *
+ * @author Warehouse Team
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResponse<T> {
+
+    /**
+     * 列表游标分页每页最大条数
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * 数据列表
+     */
+    private List<T> content;
+
+    /**
+     * 每页大小
+     */
+    private Integer size;
+
+    /**
+     * 下一页游标（没有下一页时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 符合条件的总数（仅在请求统计总数时返回）
+     */
+    private Long totalElements;
+
+    // 构造函数
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<T> content, Integer size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    /**
+     * 将请求的每页条数限制在 1 到 MAX_PAGE_SIZE 之间
+     */
+    public static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * 由多取一条的查询结果构建响应：结果超过 pageSize 条说明还有下一页，以本页最后一条生成游标
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int pageSize, Function<E, T> mapper,
+                                                  Function<E, SeekCursor> cursorOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<E> page = hasNext ? rows.subList(0, pageSize) : rows;
+        List<T> content = page.stream().map(mapper).collect(Collectors.toList());
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPageResponse<>(content, pageSize, nextCursor);
+    }
+
+    // Getters and Setters
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public Integer getSize() {
+        return size;
+    }
+
+    public void setSize(Integer size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(Long totalElements) {
+        this.totalElements = totalElements;
+    }
+}
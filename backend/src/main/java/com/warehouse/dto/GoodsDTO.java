@@ -365,6 +365,44 @@ public class GoodsDTO {
         public void setIsLowStock(Boolean isLowStock) { this.isLowStock = isLowStock; }
     }
 
+    /**
+     * 货物输入联想结果
+     */
+    public static class Suggestion {
+        private Long id;
+        private String code;
+        private String name;
+        private String specification;
+        private String unit;
+        private Long categoryId;
+
+        // Constructors
+        public Suggestion() {}
+
+        public Suggestion(Long id, String code, String name, String specification, String unit, Long categoryId) {
+            this.id = id;
+            this.code = code;
+            this.name = name;
+            this.specification = specification;
+            this.unit = unit;
+            this.categoryId = categoryId;
+        }
+
+        // Getters and Setters
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+        public String getCode() { return code; }
+        public void setCode(String code) { this.code = code; }
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getSpecification() { return specification; }
+        public void setSpecification(String specification) { this.specification = specification; }
+        public String getUnit() { return unit; }
+        public void setUnit(String unit) { this.unit = unit; }
+        public Long getCategoryId() { return categoryId; }
+        public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+    }
+
     /**
      * 货物创建请求DTO
      */
@@ -561,6 +599,9 @@ public class GoodsDTO {
     public static class ImportResult {
         private int successCount;
         private int failCount;
+        private int createdCount;
+        private int restoredCount;
+        private int skippedCount;
         private List<ImportError> errors;
         private List<ImportWarning> warnings;
 
@@ -581,6 +622,12 @@ public class GoodsDTO {
         public void setSuccessCount(int successCount) { this.successCount = successCount; }
         public int getFailCount() { return failCount; }
         public void setFailCount(int failCount) { this.failCount = failCount; }
+        public int getCreatedCount() { return createdCount; }
+        public void setCreatedCount(int createdCount) { this.createdCount = createdCount; }
+        public int getRestoredCount() { return restoredCount; }
+        public void setRestoredCount(int restoredCount) { this.restoredCount = restoredCount; }
+        public int getSkippedCount() { return skippedCount; }
+        public void setSkippedCount(int skippedCount) { this.skippedCount = skippedCount; }
         public List<ImportError> getErrors() { return errors; }
         public void setErrors(List<ImportError> errors) { this.errors = errors; }
         public List<ImportWarning> getWarnings() { return warnings; }
@@ -595,6 +642,44 @@ public class GoodsDTO {
         }
     }
 
+    /**
+     * Excel导入任务进度DTO（任务结束后携带导入结果）
+     */
+    public static class ImportProgress {
+        private String jobId;
+        private String fileName;
+        private String status;
+        private int processedRows;
+        private int successCount;
+        private int failCount;
+        private LocalDateTime startTime;
+        private LocalDateTime finishTime;
+        private String message;
+        private ImportResult result;
+
+        // Getters and Setters
+        public String getJobId() { return jobId; }
+        public void setJobId(String jobId) { this.jobId = jobId; }
+        public String getFileName() { return fileName; }
+        public void setFileName(String fileName) { this.fileName = fileName; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public int getProcessedRows() { return processedRows; }
+        public void setProcessedRows(int processedRows) { this.processedRows = processedRows; }
+        public int getSuccessCount() { return successCount; }
+        public void setSuccessCount(int successCount) { this.successCount = successCount; }
+        public int getFailCount() { return failCount; }
+        public void setFailCount(int failCount) { this.failCount = failCount; }
+        public LocalDateTime getStartTime() { return startTime; }
+        public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
+        public LocalDateTime getFinishTime() { return finishTime; }
+        public void setFinishTime(LocalDateTime finishTime) { this.finishTime = finishTime; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+        public ImportResult getResult() { return result; }
+        public void setResult(ImportResult result) { this.result = result; }
+    }
+
     /**
      * 导入错误DTO
      */
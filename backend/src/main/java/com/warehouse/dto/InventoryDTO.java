@@ -72,6 +72,38 @@ public class InventoryDTO {
     public InventoryDTO() {
     }
 
+    /**
+     * 列表查询投影（JPQL 构造器表达式），直接由查询列构造，不加载库存、货物等实体
+     */
+    public InventoryDTO(Long id, Long warehouseId, String warehouseName,
+                        Long goodsId, String goodsCode, String goodsName, String goodsUnit, String specification,
+                        String categoryName, BigDecimal quantity, BigDecimal availableQuantity, BigDecimal lockedQuantity,
+                        BigDecimal costPrice, LocalDate productionDate, LocalDate expiryDate,
+                        LocalDateTime createdTime, LocalDateTime updatedTime, String createdBy, String updatedBy,
+                        BigDecimal minStock, BigDecimal maxStock) {
+        this.id = id;
+        this.warehouseId = warehouseId;
+        this.warehouseName = warehouseName;
+        this.goodsId = goodsId;
+        this.goodsCode = goodsCode;
+        this.goodsName = goodsName;
+        this.goodsUnit = goodsUnit;
+        this.specification = specification;
+        this.categoryName = categoryName;
+        this.quantity = quantity;
+        this.availableQuantity = availableQuantity;
+        this.lockedQuantity = lockedQuantity;
+        this.costPrice = costPrice;
+        this.totalValue = quantity != null && costPrice != null ? quantity.multiply(costPrice) : null;
+        this.productionDate = productionDate;
+        this.expiryDate = expiryDate;
+        this.createdTime = createdTime;
+        this.updatedTime = updatedTime;
+        this.createdBy = createdBy;
+        this.updatedBy = updatedBy;
+        this.inventoryStatus = InventoryStatus.of(quantity, lockedQuantity, minStock, maxStock, expiryDate);
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -309,6 +341,8 @@ public class InventoryDTO {
      * 库存状态信息
      */
     public static class InventoryStatus {
+        private static final BigDecimal MAX_STOCK_BUFFER = BigDecimal.valueOf(1.15);
+
         private Boolean isLowStock;
         private Boolean isHighStock;
         private Boolean isZeroStock;
@@ -330,6 +364,35 @@ public class InventoryDTO {
             this.statusText = generateStatusText();
         }
 
+        /**
+         * 根据库存数量、锁定数量、货物库存上下限和过期日期计算库存状态
+         * 优先级：零库存 > 超量（最高库存增加15%预留） > 低于最低库存；过期状态单独判断
+         */
+        public static InventoryStatus of(BigDecimal quantity, BigDecimal lockedQuantity,
+                                         BigDecimal minStock, BigDecimal maxStock, LocalDate expiryDate) {
+            boolean isZeroStock = quantity.signum() == 0;
+            boolean isHighStock = false;
+            boolean isLowStock = false;
+            if (!isZeroStock) {
+                if (maxStock != null && quantity.compareTo(maxStock.multiply(MAX_STOCK_BUFFER)) > 0) {
+                    isHighStock = true;
+                } else if (minStock != null && quantity.compareTo(minStock) < 0) {
+                    isLowStock = true;
+                }
+            }
+
+            boolean isNearExpiry = false;
+            boolean isExpired = false;
+            if (expiryDate != null) {
+                LocalDate now = LocalDate.now();
+                isExpired = expiryDate.isBefore(now);
+                isNearExpiry = !isExpired && expiryDate.isBefore(now.plusDays(30));
+            }
+
+            return new InventoryStatus(isLowStock, isHighStock, isZeroStock, isNearExpiry, isExpired,
+                    lockedQuantity.signum() > 0);
+        }
+
         // Getters and Setters
         public Boolean getIsLowStock() { return isLowStock; }
         public void setIsLowStock(Boolean isLowStock) { this.isLowStock = isLowStock; }
@@ -451,6 +514,45 @@ public class InventoryDTO {
         public void setReason(String reason) { this.reason = reason; }
     }
 
+    /**
+     * 批量出入库明细（单据执行时使用）
+     */
+    public static class StockMovement {
+        private Long goodsId;
+        private BigDecimal quantity;
+        private BigDecimal unitPrice;
+        private LocalDate productionDate;
+        private LocalDate expiryDate;
+
+        public StockMovement() {}
+
+        public StockMovement(Long goodsId, BigDecimal quantity) {
+            this.goodsId = goodsId;
+            this.quantity = quantity;
+        }
+
+        public StockMovement(Long goodsId, BigDecimal quantity, BigDecimal unitPrice,
+                             LocalDate productionDate, LocalDate expiryDate) {
+            this.goodsId = goodsId;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.productionDate = productionDate;
+            this.expiryDate = expiryDate;
+        }
+
+        // Getters and Setters
+        public Long getGoodsId() { return goodsId; }
+        public void setGoodsId(Long goodsId) { this.goodsId = goodsId; }
+        public BigDecimal getQuantity() { return quantity; }
+        public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+        public BigDecimal getUnitPrice() { return unitPrice; }
+        public void setUnitPrice(BigDecimal unitPrice) { this.unitPrice = unitPrice; }
+        public LocalDate getProductionDate() { return productionDate; }
+        public void setProductionDate(LocalDate productionDate) { this.productionDate = productionDate; }
+        public LocalDate getExpiryDate() { return expiryDate; }
+        public void setExpiryDate(LocalDate expiryDate) { this.expiryDate = expiryDate; }
+    }
+
     /**
      * 货物信息DTO（用于下拉选择）
      */
@@ -0,0 +1,194 @@
+package com.warehouse.dto;
+
+import com.warehouse.enums.ApprovalStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 实时推送消息
+ * 一个合并窗口内某仓库（或全局仪表盘）的变化：库存数量的最新值、单据状态变化以及预警、统计、待办是否需要刷新。
+ * 库存和单据超过单条消息上限时只标记截断，客户端应重新查询。
+ *
+ * @author Warehouse Team
+ */
+public class LiveUpdateMessage {
+
+    /**
+     * 仓库ID；全局仪表盘消息为null
+     */
+    private Long warehouseId;
+
+    private List<StockDelta> stocks = new ArrayList<>();
+
+    private boolean stocksTruncated;
+
+    private List<OrderDelta> orders = new ArrayList<>();
+
+    private boolean ordersTruncated;
+
+    private boolean alertsChanged;
+
+    private boolean statsChanged;
+
+    private boolean todosChanged;
+
+    private LocalDateTime timestamp;
+
+    // Constructors
+    public LiveUpdateMessage() {
+    }
+
+    public LiveUpdateMessage(Long warehouseId) {
+        this.warehouseId = warehouseId;
+        this.timestamp = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public List<StockDelta> getStocks() {
+        return stocks;
+    }
+
+    public void setStocks(List<StockDelta> stocks) {
+        this.stocks = stocks;
+    }
+
+    public boolean isStocksTruncated() {
+        return stocksTruncated;
+    }
+
+    public void setStocksTruncated(boolean stocksTruncated) {
+        this.stocksTruncated = stocksTruncated;
+    }
+
+    public List<OrderDelta> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderDelta> orders) {
+        this.orders = orders;
+    }
+
+    public boolean isOrdersTruncated() {
+        return ordersTruncated;
+    }
+
+    public void setOrdersTruncated(boolean ordersTruncated) {
+        this.ordersTruncated = ordersTruncated;
+    }
+
+    public boolean isAlertsChanged() {
+        return alertsChanged;
+    }
+
+    public void setAlertsChanged(boolean alertsChanged) {
+        this.alertsChanged = alertsChanged;
+    }
+
+    public boolean isStatsChanged() {
+        return statsChanged;
+    }
+
+    public void setStatsChanged(boolean statsChanged) {
+        this.statsChanged = statsChanged;
+    }
+
+    public boolean isTodosChanged() {
+        return todosChanged;
+    }
+
+    public void setTodosChanged(boolean todosChanged) {
+        this.todosChanged = todosChanged;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 库存最新数量
+     */
+    public static class StockDelta {
+        private Long inventoryId;
+        private Long goodsId;
+        private BigDecimal quantity;
+        private BigDecimal availableQuantity;
+        private BigDecimal lockedQuantity;
+        /**
+         * 库存已删除
+         */
+        private boolean deleted;
+
+        public StockDelta() {
+        }
+
+        public StockDelta(Long inventoryId, Long goodsId, BigDecimal quantity, BigDecimal availableQuantity,
+                          BigDecimal lockedQuantity, boolean deleted) {
+            this.inventoryId = inventoryId;
+            this.goodsId = goodsId;
+            this.quantity = quantity;
+            this.availableQuantity = availableQuantity;
+            this.lockedQuantity = lockedQuantity;
+            this.deleted = deleted;
+        }
+
+        public Long getInventoryId() { return inventoryId; }
+        public void setInventoryId(Long inventoryId) { this.inventoryId = inventoryId; }
+        public Long getGoodsId() { return goodsId; }
+        public void setGoodsId(Long goodsId) { this.goodsId = goodsId; }
+        public BigDecimal getQuantity() { return quantity; }
+        public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+        public BigDecimal getAvailableQuantity() { return availableQuantity; }
+        public void setAvailableQuantity(BigDecimal availableQuantity) { this.availableQuantity = availableQuantity; }
+        public BigDecimal getLockedQuantity() { return lockedQuantity; }
+        public void setLockedQuantity(BigDecimal lockedQuantity) { this.lockedQuantity = lockedQuantity; }
+        public boolean isDeleted() { return deleted; }
+        public void setDeleted(boolean deleted) { this.deleted = deleted; }
+    }
+
+    /**
+     * 单据状态变化（同一单据在窗口内多次变化只保留最后一次）
+     */
+    public static class OrderDelta {
+        private String orderType;
+        private Long orderId;
+        private String orderNumber;
+        /**
+         * 最新状态；单据已删除时为null
+         */
+        private ApprovalStatus status;
+
+        public OrderDelta() {
+        }
+
+        public OrderDelta(String orderType, Long orderId, String orderNumber, ApprovalStatus status) {
+            this.orderType = orderType;
+            this.orderId = orderId;
+            this.orderNumber = orderNumber;
+            this.status = status;
+        }
+
+        public String getOrderType() { return orderType; }
+        public void setOrderType(String orderType) { this.orderType = orderType; }
+        public Long getOrderId() { return orderId; }
+        public void setOrderId(Long orderId) { this.orderId = orderId; }
+        public String getOrderNumber() { return orderNumber; }
+        public void setOrderNumber(String orderNumber) { this.orderNumber = orderNumber; }
+        public ApprovalStatus getStatus() { return status; }
+        public void setStatus(ApprovalStatus status) { this.status = status; }
+    }
+}
@@ -2,8 +2,10 @@ package com.warehouse.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 分页响应DTO
@@ -107,6 +109,13 @@ public class PageResponse<T> {
         return response;
     }
 
+    /**
+     * 从Spring Data的Page对象创建PageResponse，本页内容整体转换（便于批量加载关联数据）
+     */
+    public static <E, T> PageResponse<T> of(Page<E> page, Function<List<E>, List<T>> converter) {
+        return of(new PageImpl<>(converter.apply(page.getContent()), page.getPageable(), page.getTotalElements()));
+    }
+
     /**
      * 创建空的分页响应
      */
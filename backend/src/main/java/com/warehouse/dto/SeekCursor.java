@@ -0,0 +1,83 @@
+package com.warehouse.dto;
+
+import com.warehouse.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 键集分页游标
+ * 记录上一页最后一条数据的 (排序字段值, ID)，编码为不透明字符串返回给客户端；
+ * 排序字段名一并编码，游标不能用于其他排序方式的查询。
+ *
+ * @author Warehouse Team
+ */
+public final class SeekCursor {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 排序字段名
+     */
+    private final String sortKey;
+
+    /**
+     * 排序字段值
+     */
+    private final LocalDateTime sortValue;
+
+    /**
+     * 记录ID（排序字段值相同时按ID区分先后）
+     */
+    private final Long id;
+
+    private SeekCursor(String sortKey, LocalDateTime sortValue, Long id) {
+        this.sortKey = sortKey;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public static SeekCursor of(String sortKey, LocalDateTime sortValue, Long id) {
+        return new SeekCursor(sortKey, sortValue, id);
+    }
+
+    /**
+     * 编码为URL安全的字符串
+     */
+    public String encode() {
+        String raw = sortKey + SEPARATOR + sortValue + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端传回的游标；游标为空（第一页）时返回null，格式错误或排序字段不一致时抛出业务异常
+     */
+    public static SeekCursor decode(String cursor, String expectedSortKey) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length == 3 && parts[0].equals(expectedSortKey)) {
+                return new SeekCursor(parts[0], LocalDateTime.parse(parts[1]), Long.valueOf(parts[2]));
+            }
+        } catch (RuntimeException e) {
+            // 按无效游标处理
+        }
+        throw new BusinessException("无效的分页游标");
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public LocalDateTime getSortValue() {
+        return sortValue;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -400,8 +400,9 @@ public class StocktakeOrderDTO {
 
         private String stocktakeUserNames;
 
-        @Valid
-        @NotEmpty(message = "盘点明细不能为空")
+        /**
+         * 盘点范围：只使用货物ID和备注，账面数量在开始盘点时快照；全盘可为空
+         */
         private List<StocktakeOrderDetailDTO> details;
 
         // Getters and Setters
@@ -427,7 +428,9 @@ public class StocktakeOrderDTO {
         private String remark;
         private String stocktakeUserNames;
 
-        @Valid
+        /**
+         * 新的盘点范围，为空时不修改
+         */
         private List<StocktakeOrderDetailDTO> details;
 
         // Getters and Setters
@@ -463,6 +466,11 @@ public class StocktakeOrderDTO {
     public static class UpdateDetailRequest {
         private Long id;
 
+        /**
+         * 未指定明细ID时按货物ID定位（手持终端扫码提交）
+         */
+        private Long goodsId;
+
         @NotNull(message = "实盘数量不能为空")
         @DecimalMin(value = "0.0", message = "实盘数量不能为负数")
         private BigDecimal actualQuantity;
@@ -475,6 +483,9 @@ public class StocktakeOrderDTO {
         public Long getId() { return id; }
         public void setId(Long id) { this.id = id; }
 
+        public Long getGoodsId() { return goodsId; }
+        public void setGoodsId(Long goodsId) { this.goodsId = goodsId; }
+
         public BigDecimal getActualQuantity() { return actualQuantity; }
         public void setActualQuantity(BigDecimal actualQuantity) { this.actualQuantity = actualQuantity; }
 
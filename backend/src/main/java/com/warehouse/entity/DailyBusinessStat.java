@@ -0,0 +1,127 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 每日业务统计实体类
+ * 按 日期 × 仓库 × 单据类型 × 货物 预聚合已执行单据的笔数、数量和金额，
+ * 供仪表盘和报表直接读取，避免每次请求都扫描单据表。
+ * goods_id 为 0 的行是单据级汇总（笔数为单据数），其余行为货物级汇总（笔数为明细行数）。
+ *
+ * @author Warehouse Team
+ */
+@Entity
+@Table(name = "daily_business_stats", indexes = {
+    @Index(name = "idx_daily_stats_key", columnList = "stat_date,warehouse_id,order_type,goods_id", unique = true),
+    @Index(name = "idx_daily_stats_goods", columnList = "goods_id,stat_date")
+})
+public class DailyBusinessStat extends BaseEntity {
+
+    /**
+     * 单据级汇总行使用的货物ID
+     */
+    public static final long ALL_GOODS = 0L;
+
+    public static final String TYPE_INBOUND = "INBOUND";
+    public static final String TYPE_OUTBOUND = "OUTBOUND";
+    public static final String TYPE_TRANSFER_IN = "TRANSFER_IN";
+    public static final String TYPE_TRANSFER_OUT = "TRANSFER_OUT";
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "goods_id", nullable = false)
+    private Long goodsId;
+
+    @Column(name = "order_type", nullable = false, length = 20)
+    private String orderType;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "total_quantity", nullable = false, precision = 18, scale = 3)
+    private BigDecimal totalQuantity = BigDecimal.ZERO;
+
+    @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    // Constructors
+    public DailyBusinessStat() {
+    }
+
+    // Getters and Setters
+    public LocalDate getStatDate() {
+        return statDate;
+    }
+
+    public void setStatDate(LocalDate statDate) {
+        this.statDate = statDate;
+    }
+
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Long getGoodsId() {
+        return goodsId;
+    }
+
+    public void setGoodsId(Long goodsId) {
+        this.goodsId = goodsId;
+    }
+
+    public String getOrderType() {
+        return orderType;
+    }
+
+    public void setOrderType(String orderType) {
+        this.orderType = orderType;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(BigDecimal totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyBusinessStat{" +
+                "statDate=" + statDate +
+                ", warehouseId=" + warehouseId +
+                ", goodsId=" + goodsId +
+                ", orderType='" + orderType + '\'' +
+                ", orderCount=" + orderCount +
+                ", totalQuantity=" + totalQuantity +
+                ", totalAmount=" + totalAmount +
+                '}';
+    }
+}
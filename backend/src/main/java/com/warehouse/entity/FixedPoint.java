@@ -0,0 +1,95 @@
+package com.warehouse.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 库存数量与成本的定点数换算
+ * 数量按3位小数、成本按4位小数（与表字段精度一致）换算为整数，整数运算的舍入方式与 BigDecimal HALF_UP 一致。
+ *
+ * @author Warehouse Team
+ */
+public final class FixedPoint {
+
+    /**
+     * 数量小数位数
+     */
+    public static final int QUANTITY_SCALE = 3;
+
+    /**
+     * 成本小数位数
+     */
+    public static final int COST_SCALE = 4;
+
+    /**
+     * 数量换算系数（1个单位数量对应的整数值）
+     */
+    public static final long QUANTITY_FACTOR = 1000;
+
+    /**
+     * 空值标记
+     */
+    public static final long NULL = Long.MIN_VALUE;
+
+    /**
+     * long 可以完整表示的十进制位数
+     */
+    private static final int MAX_DIGITS = 18;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * BigDecimal 转换为定点整数，超出精度的部分四舍五入；null 转换为 NULL
+     */
+    public static long toUnits(BigDecimal value, int scale) {
+        if (value == null) {
+            return NULL;
+        }
+        return value.setScale(scale, RoundingMode.HALF_UP).scaleByPowerOfTen(scale).longValueExact();
+    }
+
+    /**
+     * 定点整数转换为 BigDecimal；NULL 转换为 null
+     */
+    public static BigDecimal toDecimal(long units, int scale) {
+        return units != NULL ? BigDecimal.valueOf(units, scale) : null;
+    }
+
+    /**
+     * 判断数值能否在指定精度下不经舍入地转换为定点整数
+     */
+    public static boolean isExact(BigDecimal value, int scale) {
+        if (value == null) {
+            return false;
+        }
+        if (value.scale() > scale) {
+            value = value.stripTrailingZeros();
+            if (value.scale() > scale) {
+                return false;
+            }
+        }
+        return value.precision() - value.scale() + scale <= MAX_DIGITS;
+    }
+
+    /**
+     * 整数除法，结果四舍五入（与 RoundingMode.HALF_UP 一致）；除数为0时抛出 ArithmeticException
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend ^ divisor) < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * 整数乘法，溢出时返回 NULL
+     */
+    public static long multiplyOrOverflow(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) || (high == -1 && low < 0) ? low : NULL;
+    }
+}
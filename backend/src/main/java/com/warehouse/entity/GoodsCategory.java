@@ -1,6 +1,8 @@
 package com.warehouse.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -14,6 +16,8 @@ import java.util.List;
  * @author Warehouse Team
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "goods_categories", indexes = {
     @Index(name = "idx_category_code", columnList = "code", unique = true),
     @Index(name = "idx_category_name", columnList = "name"),
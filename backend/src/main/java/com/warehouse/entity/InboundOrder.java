@@ -24,9 +24,10 @@ import java.util.List;
     @Index(name = "idx_inbound_warehouse", columnList = "warehouse_id"),
     @Index(name = "idx_inbound_status", columnList = "status"),
     @Index(name = "idx_inbound_type", columnList = "business_type"),
-    @Index(name = "idx_inbound_date", columnList = "planned_date")
+    @Index(name = "idx_inbound_date", columnList = "planned_date"),
+    @Index(name = "idx_inbound_created_time", columnList = "created_time,id")
 })
-public class InboundOrder extends BaseEntity {
+public class InboundOrder extends PooledIdEntity {
 
     @NotBlank(message = "入库单号不能为空")
     @Size(max = 50, message = "入库单号长度不能超过50个字符")
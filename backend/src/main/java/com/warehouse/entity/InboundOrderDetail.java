@@ -17,7 +17,7 @@ import java.time.LocalDate;
     @Index(name = "idx_inbound_detail_order", columnList = "inbound_order_id"),
     @Index(name = "idx_inbound_detail_goods", columnList = "goods_id")
 })
-public class InboundOrderDetail extends BaseEntity {
+public class InboundOrderDetail extends PooledIdEntity {
 
     @NotNull(message = "入库单不能为空")
     @ManyToOne(fetch = FetchType.LAZY)
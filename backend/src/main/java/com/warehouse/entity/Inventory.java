@@ -19,9 +19,11 @@ import java.time.LocalDate;
         @Index(name = "idx_inventory_warehouse_goods", columnList = "warehouse_id,goods_id", unique = true),
         @Index(name = "idx_inventory_warehouse", columnList = "warehouse_id"),
         @Index(name = "idx_inventory_goods", columnList = "goods_id"),
-        @Index(name = "idx_inventory_quantity", columnList = "quantity")
+        @Index(name = "idx_inventory_quantity", columnList = "quantity"),
+        @Index(name = "idx_inventory_created_time", columnList = "created_time,id")
     }
 )
+@Access(AccessType.FIELD)
 public class Inventory extends BaseEntity {
 
     @NotNull(message = "仓库不能为空")
@@ -34,26 +36,23 @@ public class Inventory extends BaseEntity {
     @JoinColumn(name = "goods_id", nullable = false)
     private Goods goods;
 
-    @NotNull(message = "库存数量不能为空")
-    @DecimalMin(value = "0.0", message = "库存数量不能为负数")
-    @Column(name = "quantity", nullable = false, precision = 15, scale = 3)
-    private BigDecimal quantity = BigDecimal.ZERO;
+    // 数量和成本在内存中以定点整数保存（数量精确到0.001，成本精确到0.0001，与表字段精度一致），
+    // 出入库、锁定等运算直接在整数上完成；读写数据库和对外接口时通过属性访问器转换为 BigDecimal。
 
-    @DecimalMin(value = "0.0", message = "可用数量不能为负数")
-    @Column(name = "available_quantity", nullable = false, precision = 15, scale = 3)
-    private BigDecimal availableQuantity = BigDecimal.ZERO;
+    @Transient
+    private long quantityUnits;
 
-    @DecimalMin(value = "0.0", message = "锁定数量不能为负数")
-    @Column(name = "locked_quantity", nullable = false, precision = 15, scale = 3)
-    private BigDecimal lockedQuantity = BigDecimal.ZERO;
+    @Transient
+    private long availableQuantityUnits;
 
-    @DecimalMin(value = "0.0", message = "平均成本不能为负数")
-    @Column(name = "average_cost", precision = 15, scale = 4)
-    private BigDecimal averageCost = BigDecimal.ZERO;
+    @Transient
+    private long lockedQuantityUnits;
 
-    @DecimalMin(value = "0.0", message = "最新成本不能为负数")
-    @Column(name = "latest_cost", precision = 15, scale = 4)
-    private BigDecimal latestCost = BigDecimal.ZERO;
+    @Transient
+    private long averageCostUnits;
+
+    @Transient
+    private long latestCostUnits;
 
     @Column(name = "production_date")
     private LocalDate productionDate;
@@ -77,17 +76,13 @@ public class Inventory extends BaseEntity {
     public Inventory(Warehouse warehouse, Goods goods) {
         this.warehouse = warehouse;
         this.goods = goods;
-        this.quantity = BigDecimal.ZERO;
-        this.availableQuantity = BigDecimal.ZERO;
-        this.lockedQuantity = BigDecimal.ZERO;
     }
 
     public Inventory(Warehouse warehouse, Goods goods, BigDecimal quantity) {
         this.warehouse = warehouse;
         this.goods = goods;
-        this.quantity = quantity;
-        this.availableQuantity = quantity;
-        this.lockedQuantity = BigDecimal.ZERO;
+        setQuantity(quantity);
+        setAvailableQuantity(quantity);
     }
 
     // Getters and Setters
@@ -107,44 +102,74 @@ public class Inventory extends BaseEntity {
         this.goods = goods;
     }
 
+    @NotNull(message = "库存数量不能为空")
+    @DecimalMin(value = "0.0", message = "库存数量不能为负数")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "quantity", nullable = false, precision = 15, scale = 3)
     public BigDecimal getQuantity() {
-        return quantity;
+        return FixedPoint.toDecimal(quantityUnits, FixedPoint.QUANTITY_SCALE);
     }
 
     public void setQuantity(BigDecimal quantity) {
-        this.quantity = quantity;
+        this.quantityUnits = FixedPoint.toUnits(quantity, FixedPoint.QUANTITY_SCALE);
     }
 
+    @DecimalMin(value = "0.0", message = "可用数量不能为负数")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "available_quantity", nullable = false, precision = 15, scale = 3)
     public BigDecimal getAvailableQuantity() {
-        return availableQuantity;
+        return FixedPoint.toDecimal(availableQuantityUnits, FixedPoint.QUANTITY_SCALE);
     }
 
     public void setAvailableQuantity(BigDecimal availableQuantity) {
-        this.availableQuantity = availableQuantity;
+        this.availableQuantityUnits = FixedPoint.toUnits(availableQuantity, FixedPoint.QUANTITY_SCALE);
     }
 
+    @DecimalMin(value = "0.0", message = "锁定数量不能为负数")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "locked_quantity", nullable = false, precision = 15, scale = 3)
     public BigDecimal getLockedQuantity() {
-        return lockedQuantity;
+        return FixedPoint.toDecimal(lockedQuantityUnits, FixedPoint.QUANTITY_SCALE);
     }
 
     public void setLockedQuantity(BigDecimal lockedQuantity) {
-        this.lockedQuantity = lockedQuantity;
+        this.lockedQuantityUnits = FixedPoint.toUnits(lockedQuantity, FixedPoint.QUANTITY_SCALE);
     }
 
+    @DecimalMin(value = "0.0", message = "平均成本不能为负数")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "average_cost", precision = 15, scale = 4)
     public BigDecimal getAverageCost() {
-        return averageCost;
+        return FixedPoint.toDecimal(averageCostUnits, FixedPoint.COST_SCALE);
     }
 
     public void setAverageCost(BigDecimal averageCost) {
-        this.averageCost = averageCost;
+        this.averageCostUnits = FixedPoint.toUnits(averageCost, FixedPoint.COST_SCALE);
     }
 
+    @DecimalMin(value = "0.0", message = "最新成本不能为负数")
+    @Access(AccessType.PROPERTY)
+    @Column(name = "latest_cost", precision = 15, scale = 4)
     public BigDecimal getLatestCost() {
-        return latestCost;
+        return FixedPoint.toDecimal(latestCostUnits, FixedPoint.COST_SCALE);
     }
 
     public void setLatestCost(BigDecimal latestCost) {
-        this.latestCost = latestCost;
+        this.latestCostUnits = FixedPoint.toUnits(latestCost, FixedPoint.COST_SCALE);
+    }
+
+    /**
+     * 库存数量（定点整数，单位0.001），用于内存中的汇总计算
+     */
+    public long getQuantityUnits() {
+        return quantityUnits;
+    }
+
+    /**
+     * 平均成本（定点整数，单位0.0001），为空时返回 FixedPoint.NULL
+     */
+    public long getAverageCostUnits() {
+        return averageCostUnits;
     }
 
 
@@ -195,26 +220,55 @@ public class Inventory extends BaseEntity {
     
     /**
      * 入库操作
+     * 移动加权平均成本 = (原数量×原平均成本 + 入库数量×入库成本) / 入库后数量，保留4位小数、四舍五入。
+     * 入参精度超出表字段精度、平均成本为空或整数运算溢出时按 BigDecimal 计算，结果与原实现一致。
      */
     public void inbound(BigDecimal inboundQuantity, BigDecimal cost) {
         if (inboundQuantity.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("入库数量必须大于0");
         }
-        
-        // 更新平均成本
-        if (this.quantity.compareTo(BigDecimal.ZERO) == 0) {
-            this.averageCost = cost;
+
+        if (FixedPoint.isExact(inboundQuantity, FixedPoint.QUANTITY_SCALE)
+                && FixedPoint.isExact(cost, FixedPoint.COST_SCALE)
+                && averageCostUnits != FixedPoint.NULL) {
+            long inboundUnits = FixedPoint.toUnits(inboundQuantity, FixedPoint.QUANTITY_SCALE);
+            long costUnits = FixedPoint.toUnits(cost, FixedPoint.COST_SCALE);
+            try {
+                long newAverageCost;
+                if (quantityUnits == 0) {
+                    newAverageCost = costUnits;
+                } else {
+                    // 数量(3位小数)×成本(4位小数)得到7位小数的金额，除以3位小数的数量得到4位小数的成本
+                    long totalCost = Math.addExact(Math.multiplyExact(quantityUnits, averageCostUnits),
+                            Math.multiplyExact(inboundUnits, costUnits));
+                    newAverageCost = FixedPoint.divideHalfUp(totalCost, Math.addExact(quantityUnits, inboundUnits));
+                }
+                long newQuantity = Math.addExact(quantityUnits, inboundUnits);
+                long newAvailable = Math.addExact(availableQuantityUnits, inboundUnits);
+
+                this.averageCostUnits = newAverageCost;
+                this.quantityUnits = newQuantity;
+                this.availableQuantityUnits = newAvailable;
+                this.latestCostUnits = costUnits;
+                this.lastInboundDate = LocalDate.now();
+                return;
+            } catch (ArithmeticException e) {
+                // 溢出或除数为0，按 BigDecimal 计算
+            }
+        }
+
+        BigDecimal quantity = getQuantity();
+        if (quantity.compareTo(BigDecimal.ZERO) == 0) {
+            setAverageCost(cost);
         } else {
-            BigDecimal totalCost = this.quantity.multiply(this.averageCost)
+            BigDecimal totalCost = quantity.multiply(getAverageCost())
                                  .add(inboundQuantity.multiply(cost));
-            BigDecimal totalQuantity = this.quantity.add(inboundQuantity);
-            this.averageCost = totalCost.divide(totalQuantity, 4, java.math.RoundingMode.HALF_UP);
+            BigDecimal totalQuantity = quantity.add(inboundQuantity);
+            setAverageCost(totalCost.divide(totalQuantity, 4, java.math.RoundingMode.HALF_UP));
         }
-        
-        // 更新数量
-        this.quantity = this.quantity.add(inboundQuantity);
-        this.availableQuantity = this.availableQuantity.add(inboundQuantity);
-        this.latestCost = cost;
+        setQuantity(quantity.add(inboundQuantity));
+        setAvailableQuantity(getAvailableQuantity().add(inboundQuantity));
+        setLatestCost(cost);
         this.lastInboundDate = LocalDate.now();
     }
 
@@ -225,12 +279,23 @@ public class Inventory extends BaseEntity {
         if (outboundQuantity.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("出库数量必须大于0");
         }
-        if (outboundQuantity.compareTo(this.availableQuantity) > 0) {
+        if (!FixedPoint.isExact(outboundQuantity, FixedPoint.QUANTITY_SCALE)) {
+            if (outboundQuantity.compareTo(getAvailableQuantity()) > 0) {
+                throw new IllegalArgumentException("出库数量不能大于可用库存");
+            }
+            setQuantity(getQuantity().subtract(outboundQuantity));
+            setAvailableQuantity(getAvailableQuantity().subtract(outboundQuantity));
+            this.lastOutboundDate = LocalDate.now();
+            return;
+        }
+
+        long outboundUnits = FixedPoint.toUnits(outboundQuantity, FixedPoint.QUANTITY_SCALE);
+        if (outboundUnits > availableQuantityUnits) {
             throw new IllegalArgumentException("出库数量不能大于可用库存");
         }
-        
-        this.quantity = this.quantity.subtract(outboundQuantity);
-        this.availableQuantity = this.availableQuantity.subtract(outboundQuantity);
+
+        this.quantityUnits -= outboundUnits;
+        this.availableQuantityUnits -= outboundUnits;
         this.lastOutboundDate = LocalDate.now();
     }
 
@@ -241,12 +306,22 @@ public class Inventory extends BaseEntity {
         if (lockQuantity.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("锁定数量必须大于0");
         }
-        if (lockQuantity.compareTo(this.availableQuantity) > 0) {
+        if (!FixedPoint.isExact(lockQuantity, FixedPoint.QUANTITY_SCALE)) {
+            if (lockQuantity.compareTo(getAvailableQuantity()) > 0) {
+                throw new IllegalArgumentException("锁定数量不能大于可用库存");
+            }
+            setAvailableQuantity(getAvailableQuantity().subtract(lockQuantity));
+            setLockedQuantity(getLockedQuantity().add(lockQuantity));
+            return;
+        }
+
+        long lockUnits = FixedPoint.toUnits(lockQuantity, FixedPoint.QUANTITY_SCALE);
+        if (lockUnits > availableQuantityUnits) {
             throw new IllegalArgumentException("锁定数量不能大于可用库存");
         }
-        
-        this.availableQuantity = this.availableQuantity.subtract(lockQuantity);
-        this.lockedQuantity = this.lockedQuantity.add(lockQuantity);
+
+        this.availableQuantityUnits -= lockUnits;
+        this.lockedQuantityUnits += lockUnits;
     }
 
     /**
@@ -256,12 +331,22 @@ public class Inventory extends BaseEntity {
         if (unlockQuantity.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("解锁数量必须大于0");
         }
-        if (unlockQuantity.compareTo(this.lockedQuantity) > 0) {
+        if (!FixedPoint.isExact(unlockQuantity, FixedPoint.QUANTITY_SCALE)) {
+            if (unlockQuantity.compareTo(getLockedQuantity()) > 0) {
+                throw new IllegalArgumentException("解锁数量不能大于锁定库存");
+            }
+            setLockedQuantity(getLockedQuantity().subtract(unlockQuantity));
+            setAvailableQuantity(getAvailableQuantity().add(unlockQuantity));
+            return;
+        }
+
+        long unlockUnits = FixedPoint.toUnits(unlockQuantity, FixedPoint.QUANTITY_SCALE);
+        if (unlockUnits > lockedQuantityUnits) {
             throw new IllegalArgumentException("解锁数量不能大于锁定库存");
         }
-        
-        this.lockedQuantity = this.lockedQuantity.subtract(unlockQuantity);
-        this.availableQuantity = this.availableQuantity.add(unlockQuantity);
+
+        this.lockedQuantityUnits -= unlockUnits;
+        this.availableQuantityUnits += unlockUnits;
     }
 
     /**
@@ -271,7 +356,7 @@ public class Inventory extends BaseEntity {
         if (goods == null || goods.getMinStock() == null) {
             return false;
         }
-        return quantity.compareTo(goods.getMinStock()) <= 0;
+        return getQuantity().compareTo(goods.getMinStock()) <= 0;
     }
 
     /**
@@ -298,7 +383,13 @@ public class Inventory extends BaseEntity {
      * 获取库存总价值
      */
     public BigDecimal getTotalValue() {
-        return quantity.multiply(averageCost);
+        // 数量(3位小数)×成本(4位小数)，结果为7位小数，与 BigDecimal.multiply 的精度一致；成本为空或溢出时按 BigDecimal 计算
+        long valueUnits = averageCostUnits != FixedPoint.NULL
+                ? FixedPoint.multiplyOrOverflow(quantityUnits, averageCostUnits) : FixedPoint.NULL;
+        if (valueUnits == FixedPoint.NULL) {
+            return getQuantity().multiply(getAverageCost());
+        }
+        return BigDecimal.valueOf(valueUnits, FixedPoint.QUANTITY_SCALE + FixedPoint.COST_SCALE);
     }
 
     // ===== 兼容方法 =====
@@ -307,56 +398,56 @@ public class Inventory extends BaseEntity {
      * 获取成本价格 (兼容方法)
      */
     public BigDecimal getCostPrice() {
-        return this.averageCost;
+        return getAverageCost();
     }
 
     /**
      * 设置成本价格 (兼容方法)
      */
     public void setCostPrice(BigDecimal costPrice) {
-        this.averageCost = costPrice;
+        setAverageCost(costPrice);
     }
 
     /**
      * 获取总数量 (兼容方法)
      */
     public Integer getTotalQuantity() {
-        return this.quantity != null ? this.quantity.intValue() : 0;
+        return (int) (quantityUnits / FixedPoint.QUANTITY_FACTOR);
     }
 
     /**
      * 设置总数量 (兼容方法)
      */
     public void setTotalQuantity(Integer totalQuantity) {
-        this.quantity = totalQuantity != null ? BigDecimal.valueOf(totalQuantity) : BigDecimal.ZERO;
+        this.quantityUnits = totalQuantity != null ? totalQuantity * FixedPoint.QUANTITY_FACTOR : 0;
     }
 
     /**
      * 获取可用数量 (兼容方法)
      */
     public Integer getAvailableQuantityInt() {
-        return this.availableQuantity != null ? this.availableQuantity.intValue() : 0;
+        return (int) (availableQuantityUnits / FixedPoint.QUANTITY_FACTOR);
     }
 
     /**
      * 设置可用数量 (兼容方法)
      */
     public void setAvailableQuantityInt(Integer availableQuantity) {
-        this.availableQuantity = availableQuantity != null ? BigDecimal.valueOf(availableQuantity) : BigDecimal.ZERO;
+        this.availableQuantityUnits = availableQuantity != null ? availableQuantity * FixedPoint.QUANTITY_FACTOR : 0;
     }
 
     /**
      * 获取锁定数量 (兼容方法)
      */
     public Integer getLockedQuantityInt() {
-        return this.lockedQuantity != null ? this.lockedQuantity.intValue() : 0;
+        return (int) (lockedQuantityUnits / FixedPoint.QUANTITY_FACTOR);
     }
 
     /**
      * 设置锁定数量 (兼容方法)
      */
     public void setLockedQuantityInt(Integer lockedQuantity) {
-        this.lockedQuantity = lockedQuantity != null ? BigDecimal.valueOf(lockedQuantity) : BigDecimal.ZERO;
+        this.lockedQuantityUnits = lockedQuantity != null ? lockedQuantity * FixedPoint.QUANTITY_FACTOR : 0;
     }
 
     /**
@@ -374,9 +465,9 @@ public class Inventory extends BaseEntity {
                 "id=" + getId() +
                 ", warehouse=" + (warehouse != null ? warehouse.getName() : null) +
                 ", goods=" + (goods != null ? goods.getName() : null) +
-                ", quantity=" + quantity +
-                ", availableQuantity=" + availableQuantity +
-                ", lockedQuantity=" + lockedQuantity +
+                ", quantity=" + getQuantity() +
+                ", availableQuantity=" + getAvailableQuantity() +
+                ", lockedQuantity=" + getLockedQuantity() +
                 '}';
     }
 }
@@ -0,0 +1,178 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 库存预警实体类
+ * 每条记录是一次预警从触发到解除的过程：触发时写入 active = true，条件不再满足时置为 false 并记录解除时间，
+ * 同一库存再次满足条件时新增一条记录。预警由库存变更提交后和每日过期巡检增量计算，读取时只查询有效预警。
+ *
+ * @author Warehouse Team
+ */
+@Entity
+@Table(name = "inventory_alerts", indexes = {
+    @Index(name = "idx_alert_active_type", columnList = "active,alert_type,warehouse_id"),
+    @Index(name = "idx_alert_inventory", columnList = "inventory_id,active"),
+    @Index(name = "idx_alert_goods", columnList = "goods_id,active")
+})
+public class InventoryAlert extends BaseEntity {
+
+    /**
+     * 低库存：数量大于0且低于货物最小库存
+     */
+    public static final String TYPE_LOW_STOCK = "LOW_STOCK";
+
+    /**
+     * 零库存
+     */
+    public static final String TYPE_ZERO_STOCK = "ZERO_STOCK";
+
+    /**
+     * 即将过期：有库存且在预警天数内过期
+     */
+    public static final String TYPE_NEAR_EXPIRY = "NEAR_EXPIRY";
+
+    /**
+     * 已过期：有库存且过期日期早于今天
+     */
+    public static final String TYPE_EXPIRED = "EXPIRED";
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "goods_id", nullable = false)
+    private Long goodsId;
+
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private String alertType;
+
+    @Column(name = "active", nullable = false)
+    private Boolean active = true;
+
+    @Column(name = "raised_time", nullable = false)
+    private LocalDateTime raisedTime;
+
+    @Column(name = "cleared_time")
+    private LocalDateTime clearedTime;
+
+    /**
+     * 触发时的库存数量
+     */
+    @Column(name = "quantity", precision = 15, scale = 3)
+    private BigDecimal quantity;
+
+    /**
+     * 触发时的最小库存（低库存预警）
+     */
+    @Column(name = "threshold", precision = 15, scale = 2)
+    private BigDecimal threshold;
+
+    /**
+     * 触发时的过期日期（过期类预警）
+     */
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    // Constructors
+    public InventoryAlert() {
+    }
+
+    // Getters and Setters
+    public Long getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(Long inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Long getGoodsId() {
+        return goodsId;
+    }
+
+    public void setGoodsId(Long goodsId) {
+        this.goodsId = goodsId;
+    }
+
+    public String getAlertType() {
+        return alertType;
+    }
+
+    public void setAlertType(String alertType) {
+        this.alertType = alertType;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getRaisedTime() {
+        return raisedTime;
+    }
+
+    public void setRaisedTime(LocalDateTime raisedTime) {
+        this.raisedTime = raisedTime;
+    }
+
+    public LocalDateTime getClearedTime() {
+        return clearedTime;
+    }
+
+    public void setClearedTime(LocalDateTime clearedTime) {
+        this.clearedTime = clearedTime;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(BigDecimal threshold) {
+        this.threshold = threshold;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryAlert{" +
+                "inventoryId=" + inventoryId +
+                ", alertType='" + alertType + '\'' +
+                ", active=" + active +
+                ", raisedTime=" + raisedTime +
+                ", clearedTime=" + clearedTime +
+                '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 库存变动流水实体类
+ * 只追加不修改，与库存变更在同一事务内写入；库存历史直接按 库存ID + 操作时间 索引分页读取，
+ * 不再从操作日志的请求参数字符串中解析数量。
+ *
+ * @author Warehouse Team
+ */
+@Entity
+@Table(name = "inventory_movements", indexes = {
+    @Index(name = "idx_movement_inventory_time", columnList = "inventory_id,operation_time,id"),
+    @Index(name = "idx_movement_order_number", columnList = "order_number")
+})
+public class InventoryMovement extends BaseEntity {
+
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+
+    @Column(name = "goods_id", nullable = false)
+    private Long goodsId;
+
+    @Column(name = "operation_type", nullable = false, length = 50)
+    private String operationType;
+
+    @Column(name = "business_type", length = 50)
+    private String businessType;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "change_quantity", nullable = false, precision = 15, scale = 3)
+    private BigDecimal changeQuantity;
+
+    @Column(name = "before_quantity", nullable = false, precision = 15, scale = 3)
+    private BigDecimal beforeQuantity;
+
+    @Column(name = "after_quantity", nullable = false, precision = 15, scale = 3)
+    private BigDecimal afterQuantity;
+
+    @Column(name = "operator_id")
+    private Long operatorId;
+
+    @Column(name = "operator_name", length = 50)
+    private String operatorName;
+
+    @Column(name = "operation_time", nullable = false)
+    private LocalDateTime operationTime;
+
+    @Column(name = "remark", length = 500)
+    private String remark;
+
+    // Constructors
+    public InventoryMovement() {
+    }
+
+    // Getters and Setters
+    public Long getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(Long inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public Long getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(Long warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Long getGoodsId() {
+        return goodsId;
+    }
+
+    public void setGoodsId(Long goodsId) {
+        this.goodsId = goodsId;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public void setOperationType(String operationType) {
+        this.operationType = operationType;
+    }
+
+    public String getBusinessType() {
+        return businessType;
+    }
+
+    public void setBusinessType(String businessType) {
+        this.businessType = businessType;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public BigDecimal getChangeQuantity() {
+        return changeQuantity;
+    }
+
+    public void setChangeQuantity(BigDecimal changeQuantity) {
+        this.changeQuantity = changeQuantity;
+    }
+
+    public BigDecimal getBeforeQuantity() {
+        return beforeQuantity;
+    }
+
+    public void setBeforeQuantity(BigDecimal beforeQuantity) {
+        this.beforeQuantity = beforeQuantity;
+    }
+
+    public BigDecimal getAfterQuantity() {
+        return afterQuantity;
+    }
+
+    public void setAfterQuantity(BigDecimal afterQuantity) {
+        this.afterQuantity = afterQuantity;
+    }
+
+    public Long getOperatorId() {
+        return operatorId;
+    }
+
+    public void setOperatorId(Long operatorId) {
+        this.operatorId = operatorId;
+    }
+
+    public String getOperatorName() {
+        return operatorName;
+    }
+
+    public void setOperatorName(String operatorName) {
+        this.operatorName = operatorName;
+    }
+
+    public LocalDateTime getOperationTime() {
+        return operationTime;
+    }
+
+    public void setOperationTime(LocalDateTime operationTime) {
+        this.operationTime = operationTime;
+    }
+
+    public String getRemark() {
+        return remark;
+    }
+
+    public void setRemark(String remark) {
+        this.remark = remark;
+    }
+}
@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
     @Index(name = "idx_log_operation_type", columnList = "operation_type"),
     @Index(name = "idx_log_business", columnList = "business_type,business_id"),
     @Index(name = "idx_log_warehouse", columnList = "warehouse_id"),
-    @Index(name = "idx_log_time", columnList = "operation_time"),
+    @Index(name = "idx_log_operation_time_id", columnList = "operation_time,id"),
     @Index(name = "idx_log_ip", columnList = "ip_address")
 })
 public class OperationLog extends BaseEntity {
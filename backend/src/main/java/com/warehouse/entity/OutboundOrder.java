@@ -25,9 +25,10 @@ import java.util.List;
     @Index(name = "idx_outbound_customer", columnList = "customer_id"),
     @Index(name = "idx_outbound_status", columnList = "status"),
     @Index(name = "idx_outbound_type", columnList = "business_type"),
-    @Index(name = "idx_outbound_date", columnList = "planned_date")
+    @Index(name = "idx_outbound_date", columnList = "planned_date"),
+    @Index(name = "idx_outbound_created_time", columnList = "created_time,id")
 })
-public class OutboundOrder extends BaseEntity {
+public class OutboundOrder extends PooledIdEntity {
 
     @NotBlank(message = "出库单号不能为空")
     @Size(max = 50, message = "出库单号长度不能超过50个字符")
@@ -16,7 +16,7 @@ import java.math.BigDecimal;
     @Index(name = "idx_outbound_detail_order", columnList = "outbound_order_id"),
     @Index(name = "idx_outbound_detail_goods", columnList = "goods_id")
 })
-public class OutboundOrderDetail extends BaseEntity {
+public class OutboundOrderDetail extends PooledIdEntity {
 
     @NotNull(message = "出库单不能为空")
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,35 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * 池化序列主键实体基类
+ * 用于入库、出库、调拨单据及其明细等高频写入的实体：每个实体使用独立序列（{表名}_seq，MySQL 下以同名单行表模拟），
+ * 每次取号预留 50 个主键（与 hibernate.jdbc.batch_size 一致），插入前即可分配主键，同一事务内的插入可合并为 JDBC 批量执行。
+ * 已有数据的库在启动时由 PooledIdSequenceAligner 将序列推进到现有最大主键之后。
+ * 
+ * @author Warehouse Team
+ */
+@MappedSuperclass
+public abstract class PooledIdEntity extends AuditableEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @Column(name = "id")
+    private Long id;
+
+    // Constructors
+    public PooledIdEntity() {
+    }
+
+    // Getters and Setters
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
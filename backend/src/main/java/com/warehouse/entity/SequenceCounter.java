@@ -0,0 +1,44 @@
+package com.warehouse.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * 序号计数器实体类
+ * 每个序号名称一行，next_value 为下一个尚未分配的序号。
+ * 应用按号段预留（一次累加 block-size），号段内的序号在内存中分配，不再逐个访问数据库。
+ *
+ * @author Warehouse Team
+ */
+@Entity
+@Table(name = "sequence_counters", indexes = {
+    @Index(name = "idx_sequence_counters_name", columnList = "sequence_name", unique = true)
+})
+public class SequenceCounter extends BaseEntity {
+
+    @Column(name = "sequence_name", nullable = false, length = 50)
+    private String sequenceName;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue = 1L;
+
+    // Constructors
+    public SequenceCounter() {
+    }
+
+    // Getters and Setters
+    public String getSequenceName() {
+        return sequenceName;
+    }
+
+    public void setSequenceName(String sequenceName) {
+        this.sequenceName = sequenceName;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -14,7 +14,9 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(callSuper = true)
 @ToString(exclude = "stocktakeOrder")
 @Entity
-@Table(name = "stocktake_order_details")
+@Table(name = "stocktake_order_details", indexes = {
+    @Index(name = "idx_stocktake_detail_goods_order", columnList = "goods_id,stocktake_order_id", unique = true)
+})
 public class StocktakeOrderDetail extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
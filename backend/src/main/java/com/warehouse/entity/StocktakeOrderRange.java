@@ -12,7 +12,9 @@ import java.math.BigDecimal;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "stocktake_order_ranges")
+@Table(name = "stocktake_order_ranges", indexes = {
+    @Index(name = "idx_stocktake_range_order", columnList = "stocktake_order_id")
+})
 public class StocktakeOrderRange extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
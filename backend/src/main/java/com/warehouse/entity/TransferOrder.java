@@ -26,7 +26,7 @@ import java.util.List;
     @Index(name = "idx_transfer_status", columnList = "status"),
     @Index(name = "idx_transfer_date", columnList = "planned_date")
 })
-public class TransferOrder extends BaseEntity {
+public class TransferOrder extends PooledIdEntity {
 
     @NotBlank(message = "调拨单号不能为空")
     @Size(max = 50, message = "调拨单号长度不能超过50个字符")
@@ -16,7 +16,7 @@ import java.math.BigDecimal;
     @Index(name = "idx_transfer_detail_order", columnList = "transfer_order_id"),
     @Index(name = "idx_transfer_detail_goods", columnList = "goods_id")
 })
-public class TransferOrderDetail extends BaseEntity {
+public class TransferOrderDetail extends PooledIdEntity {
 
     @NotNull(message = "调拨单不能为空")
     @ManyToOne(fetch = FetchType.LAZY)
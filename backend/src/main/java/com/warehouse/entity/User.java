@@ -2,6 +2,8 @@ package com.warehouse.entity;
 
 import com.warehouse.enums.UserRole;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -16,6 +18,8 @@ import java.util.Set;
  * @author Warehouse Team
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users", indexes = {
     @Index(name = "idx_username", columnList = "username", unique = true),
     @Index(name = "idx_role", columnList = "role")
@@ -77,11 +81,18 @@ public class User extends BaseEntity {
     @Column(name = "remark", length = 500)
     private String remark;
 
+    /**
+     * 令牌版本号，写入访问令牌；禁用、改密、调整角色或仓库权限时递增，使已签发的令牌失效
+     */
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
     /**
      * 用户可访问的仓库
      * 超级管理员可以访问所有仓库，库房管理员只能访问分配的仓库
      */
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "user_warehouses",
         joinColumns = @JoinColumn(name = "user_id"),
@@ -221,6 +232,14 @@ public class User extends BaseEntity {
         this.remark = remark;
     }
 
+    public Integer getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public Set<Warehouse> getWarehouses() {
         return warehouses;
     }
@@ -262,6 +281,13 @@ public class User extends BaseEntity {
         return warehouses.stream().anyMatch(w -> w.getId().equals(warehouseId));
     }
 
+    /**
+     * 吊销已签发的访问令牌
+     */
+    public void revokeTokens() {
+        this.tokenVersion = getTokenVersion() + 1;
+    }
+
     /**
      * 添加可访问的仓库
      */
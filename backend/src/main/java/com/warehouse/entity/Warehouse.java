@@ -1,6 +1,8 @@
 package com.warehouse.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -13,6 +15,8 @@ import java.util.Set;
  * @author Warehouse Team
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "warehouses", indexes = {
     @Index(name = "idx_warehouse_code", columnList = "code", unique = true),
     @Index(name = "idx_warehouse_name", columnList = "name")
@@ -0,0 +1,26 @@
+package com.warehouse.event;
+
+import java.util.List;
+
+/**
+ * 货物变更事件
+ * 货物在事务中新增、修改或删除时发布，携带变化的货物ID；
+ * 监听方在事务提交后按ID重新读取货物，事务回滚时不会收到提交后回调。
+ *
+ * @author Warehouse Team
+ */
+public class GoodsChangedEvent {
+
+    /**
+     * 发生变化的货物ID
+     */
+    private final List<Long> goodsIds;
+
+    public GoodsChangedEvent(List<Long> goodsIds) {
+        this.goodsIds = List.copyOf(goodsIds);
+    }
+
+    public List<Long> getGoodsIds() {
+        return goodsIds;
+    }
+}
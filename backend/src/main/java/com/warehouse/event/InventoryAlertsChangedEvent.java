@@ -0,0 +1,22 @@
+package com.warehouse.event;
+
+import java.util.Set;
+
+/**
+ * 库存预警变更事件
+ * 库存预警计算器写入新触发或已解除的预警后发布（预警写入事务已提交），携带预警发生变化的仓库ID。
+ *
+ * @author Warehouse Team
+ */
+public class InventoryAlertsChangedEvent {
+
+    private final Set<Long> warehouseIds;
+
+    public InventoryAlertsChangedEvent(Set<Long> warehouseIds) {
+        this.warehouseIds = Set.copyOf(warehouseIds);
+    }
+
+    public Set<Long> getWarehouseIds() {
+        return warehouseIds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.warehouse.event;
+
+import java.util.List;
+
+/**
+ * 库存变更事件
+ * 库存数量在事务中发生变化时发布，携带变化的库存记录ID；
+ * 监听方在事务提交后按ID重新读取库存，事务回滚时不会收到提交后回调。
+ *
+ * @author Warehouse Team
+ */
+public class InventoryChangedEvent {
+
+    /**
+     * 发生变化的库存记录ID
+     */
+    private final List<Long> inventoryIds;
+
+    /**
+     * 事件发布时间（System.nanoTime），用于统计提交后处理的延迟
+     */
+    private final long publishedNanos;
+
+    public InventoryChangedEvent(List<Long> inventoryIds) {
+        this.inventoryIds = List.copyOf(inventoryIds);
+        this.publishedNanos = System.nanoTime();
+    }
+
+    public List<Long> getInventoryIds() {
+        return inventoryIds;
+    }
+
+    public long getPublishedNanos() {
+        return publishedNanos;
+    }
+}
@@ -0,0 +1,65 @@
+package com.warehouse.event;
+
+import com.warehouse.enums.ApprovalStatus;
+
+import java.util.List;
+
+/**
+ * 单据变更事件
+ * 入库单、出库单、调拨单、盘点单新增、提交、审批、执行、取消或删除时发布，携带单据状态和涉及的仓库；
+ * 监听方在事务提交后处理，事务回滚时不会收到提交后回调。
+ *
+ * @author Warehouse Team
+ */
+public class OrderChangedEvent {
+
+    public static final String TYPE_INBOUND = "INBOUND";
+    public static final String TYPE_OUTBOUND = "OUTBOUND";
+    public static final String TYPE_TRANSFER = "TRANSFER";
+    public static final String TYPE_STOCKTAKE = "STOCKTAKE";
+
+    private final String orderType;
+
+    private final Long orderId;
+
+    private final String orderNumber;
+
+    /**
+     * 变更后的状态；删除时为null
+     */
+    private final ApprovalStatus status;
+
+    /**
+     * 单据涉及的仓库ID（调拨单包括调出和调入仓库）
+     */
+    private final List<Long> warehouseIds;
+
+    public OrderChangedEvent(String orderType, Long orderId, String orderNumber, ApprovalStatus status,
+                             List<Long> warehouseIds) {
+        this.orderType = orderType;
+        this.orderId = orderId;
+        this.orderNumber = orderNumber;
+        this.status = status;
+        this.warehouseIds = List.copyOf(warehouseIds);
+    }
+
+    public String getOrderType() {
+        return orderType;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public ApprovalStatus getStatus() {
+        return status;
+    }
+
+    public List<Long> getWarehouseIds() {
+        return warehouseIds;
+    }
+}
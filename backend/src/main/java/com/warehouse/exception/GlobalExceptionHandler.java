@@ -6,6 +6,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -155,6 +156,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * 处理并发冲突异常（乐观锁版本不一致等，未被重试切面处理的路径）
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConcurrencyFailureException(ConcurrencyFailureException e, HttpServletRequest request) {
+        logger.warn("并发冲突: {}", e.getMessage());
+        ApiResponse<Object> response = ApiResponse.error(HttpStatus.CONFLICT.value(), "数据已被其他操作修改，请刷新后重试").withPath(request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     /**
      * 处理非法参数异常
      */
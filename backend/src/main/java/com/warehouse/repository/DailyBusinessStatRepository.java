@@ -0,0 +1,145 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.DailyBusinessStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 每日业务统计数据访问接口
+ * 写入使用 INSERT ... ON DUPLICATE KEY UPDATE（MySQL 及 H2 MySQL 模式均支持），
+ * 保证并发执行单据时同一统计行不会重复插入。
+ *
+ * @author Warehouse Team
+ */
+@Repository
+public interface DailyBusinessStatRepository extends JpaRepository<DailyBusinessStat, Long> {
+
+    /**
+     * 增量累加统计行，不存在时插入（单据执行时通过 NamedParameterJdbcTemplate 批量执行，
+     * 避免原生查询逐条触发持久化上下文的自动 flush）
+     */
+    String UPSERT_INCREMENT_SQL =
+            "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+            "VALUES (:statDate, :warehouseId, :goodsId, :orderType, :orderCount, :quantity, :amount, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orderCount, total_quantity = total_quantity + :quantity, " +
+            "total_amount = total_amount + :amount, updated_time = CURRENT_TIMESTAMP";
+
+    /**
+     * 删除日期范围内的统计数据（重建前调用）
+     */
+    @Modifying
+    @Query("DELETE FROM DailyBusinessStat s WHERE s.statDate BETWEEN :startDate AND :endDate")
+    int deleteByStatDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ===== 重建：从已执行单据一次性回填（调拨生成的出入库单由调拨单统计，这里排除） =====
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.warehouse_id, d.goods_id, 'INBOUND', COUNT(*), SUM(d.quantity), SUM(COALESCE(d.amount, 0)), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM inbound_orders o JOIN inbound_order_details d ON d.inbound_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' AND o.business_type <> 'TRANSFER_IN' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.warehouse_id, d.goods_id", nativeQuery = true)
+    int rebuildInboundGoodsStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.warehouse_id, 0, 'INBOUND', COUNT(DISTINCT o.id), SUM(d.quantity), SUM(COALESCE(d.amount, 0)), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM inbound_orders o JOIN inbound_order_details d ON d.inbound_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' AND o.business_type <> 'TRANSFER_IN' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.warehouse_id", nativeQuery = true)
+    int rebuildInboundOrderStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.warehouse_id, d.goods_id, 'OUTBOUND', COUNT(*), SUM(d.quantity), SUM(COALESCE(d.amount, 0)), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM outbound_orders o JOIN outbound_order_details d ON d.outbound_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' AND o.business_type <> 'TRANSFER_OUT' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.warehouse_id, d.goods_id", nativeQuery = true)
+    int rebuildOutboundGoodsStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.warehouse_id, 0, 'OUTBOUND', COUNT(DISTINCT o.id), SUM(d.quantity), SUM(COALESCE(d.amount, 0)), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM outbound_orders o JOIN outbound_order_details d ON d.outbound_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' AND o.business_type <> 'TRANSFER_OUT' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.warehouse_id", nativeQuery = true)
+    int rebuildOutboundOrderStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.from_warehouse_id, d.goods_id, 'TRANSFER_OUT', COUNT(*), SUM(d.quantity), SUM(COALESCE(d.unit_price, 0) * d.quantity), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM transfer_orders o JOIN transfer_order_details d ON d.transfer_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.from_warehouse_id, d.goods_id", nativeQuery = true)
+    int rebuildTransferOutGoodsStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.from_warehouse_id, 0, 'TRANSFER_OUT', COUNT(DISTINCT o.id), SUM(d.quantity), SUM(COALESCE(d.unit_price, 0) * d.quantity), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM transfer_orders o JOIN transfer_order_details d ON d.transfer_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.from_warehouse_id", nativeQuery = true)
+    int rebuildTransferOutOrderStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.to_warehouse_id, d.goods_id, 'TRANSFER_IN', COUNT(*), SUM(d.quantity), SUM(COALESCE(d.unit_price, 0) * d.quantity), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM transfer_orders o JOIN transfer_order_details d ON d.transfer_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.to_warehouse_id, d.goods_id", nativeQuery = true)
+    int rebuildTransferInGoodsStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO daily_business_stats (stat_date, warehouse_id, goods_id, order_type, order_count, total_quantity, total_amount, created_time, updated_time, deleted, version) " +
+           "SELECT o.actual_date, o.to_warehouse_id, 0, 'TRANSFER_IN', COUNT(DISTINCT o.id), SUM(d.quantity), SUM(COALESCE(d.unit_price, 0) * d.quantity), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0 " +
+           "FROM transfer_orders o JOIN transfer_order_details d ON d.transfer_order_id = o.id " +
+           "WHERE o.deleted = false AND d.deleted = false AND o.status = 'EXECUTED' " +
+           "AND o.actual_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY o.actual_date, o.to_warehouse_id", nativeQuery = true)
+    int rebuildTransferInOrderStats(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // ===== 读取 =====
+
+    /**
+     * 按日期和单据类型汇总单据级数据（所有仓库）
+     */
+    @Query("SELECT s.statDate, s.orderType, SUM(s.orderCount), SUM(s.totalQuantity), SUM(s.totalAmount) FROM DailyBusinessStat s " +
+           "WHERE s.goodsId = 0 AND s.statDate BETWEEN :startDate AND :endDate GROUP BY s.statDate, s.orderType")
+    List<Object[]> sumOrderStatsGroupByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按日期和单据类型汇总单据级数据（指定仓库）
+     */
+    @Query("SELECT s.statDate, s.orderType, SUM(s.orderCount), SUM(s.totalQuantity), SUM(s.totalAmount) FROM DailyBusinessStat s " +
+           "WHERE s.goodsId = 0 AND s.warehouseId = :warehouseId AND s.statDate BETWEEN :startDate AND :endDate GROUP BY s.statDate, s.orderType")
+    List<Object[]> sumOrderStatsGroupByDateAndWarehouse(@Param("warehouseId") Long warehouseId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按货物和日期汇总明细行数（所有仓库），用于热力图；调拨只计调出一侧
+     */
+    @Query("SELECT s.goodsId, g.name, s.statDate, SUM(s.orderCount) FROM DailyBusinessStat s, Goods g " +
+           "WHERE g.id = s.goodsId AND s.goodsId <> 0 AND s.orderType <> 'TRANSFER_IN' AND s.statDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY s.goodsId, g.name, s.statDate")
+    List<Object[]> sumGoodsActivityGroupByDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按货物和日期汇总明细行数（指定仓库），用于热力图
+     */
+    @Query("SELECT s.goodsId, g.name, s.statDate, SUM(s.orderCount) FROM DailyBusinessStat s, Goods g " +
+           "WHERE g.id = s.goodsId AND s.goodsId <> 0 AND s.warehouseId = :warehouseId AND s.statDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY s.goodsId, g.name, s.statDate")
+    List<Object[]> sumGoodsActivityGroupByDateAndWarehouse(@Param("warehouseId") Long warehouseId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
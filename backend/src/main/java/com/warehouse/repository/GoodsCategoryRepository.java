@@ -1,10 +1,13 @@
 package com.warehouse.repository;
 
 import com.warehouse.entity.GoodsCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,15 +16,25 @@ import java.util.Optional;
 
 /**
  * 货物分类数据访问接口
- * 
+ * 分类列表和按编码查询使用查询缓存，分类表有写入时自动失效。
+ *
  * @author Warehouse Team
  */
 @Repository
 public interface GoodsCategoryRepository extends JpaRepository<GoodsCategory, Long> {
 
+    /**
+     * 货物导入时自动创建以编码命名的顶级分类（批量执行）
+     */
+    String IMPORT_CREATE_SQL =
+            "INSERT INTO goods_categories (code, name, description, level, sort_order, enabled, " +
+            "created_by, created_time, updated_by, updated_time, deleted, version) " +
+            "VALUES (:code, :code, '导入时自动创建的分类', 1, 999, true, :operator, :time, :operator, :time, false, 0)";
+
     /**
      * 根据编码查找分类
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<GoodsCategory> findByCodeAndDeletedFalse(String code);
 
     /**
@@ -32,11 +45,13 @@ public interface GoodsCategoryRepository extends JpaRepository<GoodsCategory, Lo
     /**
      * 查找所有启用的分类
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<GoodsCategory> findByEnabledTrueAndDeletedFalseOrderBySortOrderAscNameAsc();
 
     /**
      * 查找所有未删除的分类
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<GoodsCategory> findByDeletedFalseOrderBySortOrderAscNameAsc();
 
     /**
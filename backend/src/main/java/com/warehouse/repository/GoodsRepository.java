@@ -2,15 +2,21 @@ package com.warehouse.repository;
 
 import com.warehouse.entity.Goods;
 import com.warehouse.entity.GoodsCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 货物数据访问接口
@@ -20,6 +26,36 @@ import java.util.Optional;
 @Repository
 public interface GoodsRepository extends JpaRepository<Goods, Long> {
 
+    /**
+     * 读取货物检索字段（货物搜索索引重建和提交后刷新通过 NamedParameterJdbcTemplate 执行）
+     */
+    String SEARCH_SNAPSHOT_SQL =
+            "SELECT id, code, name, short_name, english_name, model, brand, barcode, specification, unit, " +
+            "category_id, enabled, deleted, version FROM goods";
+
+    /**
+     * 导入重复检查：按名称批量读取候选货物（含已删除），由调用方按 名称+分类+规格 匹配
+     */
+    String IMPORT_MATCH_SQL =
+            "SELECT id, name, category_id, specification, deleted FROM goods WHERE name IN (:names)";
+
+    /**
+     * 导入新增货物（批量执行）
+     */
+    String IMPORT_INSERT_SQL =
+            "INSERT INTO goods (code, name, category_id, unit, specification, min_stock, max_stock, remark, enabled, " +
+            "created_by, created_time, updated_by, updated_time, deleted, version) " +
+            "VALUES (:code, :name, :categoryId, :unit, :specification, :minStock, :maxStock, :remark, true, " +
+            ":operator, :time, :operator, :time, false, 0)";
+
+    /**
+     * 导入时恢复已删除的同名同分类同规格货物并更新导入字段（批量执行）
+     */
+    String IMPORT_RESTORE_SQL =
+            "UPDATE goods SET deleted = false, enabled = true, unit = :unit, min_stock = :minStock, max_stock = :maxStock, " +
+            "remark = :remark, updated_by = :operator, updated_time = :time, version = version + 1 " +
+            "WHERE id = :id AND deleted = true";
+
     /**
      * 根据编码查找货物
      */
@@ -52,6 +88,20 @@ public interface GoodsRepository extends JpaRepository<Goods, Long> {
      */
     boolean existsByCodeAndDeletedFalse(String code);
 
+    /**
+     * 根据编码前缀查找编码，按序号从大到小排列（长度优先）
+     */
+    @Query("SELECT g.code FROM Goods g WHERE g.code LIKE CONCAT(:prefix, '%') ORDER BY LENGTH(g.code) DESC, g.code DESC")
+    List<String> findCodesStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 查找指定前缀的最大编码（包含已删除的货物），不存在时返回 null
+     */
+    default String findMaxCodeStartingWith(String prefix) {
+        List<String> codes = findCodesStartingWith(prefix, PageRequest.of(0, 1));
+        return codes.isEmpty() ? null : codes.get(0);
+    }
+
     /**
      * 根据货物名称、分类、规格查找货物（用于导入时检查重复）
      */
@@ -127,18 +177,44 @@ public interface GoodsRepository extends JpaRepository<Goods, Long> {
 
     /**
      * 分页查询货物（支持关键字、分类和启用状态搜索）
+     * 关键字可由货物搜索索引预先解析为货物ID：goodsIdFilter 为 true 时按 goodsIds 筛选，此时 keyword 传空串
      */
     @Query("SELECT g FROM Goods g WHERE g.deleted = false AND " +
            "(:keyword IS NULL OR :keyword = '' OR " +
            "g.code LIKE %:keyword% OR g.name LIKE %:keyword% OR g.shortName LIKE %:keyword% OR " +
            "g.model LIKE %:keyword% OR g.brand LIKE %:keyword% OR g.barcode LIKE %:keyword%) AND " +
+           "(:goodsIdFilter = false OR g.id IN :goodsIds) AND " +
            "(:categoryId IS NULL OR g.category.id = :categoryId) AND " +
            "(:enabled IS NULL OR g.enabled = :enabled)")
     Page<Goods> findByKeywordAndCategoryAndEnabled(@Param("keyword") String keyword,
+                                                   @Param("goodsIdFilter") boolean goodsIdFilter,
+                                                   @Param("goodsIds") Collection<Long> goodsIds,
                                                    @Param("categoryId") Long categoryId,
                                                    @Param("enabled") Boolean enabled,
                                                    Pageable pageable);
 
+    /**
+     * 按关键字、分类和启用状态流式读取货物（导出用，条件与分页查询一致）
+     * 只读、按批从数据库游标取数，调用方需在只读事务内消费并关闭流
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Goods g LEFT JOIN FETCH g.category WHERE g.deleted = false AND " +
+           "(:keyword IS NULL OR :keyword = '' OR " +
+           "g.code LIKE %:keyword% OR g.name LIKE %:keyword% OR g.shortName LIKE %:keyword% OR " +
+           "g.model LIKE %:keyword% OR g.brand LIKE %:keyword% OR g.barcode LIKE %:keyword%) AND " +
+           "(:goodsIdFilter = false OR g.id IN :goodsIds) AND " +
+           "(:categoryId IS NULL OR g.category.id = :categoryId) AND " +
+           "(:enabled IS NULL OR g.enabled = :enabled) " +
+           "ORDER BY g.code")
+    Stream<Goods> streamForExport(@Param("keyword") String keyword,
+                                  @Param("goodsIdFilter") boolean goodsIdFilter,
+                                  @Param("goodsIds") Collection<Long> goodsIds,
+                                  @Param("categoryId") Long categoryId,
+                                  @Param("enabled") Boolean enabled);
+
     /**
      * 统计货物数量
      */
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,12 @@ public interface InboundOrderDetailRepository extends JpaRepository<InboundOrder
      */
     List<InboundOrderDetail> findByInboundOrderIdOrderByIdAsc(Long inboundOrderId);
 
+    /**
+     * 批量查询多张入库单的明细及货物（列表转换用，按入库单ID、明细ID排序）
+     */
+    @Query("SELECT d FROM InboundOrderDetail d JOIN FETCH d.goods WHERE d.inboundOrder.id IN :inboundOrderIds ORDER BY d.inboundOrder.id, d.id")
+    List<InboundOrderDetail> findWithGoodsByInboundOrderIdIn(@Param("inboundOrderIds") Collection<Long> inboundOrderIds);
+
     /**
      * 根据货物ID查找明细
      */
@@ -4,6 +4,7 @@ import com.warehouse.entity.InboundOrder;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.BusinessType;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -87,16 +88,21 @@ public interface InboundOrderRepository extends JpaRepository<InboundOrder, Long
     Page<InboundOrder> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
     /**
-     * 分页查询入库单（支持多条件筛选）
+     * 入库单多条件筛选（分页查询、游标分页与计数共用；别名 i）
      */
-    @Query("SELECT i FROM InboundOrder i WHERE " +
-           "(:keyword IS NULL OR :keyword = '' OR " +
+    String FILTERED_INBOUND_CONDITIONS =
+           "WHERE (:keyword IS NULL OR :keyword = '' OR " +
            "i.orderNumber LIKE CONCAT('%', :keyword, '%') OR i.referenceNumber LIKE CONCAT('%', :keyword, '%') OR i.remark LIKE CONCAT('%', :keyword, '%')) AND " +
            "(:warehouseId IS NULL OR i.warehouse.id = :warehouseId) AND " +
            "(:businessType IS NULL OR i.businessType = :businessType) AND " +
            "(:status IS NULL OR i.status = :status) AND " +
            "(:startDate IS NULL OR :startDate = '' OR i.plannedDate >= CAST(:startDate AS date)) AND " +
-           "(:endDate IS NULL OR :endDate = '' OR i.plannedDate <= CAST(:endDate AS date))")
+           "(:endDate IS NULL OR :endDate = '' OR i.plannedDate <= CAST(:endDate AS date))";
+
+    /**
+     * 分页查询入库单（支持多条件筛选）
+     */
+    @Query("SELECT i FROM InboundOrder i " + FILTERED_INBOUND_CONDITIONS)
     Page<InboundOrder> findByFilters(@Param("keyword") String keyword,
                                    @Param("warehouseId") Long warehouseId,
                                    @Param("businessType") BusinessType businessType,
@@ -105,6 +111,48 @@ public interface InboundOrderRepository extends JpaRepository<InboundOrder, Long
                                    @Param("endDate") String endDate,
                                    Pageable pageable);
 
+    /**
+     * 多条件键集分页查询入库单的第一页（按创建时间、ID 倒序）
+     */
+    @Query("SELECT i FROM InboundOrder i " + FILTERED_INBOUND_CONDITIONS +
+           " ORDER BY i.createdTime DESC, i.id DESC")
+    List<InboundOrder> findByFiltersFirst(@Param("keyword") String keyword,
+                                          @Param("warehouseId") Long warehouseId,
+                                          @Param("businessType") BusinessType businessType,
+                                          @Param("status") ApprovalStatus status,
+                                          @Param("startDate") String startDate,
+                                          @Param("endDate") String endDate,
+                                          Pageable pageable);
+
+    /**
+     * 多条件键集分页查询游标之后的入库单（后续页，以上一页最后一条为游标）
+     * 冗余的 createdTime <= 条件让数据库可以在 (created_time, id) 索引上直接定位到游标位置
+     */
+    @Query("SELECT i FROM InboundOrder i " + FILTERED_INBOUND_CONDITIONS +
+           " AND i.createdTime <= :cursorTime AND (i.createdTime < :cursorTime OR " +
+           "(i.createdTime = :cursorTime AND i.id < :cursorId)) " +
+           "ORDER BY i.createdTime DESC, i.id DESC")
+    List<InboundOrder> findByFiltersAfter(@Param("keyword") String keyword,
+                                          @Param("warehouseId") Long warehouseId,
+                                          @Param("businessType") BusinessType businessType,
+                                          @Param("status") ApprovalStatus status,
+                                          @Param("startDate") String startDate,
+                                          @Param("endDate") String endDate,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    /**
+     * 多条件统计入库单数量
+     */
+    @Query("SELECT COUNT(i) FROM InboundOrder i " + FILTERED_INBOUND_CONDITIONS)
+    long countByFilters(@Param("keyword") String keyword,
+                        @Param("warehouseId") Long warehouseId,
+                        @Param("businessType") BusinessType businessType,
+                        @Param("status") ApprovalStatus status,
+                        @Param("startDate") String startDate,
+                        @Param("endDate") String endDate);
+
     /**
      * 分页查询入库单（支持仓库和关键字搜索）
      */
@@ -220,9 +268,19 @@ public interface InboundOrderRepository extends JpaRepository<InboundOrder, Long
     // String generateOrderNumber();
 
     /**
-     * 根据订单号前缀查找订单，按订单号降序排列
+     * 根据订单号前缀查找订单号，按序号从大到小排列（长度优先，避免序号超过3位后字符串比较出错）
+     */
+    @Query("SELECT o.orderNumber FROM InboundOrder o WHERE o.orderNumber LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(o.orderNumber) DESC, o.orderNumber DESC")
+    List<String> findOrderNumbersStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 查找指定前缀的最大订单号（包含已删除的订单），不存在时返回 null
      */
-    List<InboundOrder> findByOrderNumberStartingWithOrderByOrderNumberDesc(String prefix);
+    default String findMaxOrderNumberStartingWith(String prefix) {
+        List<String> orderNumbers = findOrderNumbersStartingWith(prefix, PageRequest.of(0, 1));
+        return orderNumbers.isEmpty() ? null : orderNumbers.get(0);
+    }
 
 
 
@@ -0,0 +1,64 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.InventoryAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 库存预警数据访问接口
+ * 预警计算通过 NamedParameterJdbcTemplate 批量读写（SQL 定义在此），读取使用 JPQL。
+ *
+ * @author Warehouse Team
+ */
+@Repository
+public interface InventoryAlertRepository extends JpaRepository<InventoryAlert, Long> {
+
+    /**
+     * 计算预警所需的库存数据（库存数量、过期日期及货物最小库存），按条件追加 WHERE 子句
+     */
+    String EVALUATION_SNAPSHOT_SQL =
+            "SELECT i.id, i.warehouse_id, i.goods_id, i.quantity, i.expiry_date, i.deleted, g.min_stock " +
+            "FROM inventories i JOIN goods g ON g.id = i.goods_id";
+
+    /**
+     * 有效预警，按条件追加 AND 子句
+     */
+    String ACTIVE_ALERTS_SQL =
+            "SELECT id, inventory_id, warehouse_id, alert_type FROM inventory_alerts WHERE active = true";
+
+    /**
+     * 触发预警
+     */
+    String INSERT_SQL =
+            "INSERT INTO inventory_alerts (inventory_id, warehouse_id, goods_id, alert_type, active, raised_time, quantity, threshold, expiry_date, created_time, updated_time, deleted, version) " +
+            "VALUES (:inventoryId, :warehouseId, :goodsId, :alertType, true, :raisedTime, :quantity, :threshold, :expiryDate, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0)";
+
+    /**
+     * 解除预警
+     */
+    String CLEAR_SQL =
+            "UPDATE inventory_alerts SET active = false, cleared_time = :clearedTime, updated_time = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id = :id AND active = true";
+
+    /**
+     * 统计有效预警数量（warehouseId 为空时统计所有仓库）
+     */
+    @Query("SELECT COUNT(a) FROM InventoryAlert a WHERE a.active = true AND a.alertType IN :types AND " +
+           "(:warehouseId IS NULL OR a.warehouseId = :warehouseId)")
+    long countActive(@Param("types") Collection<String> types, @Param("warehouseId") Long warehouseId);
+
+    /**
+     * 查询有效预警及库存信息（用于仪表盘）：库存ID、货物名称、仓库名称、当前数量、最小库存、预警类型
+     */
+    @Query("SELECT i.id, g.name, w.name, i.quantity, g.minStock, a.alertType " +
+           "FROM InventoryAlert a, Inventory i JOIN i.goods g JOIN i.warehouse w " +
+           "WHERE i.id = a.inventoryId AND a.active = true AND a.alertType IN :types AND " +
+           "(:warehouseId IS NULL OR a.warehouseId = :warehouseId) " +
+           "ORDER BY a.alertType, a.id")
+    List<Object[]> findActiveAlertInfo(@Param("types") Collection<String> types, @Param("warehouseId") Long warehouseId);
+}
@@ -0,0 +1,64 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.InventoryMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 库存变动流水数据访问接口
+ * 历史查询使用键集分页（按 操作时间、ID 倒序，以上一页最后一条为游标），
+ * 翻页开销与页码无关，只取决于每页条数。
+ *
+ * @author Warehouse Team
+ */
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * 追加流水（库存变更时通过 NamedParameterJdbcTemplate 批量执行）
+     */
+    String INSERT_SQL =
+            "INSERT INTO inventory_movements (inventory_id, warehouse_id, goods_id, operation_type, business_type, order_number, " +
+            "change_quantity, before_quantity, after_quantity, operator_id, operator_name, operation_time, remark, " +
+            "created_time, updated_time, deleted, version) " +
+            "VALUES (:inventoryId, :warehouseId, :goodsId, :operationType, :businessType, :orderNumber, " +
+            ":changeQuantity, :beforeQuantity, :afterQuantity, :operatorId, :operatorName, :operationTime, :remark, " +
+            ":operationTime, :operationTime, false, 0)";
+
+    /**
+     * 更正流水的前后数量（盘点过账时库存在读取后被并发修改）
+     */
+    String CORRECT_QUANTITIES_SQL =
+            "UPDATE inventory_movements SET before_quantity = :beforeQuantity, after_quantity = :afterQuantity " +
+            "WHERE inventory_id = :inventoryId AND order_number = :orderNumber AND operation_time = :operationTime";
+
+    /**
+     * 查询库存的最新流水（第一页）
+     */
+    @Query("SELECT m FROM InventoryMovement m WHERE m.inventoryId = :inventoryId " +
+           "ORDER BY m.operationTime DESC, m.id DESC")
+    List<InventoryMovement> findLatest(@Param("inventoryId") Long inventoryId, Pageable pageable);
+
+    /**
+     * 查询游标之前的流水（后续页）
+     * 冗余的 operationTime <= 条件让数据库可以在 (inventory_id, operation_time, id) 索引上做范围扫描
+     */
+    @Query("SELECT m FROM InventoryMovement m WHERE m.inventoryId = :inventoryId AND m.operationTime <= :operationTime " +
+           "AND (m.operationTime < :operationTime OR (m.operationTime = :operationTime AND m.id < :id)) " +
+           "ORDER BY m.operationTime DESC, m.id DESC")
+    List<InventoryMovement> findBefore(@Param("inventoryId") Long inventoryId,
+                                       @Param("operationTime") LocalDateTime operationTime,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * 判断库存是否已有流水
+     */
+    boolean existsByInventoryId(Long inventoryId);
+}
@@ -1,32 +1,100 @@
 package com.warehouse.repository;
 
+import com.warehouse.dto.InventoryDTO;
 import com.warehouse.entity.Inventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 库存数据访问接口
- * 
+ * 列表、分页和导出查询通过构造器表达式直接投影为 InventoryDTO（INVENTORY_DTO_SELECT），不加载实体。
+ *
  * @author Warehouse Team
  */
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
+    /**
+     * 读取库存数量快照（库存可用量投影预热、提交后刷新和一致性校验通过 NamedParameterJdbcTemplate 执行）
+     */
+    String AVAILABILITY_SNAPSHOT_SQL =
+            "SELECT id, warehouse_id, goods_id, quantity, available_quantity, locked_quantity, version, deleted " +
+            "FROM inventories";
+
+    /**
+     * 按差异原子调整库存数量（盘点过账），可用数量不足时不更新（返回0），可追加 AND 条件
+     */
+    String ADJUST_QUANTITY_SQL =
+            "UPDATE inventories SET quantity = quantity + :delta, available_quantity = available_quantity + :delta, " +
+            "updated_time = :now, version = version + 1 " +
+            "WHERE id = :id AND deleted = false AND available_quantity + :delta >= 0";
+
     /**
      * 根据仓库和货物查找库存
      */
     Optional<Inventory> findByWarehouseIdAndGoodsIdAndDeletedFalse(Long warehouseId, Long goodsId);
 
+    /**
+     * 批量查找仓库中指定货物的库存并加行锁（同时加载货物信息），按库存ID顺序加锁
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.goods WHERE i.warehouse.id = :warehouseId AND i.goods.id IN :goodsIds AND i.deleted = false " +
+           "ORDER BY i.id")
+    List<Inventory> findByWarehouseIdAndGoodsIdIn(@Param("warehouseId") Long warehouseId, @Param("goodsIds") Collection<Long> goodsIds);
 
+    /**
+     * 根据仓库和货物查找库存并加行锁（入库、调整等需要读取当前值计算的操作使用，热点货物上的并发修改排队执行而不是反复冲突）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.goods.id = :goodsId AND i.deleted = false")
+    Optional<Inventory> findForUpdate(@Param("warehouseId") Long warehouseId, @Param("goodsId") Long goodsId);
+
+    /**
+     * 条件锁定库存：可用数量充足时原子地转入锁定数量，返回更新行数（0 表示库存不足或记录不存在）
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.availableQuantity = i.availableQuantity - :quantity, " +
+           "i.lockedQuantity = i.lockedQuantity + :quantity, i.version = i.version + 1, i.updatedTime = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND i.deleted = false AND i.availableQuantity >= :quantity")
+    int lockAvailableQuantity(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * 条件解锁库存：锁定数量充足时原子地转回可用数量，返回更新行数（0 表示锁定数量不足或记录不存在）
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.lockedQuantity = i.lockedQuantity - :quantity, " +
+           "i.availableQuantity = i.availableQuantity + :quantity, i.version = i.version + 1, i.updatedTime = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND i.deleted = false AND i.lockedQuantity >= :quantity")
+    int unlockLockedQuantity(@Param("id") Long id, @Param("quantity") BigDecimal quantity);
+
+    /**
+     * 条件出库：可用数量充足时原子地扣减库存数量和可用数量，返回更新行数（0 表示库存不足或记录不存在）
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, " +
+           "i.availableQuantity = i.availableQuantity - :quantity, i.lastOutboundDate = :outboundDate, " +
+           "i.version = i.version + 1, i.updatedTime = CURRENT_TIMESTAMP " +
+           "WHERE i.id = :id AND i.deleted = false AND i.availableQuantity >= :quantity")
+    int deductAvailableQuantity(@Param("id") Long id, @Param("quantity") BigDecimal quantity,
+                                @Param("outboundDate") LocalDate outboundDate);
 
     /**
      * 根据仓库ID查找所有库存
@@ -86,18 +154,32 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("SELECT i FROM Inventory i WHERE i.deleted = false AND i.expiryDate IS NOT NULL AND i.expiryDate < CURRENT_DATE AND i.quantity > 0 ORDER BY i.expiryDate ASC")
     List<Inventory> findExpiredInventories();
 
+    /**
+     * 库存列表投影：库存、仓库、货物、分类各取所需列构造 InventoryDTO（别名 i/w/g/c），后接 WHERE 子句
+     */
+    String INVENTORY_DTO_SELECT =
+            "SELECT new com.warehouse.dto.InventoryDTO(i.id, w.id, w.name, g.id, g.code, g.name, g.unit, g.specification, " +
+            "c.name, i.quantity, i.availableQuantity, i.lockedQuantity, i.averageCost, i.productionDate, i.expiryDate, " +
+            "i.createdTime, i.updatedTime, i.createdBy, i.updatedBy, g.minStock, g.maxStock) " +
+            "FROM Inventory i " +
+            "LEFT JOIN i.warehouse w " +
+            "LEFT JOIN i.goods g " +
+            "LEFT JOIN g.category c ";
+
     /**
      * 分页查询库存（支持仓库和关键字搜索）
      */
-    @Query("SELECT i FROM Inventory i " +
-           "LEFT JOIN FETCH i.warehouse w " +
-           "LEFT JOIN FETCH i.goods g " +
-           "LEFT JOIN FETCH g.category c " +
+    @Query(value = INVENTORY_DTO_SELECT +
            "WHERE i.deleted = false AND " +
            "(:warehouseId IS NULL OR w.id = :warehouseId) AND " +
            "(:keyword IS NULL OR :keyword = '' OR " +
+           "g.code LIKE %:keyword% OR g.name LIKE %:keyword%)",
+           countQuery = "SELECT COUNT(i) FROM Inventory i LEFT JOIN i.goods g " +
+           "WHERE i.deleted = false AND " +
+           "(:warehouseId IS NULL OR i.warehouse.id = :warehouseId) AND " +
+           "(:keyword IS NULL OR :keyword = '' OR " +
            "g.code LIKE %:keyword% OR g.name LIKE %:keyword%)")
-    Page<Inventory> findByWarehouseAndKeyword(@Param("warehouseId") Long warehouseId, @Param("keyword") String keyword, Pageable pageable);
+    Page<InventoryDTO> findByWarehouseAndKeyword(@Param("warehouseId") Long warehouseId, @Param("keyword") String keyword, Pageable pageable);
 
     /**
      * 分页查询有库存的记录
@@ -186,8 +268,6 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("SELECT i FROM Inventory i WHERE i.deleted = false AND i.quantity BETWEEN :minQuantity AND :maxQuantity ORDER BY i.quantity DESC")
     List<Inventory> findByQuantityRange(@Param("minQuantity") BigDecimal minQuantity, @Param("maxQuantity") BigDecimal maxQuantity);
 
-
-
     // ===== 为Service层添加兼容方法 =====
 
     /**
@@ -257,17 +337,26 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("SELECT i FROM Inventory i WHERE i.deleted = false AND i.lockedQuantity > 0 ORDER BY i.warehouse.name, i.goods.name")
     List<Inventory> findWithLockedStock();
 
+    /**
+     * 查找有指定类型有效预警的库存（预警由库存预警计算器维护）
+     */
+    @Query("SELECT i FROM Inventory i LEFT JOIN FETCH i.warehouse LEFT JOIN FETCH i.goods g LEFT JOIN FETCH g.category " +
+           "WHERE i.deleted = false AND i.id IN " +
+           "(SELECT a.inventoryId FROM InventoryAlert a WHERE a.active = true AND a.alertType IN :types) " +
+           "ORDER BY i.id")
+    List<Inventory> findWithActiveAlerts(@Param("types") Collection<String> types);
+
     /**
      * 根据关键字搜索库存 (兼容方法)
      */
-    default Page<Inventory> findByKeyword(String keyword, Pageable pageable) {
+    default Page<InventoryDTO> findByKeyword(String keyword, Pageable pageable) {
         return findByWarehouseAndKeyword(null, keyword, pageable);
     }
 
     /**
      * 根据货物和关键字搜索库存 (兼容方法)
      */
-    default Page<Inventory> findByGoodsAndKeyword(Long goodsId, String keyword, Pageable pageable) {
+    default Page<InventoryDTO> findByGoodsAndKeyword(Long goodsId, String keyword, Pageable pageable) {
         return findByWarehouseAndKeyword(null, keyword, pageable);
     }
 
@@ -286,40 +375,23 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     // ===== 统计方法 =====
 
     /**
-     * 统计总数量
-     */
-    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM Inventory i WHERE i.deleted = false")
-    Long sumTotalQuantity();
-
-    /**
-     * 统计可用数量
+     * 单次扫描统计库存概况（allWarehouses 为 false 时只统计 warehouseIds 内的仓库），返回一行：
+     * 记录数、总数量、可用数量、锁定数量、总价值、低库存数、零库存数、即将过期数、已过期数、仓库数、货物数
      */
-    @Query("SELECT COALESCE(SUM(i.availableQuantity), 0) FROM Inventory i WHERE i.deleted = false")
-    Long sumTotalAvailableQuantity();
-
-    /**
-     * 统计锁定数量
-     */
-    @Query("SELECT COALESCE(SUM(i.lockedQuantity), 0) FROM Inventory i WHERE i.deleted = false")
-    Long sumTotalLockedQuantity();
-
-    /**
-     * 统计总价值
-     */
-    @Query("SELECT COALESCE(SUM(i.quantity * i.averageCost), 0) FROM Inventory i WHERE i.deleted = false AND i.quantity > 0")
-    BigDecimal sumTotalValue();
-
-    /**
-     * 统计不同仓库数量
-     */
-    @Query("SELECT COUNT(DISTINCT i.warehouse.id) FROM Inventory i WHERE i.deleted = false")
-    Long countDistinctWarehouses();
-
-    /**
-     * 统计不同货物数量
-     */
-    @Query("SELECT COUNT(DISTINCT i.goods.id) FROM Inventory i WHERE i.deleted = false")
-    Long countDistinctGoods();
+    @Query("SELECT COUNT(i), COALESCE(SUM(i.quantity), 0), COALESCE(SUM(i.availableQuantity), 0), " +
+           "COALESCE(SUM(i.lockedQuantity), 0), " +
+           "COALESCE(SUM(CASE WHEN i.quantity > 0 THEN i.quantity * i.averageCost ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN i.quantity > 0 AND g.minStock > 0 AND i.quantity < g.minStock THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN i.quantity = 0 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN i.quantity > 0 AND i.expiryDate <= :nearExpiryDate THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN i.quantity > 0 AND i.expiryDate < :today THEN 1 ELSE 0 END), 0), " +
+           "COUNT(DISTINCT i.warehouse.id), COUNT(DISTINCT g.id) " +
+           "FROM Inventory i JOIN i.goods g " +
+           "WHERE i.deleted = false AND (:allWarehouses = true OR i.warehouse.id IN :warehouseIds)")
+    List<Object[]> aggregateStatistics(@Param("allWarehouses") boolean allWarehouses,
+                                       @Param("warehouseIds") Collection<Long> warehouseIds,
+                                       @Param("nearExpiryDate") LocalDate nearExpiryDate,
+                                       @Param("today") LocalDate today);
 
     /**
      * 根据货物统计有库存的仓库数量
@@ -358,97 +430,115 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     Long countWarehousesByGoods(@Param("goodsId") Long goodsId);
 
     /**
-     * 根据筛选条件查询库存
+     * 库存筛选条件（分页查询、游标分页、计数与导出共用；别名 i/w/g/c）
+     * 关键字可由货物搜索索引预先解析为货物ID：goodsIdFilter 为 true 时按 goodsIds 筛选，此时 keyword 传空串
      */
-    @Query("SELECT i FROM Inventory i " +
-           "LEFT JOIN FETCH i.warehouse w " +
-           "LEFT JOIN FETCH i.goods g " +
-           "LEFT JOIN FETCH g.category c " +
-           "WHERE i.deleted = false AND " +
-           "(:keyword IS NULL OR :keyword = '' OR " +
-           "g.code LIKE %:keyword% OR g.name LIKE %:keyword%) AND " +
-           "(:warehouseId IS NULL OR w.id = :warehouseId) AND " +
-           "(:categoryId IS NULL OR c.id = :categoryId) AND " +
-           "(:stockStatus IS NULL OR :stockStatus = '' OR " +
-           "(:stockStatus = 'zero' AND i.quantity = 0) OR " +
-           "(:stockStatus = 'low' AND i.quantity > 0 AND g.minStock IS NOT NULL AND i.quantity < g.minStock) OR " +
-           "(:stockStatus = 'high' AND g.maxStock IS NOT NULL AND i.quantity > (g.maxStock * 1.15)) OR " +
-           "(:stockStatus = 'normal' AND i.quantity > 0 AND " +
-           " (g.minStock IS NULL OR i.quantity >= g.minStock) AND " +
-           " (g.maxStock IS NULL OR i.quantity <= (g.maxStock * 1.15))))")
-    Page<Inventory> findByFilters(@Param("keyword") String keyword,
-                                 @Param("warehouseId") Long warehouseId,
-                                 @Param("categoryId") Long categoryId,
-                                 @Param("stockStatus") String stockStatus,
-                                 Pageable pageable);
+    String FILTERED_INVENTORY_CONDITIONS =
+            "WHERE i.deleted = false AND " +
+            "(:keyword IS NULL OR :keyword = '' OR " +
+            "g.code LIKE %:keyword% OR g.name LIKE %:keyword%) AND " +
+            "(:goodsIdFilter = false OR g.id IN :goodsIds) AND " +
+            "(:warehouseId IS NULL OR w.id = :warehouseId) AND " +
+            "(:categoryId IS NULL OR c.id = :categoryId) AND " +
+            "(:stockStatus IS NULL OR :stockStatus = '' OR " +
+            "(:stockStatus = 'zero' AND i.quantity = 0) OR " +
+            "(:stockStatus = 'low' AND i.quantity > 0 AND g.minStock IS NOT NULL AND i.quantity < g.minStock) OR " +
+            "(:stockStatus = 'high' AND g.maxStock IS NOT NULL AND i.quantity > (g.maxStock * 1.15)) OR " +
+            "(:stockStatus = 'normal' AND i.quantity > 0 AND " +
+            " (g.minStock IS NULL OR i.quantity >= g.minStock) AND " +
+            " (g.maxStock IS NULL OR i.quantity <= (g.maxStock * 1.15))))";
 
     /**
-     * 查询所有有库存记录的货物（去重）
+     * 按筛选条件查询库存（分页查询与导出共用）
      */
-    @Query("SELECT DISTINCT i FROM Inventory i JOIN FETCH i.goods WHERE i.goods IS NOT NULL AND i.deleted = false ORDER BY i.goods.code")
-    List<Inventory> findDistinctGoods();
-
-    // 按仓库统计的方法
+    String FILTERED_INVENTORY_QUERY = INVENTORY_DTO_SELECT + FILTERED_INVENTORY_CONDITIONS;
 
     /**
-     * 根据仓库ID统计库存记录数
+     * 按筛选条件统计库存记录数
      */
-    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    long countByWarehouseId(@Param("warehouseId") Long warehouseId);
+    String FILTERED_INVENTORY_COUNT_QUERY =
+            "SELECT COUNT(i) FROM Inventory i LEFT JOIN i.warehouse w LEFT JOIN i.goods g LEFT JOIN g.category c " +
+            FILTERED_INVENTORY_CONDITIONS;
 
     /**
-     * 根据仓库ID统计总库存数量
-     */
-    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    Long sumTotalQuantityByWarehouse(@Param("warehouseId") Long warehouseId);
-
-    /**
-     * 根据仓库ID统计可用库存数量
-     */
-    @Query("SELECT COALESCE(SUM(i.availableQuantity), 0) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    Long sumTotalAvailableQuantityByWarehouse(@Param("warehouseId") Long warehouseId);
-
-    /**
-     * 根据仓库ID统计锁定库存数量
-     */
-    @Query("SELECT COALESCE(SUM(i.lockedQuantity), 0) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    Long sumTotalLockedQuantityByWarehouse(@Param("warehouseId") Long warehouseId);
-
-    /**
-     * 根据仓库ID统计库存总价值
-     */
-    @Query("SELECT COALESCE(SUM(i.quantity * i.averageCost), 0) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    BigDecimal sumTotalValueByWarehouse(@Param("warehouseId") Long warehouseId);
-
-    /**
-     * 根据仓库ID查找低库存商品
-     */
-    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false AND i.quantity > 0 AND i.quantity < i.goods.minStock AND i.goods.minStock > 0")
-    List<Inventory> findLowStockByWarehouse(@Param("warehouseId") Long warehouseId);
-
-    /**
-     * 根据仓库ID查找零库存商品
+     * 根据筛选条件查询库存
      */
-    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.quantity = 0 AND i.deleted = false")
-    List<Inventory> findZeroStockByWarehouse(@Param("warehouseId") Long warehouseId);
+    @Query(value = FILTERED_INVENTORY_QUERY, countQuery = FILTERED_INVENTORY_COUNT_QUERY)
+    Page<InventoryDTO> findByFilters(@Param("keyword") String keyword,
+                                    @Param("goodsIdFilter") boolean goodsIdFilter,
+                                    @Param("goodsIds") Collection<Long> goodsIds,
+                                    @Param("warehouseId") Long warehouseId,
+                                    @Param("categoryId") Long categoryId,
+                                    @Param("stockStatus") String stockStatus,
+                                    Pageable pageable);
+
+    /**
+     * 根据筛选条件键集分页查询库存的第一页（按创建时间、ID 倒序）
+     */
+    @Query(FILTERED_INVENTORY_QUERY + " ORDER BY i.createdTime DESC, i.id DESC")
+    List<InventoryDTO> findByFiltersFirst(@Param("keyword") String keyword,
+                                          @Param("goodsIdFilter") boolean goodsIdFilter,
+                                          @Param("goodsIds") Collection<Long> goodsIds,
+                                          @Param("warehouseId") Long warehouseId,
+                                          @Param("categoryId") Long categoryId,
+                                          @Param("stockStatus") String stockStatus,
+                                          Pageable pageable);
+
+    /**
+     * 根据筛选条件键集分页查询游标之后的库存（后续页，以上一页最后一条为游标）
+     * 排序键用创建后不再变化的 createdTime（库存每次变动都会更新 updatedTime，用作游标会漏行或重复）；
+     * 冗余的 createdTime <= 条件让数据库可以在 (created_time, id) 索引上直接定位到游标位置
+     */
+    @Query(FILTERED_INVENTORY_QUERY + " AND i.createdTime <= :cursorTime AND (i.createdTime < :cursorTime OR " +
+           "(i.createdTime = :cursorTime AND i.id < :cursorId)) " +
+           "ORDER BY i.createdTime DESC, i.id DESC")
+    List<InventoryDTO> findByFiltersAfter(@Param("keyword") String keyword,
+                                          @Param("goodsIdFilter") boolean goodsIdFilter,
+                                          @Param("goodsIds") Collection<Long> goodsIds,
+                                          @Param("warehouseId") Long warehouseId,
+                                          @Param("categoryId") Long categoryId,
+                                          @Param("stockStatus") String stockStatus,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    /**
+     * 根据筛选条件统计库存记录数
+     */
+    @Query(FILTERED_INVENTORY_COUNT_QUERY)
+    long countByFilters(@Param("keyword") String keyword,
+                        @Param("goodsIdFilter") boolean goodsIdFilter,
+                        @Param("goodsIds") Collection<Long> goodsIds,
+                        @Param("warehouseId") Long warehouseId,
+                        @Param("categoryId") Long categoryId,
+                        @Param("stockStatus") String stockStatus);
+
+    /**
+     * 根据筛选条件流式读取库存（导出用）
+     * 按批从数据库游标取数，调用方需在只读事务内消费并关闭流
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(FILTERED_INVENTORY_QUERY + " ORDER BY i.id")
+    Stream<InventoryDTO> streamByFilters(@Param("keyword") String keyword,
+                                         @Param("goodsIdFilter") boolean goodsIdFilter,
+                                         @Param("goodsIds") Collection<Long> goodsIds,
+                                         @Param("warehouseId") Long warehouseId,
+                                         @Param("categoryId") Long categoryId,
+                                         @Param("stockStatus") String stockStatus);
 
     /**
-     * 根据仓库ID查找即将过期的商品
+     * 查询所有有库存记录的货物（去重）
      */
-    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.expiryDate IS NOT NULL AND i.expiryDate <= :date AND i.deleted = false")
-    List<Inventory> findNearExpiryByWarehouse(@Param("warehouseId") Long warehouseId, @Param("date") LocalDate date);
+    @Query("SELECT DISTINCT i FROM Inventory i JOIN FETCH i.goods WHERE i.goods IS NOT NULL AND i.deleted = false ORDER BY i.goods.code")
+    List<Inventory> findDistinctGoods();
 
-    /**
-     * 根据仓库ID查找已过期的商品
-     */
-    @Query("SELECT i FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.expiryDate IS NOT NULL AND i.expiryDate < :date AND i.deleted = false")
-    List<Inventory> findExpiredByWarehouse(@Param("warehouseId") Long warehouseId, @Param("date") LocalDate date);
+    // 按仓库统计的方法
 
     /**
-     * 根据仓库ID统计不同货物数量
+     * 根据仓库ID统计总库存数量
      */
-    @Query("SELECT COUNT(DISTINCT i.goods.id) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
-    long countDistinctGoodsByWarehouse(@Param("warehouseId") Long warehouseId);
+    @Query("SELECT COALESCE(SUM(i.quantity), 0) FROM Inventory i WHERE i.warehouse.id = :warehouseId AND i.deleted = false")
+    Long sumTotalQuantityByWarehouse(@Param("warehouseId") Long warehouseId);
 
     // ===== 仪表盘专用查询方法 =====
 
@@ -682,8 +772,6 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("SELECT COALESCE(SUM(i.quantity * i.averageCost), 0) FROM Inventory i WHERE i.deleted = false")
     BigDecimal getTotalValue();
 
-
-
     /**
      * 统计指定仓库的零库存商品数量
      */
@@ -726,8 +814,6 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
            "WHERE oo.warehouse.id = :warehouseId AND oo.deleted = false")
     Long sumOutboundQuantityByWarehouse(@Param("warehouseId") Long warehouseId);
 
-
-
     /**
      * 统计滞销商品数量（在指定时间范围内没有出库记录）
      */
@@ -19,6 +19,18 @@ import java.util.List;
 @Repository
 public interface OperationLogRepository extends JpaRepository<OperationLog, Long> {
 
+    /**
+     * 操作日志插入语句（由 OperationLogWriter 通过 NamedParameterJdbcTemplate 批量执行；
+     * 主键为自增列，经 JPA 保存时无法合并为批量插入）
+     */
+    String INSERT_SQL =
+            "INSERT INTO operation_logs (operator_id, operation_type, operation_desc, business_type, business_id, business_number, " +
+            "warehouse_id, operation_time, ip_address, user_agent, request_uri, request_method, request_params, " +
+            "response_result, error_message, execution_time, created_time, updated_time, deleted, version) " +
+            "VALUES (:operatorId, :operationType, :operationDesc, :businessType, :businessId, :businessNumber, " +
+            ":warehouseId, :operationTime, :ipAddress, :userAgent, :requestUri, :requestMethod, :requestParams, " +
+            ":responseResult, :errorMessage, :executionTime, :operationTime, :operationTime, false, 0)";
+
     /**
      * 根据操作人查找日志
      */
@@ -69,6 +81,38 @@ public interface OperationLogRepository extends JpaRepository<OperationLog, Long
            "ORDER BY ol.operationTime DESC")
     Page<OperationLog> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * 键集分页查询操作日志的第一页（按操作时间、ID 倒序）
+     */
+    @Query("SELECT ol FROM OperationLog ol WHERE ol.deleted = false AND " +
+           "(:keyword IS NULL OR :keyword = '' OR " +
+           "ol.operationType LIKE %:keyword% OR ol.operationDesc LIKE %:keyword%) " +
+           "ORDER BY ol.operationTime DESC, ol.id DESC")
+    List<OperationLog> findByKeywordFirst(@Param("keyword") String keyword, Pageable pageable);
+
+    /**
+     * 键集分页查询游标之后的操作日志（后续页，以上一页最后一条为游标）
+     * 冗余的 operationTime <= 条件让数据库可以在 (operation_time, id) 索引上直接定位到游标位置
+     */
+    @Query("SELECT ol FROM OperationLog ol WHERE ol.deleted = false AND " +
+           "(:keyword IS NULL OR :keyword = '' OR " +
+           "ol.operationType LIKE %:keyword% OR ol.operationDesc LIKE %:keyword%) AND " +
+           "ol.operationTime <= :cursorTime AND (ol.operationTime < :cursorTime OR " +
+           "(ol.operationTime = :cursorTime AND ol.id < :cursorId)) " +
+           "ORDER BY ol.operationTime DESC, ol.id DESC")
+    List<OperationLog> findByKeywordAfter(@Param("keyword") String keyword,
+                                          @Param("cursorTime") LocalDateTime cursorTime,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
+
+    /**
+     * 根据关键字统计操作日志数量
+     */
+    @Query("SELECT COUNT(ol) FROM OperationLog ol WHERE ol.deleted = false AND " +
+           "(:keyword IS NULL OR :keyword = '' OR " +
+           "ol.operationType LIKE %:keyword% OR ol.operationDesc LIKE %:keyword%)")
+    long countByKeyword(@Param("keyword") String keyword);
+
     /**
      * 根据库存相关操作查找日志
      */
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,12 @@ public interface OutboundOrderDetailRepository extends JpaRepository<OutboundOrd
      */
     List<OutboundOrderDetail> findByOutboundOrderIdOrderByIdAsc(Long outboundOrderId);
 
+    /**
+     * 批量查询多张出库单的明细及货物（列表转换用，按出库单ID、明细ID排序）
+     */
+    @Query("SELECT d FROM OutboundOrderDetail d JOIN FETCH d.goods WHERE d.outboundOrder.id IN :outboundOrderIds ORDER BY d.outboundOrder.id, d.id")
+    List<OutboundOrderDetail> findWithGoodsByOutboundOrderIdIn(@Param("outboundOrderIds") Collection<Long> outboundOrderIds);
+
     /**
      * 根据货物ID查找明细
      */
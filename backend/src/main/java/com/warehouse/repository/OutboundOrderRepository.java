@@ -4,6 +4,7 @@ import com.warehouse.entity.OutboundOrder;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.BusinessType;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import java.time.LocalDate;
@@ -82,17 +84,22 @@ public interface OutboundOrderRepository extends JpaRepository<OutboundOrder, Lo
     Page<OutboundOrder> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
     /**
-     * 分页查询出库单（支持多条件筛选）
+     * 出库单多条件筛选（分页查询、游标分页与计数共用；别名 o）
      */
-    @Query("SELECT o FROM OutboundOrder o WHERE " +
-           "(:keyword IS NULL OR :keyword = '' OR " +
+    String FILTERED_OUTBOUND_CONDITIONS =
+           "WHERE (:keyword IS NULL OR :keyword = '' OR " +
            "o.orderNumber LIKE CONCAT('%', :keyword, '%') OR o.referenceNumber LIKE CONCAT('%', :keyword, '%') OR o.remark LIKE CONCAT('%', :keyword, '%')) AND " +
            "(:orderNumber IS NULL OR :orderNumber = '' OR o.orderNumber LIKE CONCAT('%', :orderNumber, '%')) AND " +
            "(:warehouseId IS NULL OR o.warehouse.id = :warehouseId) AND " +
            "(:businessType IS NULL OR o.businessType = :businessType) AND " +
            "(:status IS NULL OR o.status = :status) AND " +
            "(:startDate IS NULL OR :startDate = '' OR o.plannedDate >= CAST(:startDate AS date)) AND " +
-           "(:endDate IS NULL OR :endDate = '' OR o.plannedDate <= CAST(:endDate AS date))")
+           "(:endDate IS NULL OR :endDate = '' OR o.plannedDate <= CAST(:endDate AS date))";
+
+    /**
+     * 分页查询出库单（支持多条件筛选）
+     */
+    @Query("SELECT o FROM OutboundOrder o " + FILTERED_OUTBOUND_CONDITIONS)
     Page<OutboundOrder> findByFilters(@Param("keyword") String keyword,
                                     @Param("orderNumber") String orderNumber,
                                     @Param("warehouseId") Long warehouseId,
@@ -102,6 +109,51 @@ public interface OutboundOrderRepository extends JpaRepository<OutboundOrder, Lo
                                     @Param("endDate") String endDate,
                                     Pageable pageable);
 
+    /**
+     * 多条件键集分页查询出库单的第一页（按创建时间、ID 倒序）
+     */
+    @Query("SELECT o FROM OutboundOrder o " + FILTERED_OUTBOUND_CONDITIONS +
+           " ORDER BY o.createdTime DESC, o.id DESC")
+    List<OutboundOrder> findByFiltersFirst(@Param("keyword") String keyword,
+                                           @Param("orderNumber") String orderNumber,
+                                           @Param("warehouseId") Long warehouseId,
+                                           @Param("businessType") BusinessType businessType,
+                                           @Param("status") ApprovalStatus status,
+                                           @Param("startDate") String startDate,
+                                           @Param("endDate") String endDate,
+                                           Pageable pageable);
+
+    /**
+     * 多条件键集分页查询游标之后的出库单（后续页，以上一页最后一条为游标）
+     * 冗余的 createdTime <= 条件让数据库可以在 (created_time, id) 索引上直接定位到游标位置
+     */
+    @Query("SELECT o FROM OutboundOrder o " + FILTERED_OUTBOUND_CONDITIONS +
+           " AND o.createdTime <= :cursorTime AND (o.createdTime < :cursorTime OR " +
+           "(o.createdTime = :cursorTime AND o.id < :cursorId)) " +
+           "ORDER BY o.createdTime DESC, o.id DESC")
+    List<OutboundOrder> findByFiltersAfter(@Param("keyword") String keyword,
+                                           @Param("orderNumber") String orderNumber,
+                                           @Param("warehouseId") Long warehouseId,
+                                           @Param("businessType") BusinessType businessType,
+                                           @Param("status") ApprovalStatus status,
+                                           @Param("startDate") String startDate,
+                                           @Param("endDate") String endDate,
+                                           @Param("cursorTime") LocalDateTime cursorTime,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    /**
+     * 多条件统计出库单数量
+     */
+    @Query("SELECT COUNT(o) FROM OutboundOrder o " + FILTERED_OUTBOUND_CONDITIONS)
+    long countByFilters(@Param("keyword") String keyword,
+                        @Param("orderNumber") String orderNumber,
+                        @Param("warehouseId") Long warehouseId,
+                        @Param("businessType") BusinessType businessType,
+                        @Param("status") ApprovalStatus status,
+                        @Param("startDate") String startDate,
+                        @Param("endDate") String endDate);
+
     /**
      * 分页查询出库单（支持仓库和关键字搜索）
      */
@@ -182,9 +234,19 @@ public interface OutboundOrderRepository extends JpaRepository<OutboundOrder, Lo
     // String generateOrderNumber();
 
     /**
-     * 根据订单号前缀查找订单，按订单号降序排列
+     * 根据订单号前缀查找订单号，按序号从大到小排列（长度优先，避免序号超过3位后字符串比较出错）
+     */
+    @Query("SELECT o.orderNumber FROM OutboundOrder o WHERE o.orderNumber LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(o.orderNumber) DESC, o.orderNumber DESC")
+    List<String> findOrderNumbersStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 查找指定前缀的最大订单号（包含已删除的订单），不存在时返回 null
      */
-    List<OutboundOrder> findByOrderNumberStartingWithOrderByOrderNumberDesc(String prefix);
+    default String findMaxOrderNumberStartingWith(String prefix) {
+        List<String> orderNumbers = findOrderNumbersStartingWith(prefix, PageRequest.of(0, 1));
+        return orderNumbers.isEmpty() ? null : orderNumbers.get(0);
+    }
 
     /**
      * 查找所有未删除的出库单
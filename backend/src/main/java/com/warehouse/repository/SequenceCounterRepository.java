@@ -0,0 +1,37 @@
+package com.warehouse.repository;
+
+import com.warehouse.entity.SequenceCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 序号计数器数据访问接口
+ * 号段预留由序号服务在独立连接上执行并单独提交，UPDATE 持有行锁直到提交，
+ * 多个应用实例同时预留时拿到的号段互不重叠。
+ *
+ * @author Warehouse Team
+ */
+@Repository
+public interface SequenceCounterRepository extends JpaRepository<SequenceCounter, Long> {
+
+    /**
+     * 预留一个号段：next_value 累加号段大小
+     */
+    String RESERVE_SQL =
+            "UPDATE sequence_counters SET next_value = next_value + :blockSize, updated_time = CURRENT_TIMESTAMP " +
+            "WHERE sequence_name = :sequenceName";
+
+    /**
+     * 计数器不存在时创建并预留第一个号段，并发创建时退化为累加
+     */
+    String INSERT_OR_RESERVE_SQL =
+            "INSERT INTO sequence_counters (sequence_name, next_value, created_time, updated_time, deleted, version) " +
+            "VALUES (:sequenceName, :startValue + :blockSize, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, false, 0) " +
+            "ON DUPLICATE KEY UPDATE next_value = next_value + :blockSize, updated_time = CURRENT_TIMESTAMP";
+
+    /**
+     * 读取预留后的 next_value
+     */
+    String SELECT_NEXT_VALUE_SQL =
+            "SELECT next_value FROM sequence_counters WHERE sequence_name = :sequenceName";
+}
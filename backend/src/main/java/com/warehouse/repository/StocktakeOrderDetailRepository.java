@@ -6,16 +6,98 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 盘点单明细数据访问接口
- * 
+ * 账面快照、实盘提交和过账通过 NamedParameterJdbcTemplate 按集合批量执行（SQL 定义在此），读取使用 JPQL。
+ *
  * @author Warehouse Team
  */
 @Repository
 public interface StocktakeOrderDetailRepository extends JpaRepository<StocktakeOrderDetail, Long> {
 
+    /**
+     * 全盘账面快照：一条语句把仓库内所有库存的当前数量和平均成本写入明细
+     */
+    String FULL_SNAPSHOT_SQL =
+            "INSERT INTO stocktake_order_details (stocktake_order_id, goods_id, goods_code, goods_name, unit, " +
+            "book_quantity, unit_price, book_amount, difference_quantity, actual_amount, difference_amount, " +
+            "is_completed, is_adjusted, created_by, created_time, updated_time, deleted, version) " +
+            "SELECT :orderId, g.id, g.code, g.name, g.unit, i.quantity, ROUND(COALESCE(i.average_cost, 0), 2), " +
+            "ROUND(i.quantity * COALESCE(i.average_cost, 0), 2), 0, 0, 0, false, false, :createdBy, :now, :now, false, 0 " +
+            "FROM inventories i JOIN goods g ON g.id = i.goods_id " +
+            "WHERE i.warehouse_id = :warehouseId AND i.deleted = false";
+
+    /**
+     * 按盘点范围做账面快照：范围内没有库存记录的货物账面数量为0
+     */
+    String RANGE_SNAPSHOT_SQL =
+            "INSERT INTO stocktake_order_details (stocktake_order_id, goods_id, goods_code, goods_name, unit, " +
+            "book_quantity, unit_price, book_amount, difference_quantity, actual_amount, difference_amount, " +
+            "is_completed, is_adjusted, created_by, created_time, updated_time, deleted, version) " +
+            "SELECT :orderId, g.id, g.code, g.name, g.unit, COALESCE(i.quantity, 0), ROUND(COALESCE(i.average_cost, 0), 2), " +
+            "ROUND(COALESCE(i.quantity, 0) * COALESCE(i.average_cost, 0), 2), 0, 0, 0, false, false, :createdBy, :now, :now, false, 0 " +
+            "FROM stocktake_order_ranges r JOIN goods g ON g.id = r.goods_id " +
+            "LEFT JOIN inventories i ON i.goods_id = r.goods_id AND i.warehouse_id = :warehouseId AND i.deleted = false " +
+            "WHERE r.stocktake_order_id = :orderId AND r.deleted = false";
+
+    /**
+     * 全盘时盘到账面上没有的货物：补一条账面数量为0的明细
+     */
+    String FOUND_GOODS_INSERT_SQL =
+            "INSERT INTO stocktake_order_details (stocktake_order_id, goods_id, goods_code, goods_name, unit, " +
+            "book_quantity, unit_price, book_amount, difference_quantity, actual_amount, difference_amount, " +
+            "is_completed, is_adjusted, created_by, created_time, updated_time, deleted, version) " +
+            "SELECT :orderId, g.id, g.code, g.name, g.unit, 0, 0, 0, 0, 0, 0, false, false, :createdBy, :now, :now, false, 0 " +
+            "FROM goods g WHERE g.id = :goodsId AND g.deleted = false AND NOT EXISTS " +
+            "(SELECT 1 FROM stocktake_order_details d WHERE d.stocktake_order_id = :orderId AND d.goods_id = g.id)";
+
+    /**
+     * 实盘数量提交时同时计算差异数量和金额，追加按明细ID或货物ID定位的条件
+     */
+    String COUNT_UPDATE_SQL =
+            "UPDATE stocktake_order_details SET actual_quantity = :actualQuantity, " +
+            "difference_quantity = :actualQuantity - book_quantity, " +
+            "actual_amount = ROUND(:actualQuantity * unit_price, 2), " +
+            "difference_amount = ROUND((:actualQuantity - book_quantity) * unit_price, 2), " +
+            "remark = COALESCE(:remark, remark), stocktake_user = :stocktakeUser, is_completed = :completed, " +
+            "updated_by = :stocktakeUser, updated_time = :now, version = version + 1 " +
+            "WHERE stocktake_order_id = :orderId AND deleted = false";
+
+    /**
+     * 待过账的差异（已盘点且有差异、尚未调整）
+     */
+    String PENDING_ADJUSTMENTS_SQL =
+            "SELECT goods_id, difference_quantity, unit_price FROM stocktake_order_details " +
+            "WHERE stocktake_order_id = :orderId AND deleted = false AND actual_quantity IS NOT NULL " +
+            "AND difference_quantity <> 0 AND is_adjusted = false";
+
+    /**
+     * 标记差异已过账
+     */
+    String MARK_ADJUSTED_SQL =
+            "UPDATE stocktake_order_details SET is_adjusted = true, updated_time = :now, version = version + 1 " +
+            "WHERE stocktake_order_id = :orderId AND deleted = false AND actual_quantity IS NOT NULL " +
+            "AND difference_quantity <> 0 AND is_adjusted = false";
+
+    /**
+     * 汇总盘点结果，返回一行：明细数、已盘数、盘盈数、盘亏数、无差异数、账面金额、实盘金额、差异金额、盘盈金额、盘亏金额
+     */
+    @Query("SELECT COUNT(d), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL AND d.differenceQuantity > 0 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL AND d.differenceQuantity < 0 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL AND d.differenceQuantity = 0 THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(d.bookAmount), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL THEN d.actualAmount ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL THEN d.differenceAmount ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL AND d.differenceAmount > 0 THEN d.differenceAmount ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN d.actualQuantity IS NOT NULL AND d.differenceAmount < 0 THEN d.differenceAmount ELSE 0 END), 0) " +
+           "FROM StocktakeOrderDetail d WHERE d.stocktakeOrder.id = :stocktakeOrderId AND d.deleted = false")
+    List<Object[]> summarize(@Param("stocktakeOrderId") Long stocktakeOrderId);
+
     /**
      * 根据盘点单ID查找明细
      */
@@ -26,6 +108,29 @@ public interface StocktakeOrderDetailRepository extends JpaRepository<StocktakeO
      */
     List<StocktakeOrderDetail> findByStocktakeOrderIdOrderByIdAsc(Long stocktakeOrderId);
 
+    /**
+     * 查找盘点单的全部明细，同时加载货物（按序号排序）
+     */
+    @Query("SELECT d FROM StocktakeOrderDetail d JOIN FETCH d.goods WHERE d.stocktakeOrder.id = :stocktakeOrderId " +
+           "AND d.deleted = false ORDER BY d.id")
+    List<StocktakeOrderDetail> findWithGoodsByStocktakeOrderId(@Param("stocktakeOrderId") Long stocktakeOrderId);
+
+    /**
+     * 按明细ID查找盘点单的明细，同时加载货物
+     */
+    @Query("SELECT d FROM StocktakeOrderDetail d JOIN FETCH d.goods WHERE d.stocktakeOrder.id = :stocktakeOrderId " +
+           "AND d.id IN :ids AND d.deleted = false")
+    List<StocktakeOrderDetail> findWithGoodsByIds(@Param("stocktakeOrderId") Long stocktakeOrderId,
+                                                  @Param("ids") Collection<Long> ids);
+
+    /**
+     * 按货物ID查找盘点单的明细，同时加载货物
+     */
+    @Query("SELECT d FROM StocktakeOrderDetail d JOIN FETCH d.goods g WHERE d.stocktakeOrder.id = :stocktakeOrderId " +
+           "AND g.id IN :goodsIds AND d.deleted = false")
+    List<StocktakeOrderDetail> findWithGoodsByGoodsIds(@Param("stocktakeOrderId") Long stocktakeOrderId,
+                                                       @Param("goodsIds") Collection<Long> goodsIds);
+
     /**
      * 根据货物ID查找明细
      */
@@ -36,7 +141,8 @@ public interface StocktakeOrderDetailRepository extends JpaRepository<StocktakeO
     /**
      * 查找有差异的明细
      */
-    @Query("SELECT d FROM StocktakeOrderDetail d WHERE d.stocktakeOrder.id = :stocktakeOrderId AND d.differenceQuantity != 0")
+    @Query("SELECT d FROM StocktakeOrderDetail d JOIN FETCH d.goods WHERE d.stocktakeOrder.id = :stocktakeOrderId " +
+           "AND d.actualQuantity IS NOT NULL AND d.differenceQuantity != 0 AND d.deleted = false ORDER BY d.id")
     List<StocktakeOrderDetail> findDifferencesByStocktakeOrderId(@Param("stocktakeOrderId") Long stocktakeOrderId);
 
     /**
@@ -3,9 +3,12 @@ package com.warehouse.repository;
 import com.warehouse.entity.StocktakeOrder;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.StocktakeType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,17 +19,41 @@ import java.util.Optional;
 
 /**
  * 盘点单数据访问接口
- * 
+ * 盘点范围没有单独的仓库接口，随盘点单通过 NamedParameterJdbcTemplate 批量写入（SQL 定义在此）。
+ *
  * @author Warehouse Team
  */
 @Repository
 public interface StocktakeOrderRepository extends JpaRepository<StocktakeOrder, Long> {
 
+    /**
+     * 写入一条盘点范围，货物编码和名称取自货物表；货物不存在时不写入
+     */
+    String RANGE_INSERT_SQL =
+            "INSERT INTO stocktake_order_ranges (stocktake_order_id, goods_id, goods_code, goods_name, book_quantity, remark, " +
+            "created_by, created_time, updated_time, deleted, version) " +
+            "SELECT :orderId, g.id, g.code, g.name, 0, :remark, :createdBy, :now, :now, false, 0 " +
+            "FROM goods g WHERE g.id = :goodsId AND g.deleted = false";
+
+    /**
+     * 删除盘点单的全部盘点范围（软删除）
+     */
+    String RANGE_DELETE_SQL =
+            "UPDATE stocktake_order_ranges SET deleted = true, updated_time = :now, version = version + 1 " +
+            "WHERE stocktake_order_id = :orderId AND deleted = false";
+
     /**
      * 根据单号查找盘点单
      */
     Optional<StocktakeOrder> findByOrderNumberAndDeletedFalse(String orderNumber);
 
+    /**
+     * 加排他锁读取盘点单：审批、开始、完成、取消和删除时使用，避免并发的状态变更
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StocktakeOrder s WHERE s.id = :id AND s.deleted = false")
+    Optional<StocktakeOrder> findForUpdate(@Param("id") Long id);
+
     /**
      * 检查单号是否存在
      */
@@ -103,4 +130,43 @@ public interface StocktakeOrderRepository extends JpaRepository<StocktakeOrder,
      */
     @Query("SELECT s FROM StocktakeOrder s WHERE s.deleted = false AND s.status = 'APPROVED' AND s.plannedDate < CURRENT_DATE AND s.completedTime IS NULL ORDER BY s.plannedDate ASC")
     List<StocktakeOrder> findOverdueOrders();
+
+    /**
+     * 按状态分组统计盘点单数量
+     */
+    @Query("SELECT s.status, COUNT(s) FROM StocktakeOrder s WHERE s.deleted = false GROUP BY s.status")
+    List<Object[]> countGroupByStatus();
+
+    /**
+     * 统计逾期未执行的盘点单数量
+     */
+    @Query("SELECT COUNT(s) FROM StocktakeOrder s WHERE s.deleted = false AND s.status = 'APPROVED' AND s.plannedDate < CURRENT_DATE AND s.completedTime IS NULL")
+    long countOverdueOrders();
+
+    /**
+     * 根据单号前缀查找单号，按序号从大到小排列（长度优先，避免序号超过3位后字符串比较出错）
+     */
+    @Query("SELECT s.orderNumber FROM StocktakeOrder s WHERE s.orderNumber LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(s.orderNumber) DESC, s.orderNumber DESC")
+    List<String> findOrderNumbersStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 查找指定前缀的最大单号（包含已删除的盘点单），不存在时返回 null
+     */
+    default String findMaxOrderNumberStartingWith(String prefix) {
+        List<String> orderNumbers = findOrderNumbersStartingWith(prefix, PageRequest.of(0, 1));
+        return orderNumbers.isEmpty() ? null : orderNumbers.get(0);
+    }
+
+    /**
+     * 按计划日期分组统计盘点次数 - 报表引擎使用
+     */
+    @Query("SELECT s.plannedDate, COUNT(s) FROM StocktakeOrder s WHERE s.deleted = false AND s.plannedDate BETWEEN :startDate AND :endDate GROUP BY s.plannedDate")
+    List<Object[]> countGroupByPlannedDate(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * 按仓库、按计划日期分组统计盘点次数 - 报表引擎使用
+     */
+    @Query("SELECT s.plannedDate, COUNT(s) FROM StocktakeOrder s WHERE s.deleted = false AND s.warehouse.id = :warehouseId AND s.plannedDate BETWEEN :startDate AND :endDate GROUP BY s.plannedDate")
+    List<Object[]> countGroupByPlannedDateAndWarehouse(@Param("warehouseId") Long warehouseId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,12 @@ public interface TransferOrderDetailRepository extends JpaRepository<TransferOrd
      */
     List<TransferOrderDetail> findByTransferOrderIdOrderByIdAsc(Long transferOrderId);
 
+    /**
+     * 批量查询多张调拨单的明细及货物（列表转换用，按调拨单ID、明细ID排序）
+     */
+    @Query("SELECT d FROM TransferOrderDetail d JOIN FETCH d.goods WHERE d.transferOrder.id IN :transferOrderIds ORDER BY d.transferOrder.id, d.id")
+    List<TransferOrderDetail> findWithGoodsByTransferOrderIdIn(@Param("transferOrderIds") Collection<Long> transferOrderIds);
+
     /**
      * 根据货物ID查找明细
      */
@@ -3,6 +3,7 @@ package com.warehouse.repository;
 import com.warehouse.entity.TransferOrder;
 import com.warehouse.enums.ApprovalStatus;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -195,9 +196,19 @@ public interface TransferOrderRepository extends JpaRepository<TransferOrder, Lo
     // String generateOrderNumber();
 
     /**
-     * 根据订单号前缀查找订单，按订单号降序排列
+     * 根据订单号前缀查找订单号，按序号从大到小排列（长度优先，避免序号超过3位后字符串比较出错）
      */
-    List<TransferOrder> findByOrderNumberStartingWithOrderByOrderNumberDesc(String prefix);
+    @Query("SELECT o.orderNumber FROM TransferOrder o WHERE o.orderNumber LIKE CONCAT(:prefix, '%') " +
+           "ORDER BY LENGTH(o.orderNumber) DESC, o.orderNumber DESC")
+    List<String> findOrderNumbersStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+    /**
+     * 查找指定前缀的最大订单号（包含已删除的订单），不存在时返回 null
+     */
+    default String findMaxOrderNumberStartingWith(String prefix) {
+        List<String> orderNumbers = findOrderNumbersStartingWith(prefix, PageRequest.of(0, 1));
+        return orderNumbers.isEmpty() ? null : orderNumbers.get(0);
+    }
 
     /**
      * 按日期范围统计调拨单数量 - H2/MySQL兼容版本
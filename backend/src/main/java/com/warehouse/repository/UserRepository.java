@@ -2,11 +2,14 @@ package com.warehouse.repository;
 
 import com.warehouse.entity.User;
 import com.warehouse.enums.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -42,6 +45,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     /**
      * 根据用户名查找用户（未删除）
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsernameAndDeletedFalse(String username);
 
 
@@ -271,9 +275,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * 修复用户账号状态 - 将所有用户设置为未锁定状态
+     * 声明影响的表，执行后只清除用户缓存区域，而不是整个二级缓存
      */
     @Modifying
     @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
     @Query(value = "UPDATE users SET account_non_locked = 1, account_non_expired = 1, credentials_non_expired = 1, enabled = 1 WHERE deleted = 0", nativeQuery = true)
     int updateUserAccountStatus();
 }
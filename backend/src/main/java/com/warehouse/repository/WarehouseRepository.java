@@ -1,10 +1,13 @@
 package com.warehouse.repository;
 
 import com.warehouse.entity.Warehouse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,7 +16,8 @@ import java.util.Optional;
 
 /**
  * 仓库数据访问接口
- * 
+ * 仓库列表和按编码查询使用查询缓存，仓库表有写入时自动失效。
+ *
  * @author Warehouse Team
  */
 @Repository
@@ -22,6 +26,7 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     /**
      * 根据编码查找仓库
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Warehouse> findByCodeAndDeletedFalse(String code);
 
     /**
@@ -32,11 +37,13 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     /**
      * 查找所有启用的仓库
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Warehouse> findByEnabledTrueAndDeletedFalseOrderByCode();
 
     /**
      * 查找所有未删除的仓库
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Warehouse> findByDeletedFalseOrderByCode();
 
     /**
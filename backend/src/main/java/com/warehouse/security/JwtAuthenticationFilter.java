@@ -27,7 +27,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenUtil jwtTokenUtil;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private JwtPrincipalResolver jwtPrincipalResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -35,12 +35,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && jwtTokenUtil.validateToken(jwt)) {
-                String username = jwtTokenUtil.getUsernameFromToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                // 签名和有效期校验、吊销检查均在解析器内完成，不再逐请求查询用户
+                UserDetails userDetails = jwtPrincipalResolver.resolve(jwt);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                if (jwtTokenUtil.validateToken(jwt, userDetails)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,175 @@
+package com.warehouse.security;
+
+import com.warehouse.config.CacheConfig;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.UserRole;
+import com.warehouse.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 根据访问令牌解析用户主体
+ * 声明模式下直接用已验签的声明构建主体，并按令牌缓存；每次请求只做一次内存中的吊销检查，
+ * 用户状态（是否可用、令牌版本号）按用户ID短期缓存，用户被禁用、改密或调整权限时清除。
+ * 缺少用户声明的旧令牌回退为按用户名查库。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class JwtPrincipalResolver {
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${jwt.claims-auth.enabled:true}")
+    private boolean claimsAuthEnabled;
+
+    /**
+     * 解析令牌得到用户主体；令牌无效、已过期或已被吊销时返回null
+     */
+    public UserDetails resolve(String token) {
+        if (!claimsAuthEnabled) {
+            Claims claims = jwtTokenUtil.parseToken(token);
+            return claims != null ? loadFromDatabase(claims.getSubject()) : null;
+        }
+
+        Cache principalCache = cacheManager.getCache(CacheConfig.JWT_PRINCIPALS);
+        CachedPrincipal cached = principalCache.get(token, CachedPrincipal.class);
+        if (cached == null) {
+            Claims claims = jwtTokenUtil.parseToken(token);
+            if (claims == null) {
+                return null;
+            }
+            if (!hasUserClaims(claims)) {
+                return loadFromDatabase(claims.getSubject());
+            }
+            cached = new CachedPrincipal(buildPrincipal(claims), claims.getExpiration().getTime());
+            principalCache.put(token, cached);
+        } else if (cached.expiresAt <= System.currentTimeMillis()) {
+            principalCache.evict(token);
+            return null;
+        }
+
+        return isCurrent(cached.principal) ? cached.principal : null;
+    }
+
+    /**
+     * 检查令牌版本号与用户当前状态是否一致
+     */
+    public boolean isCurrent(UserDetailsServiceImpl.UserPrincipal principal) {
+        TokenState state = getTokenState(principal.getId());
+        return state != null && state.active && state.tokenVersion == principal.getTokenVersion();
+    }
+
+    /**
+     * 获取用户令牌状态，缓存未命中时按主键查询
+     */
+    public TokenState getTokenState(Long userId) {
+        Cache stateCache = cacheManager.getCache(CacheConfig.USER_TOKEN_STATES);
+        TokenState state = stateCache.get(userId, () -> userRepository.findById(userId)
+                .map(TokenState::of)
+                .orElse(TokenState.MISSING));
+        return state != TokenState.MISSING ? state : null;
+    }
+
+    private boolean hasUserClaims(Claims claims) {
+        return claims.get(JwtTokenUtil.CLAIM_USER_ID) instanceof Number
+                && claims.get(JwtTokenUtil.CLAIM_ROLE) instanceof String
+                && claims.get(JwtTokenUtil.CLAIM_TOKEN_VERSION) instanceof Number
+                && !"refresh".equals(claims.get(JwtTokenUtil.CLAIM_TYPE));
+    }
+
+    /**
+     * 根据声明构建脱离持久化上下文的用户主体，仓库仅填充ID
+     */
+    private UserDetailsServiceImpl.UserPrincipal buildPrincipal(Claims claims) {
+        User user = new User();
+        user.setId(((Number) claims.get(JwtTokenUtil.CLAIM_USER_ID)).longValue());
+        user.setUsername(claims.getSubject());
+        user.setRealName(claims.get(JwtTokenUtil.CLAIM_REAL_NAME, String.class));
+        user.setRole(UserRole.valueOf(claims.get(JwtTokenUtil.CLAIM_ROLE, String.class)));
+        user.setTokenVersion(((Number) claims.get(JwtTokenUtil.CLAIM_TOKEN_VERSION)).intValue());
+
+        List<Long> warehouseIds = JwtTokenUtil.toLongList(claims.get(JwtTokenUtil.CLAIM_WAREHOUSE_IDS));
+        Set<Warehouse> warehouses = new HashSet<>();
+        for (Long warehouseId : warehouseIds) {
+            Warehouse warehouse = new Warehouse();
+            warehouse.setId(warehouseId);
+            warehouses.add(warehouse);
+        }
+        user.setWarehouses(warehouses);
+        return new UserDetailsServiceImpl.UserPrincipal(user);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            return userDetails.isEnabled() && userDetails.isAccountNonLocked() ? userDetails : null;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 缓存的用户主体及令牌过期时间
+     */
+    private static final class CachedPrincipal {
+        private final UserDetailsServiceImpl.UserPrincipal principal;
+        private final long expiresAt;
+
+        private CachedPrincipal(UserDetailsServiceImpl.UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * 用户令牌状态
+     */
+    public static final class TokenState {
+        private static final TokenState MISSING = new TokenState(false, -1);
+
+        private final boolean active;
+        private final int tokenVersion;
+
+        private TokenState(boolean active, int tokenVersion) {
+            this.active = active;
+            this.tokenVersion = tokenVersion;
+        }
+
+        private static TokenState of(User user) {
+            boolean active = !Boolean.TRUE.equals(user.getDeleted())
+                    && !Boolean.FALSE.equals(user.getEnabled())
+                    && !Boolean.FALSE.equals(user.getAccountNonLocked());
+            return new TokenState(active, user.getTokenVersion());
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public int getTokenVersion() {
+            return tokenVersion;
+        }
+    }
+}
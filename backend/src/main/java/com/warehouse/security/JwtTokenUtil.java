@@ -20,6 +20,13 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_REAL_NAME = "realName";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_WAREHOUSE_IDS = "warehouseIds";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TYPE = "type";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -29,6 +36,8 @@ public class JwtTokenUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    private volatile JwtParser parser;
+
     /**
      * 从token中获取用户名
      */
@@ -55,11 +64,18 @@ public class JwtTokenUtil {
      * 从token中获取所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getParser().parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * 校验签名和有效期并返回声明，一次解析；token无效时返回null
+     */
+    public Claims parseToken(String token) {
+        try {
+            return getAllClaimsFromToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     /**
@@ -104,7 +120,10 @@ public class JwtTokenUtil {
      */
     public String generateRefreshToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put(CLAIM_TYPE, "refresh");
+        if (userDetails instanceof UserDetailsServiceImpl.UserPrincipal principal) {
+            claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
         return Jwts.builder()
                 .claims(claims)
                 .subject(userDetails.getUsername())
@@ -126,15 +145,7 @@ public class JwtTokenUtil {
      * 验证token（不检查用户）
      */
     public Boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return parseToken(token) != null;
     }
 
     /**
@@ -156,7 +167,7 @@ public class JwtTokenUtil {
      */
     public Long getUserIdFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("userId", Long.class);
+        return claims.get(CLAIM_USER_ID, Long.class);
     }
 
     /**
@@ -164,7 +175,7 @@ public class JwtTokenUtil {
      */
     public String getRoleFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("role", String.class);
+        return claims.get(CLAIM_ROLE, String.class);
     }
 
     /**
@@ -173,7 +184,35 @@ public class JwtTokenUtil {
     @SuppressWarnings("unchecked")
     public java.util.List<Long> getWarehouseIdsFromToken(String token) {
         Claims claims = getAllClaimsFromToken(token);
-        return claims.get("warehouseIds", java.util.List.class);
+        return toLongList(claims.get(CLAIM_WAREHOUSE_IDS));
+    }
+
+    /**
+     * 声明中的数字数组反序列化后可能是Integer，统一转换为Long
+     */
+    public static java.util.List<Long> toLongList(Object value) {
+        if (!(value instanceof java.util.Collection<?> values)) {
+            return new java.util.ArrayList<>();
+        }
+        java.util.List<Long> result = new java.util.ArrayList<>(values.size());
+        for (Object item : values) {
+            if (item instanceof Number number) {
+                result.add(number.longValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取解析器（签名密钥固定，构建一次后复用）
+     */
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
     /**
@@ -217,16 +256,24 @@ public class JwtTokenUtil {
      */
     public String generateTokenWithUserInfo(String username, Long userId, String role, java.util.List<Long> warehouseIds) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("role", role);
-        claims.put("warehouseIds", warehouseIds);
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role);
+        claims.put(CLAIM_WAREHOUSE_IDS, warehouseIds);
         
-        return Jwts.builder()
-                .claims(claims)
-                .subject(username)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+        return createToken(claims, username);
+    }
+
+    /**
+     * 生成带完整用户信息的token，过滤器可直接根据声明构建用户主体
+     */
+    public String generateTokenWithUserInfo(UserDetailsServiceImpl.UserPrincipal principal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, principal.getId());
+        claims.put(CLAIM_REAL_NAME, principal.getRealName());
+        claims.put(CLAIM_ROLE, principal.getRole());
+        claims.put(CLAIM_WAREHOUSE_IDS, principal.getWarehouseIds());
+        claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+
+        return createToken(claims, principal.getUsername());
     }
 }
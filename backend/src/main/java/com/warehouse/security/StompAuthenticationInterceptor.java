@@ -0,0 +1,91 @@
+package com.warehouse.security;
+
+import com.warehouse.security.UserDetailsServiceImpl.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+
+/**
+ * STOMP认证拦截器
+ * WebSocket 握手不经过 JWT 过滤器，在 CONNECT 帧中校验令牌并绑定用户；
+ * 订阅时校验目的地：仪表盘主题所有登录用户可订阅，仓库主题需要管理员或有该仓库权限。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    public static final String DASHBOARD_TOPIC = "/topic/dashboard";
+
+    public static final String WAREHOUSE_TOPIC_PREFIX = "/topic/warehouses/";
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private JwtPrincipalResolver jwtPrincipalResolver;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            String jwt = jwtTokenUtil.extractTokenFromHeader(accessor.getFirstNativeHeader("Authorization"));
+            UserDetails userDetails = StringUtils.hasText(jwt) ? jwtPrincipalResolver.resolve(jwt) : null;
+            if (userDetails == null) {
+                throw new MessageDeliveryException("未登录或令牌已失效");
+            }
+            accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+        } else if (command == StompCommand.SUBSCRIBE) {
+            if (!canSubscribe(accessor.getUser(), accessor.getDestination())) {
+                throw new MessageDeliveryException("无权订阅: " + accessor.getDestination());
+            }
+        } else if (command == StompCommand.SEND) {
+            // 推送通道只读，不接受客户端发送
+            throw new MessageDeliveryException("不支持客户端发送消息");
+        }
+        return message;
+    }
+
+    private boolean canSubscribe(Principal user, String destination) {
+        if (!(user instanceof Authentication authentication) || destination == null) {
+            return false;
+        }
+        if (DASHBOARD_TOPIC.equals(destination)) {
+            return true;
+        }
+        if (!destination.startsWith(WAREHOUSE_TOPIC_PREFIX)) {
+            return false;
+        }
+
+        Long warehouseId;
+        try {
+            warehouseId = Long.valueOf(destination.substring(WAREHOUSE_TOPIC_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        boolean isAdmin = authentication.getAuthorities().stream()
+                .anyMatch(auth -> "ROLE_ADMIN".equals(auth.getAuthority()));
+        if (isAdmin) {
+            return true;
+        }
+        return authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.getWarehouseIds().contains(warehouseId);
+    }
+}
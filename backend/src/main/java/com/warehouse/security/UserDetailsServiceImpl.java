@@ -124,6 +124,11 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     .toList();
         }
 
+        // 获取令牌版本号
+        public Integer getTokenVersion() {
+            return user.getTokenVersion();
+        }
+
         // 判断是否为管理员
         public boolean isAdmin() {
             return user.isAdmin();
@@ -0,0 +1,122 @@
+package com.warehouse.service;
+
+import com.warehouse.entity.DailyBusinessStat;
+import com.warehouse.entity.InboundOrder;
+import com.warehouse.entity.InboundOrderDetail;
+import com.warehouse.entity.OutboundOrder;
+import com.warehouse.entity.OutboundOrderDetail;
+import com.warehouse.entity.TransferOrder;
+import com.warehouse.entity.TransferOrderDetail;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 每日业务统计服务接口
+ * 单据执行时增量累加，定时任务按日期范围重建
+ *
+ * @author Warehouse Team
+ */
+public interface DailyBusinessStatsService {
+
+    /**
+     * 记录已执行的入库单
+     */
+    void recordInboundOrder(InboundOrder order, List<InboundOrderDetail> details);
+
+    /**
+     * 记录已执行的出库单
+     */
+    void recordOutboundOrder(OutboundOrder order, List<OutboundOrderDetail> details);
+
+    /**
+     * 记录已执行的调拨单（源仓库记调出，目标仓库记调入）
+     */
+    void recordTransferOrder(TransferOrder order, List<TransferOrderDetail> details);
+
+    /**
+     * 从已执行单据重建日期范围内的统计数据
+     *
+     * @return 写入的统计行数
+     */
+    int rebuild(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 按日期汇总各单据类型的单据级数据，key 为单据类型
+     */
+    Map<LocalDate, Map<String, StatTotals>> getDailyOrderTotals(LocalDate startDate, LocalDate endDate, Long warehouseId);
+
+    /**
+     * 汇总日期范围内各单据类型的单据级数据，key 为单据类型
+     */
+    Map<String, StatTotals> getOrderTotals(LocalDate startDate, LocalDate endDate, Long warehouseId);
+
+    /**
+     * 按星期汇总日期范围内各货物的业务活跃度，按活跃度降序
+     */
+    List<GoodsActivity> getGoodsWeekdayActivity(LocalDate startDate, LocalDate endDate, Long warehouseId);
+
+    /**
+     * 调拨单数：统计所有仓库时只计调出，避免同一调拨单计两次；指定仓库时调入调出都计
+     */
+    static long countTransfers(Map<String, StatTotals> totals, Long warehouseId) {
+        long count = totals.getOrDefault(DailyBusinessStat.TYPE_TRANSFER_OUT, StatTotals.EMPTY).getOrderCount();
+        if (warehouseId != null) {
+            count += totals.getOrDefault(DailyBusinessStat.TYPE_TRANSFER_IN, StatTotals.EMPTY).getOrderCount();
+        }
+        return count;
+    }
+
+    /**
+     * 统计汇总值
+     */
+    class StatTotals {
+        public static final StatTotals EMPTY = new StatTotals(0L, BigDecimal.ZERO, BigDecimal.ZERO);
+
+        private final long orderCount;
+        private final BigDecimal totalQuantity;
+        private final BigDecimal totalAmount;
+
+        public StatTotals(long orderCount, BigDecimal totalQuantity, BigDecimal totalAmount) {
+            this.orderCount = orderCount;
+            this.totalQuantity = totalQuantity;
+            this.totalAmount = totalAmount;
+        }
+
+        public StatTotals add(StatTotals other) {
+            return new StatTotals(orderCount + other.orderCount,
+                    totalQuantity.add(other.totalQuantity), totalAmount.add(other.totalAmount));
+        }
+
+        public long getOrderCount() { return orderCount; }
+        public BigDecimal getTotalQuantity() { return totalQuantity; }
+        public BigDecimal getTotalAmount() { return totalAmount; }
+    }
+
+    /**
+     * 货物按星期的活跃度（下标0为周一）
+     */
+    class GoodsActivity {
+        private final Long goodsId;
+        private final String goodsName;
+        private final long[] weekData = new long[7];
+        private long total;
+
+        public GoodsActivity(Long goodsId, String goodsName) {
+            this.goodsId = goodsId;
+            this.goodsName = goodsName;
+        }
+
+        public void add(int dayOfWeekIndex, long count) {
+            weekData[dayOfWeekIndex] += count;
+            total += count;
+        }
+
+        public Long getGoodsId() { return goodsId; }
+        public String getGoodsName() { return goodsName; }
+        public long[] getWeekData() { return weekData; }
+        public long getTotal() { return total; }
+    }
+}
@@ -4,6 +4,8 @@ import com.warehouse.dto.GoodsDTO;
 import com.warehouse.dto.PageResponse;
 import org.springframework.data.domain.Pageable;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -73,6 +75,11 @@ public interface GoodsService {
      */
     PageResponse<GoodsDTO> findByPage(String keyword, Long categoryId, Boolean enabled, Pageable pageable);
 
+    /**
+     * 货物输入联想（只返回启用的货物，最多50条）
+     */
+    List<GoodsDTO.Suggestion> suggest(String keyword, int limit);
+
     /**
      * 分页查询货物（按分类）
      */
@@ -206,10 +213,20 @@ public interface GoodsService {
      */
     GoodsDTO.ImportResult importGoods(List<GoodsDTO.ImportData> importDataList);
 
+    /**
+     * 提交Excel（.xlsx）货物导入任务，后台流式解析并批量写入，返回任务进度
+     */
+    GoodsDTO.ImportProgress startExcelImport(InputStream inputStream, String fileName);
+
+    /**
+     * 查询货物导入任务进度，任务结束后包含导入结果
+     */
+    GoodsDTO.ImportProgress getImportProgress(String jobId);
+
 
 
     /**
-     * 导出货物数据到Excel
+     * 导出货物数据到Excel，流式写入输出流（不关闭输出流）
      */
-    byte[] exportGoodsToExcel(String keyword, Long categoryId, Boolean enabled);
+    void exportGoodsToExcel(String keyword, Long categoryId, Boolean enabled, OutputStream outputStream);
 }
@@ -1,5 +1,6 @@
 package com.warehouse.service;
 
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InboundOrderDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.enums.ApprovalStatus;
@@ -95,6 +96,13 @@ public interface InboundOrderService {
     PageResponse<InboundOrderDTO> findByPageWithFilters(String keyword, Long warehouseId,
             BusinessType businessType, ApprovalStatus status, String startDate, String endDate, Pageable pageable);
 
+    /**
+     * 游标分页查询入库单（带筛选条件，按创建时间倒序，cursor为上一页返回的nextCursor，withTotal为true时统计总数）
+     */
+    CursorPageResponse<InboundOrderDTO> findByCursorWithFilters(String keyword, Long warehouseId,
+            BusinessType businessType, ApprovalStatus status, String startDate, String endDate,
+            String cursor, int size, boolean withTotal);
+
     /**
      * 分页查询入库单（按仓库）
      */
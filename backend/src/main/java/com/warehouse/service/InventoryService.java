@@ -1,10 +1,12 @@
 package com.warehouse.service;
 
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.InventoryHistoryDTO;
 import com.warehouse.dto.PageResponse;
 import org.springframework.data.domain.Pageable;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -78,6 +80,12 @@ public interface InventoryService {
     PageResponse<InventoryDTO> findByPageWithFilters(String keyword, Long warehouseId,
                                                    Long categoryId, String stockStatus, Pageable pageable);
 
+    /**
+     * 带筛选条件的游标分页查询库存（按创建时间倒序，cursor为上一页返回的nextCursor，withTotal为true时统计总数）
+     */
+    CursorPageResponse<InventoryDTO> findByCursorWithFilters(String keyword, Long warehouseId, Long categoryId,
+                                                           String stockStatus, String cursor, int size, boolean withTotal);
+
     /**
      * 分页查询库存（按仓库）
      */
@@ -104,6 +112,25 @@ public interface InventoryService {
      */
     InventoryDTO outboundInventory(Long warehouseId, Long goodsId, BigDecimal quantity);
 
+    /**
+     * 批量入库：一次加载涉及的库存记录，在内存中累加后批量写回
+     */
+    void batchInbound(Long warehouseId, List<InventoryDTO.StockMovement> movements,
+                      String businessType, String businessNumber);
+
+    /**
+     * 批量出库：一次加载涉及的库存记录，releaseLocked 为 true 时先释放审批时锁定的数量
+     */
+    void batchOutbound(Long warehouseId, List<InventoryDTO.StockMovement> movements, boolean releaseLocked,
+                       String businessType, String businessNumber);
+
+    /**
+     * 批量按差异调整库存（盘点过账）：movement 的数量为带符号的差异，在数据库中原子增减，
+     * 不覆盖调整前发生的出入库；仓库中没有库存记录的货物盘盈时新建记录
+     */
+    void batchAdjust(Long warehouseId, List<InventoryDTO.StockMovement> adjustments,
+                     String businessType, String businessNumber);
+
     /**
      * 库存锁定
      */
@@ -172,9 +199,15 @@ public interface InventoryService {
     List<InventoryHistoryDTO> getInventoryHistory(Long inventoryId);
 
     /**
-     * 导出库存数据到Excel
+     * 游标分页获取库存历史记录（按操作时间倒序，cursor为上一页最后一条记录的ID）
+     */
+    CursorPageResponse<InventoryHistoryDTO> getInventoryHistoryPage(Long inventoryId, Long cursor, int size);
+
+    /**
+     * 导出库存数据到Excel，流式写入输出流（不关闭输出流）
      */
-    byte[] exportInventoryToExcel(String keyword, Long warehouseId, Long categoryId, String stockStatus);
+    void exportInventoryToExcel(String keyword, Long warehouseId, Long categoryId, String stockStatus,
+                                OutputStream outputStream);
 
     /**
      * 获取有库存记录的货物列表
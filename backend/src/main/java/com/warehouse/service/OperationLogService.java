@@ -1,5 +1,6 @@
 package com.warehouse.service;
 
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.OperationLogDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.entity.OperationLog;
@@ -68,6 +69,11 @@ public interface OperationLogService {
      */
     PageResponse<OperationLogDTO> findByPage(String keyword, Pageable pageable);
 
+    /**
+     * 游标分页查询操作日志（按操作时间倒序，cursor为上一页返回的nextCursor，withTotal为true时统计总数）
+     */
+    CursorPageResponse<OperationLogDTO> findByCursor(String keyword, String cursor, int size, boolean withTotal);
+
     /**
      * 记录登录日志
      */
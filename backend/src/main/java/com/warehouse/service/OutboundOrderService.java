@@ -1,5 +1,6 @@
 package com.warehouse.service;
 
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.OutboundOrderDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.enums.ApprovalStatus;
@@ -98,6 +99,13 @@ public interface OutboundOrderService {
     PageResponse<OutboundOrderDTO> findByPageWithFilters(String keyword, String orderNumber, Long warehouseId,
             BusinessType businessType, ApprovalStatus status, String startDate, String endDate, Pageable pageable);
 
+    /**
+     * 游标分页查询出库单（带筛选条件，按创建时间倒序，cursor为上一页返回的nextCursor，withTotal为true时统计总数）
+     */
+    CursorPageResponse<OutboundOrderDTO> findByCursorWithFilters(String keyword, String orderNumber, Long warehouseId,
+            BusinessType businessType, ApprovalStatus status, String startDate, String endDate,
+            String cursor, int size, boolean withTotal);
+
     /**
      * 分页查询出库单（按仓库）
      */
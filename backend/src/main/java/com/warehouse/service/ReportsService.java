@@ -18,6 +18,7 @@ public interface ReportsService {
 
     /**
      * 获取趋势数据
+     * 出入库、调拨取自每日业务统计：只统计已执行的单据，按实际执行日期归属
      */
     List<Map<String, Object>> getTrendData(LocalDate startDate, LocalDate endDate, String type, Long warehouseId);
 
@@ -43,6 +44,7 @@ public interface ReportsService {
 
     /**
      * 获取业务汇总
+     * 口径与趋势数据相同：只统计已执行的单据，按实际执行日期归属
      */
     List<Map<String, Object>> getBusinessSummary(LocalDate startDate, LocalDate endDate, Long warehouseId);
 
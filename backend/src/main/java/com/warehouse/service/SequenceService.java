@@ -0,0 +1,26 @@
+package com.warehouse.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 序号服务接口
+ * 从数据库计数器按号段预留序号，号段内通过原子计数分配，
+ * 并发调用不会拿到重复序号；应用重启或事务回滚会留下未使用的空号。
+ *
+ * @author Warehouse Team
+ */
+public interface SequenceService {
+
+    /**
+     * 生成按日期滚动的编号：前缀 + yyyyMMdd + 至少3位序号（如 IN20240101001），每天从 1 开始。
+     * lastNumberLookup 接收当天前缀（如 IN20240101），返回已存在的最大编号或 null，
+     * 仅在当天计数器首次创建时调用，用于接续启用计数器之前已生成的编号。
+     */
+    String nextDailyNumber(String prefix, Function<String, String> lastNumberLookup);
+
+    /**
+     * 一次预留 count 个连续的按日期滚动编号，用于批量导入；编号规则同 nextDailyNumber
+     */
+    List<String> nextDailyNumbers(String prefix, int count, Function<String, String> lastNumberLookup);
+}
@@ -0,0 +1,323 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.entity.DailyBusinessStat;
+import com.warehouse.entity.InboundOrder;
+import com.warehouse.entity.InboundOrderDetail;
+import com.warehouse.entity.OutboundOrder;
+import com.warehouse.entity.OutboundOrderDetail;
+import com.warehouse.entity.TransferOrder;
+import com.warehouse.entity.TransferOrderDetail;
+import com.warehouse.enums.BusinessType;
+import com.warehouse.exception.BusinessException;
+import com.warehouse.repository.DailyBusinessStatRepository;
+import com.warehouse.service.DailyBusinessStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 每日业务统计服务实现类
+ * 单据执行时增量累加统计行，重建时先删除再按单据表重新汇总。两者通过读写锁互斥：
+ * 增量写入持有读锁直到所在业务事务结束，重建持有写锁直到重建事务结束，
+ * 重建期间执行的单据等重建提交后再累加，不会被重复统计或丢失。
+ * 重建排队等待写锁时会挡住新的增量写入，因此等待有上限，超时放弃本次重建。
+ *
+ * @author Warehouse Team
+ */
+@Service
+@Transactional
+public class DailyBusinessStatsServiceImpl implements DailyBusinessStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyBusinessStatsServiceImpl.class);
+
+    /**
+     * 首次回填的起始日期
+     */
+    private static final LocalDate BACKFILL_START_DATE = LocalDate.of(2000, 1, 1);
+
+    /**
+     * 重建等待进行中的增量写入结束的最长时间
+     */
+    private static final long REBUILD_LOCK_TIMEOUT_SECONDS = 30;
+
+    @Autowired
+    private DailyBusinessStatRepository dailyBusinessStatRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${warehouse.stats.rebuild-days:7}")
+    private int rebuildDays;
+
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Override
+    public void recordInboundOrder(InboundOrder order, List<InboundOrderDetail> details) {
+        // 调拨生成的入库单由调拨单统计
+        if (order.getBusinessType() == BusinessType.TRANSFER_IN) {
+            return;
+        }
+        Map<Long, BigDecimal[]> goodsTotals = new LinkedHashMap<>();
+        for (InboundOrderDetail detail : details) {
+            addLine(goodsTotals, detail.getGoods().getId(), detail.getQuantity(),
+                    lineAmount(detail.getAmount(), detail.getUnitPrice(), detail.getQuantity()));
+        }
+        upsert(statDate(order.getActualDate()), order.getWarehouse().getId(), DailyBusinessStat.TYPE_INBOUND, goodsTotals);
+    }
+
+    @Override
+    public void recordOutboundOrder(OutboundOrder order, List<OutboundOrderDetail> details) {
+        // 调拨生成的出库单由调拨单统计
+        if (order.getBusinessType() == BusinessType.TRANSFER_OUT) {
+            return;
+        }
+        Map<Long, BigDecimal[]> goodsTotals = new LinkedHashMap<>();
+        for (OutboundOrderDetail detail : details) {
+            addLine(goodsTotals, detail.getGoods().getId(), detail.getQuantity(),
+                    lineAmount(detail.getAmount(), detail.getUnitPrice(), detail.getQuantity()));
+        }
+        upsert(statDate(order.getActualDate()), order.getWarehouse().getId(), DailyBusinessStat.TYPE_OUTBOUND, goodsTotals);
+    }
+
+    @Override
+    public void recordTransferOrder(TransferOrder order, List<TransferOrderDetail> details) {
+        Map<Long, BigDecimal[]> goodsTotals = new LinkedHashMap<>();
+        for (TransferOrderDetail detail : details) {
+            addLine(goodsTotals, detail.getGoods().getId(), detail.getQuantity(),
+                    lineAmount(null, detail.getUnitPrice(), detail.getQuantity()));
+        }
+        LocalDate statDate = statDate(order.getActualDate());
+        upsert(statDate, order.getFromWarehouse().getId(), DailyBusinessStat.TYPE_TRANSFER_OUT, goodsTotals);
+        upsert(statDate, order.getToWarehouse().getId(), DailyBusinessStat.TYPE_TRANSFER_IN, goodsTotals);
+    }
+
+    @Override
+    public int rebuild(LocalDate startDate, LocalDate endDate) {
+        Lock writeLock = rebuildLock.writeLock();
+        try {
+            if (!writeLock.tryLock(REBUILD_LOCK_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new BusinessException("统计数据正在写入，重建等待超时，请稍后重试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("重建每日业务统计被中断", e);
+        }
+        boolean releaseOnCompletion = holdUntilTransactionEnd(writeLock);
+        try {
+            return rebuildLocked(startDate, endDate);
+        } finally {
+            if (!releaseOnCompletion) {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private int rebuildLocked(LocalDate startDate, LocalDate endDate) {
+        long start = System.currentTimeMillis();
+        dailyBusinessStatRepository.deleteByStatDateBetween(startDate, endDate);
+
+        int rows = 0;
+        rows += dailyBusinessStatRepository.rebuildInboundGoodsStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildInboundOrderStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildOutboundGoodsStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildOutboundOrderStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildTransferOutGoodsStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildTransferOutOrderStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildTransferInGoodsStats(startDate, endDate);
+        rows += dailyBusinessStatRepository.rebuildTransferInOrderStats(startDate, endDate);
+
+        logger.info("重建每日业务统计完成: {} ~ {}，写入 {} 行，耗时 {}ms",
+                startDate, endDate, rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * 每天凌晨重建最近几天的统计，修正增量统计可能出现的偏差
+     */
+    @Scheduled(cron = "${warehouse.stats.rebuild-cron:0 30 2 * * ?}")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(rebuildDays), today);
+    }
+
+    /**
+     * 统计表为空时（首次部署）回填全部历史数据
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (dailyBusinessStatRepository.count() == 0) {
+                rebuild(BACKFILL_START_DATE, LocalDate.now());
+            }
+        } catch (Exception e) {
+            logger.error("回填每日业务统计失败", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Map<String, StatTotals>> getDailyOrderTotals(LocalDate startDate, LocalDate endDate, Long warehouseId) {
+        List<Object[]> rows = warehouseId != null ?
+                dailyBusinessStatRepository.sumOrderStatsGroupByDateAndWarehouse(warehouseId, startDate, endDate) :
+                dailyBusinessStatRepository.sumOrderStatsGroupByDate(startDate, endDate);
+
+        Map<LocalDate, Map<String, StatTotals>> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.computeIfAbsent((LocalDate) row[0], date -> new HashMap<>())
+                    .merge((String) row[1], toTotals(row[2], row[3], row[4]), StatTotals::add);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, StatTotals> getOrderTotals(LocalDate startDate, LocalDate endDate, Long warehouseId) {
+        Map<String, StatTotals> result = new HashMap<>();
+        for (Map<String, StatTotals> dayTotals : getDailyOrderTotals(startDate, endDate, warehouseId).values()) {
+            dayTotals.forEach((orderType, totals) -> result.merge(orderType, totals, StatTotals::add));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GoodsActivity> getGoodsWeekdayActivity(LocalDate startDate, LocalDate endDate, Long warehouseId) {
+        List<Object[]> rows = warehouseId != null ?
+                dailyBusinessStatRepository.sumGoodsActivityGroupByDateAndWarehouse(warehouseId, startDate, endDate) :
+                dailyBusinessStatRepository.sumGoodsActivityGroupByDate(startDate, endDate);
+
+        Map<Long, GoodsActivity> activities = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Long goodsId = ((Number) row[0]).longValue();
+            LocalDate date = (LocalDate) row[2];
+            activities.computeIfAbsent(goodsId, id -> new GoodsActivity(id, (String) row[1]))
+                    .add(date.getDayOfWeek().getValue() - 1, ((Number) row[3]).longValue());
+        }
+
+        List<GoodsActivity> result = new ArrayList<>(activities.values());
+        result.sort(Comparator.comparingLong(GoodsActivity::getTotal).reversed());
+        return result;
+    }
+
+    /**
+     * 按货物合并明细行：[行数, 数量, 金额]
+     */
+    private void addLine(Map<Long, BigDecimal[]> goodsTotals, Long goodsId, BigDecimal quantity, BigDecimal amount) {
+        BigDecimal[] totals = goodsTotals.computeIfAbsent(goodsId,
+                id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+        totals[0] = totals[0].add(BigDecimal.ONE);
+        totals[1] = totals[1].add(quantity != null ? quantity : BigDecimal.ZERO);
+        totals[2] = totals[2].add(amount);
+    }
+
+    /**
+     * 写入货物级统计行和单据级汇总行，一次批量提交
+     */
+    private void upsert(LocalDate statDate, Long warehouseId, String orderType, Map<Long, BigDecimal[]> goodsTotals) {
+        if (goodsTotals.isEmpty()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        boolean releaseOnCompletion = holdUntilTransactionEnd(rebuildLock.readLock());
+        try {
+            upsertLocked(statDate, warehouseId, orderType, goodsTotals);
+        } finally {
+            if (!releaseOnCompletion) {
+                rebuildLock.readLock().unlock();
+            }
+        }
+    }
+
+    private void upsertLocked(LocalDate statDate, Long warehouseId, String orderType, Map<Long, BigDecimal[]> goodsTotals) {
+        List<MapSqlParameterSource> batch = new ArrayList<>(goodsTotals.size() + 1);
+        BigDecimal orderQuantity = BigDecimal.ZERO;
+        BigDecimal orderAmount = BigDecimal.ZERO;
+        for (Map.Entry<Long, BigDecimal[]> entry : goodsTotals.entrySet()) {
+            BigDecimal[] totals = entry.getValue();
+            batch.add(upsertParams(statDate, warehouseId, entry.getKey(), orderType,
+                    totals[0].longValue(), totals[1], totals[2]));
+            orderQuantity = orderQuantity.add(totals[1]);
+            orderAmount = orderAmount.add(totals[2]);
+        }
+        batch.add(upsertParams(statDate, warehouseId, DailyBusinessStat.ALL_GOODS, orderType,
+                1L, orderQuantity, orderAmount));
+        jdbcTemplate.batchUpdate(DailyBusinessStatRepository.UPSERT_INCREMENT_SQL,
+                batch.toArray(new MapSqlParameterSource[0]));
+    }
+
+    /**
+     * 已获取的锁在事务结束（提交或回滚）时释放，返回 true；没有事务时返回 false，由调用方立即释放
+     */
+    private boolean holdUntilTransactionEnd(Lock lock) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+        return true;
+    }
+
+    private MapSqlParameterSource upsertParams(LocalDate statDate, Long warehouseId, Long goodsId, String orderType,
+                                               long orderCount, BigDecimal quantity, BigDecimal amount) {
+        return new MapSqlParameterSource()
+                .addValue("statDate", statDate)
+                .addValue("warehouseId", warehouseId)
+                .addValue("goodsId", goodsId)
+                .addValue("orderType", orderType)
+                .addValue("orderCount", orderCount)
+                .addValue("quantity", quantity)
+                .addValue("amount", amount);
+    }
+
+    private LocalDate statDate(LocalDate actualDate) {
+        return actualDate != null ? actualDate : LocalDate.now();
+    }
+
+    private BigDecimal lineAmount(BigDecimal amount, BigDecimal unitPrice, BigDecimal quantity) {
+        if (amount != null) {
+            return amount;
+        }
+        if (unitPrice != null && quantity != null) {
+            return unitPrice.multiply(quantity);
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private StatTotals toTotals(Object count, Object quantity, Object amount) {
+        return new StatTotals(
+                count != null ? ((Number) count).longValue() : 0L,
+                quantity != null ? (BigDecimal) quantity : BigDecimal.ZERO,
+                amount != null ? (BigDecimal) amount : BigDecimal.ZERO);
+    }
+}
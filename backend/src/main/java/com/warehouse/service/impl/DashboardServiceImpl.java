@@ -1,11 +1,15 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
+import com.warehouse.entity.DailyBusinessStat;
 import com.warehouse.entity.InboundOrder;
+import com.warehouse.entity.InventoryAlert;
 import com.warehouse.entity.OutboundOrder;
 import com.warehouse.entity.User;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.*;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.DashboardService;
 import com.warehouse.service.InventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +28,7 @@ import java.util.stream.Collectors;
 
 /**
  * 仪表盘服务实现类
+ * 当前数据范围不区分用户（getCurrentUserWarehouseId 对所有角色都返回 null），因此缓存不按用户区分
  * 
  * @author Warehouse Team
  */
@@ -55,7 +60,17 @@ public class DashboardServiceImpl implements DashboardService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
+    @Autowired
+    private InventoryAlertRepository inventoryAlertRepository;
+
+    @Autowired
+    private InventoryAlertEvaluator alertEvaluator;
+
     @Override
+    @Cacheable(CacheConfig.DASHBOARD_STATS)
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
         
@@ -84,7 +99,9 @@ public class DashboardServiceImpl implements DashboardService {
 
             // 统计库存预警数量
             long alertCount = 0;
-            if (userWarehouseId != null) {
+            if (alertEvaluator.isReady()) {
+                alertCount = inventoryAlertRepository.countActive(List.of(InventoryAlert.TYPE_LOW_STOCK), userWarehouseId);
+            } else if (userWarehouseId != null) {
                 alertCount = inventoryRepository.countLowStockByWarehouse(userWarehouseId);
             } else {
                 alertCount = inventoryRepository.countLowStock();
@@ -122,50 +139,56 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
+    @Cacheable(CacheConfig.DASHBOARD_ALERTS)
     public Map<String, Object> getInventoryAlerts() {
         Map<String, Object> result = new HashMap<>();
         List<Map<String, Object>> alerts = new ArrayList<>();
         
         try {
             Long userWarehouseId = getCurrentUserWarehouseId();
-            
-            // 获取低库存预警
-            List<Object[]> lowStockItems;
-            if (userWarehouseId != null) {
-                lowStockItems = inventoryRepository.findLowStockInfoByWarehouse(userWarehouseId);
-            } else {
-                lowStockItems = inventoryRepository.findLowStockInfo();
-            }
-            
-            for (Object[] item : lowStockItems) {
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("id", item[0]); // inventory id
-                alert.put("goodsName", item[1]); // goods name
-                alert.put("warehouseName", item[2]); // warehouse name
-                alert.put("currentStock", item[3]); // current quantity
-                alert.put("minStock", item[4]); // min stock level
-                alert.put("level", "warning");
-                alert.put("message", "库存偏低");
-                alerts.add(alert);
-            }
-            
-            // 获取零库存预警
-            List<Object[]> zeroStockItems;
-            if (userWarehouseId != null) {
-                zeroStockItems = inventoryRepository.findZeroStockInfoByWarehouse(userWarehouseId);
+
+            // 预警表已就绪时直接读取有效的低库存、零库存预警，否则按库存表实时查询
+            if (alertEvaluator.isReady()) {
+                alerts.addAll(findActiveStockAlerts(userWarehouseId));
             } else {
-                zeroStockItems = inventoryRepository.findZeroStockInfo();
-            }
-            
-            for (Object[] item : zeroStockItems) {
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("id", item[0]);
-                alert.put("goodsName", item[1]);
-                alert.put("warehouseName", item[2]);
-                alert.put("currentStock", 0);
-                alert.put("level", "danger");
-                alert.put("message", "库存不足");
-                alerts.add(alert);
+                // 获取低库存预警
+                List<Object[]> lowStockItems;
+                if (userWarehouseId != null) {
+                    lowStockItems = inventoryRepository.findLowStockInfoByWarehouse(userWarehouseId);
+                } else {
+                    lowStockItems = inventoryRepository.findLowStockInfo();
+                }
+
+                for (Object[] item : lowStockItems) {
+                    Map<String, Object> alert = new HashMap<>();
+                    alert.put("id", item[0]); // inventory id
+                    alert.put("goodsName", item[1]); // goods name
+                    alert.put("warehouseName", item[2]); // warehouse name
+                    alert.put("currentStock", item[3]); // current quantity
+                    alert.put("minStock", item[4]); // min stock level
+                    alert.put("level", "warning");
+                    alert.put("message", "库存偏低");
+                    alerts.add(alert);
+                }
+
+                // 获取零库存预警
+                List<Object[]> zeroStockItems;
+                if (userWarehouseId != null) {
+                    zeroStockItems = inventoryRepository.findZeroStockInfoByWarehouse(userWarehouseId);
+                } else {
+                    zeroStockItems = inventoryRepository.findZeroStockInfo();
+                }
+
+                for (Object[] item : zeroStockItems) {
+                    Map<String, Object> alert = new HashMap<>();
+                    alert.put("id", item[0]);
+                    alert.put("goodsName", item[1]);
+                    alert.put("warehouseName", item[2]);
+                    alert.put("currentStock", 0);
+                    alert.put("level", "danger");
+                    alert.put("message", "库存不足");
+                    alerts.add(alert);
+                }
             }
             
         } catch (Exception e) {
@@ -178,7 +201,31 @@ public class DashboardServiceImpl implements DashboardService {
         return result;
     }
 
+    /**
+     * 读取有效的低库存、零库存预警（预警表由库存预警计算器维护）
+     */
+    private List<Map<String, Object>> findActiveStockAlerts(Long warehouseId) {
+        List<Map<String, Object>> alerts = new ArrayList<>();
+        for (Object[] item : inventoryAlertRepository.findActiveAlertInfo(
+                List.of(InventoryAlert.TYPE_LOW_STOCK, InventoryAlert.TYPE_ZERO_STOCK), warehouseId)) {
+            boolean lowStock = InventoryAlert.TYPE_LOW_STOCK.equals(item[5]);
+            Map<String, Object> alert = new HashMap<>();
+            alert.put("id", item[0]);
+            alert.put("goodsName", item[1]);
+            alert.put("warehouseName", item[2]);
+            alert.put("currentStock", lowStock ? item[3] : 0);
+            if (lowStock) {
+                alert.put("minStock", item[4]);
+            }
+            alert.put("level", lowStock ? "warning" : "danger");
+            alert.put("message", lowStock ? "库存偏低" : "库存不足");
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
     @Override
+    @Cacheable(CacheConfig.DASHBOARD_TODOS)
     public Map<String, Object> getTodoList() {
         Map<String, Object> result = new HashMap<>();
         List<Map<String, Object>> todos = new ArrayList<>();
@@ -235,6 +282,7 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.BUSINESS_TREND, key = "#period")
     public Map<String, Object> getBusinessTrend(int period) {
         Map<String, Object> result = new HashMap<>();
         List<Map<String, Object>> trendData = new ArrayList<>();
@@ -243,34 +291,22 @@ public class DashboardServiceImpl implements DashboardService {
             // 获取当前用户权限
             Long userWarehouseId = getCurrentUserWarehouseId();
 
-            // 生成指定天数的趋势数据
-            for (int i = period - 1; i >= 0; i--) {
-                Map<String, Object> dayData = new HashMap<>();
-                LocalDate currentDate = LocalDate.now().minusDays(i);
+            // 一次读取整个周期的每日统计，按天取值
+            LocalDate endDate = LocalDate.now();
+            LocalDate startDate = endDate.minusDays(period - 1);
+            Map<LocalDate, Map<String, DailyBusinessStatsService.StatTotals>> dailyTotals =
+                    dailyBusinessStatsService.getDailyOrderTotals(startDate, endDate, userWarehouseId);
 
-                // 统计当天的入库数量
-                long inboundCount = 0;
-                if (userWarehouseId != null) {
-                    inboundCount = inboundOrderRepository.countByDateAndWarehouse(currentDate, userWarehouseId);
-                } else {
-                    inboundCount = inboundOrderRepository.countByDate(currentDate);
-                }
-
-                // 统计当天的出库数量
-                long outboundCount = 0;
-                if (userWarehouseId != null) {
-                    outboundCount = outboundOrderRepository.countByDateAndWarehouse(currentDate, userWarehouseId);
-                } else {
-                    outboundCount = outboundOrderRepository.countByDate(currentDate);
-                }
-
-                // 统计当天的调拨数量
-                long transferCount = 0;
-                if (userWarehouseId != null) {
-                    transferCount = transferOrderRepository.countByWarehouseAndDate(userWarehouseId, currentDate);
-                } else {
-                    transferCount = transferOrderRepository.countByDate(currentDate);
-                }
+            for (LocalDate currentDate = startDate; !currentDate.isAfter(endDate); currentDate = currentDate.plusDays(1)) {
+                Map<String, Object> dayData = new HashMap<>();
+                Map<String, DailyBusinessStatsService.StatTotals> totals =
+                        dailyTotals.getOrDefault(currentDate, Collections.emptyMap());
+
+                long inboundCount = totals.getOrDefault(DailyBusinessStat.TYPE_INBOUND,
+                        DailyBusinessStatsService.StatTotals.EMPTY).getOrderCount();
+                long outboundCount = totals.getOrDefault(DailyBusinessStat.TYPE_OUTBOUND,
+                        DailyBusinessStatsService.StatTotals.EMPTY).getOrderCount();
+                long transferCount = DailyBusinessStatsService.countTransfers(totals, userWarehouseId);
 
                 dayData.put("date", currentDate.format(DateTimeFormatter.ofPattern("MM-dd")));
                 dayData.put("inbound", inboundCount);
@@ -1,5 +1,6 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
 import com.warehouse.dto.GoodsCategoryDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.entity.GoodsCategory;
@@ -9,6 +10,8 @@ import com.warehouse.repository.GoodsCategoryRepository;
 import com.warehouse.repository.GoodsRepository;
 import com.warehouse.service.GoodsCategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,6 +37,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
     private GoodsRepository goodsRepository;
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GOODS_CATEGORIES, allEntries = true)
     public GoodsCategoryDTO createCategory(GoodsCategoryDTO.CreateRequest request) {
         // 检查编码是否存在
         if (categoryRepository.existsByCodeAndDeletedFalse(request.getCode())) {
@@ -64,6 +68,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GOODS_CATEGORIES, allEntries = true)
     public GoodsCategoryDTO updateCategory(Long id, GoodsCategoryDTO.UpdateRequest request) {
         GoodsCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("分类", "id", id));
@@ -103,6 +108,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GOODS_CATEGORIES, allEntries = true)
     public void deleteCategory(Long id) {
         GoodsCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("分类", "id", id));
@@ -199,6 +205,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GOODS_CATEGORIES, key = "'tree'")
     public List<GoodsCategoryDTO> getCategoryTree() {
         List<GoodsCategory> rootCategories = categoryRepository.findByParentIsNullAndDeletedFalseOrderBySortOrderAscNameAsc();
         return rootCategories.stream()
@@ -208,6 +215,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.GOODS_CATEGORIES, key = "'enabledTree'")
     public List<GoodsCategoryDTO> getEnabledCategoryTree() {
         List<GoodsCategory> rootCategories = categoryRepository.findByParentIsNullAndEnabledTrueAndDeletedFalseOrderBySortOrderAscNameAsc();
         return rootCategories.stream()
@@ -230,6 +238,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GOODS_CATEGORIES, allEntries = true)
     public void enableCategory(Long id) {
         GoodsCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("分类", "id", id));
@@ -238,6 +247,7 @@ public class GoodsCategoryServiceImpl implements GoodsCategoryService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.GOODS_CATEGORIES, allEntries = true)
     public void disableCategory(Long id) {
         GoodsCategory category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("分类", "id", id));
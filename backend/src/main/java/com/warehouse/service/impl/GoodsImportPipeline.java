@@ -0,0 +1,638 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.config.CacheConfig;
+import com.warehouse.dto.GoodsDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.event.GoodsChangedEvent;
+import com.warehouse.exception.ResourceNotFoundException;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.service.SequenceService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 货物批量导入流水线
+ * 数据行按批处理：一批行在 ForkJoin 公共池中并行校验，校验的同时上一批在导入线程上写入；
+ * 分类在导入开始时一次读入编码映射，新分类随所在批次批量创建；每批在独立事务中用 JDBC 批量
+ * 查重、新增货物和恢复已删除货物，提交后立即清除受影响的缓存并由货物变更事件刷新搜索索引，
+ * 导入过程中已提交的批次即可被查询到。批次写入失败时逐行重试，只有出错的行记为失败。
+ * Excel 导入作为后台任务在单线程中依次执行，通过任务ID查询进度和结果。
+ * 货物的 名称+分类+规格 没有唯一约束，查重依赖导入互斥：JSON 导入（调用线程）和 Excel 任务都先取得 importLock，
+ * 同一时间只有一个导入在读取分类、查重和写入。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class GoodsImportPipeline implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoodsImportPipeline.class);
+
+    private static final String GOODS_CODE_PREFIX = "GOODS";
+
+    private static final String STATUS_RUNNING = "RUNNING";
+
+    private static final String STATUS_COMPLETED = "COMPLETED";
+
+    private static final String STATUS_FAILED = "FAILED";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SequenceService sequenceService;
+
+    private final GoodsRepository goodsRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    private final CacheManager cacheManager;
+
+    private final int batchSize;
+
+    private final int maxJobs;
+
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "goods-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 导入互斥锁（公平锁，按到达顺序执行），覆盖从读取分类到写完最后一批
+     */
+    private final ReentrantLock importLock = new ReentrantLock(true);
+
+    /**
+     * 最近的导入任务，超出上限时移除最早的已结束任务
+     */
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public GoodsImportPipeline(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               SequenceService sequenceService, GoodsRepository goodsRepository,
+                               ApplicationEventPublisher eventPublisher, EntityManagerFactory entityManagerFactory,
+                               CacheManager cacheManager,
+                               @Value("${warehouse.goods-import.batch-size:1000}") int batchSize,
+                               @Value("${warehouse.goods-import.max-jobs:20}") int maxJobs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequenceService = sequenceService;
+        this.goodsRepository = goodsRepository;
+        this.eventPublisher = eventPublisher;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.cacheManager = cacheManager;
+        this.batchSize = batchSize;
+        this.maxJobs = maxJobs;
+    }
+
+    @Override
+    public void destroy() {
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * 在调用线程上导入已解析的数据行（行号从第2行开始，第1行为表头），有其他导入进行时等待其结束
+     */
+    public GoodsDTO.ImportResult importRows(List<GoodsDTO.ImportData> rows, String operator) {
+        importLock.lock();
+        try {
+            Run run = new Run(operator, null);
+            for (int i = 0; i < rows.size(); i++) {
+                GoodsDTO.ImportData data = rows.get(i);
+                run.accept(new RawRow(i + 2, data.getName(), data.getCategoryCode(), data.getUnit(), data.getSpecification(),
+                        data.getMinStock() != null ? data.getMinStock().toPlainString() : null,
+                        data.getMaxStock() != null ? data.getMaxStock().toPlainString() : null,
+                        data.getDescription()));
+            }
+            return run.finish(true);
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    /**
+     * 提交 Excel 导入任务，文件在任务结束后删除
+     */
+    public GoodsDTO.ImportProgress startExcelImport(File file, String fileName, String operator) {
+        Job job = new Job(UUID.randomUUID().toString(), fileName);
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            jobs.values().removeIf(existing -> jobs.size() > maxJobs && !STATUS_RUNNING.equals(existing.status));
+        }
+        jobExecutor.execute(() -> {
+            importLock.lock();
+            try {
+                Run run = new Run(operator, job);
+                try {
+                    GoodsImportReader.read(file, (rowNumber, cells) -> run.accept(
+                            new RawRow(rowNumber, cells[0], cells[1], cells[2], cells[3], cells[4], cells[5], cells[6])));
+                    job.finish(STATUS_COMPLETED, "导入完成", run.finish(true));
+                } catch (Exception e) {
+                    logger.error("货物导入任务失败: {}, {}", fileName, e.getMessage(), e);
+                    // 已提交的批次保留，结果中包含失败前已写入的行
+                    job.finish(STATUS_FAILED, e.getMessage(), run.finish(false));
+                }
+            } finally {
+                importLock.unlock();
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        });
+        return job.snapshot();
+    }
+
+    /**
+     * 查询导入任务进度
+     */
+    public GoodsDTO.ImportProgress getProgress(String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("导入任务", "id", jobId);
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * 并行校验单行：去除首尾空白、必填和长度检查、库存数值解析；不访问数据库
+     */
+    private ValidatedRow validate(RawRow row) {
+        String name = trim(row.name());
+        String categoryCode = trim(row.categoryCode());
+        String unit = trim(row.unit());
+        String specification = trim(row.specification());
+        String description = trim(row.description());
+        ValidatedRow validated = new ValidatedRow(row.rowNumber(), name, categoryCode, unit,
+                specification != null ? specification : "", description);
+        if (name == null) {
+            validated.error = "货物名称不能为空";
+        } else if (name.length() > 200) {
+            validated.error = "货物名称长度不能超过200个字符";
+        } else if (categoryCode == null) {
+            validated.error = "分类编码不能为空";
+        } else if (categoryCode.length() > 50) {
+            validated.error = "分类编码长度不能超过50个字符";
+        } else if (unit == null) {
+            validated.error = "单位不能为空";
+        } else if (unit.length() > 20) {
+            validated.error = "单位长度不能超过20个字符";
+        } else if (validated.specification.length() > 500) {
+            validated.error = "规格/型号长度不能超过500个字符";
+        } else if (description != null && description.length() > 1000) {
+            validated.error = "描述长度不能超过1000个字符";
+        } else {
+            validated.minStock = parseStock(row.minStock(), "最小库存", validated);
+            validated.maxStock = parseStock(row.maxStock(), "最大库存", validated);
+        }
+        return validated;
+    }
+
+    private BigDecimal parseStock(String text, String label, ValidatedRow row) {
+        String value = trim(text);
+        if (value == null || row.error != null) {
+            return BigDecimal.ZERO;
+        }
+        try {
+            BigDecimal stock = new BigDecimal(value.replace(",", ""));
+            if (stock.signum() < 0) {
+                row.error = label + "不能为负数";
+            }
+            return stock;
+        } catch (NumberFormatException e) {
+            row.error = label + "不是有效的数字: " + value;
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String goodsKey(String name, long categoryId, String specification) {
+        return name + '\u0001' + categoryId + '\u0001' + (specification != null ? specification : "");
+    }
+
+    /**
+     * 一次导入的状态，只在导入线程上访问（并行校验不读写这里的字段）
+     */
+    private class Run implements Consumer<RawRow> {
+
+        private final String operator;
+
+        private final Job job;
+
+        private final GoodsDTO.ImportResult result = new GoodsDTO.ImportResult();
+
+        /**
+         * 未删除分类的编码 → ID
+         */
+        private final Map<String, Long> categories = new HashMap<>();
+
+        /**
+         * 只存在于已删除分类中的编码（编码全表唯一，不能再创建）
+         */
+        private final Set<String> deletedCategoryCodes = new HashSet<>();
+
+        /**
+         * 本次导入中已处理过的 名称+分类+规格，文件内重复的行跳过
+         */
+        private final Set<String> importedKeys = new HashSet<>();
+
+        private final long startNanos = System.nanoTime();
+
+        private List<RawRow> chunk = new ArrayList<>();
+
+        private CompletableFuture<List<ValidatedRow>> validating;
+
+        private int processedRows;
+
+        Run(String operator, Job job) {
+            this.operator = operator;
+            this.job = job;
+            jdbcTemplate.getJdbcTemplate().query("SELECT id, code, deleted FROM goods_categories", rs -> {
+                if (rs.getBoolean("deleted")) {
+                    deletedCategoryCodes.add(rs.getString("code"));
+                } else {
+                    categories.put(rs.getString("code"), rs.getLong("id"));
+                }
+            });
+            deletedCategoryCodes.removeAll(categories.keySet());
+        }
+
+        @Override
+        public void accept(RawRow row) {
+            chunk.add(row);
+            if (chunk.size() >= batchSize) {
+                submitChunk();
+            }
+        }
+
+        /**
+         * 提交当前批次校验，并写入上一批已校验的行
+         */
+        private void submitChunk() {
+            List<RawRow> rows = chunk;
+            chunk = new ArrayList<>(batchSize);
+            CompletableFuture<List<ValidatedRow>> next = CompletableFuture.supplyAsync(
+                    () -> rows.parallelStream().map(GoodsImportPipeline.this::validate).toList());
+            if (validating != null) {
+                write(validating.join());
+            }
+            validating = next;
+        }
+
+        /**
+         * 写入剩余的行（writePending 为 false 时丢弃未写入的行，用于读取失败后结束）并汇总结果
+         */
+        GoodsDTO.ImportResult finish(boolean writePending) {
+            if (writePending) {
+                if (!chunk.isEmpty()) {
+                    submitChunk();
+                }
+                if (validating != null) {
+                    write(validating.join());
+                }
+            }
+            chunk.clear();
+            validating = null;
+            result.setSuccessCount(result.getCreatedCount() + result.getRestoredCount() + result.getSkippedCount());
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            logger.info("货物导入完成: 共{}行，新增{}，恢复{}，跳过重复{}，失败{}，耗时{}ms",
+                    processedRows, result.getCreatedCount(), result.getRestoredCount(), result.getSkippedCount(),
+                    result.getFailCount(), elapsedMillis);
+            return result;
+        }
+
+        private void write(List<ValidatedRow> rows) {
+            List<ValidatedRow> valid = new ArrayList<>(rows.size());
+            for (ValidatedRow row : rows) {
+                if (row.error != null) {
+                    fail(row.rowNumber, row.error);
+                } else if (deletedCategoryCodes.contains(row.categoryCode)) {
+                    fail(row.rowNumber, "分类编码 " + row.categoryCode + " 已被删除的分类占用，不能自动创建");
+                } else {
+                    valid.add(row);
+                }
+            }
+            List<ChunkOutcome> committed = new ArrayList<>();
+            try {
+                committed.add(apply(transactionTemplate.execute(status -> writeChunk(valid))));
+            } catch (Exception e) {
+                logger.warn("货物导入批次写入失败，逐行重试: {}", e.getMessage());
+                for (ValidatedRow row : valid) {
+                    try {
+                        committed.add(apply(transactionTemplate.execute(status -> writeChunk(List.of(row)))));
+                    } catch (Exception rowException) {
+                        String message = rowException.getMessage();
+                        fail(row.rowNumber, message != null && message.contains("constraint")
+                                ? "数据约束冲突: " + row.name + " 可能已存在相似记录"
+                                : "保存失败: " + message);
+                    }
+                }
+            }
+            // 本批已提交，立即清除缓存，导入期间的查询不会读到旧数据
+            evictCaches(committed);
+            processedRows += rows.size();
+            reportProgress();
+        }
+
+        /**
+         * 在事务中写入一批已校验的行，返回提交后再合并到导入状态的结果
+         */
+        private ChunkOutcome writeChunk(List<ValidatedRow> rows) {
+            ChunkOutcome outcome = new ChunkOutcome();
+            if (rows.isEmpty()) {
+                return outcome;
+            }
+            LocalDateTime now = LocalDateTime.now();
+
+            // 1. 批量创建缺失的分类
+            Map<String, Integer> missingCategories = new LinkedHashMap<>();
+            for (ValidatedRow row : rows) {
+                if (!categories.containsKey(row.categoryCode)) {
+                    missingCategories.putIfAbsent(row.categoryCode, row.rowNumber);
+                }
+            }
+            if (!missingCategories.isEmpty()) {
+                List<MapSqlParameterSource> params = new ArrayList<>(missingCategories.size());
+                for (String code : missingCategories.keySet()) {
+                    params.add(new MapSqlParameterSource()
+                            .addValue("code", code)
+                            .addValue("operator", operator)
+                            .addValue("time", now));
+                }
+                jdbcTemplate.batchUpdate(GoodsCategoryRepository.IMPORT_CREATE_SQL, params.toArray(new MapSqlParameterSource[0]));
+                jdbcTemplate.query("SELECT id, code FROM goods_categories WHERE code IN (:codes) AND deleted = false",
+                        new MapSqlParameterSource("codes", missingCategories.keySet()), rs -> {
+                            outcome.createdCategories.put(rs.getString("code"), rs.getLong("id"));
+                        });
+                missingCategories.forEach((code, rowNumber) ->
+                        outcome.warnings.add(new GoodsDTO.ImportWarning(rowNumber, "自动创建了新分类: " + code)));
+            }
+
+            // 2. 按名称批量读取候选货物，查重
+            Set<String> names = new HashSet<>();
+            for (ValidatedRow row : rows) {
+                names.add(row.name);
+            }
+            Set<String> activeKeys = new HashSet<>();
+            Map<String, Long> deletedKeys = new HashMap<>();
+            jdbcTemplate.query(GoodsRepository.IMPORT_MATCH_SQL, new MapSqlParameterSource("names", names), rs -> {
+                String key = goodsKey(rs.getString("name"), rs.getLong("category_id"), rs.getString("specification"));
+                if (rs.getBoolean("deleted")) {
+                    deletedKeys.putIfAbsent(key, rs.getLong("id"));
+                } else {
+                    activeKeys.add(key);
+                }
+            });
+
+            List<MapSqlParameterSource> inserts = new ArrayList<>();
+            List<MapSqlParameterSource> restores = new ArrayList<>();
+            for (ValidatedRow row : rows) {
+                Long categoryId = categories.get(row.categoryCode);
+                if (categoryId == null) {
+                    categoryId = outcome.createdCategories.get(row.categoryCode);
+                }
+                String key = goodsKey(row.name, categoryId, row.specification);
+                if (activeKeys.contains(key) || importedKeys.contains(key) || !outcome.keys.add(key)) {
+                    outcome.warnings.add(new GoodsDTO.ImportWarning(row.rowNumber,
+                            "跳过重复货物: " + row.name + " (规格: " + row.specification + ")"));
+                    outcome.skipped++;
+                    continue;
+                }
+                MapSqlParameterSource params = new MapSqlParameterSource()
+                        .addValue("name", row.name)
+                        .addValue("categoryId", categoryId)
+                        .addValue("unit", row.unit)
+                        .addValue("specification", row.specification)
+                        .addValue("minStock", row.minStock)
+                        .addValue("maxStock", row.maxStock)
+                        .addValue("remark", row.description)
+                        .addValue("operator", operator)
+                        .addValue("time", now);
+                Long deletedId = deletedKeys.get(key);
+                if (deletedId != null) {
+                    restores.add(params.addValue("id", deletedId));
+                    outcome.restoredIds.add(deletedId);
+                } else {
+                    inserts.add(params);
+                }
+            }
+
+            // 3. 恢复已删除的货物，批量新增货物并取回生成的ID
+            if (!restores.isEmpty()) {
+                jdbcTemplate.batchUpdate(GoodsRepository.IMPORT_RESTORE_SQL, restores.toArray(new MapSqlParameterSource[0]));
+            }
+            if (!inserts.isEmpty()) {
+                List<String> codes = sequenceService.nextDailyNumbers(GOODS_CODE_PREFIX, inserts.size(),
+                        goodsRepository::findMaxCodeStartingWith);
+                for (int i = 0; i < inserts.size(); i++) {
+                    inserts.get(i).addValue("code", codes.get(i));
+                }
+                GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(GoodsRepository.IMPORT_INSERT_SQL, inserts.toArray(new MapSqlParameterSource[0]),
+                        keyHolder, new String[]{"id"});
+                for (Map<String, Object> keys : keyHolder.getKeyList()) {
+                    outcome.createdIds.add(((Number) keys.values().iterator().next()).longValue());
+                }
+            }
+
+            List<Long> changedIds = new ArrayList<>(outcome.createdIds);
+            changedIds.addAll(outcome.restoredIds);
+            if (!changedIds.isEmpty()) {
+                eventPublisher.publishEvent(new GoodsChangedEvent(changedIds));
+            }
+            return outcome;
+        }
+
+        private ChunkOutcome apply(ChunkOutcome outcome) {
+            categories.putAll(outcome.createdCategories);
+            importedKeys.addAll(outcome.keys);
+            result.getWarnings().addAll(outcome.warnings);
+            result.setCreatedCount(result.getCreatedCount() + outcome.createdIds.size());
+            result.setRestoredCount(result.getRestoredCount() + outcome.restoredIds.size());
+            result.setSkippedCount(result.getSkippedCount() + outcome.skipped);
+            return outcome;
+        }
+
+        private void fail(int rowNumber, String message) {
+            result.addError(rowNumber, message);
+            result.setFailCount(result.getFailCount() + 1);
+        }
+
+        private void reportProgress() {
+            int succeeded = result.getCreatedCount() + result.getRestoredCount() + result.getSkippedCount();
+            if (job != null) {
+                job.progress(processedRows, succeeded, result.getFailCount());
+            }
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            logger.info("货物导入进度: 已处理{}行，成功{}，失败{}，{}行/秒",
+                    processedRows, succeeded, result.getFailCount(), processedRows * 1000L / elapsedMillis);
+        }
+
+        /**
+         * 货物和分类绕过 Hibernate 写入：清除本批恢复的货物实体缓存和查询缓存，本批新建分类时清除分类缓存
+         */
+        private void evictCaches(List<ChunkOutcome> committed) {
+            boolean goodsChanged = false;
+            boolean categoriesCreated = false;
+            for (ChunkOutcome outcome : committed) {
+                for (Long id : outcome.restoredIds) {
+                    sessionFactory.getCache().evictEntityData(Goods.class, id);
+                }
+                goodsChanged |= !outcome.createdIds.isEmpty() || !outcome.restoredIds.isEmpty();
+                categoriesCreated |= !outcome.createdCategories.isEmpty();
+            }
+            if (!goodsChanged && !categoriesCreated) {
+                return;
+            }
+            sessionFactory.getCache().evictQueryRegions();
+            clearCache(CacheConfig.DASHBOARD_STATS);
+            if (categoriesCreated) {
+                clearCache(CacheConfig.GOODS_CATEGORIES);
+            }
+        }
+
+        private void clearCache(String name) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    /**
+     * 待导入的原始行，库存数值为文本
+     */
+    private record RawRow(int rowNumber, String name, String categoryCode, String unit, String specification,
+                          String minStock, String maxStock, String description) {
+    }
+
+    /**
+     * 校验后的行，error 不为空时该行不写入
+     */
+    private static final class ValidatedRow {
+        private final int rowNumber;
+        private final String name;
+        private final String categoryCode;
+        private final String unit;
+        private final String specification;
+        private final String description;
+        private BigDecimal minStock = BigDecimal.ZERO;
+        private BigDecimal maxStock = BigDecimal.ZERO;
+        private String error;
+
+        ValidatedRow(int rowNumber, String name, String categoryCode, String unit, String specification, String description) {
+            this.rowNumber = rowNumber;
+            this.name = name;
+            this.categoryCode = categoryCode;
+            this.unit = unit;
+            this.specification = specification;
+            this.description = description;
+        }
+    }
+
+    /**
+     * 一批行的写入结果，事务提交后合并，事务回滚时丢弃
+     */
+    private static final class ChunkOutcome {
+        private final Map<String, Long> createdCategories = new HashMap<>();
+        private final Set<String> keys = new HashSet<>();
+        private final List<Long> createdIds = new ArrayList<>();
+        private final List<Long> restoredIds = new ArrayList<>();
+        private final List<GoodsDTO.ImportWarning> warnings = new ArrayList<>();
+        private int skipped;
+    }
+
+    /**
+     * 后台导入任务，进度字段由导入线程更新、查询线程读取
+     */
+    private static final class Job {
+        private final String id;
+        private final String fileName;
+        private final LocalDateTime startTime = LocalDateTime.now();
+        private volatile String status = STATUS_RUNNING;
+        private volatile int processedRows;
+        private volatile int successCount;
+        private volatile int failCount;
+        private volatile LocalDateTime finishTime;
+        private volatile String message;
+        private volatile GoodsDTO.ImportResult result;
+
+        Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        void progress(int processedRows, int successCount, int failCount) {
+            this.processedRows = processedRows;
+            this.successCount = successCount;
+            this.failCount = failCount;
+        }
+
+        void finish(String status, String message, GoodsDTO.ImportResult result) {
+            progress(processedRows, result.getSuccessCount(), result.getFailCount());
+            this.result = result;
+            this.message = message;
+            this.finishTime = LocalDateTime.now();
+            this.status = status;
+        }
+
+        /**
+         * 导入结果（含逐行错误）在任务结束后才返回
+         */
+        GoodsDTO.ImportProgress snapshot() {
+            GoodsDTO.ImportProgress progress = new GoodsDTO.ImportProgress();
+            progress.setJobId(id);
+            progress.setFileName(fileName);
+            progress.setStatus(status);
+            progress.setProcessedRows(processedRows);
+            progress.setSuccessCount(successCount);
+            progress.setFailCount(failCount);
+            progress.setStartTime(startTime);
+            progress.setFinishTime(finishTime);
+            progress.setMessage(message);
+            progress.setResult(STATUS_RUNNING.equals(status) ? null : result);
+            return progress;
+        }
+    }
+}
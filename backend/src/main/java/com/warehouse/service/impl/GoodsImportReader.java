@@ -0,0 +1,136 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.exception.BusinessException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * 货物导入Excel读取器
+ * 基于 POI 事件（SAX）接口逐行解析第一个工作表，不构建工作簿对象模型，内存占用与行数无关。
+ * 列顺序与前端导入模板一致，首行必须是模板表头；单元格按显示格式取文本，空行跳过。
+ *
+ * @author Warehouse Team
+ */
+public class GoodsImportReader {
+
+    /**
+     * 导入模板表头
+     */
+    public static final String[] HEADERS = {"货物名称", "分类编码", "单位", "规格/型号", "最小库存", "最大库存", "描述"};
+
+    /**
+     * 数据行回调，rowNumber 为 Excel 行号（表头为第1行），cells 按模板列顺序，缺失的单元格为 null
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(int rowNumber, String[] cells);
+    }
+
+    private GoodsImportReader() {
+    }
+
+    /**
+     * 读取 .xlsx 文件
+     */
+    public static void read(File file, RowHandler handler) {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new BusinessException("Excel文件中没有工作表");
+            }
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                    new ReadOnlySharedStringsTable(pkg), new SheetHandler(handler), new DataFormatter(), false));
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BusinessException("Excel文件解析失败，请确认文件为 .xlsx 格式: " + e.getMessage(), e);
+        }
+    }
+
+    private static class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private final String[] cells = new String[HEADERS.length];
+
+        private boolean headerChecked;
+
+        private boolean empty;
+
+        SheetHandler(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+            empty = true;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null || formattedValue == null) {
+                return;
+            }
+            int column = columnIndex(cellReference);
+            if (column >= 0 && column < cells.length) {
+                String value = formattedValue.trim();
+                cells[column] = value.isEmpty() ? null : value;
+                empty &= value.isEmpty();
+            }
+        }
+
+        /**
+         * 解析单元格引用（如 C12）的列号，逐字符解析，避免 CellReference 每个单元格一次正则匹配
+         */
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerChecked) {
+                // 表头之前的空行不计
+                if (empty) {
+                    return;
+                }
+                for (int i = 0; i < HEADERS.length; i++) {
+                    if (!HEADERS[i].equals(cells[i])) {
+                        throw new BusinessException("Excel表头格式不正确，请使用导入模板，期望的表头: " + String.join("、", HEADERS));
+                    }
+                }
+                headerChecked = true;
+                return;
+            }
+            if (!empty) {
+                handler.row(rowNum + 1, cells.clone());
+            }
+        }
+    }
+}
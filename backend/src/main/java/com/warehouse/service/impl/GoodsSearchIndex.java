@@ -0,0 +1,678 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.dto.GoodsDTO;
+import com.warehouse.event.GoodsChangedEvent;
+import com.warehouse.repository.GoodsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * 货物搜索索引
+ * 在进程内为货物的编码、名称、简称、英文名、型号、品牌、条形码以及名称和简称的拼音首字母建立倒排索引：
+ * 汉字按单字和相邻两字切分，其余字符按相邻两字符切分。查询时取关键字各词元中最短的几条倒排表求交集，
+ * 再对候选货物做包含匹配，结果与 LIKE '%关键字%' 一致（另外支持英文名和拼音首字母）。
+ * 启动完成后全量构建，货物变更事务提交后按ID刷新，定时全量重建回收失效条目；
+ * 索引未就绪或关键字无法通过索引查询（单个非汉字字符）时返回null，调用方回退到数据库查询。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class GoodsSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GoodsSearchIndex.class);
+
+    /**
+     * 字段分隔符，保证词元和包含匹配不跨字段
+     */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    /**
+     * 提交后按ID重新读取时每条 IN 查询的最大ID数
+     */
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    /**
+     * 求交集时最多使用的倒排表条数，其余词元由包含匹配校验
+     */
+    private static final int MAX_INTERSECT_LISTS = 3;
+
+    /**
+     * 前缀词元区分的字段数：编码、名称、拼音首字母
+     */
+    private static final int PREFIX_FIELDS = 3;
+
+    /**
+     * 联想结果最大条数
+     */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    /**
+     * 关键字筛选改为按货物ID筛选时允许的最大匹配数，超过时仍由数据库按关键字模糊查询
+     */
+    public static final int MAX_FILTER_IDS = 2000;
+
+    private static final Comparator<Doc> BY_CODE = Comparator.comparing(doc -> doc.code);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 全量重建期间提交的货物变更，新索引生效后重新应用
+     */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final Timer searchTimer;
+
+    private final Counter fallbackCounter;
+
+    private volatile Segment segment = new Segment();
+
+    private volatile boolean ready;
+
+    private volatile boolean rebuilding;
+
+    public GoodsSearchIndex(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                            @Value("${warehouse.goods-search.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+
+        Gauge.builder("goods.search.index.size", this, index -> index.segment.liveCount)
+                .description("货物搜索索引中的货物数")
+                .register(meterRegistry);
+        Gauge.builder("goods.search.index.ready", this, index -> index.ready ? 1 : 0)
+                .description("货物搜索索引是否可用于查询")
+                .register(meterRegistry);
+        this.searchTimer = Timer.builder("goods.search.latency")
+                .description("货物搜索索引查询耗时")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("goods.search.fallback")
+                .description("货物搜索索引无法提供结果而回退到数据库的查询次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按关键字查询匹配的货物ID（按ID升序）；匹配数超过 maxResults 或索引无法提供结果时返回null
+     */
+    public List<Long> match(String keyword, int maxResults) {
+        String query = normalizeQuery(keyword);
+        if (query == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            int[] candidates = current.candidates(query);
+            if (candidates == null) {
+                fallbackCounter.increment();
+                return null;
+            }
+            List<Long> ids = new ArrayList<>();
+            for (int ordinal : candidates) {
+                Doc doc = current.docs.get(ordinal);
+                if (doc != null && doc.text.contains(query)) {
+                    if (ids.size() >= maxResults) {
+                        return null;
+                    }
+                    ids.add(doc.id);
+                }
+            }
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 输入联想：在启用的货物中查询，编码完全匹配、编码前缀、名称前缀、拼音首字母前缀、其他包含匹配依次排序，
+     * 同一档内按编码排序；索引无法提供结果时返回null
+     */
+    public List<GoodsDTO.Suggestion> suggest(String keyword, int limit) {
+        String query = normalizeQuery(keyword);
+        if (query == null) {
+            return null;
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Segment current = segment;
+            int[] candidates = current.candidates(query);
+            if (candidates == null) {
+                fallbackCounter.increment();
+                return null;
+            }
+            // 每档只保留编码最小的 size 条（大顶堆），避免对大量候选整体排序
+            List<PriorityQueue<Doc>> tiers = new ArrayList<>();
+            for (int i = 0; i < Doc.TIER_COUNT; i++) {
+                tiers.add(new PriorityQueue<>(BY_CODE.reversed()));
+            }
+            // 按编码、名称、拼音首字母的顺序逐个字段取前缀档位，只检查该字段以关键字开头的文档；够数后不再看后面的字段。
+            // 每个字段（以及最后的包含匹配）中，重建时按编码顺序写入的部分取到够数即可，之后增量写入的部分全部检查
+            int found = 0;
+            for (int field = 0; field < PREFIX_FIELDS && found < size; field++) {
+                int needed = size - found;
+                int prefixField = field;
+                found += Math.min(needed, collect(current, current.prefixCandidates(query, candidates, field), needed,
+                        doc -> {
+                            int tier = doc.prefixTier(query);
+                            return Doc.fieldOf(tier) == prefixField ? tier : -1;
+                        }, tiers));
+            }
+            if (found < size) {
+                collect(current, candidates, size - found,
+                        doc -> doc.prefixTier(query) < 0 && doc.text.contains(query) ? Doc.TIER_COUNT - 1 : -1, tiers);
+            }
+            List<GoodsDTO.Suggestion> suggestions = new ArrayList<>(size);
+            for (PriorityQueue<Doc> heap : tiers) {
+                List<Doc> tier = new ArrayList<>(heap);
+                tier.sort(BY_CODE);
+                for (Doc doc : tier) {
+                    if (suggestions.size() >= size) {
+                        return suggestions;
+                    }
+                    suggestions.add(doc.toSuggestion());
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 在升序的候选序号中收集启用的文档，tierOf 返回文档所在档位（-1 表示不收集），每档最多保留 needed 条；
+     * 按编码顺序写入的部分取到 needed 条后跳过其余部分。返回收集的文档数
+     */
+    private static int collect(Segment current, int[] ordinals, int needed, ToIntFunction<Doc> tierOf,
+                               List<PriorityQueue<Doc>> tiers) {
+        int collected = 0;
+        int sortedTaken = 0;
+        for (int i = 0; i < ordinals.length; i++) {
+            int ordinal = ordinals[i];
+            if (ordinal < current.sortedCount && sortedTaken >= needed) {
+                int next = Arrays.binarySearch(ordinals, i, ordinals.length, current.sortedCount);
+                i = (next >= 0 ? next : -next - 1) - 1;
+                continue;
+            }
+            Doc doc = current.docs.get(ordinal);
+            int tier = doc != null && doc.enabled ? tierOf.applyAsInt(doc) : -1;
+            if (tier < 0) {
+                continue;
+            }
+            offer(tiers.get(tier), doc, needed);
+            collected++;
+            if (ordinal < current.sortedCount) {
+                sortedTaken++;
+            }
+        }
+        return collected;
+    }
+
+    private static void offer(PriorityQueue<Doc> heap, Doc doc, int size) {
+        if (heap.size() < size) {
+            heap.add(doc);
+        } else if (BY_CODE.compare(doc, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(doc);
+        }
+    }
+
+    /**
+     * 将列表查询的关键字条件解析为货物ID条件；索引无法提供结果时保留关键字，由数据库模糊查询
+     */
+    public KeywordFilter keywordFilter(String keyword) {
+        List<Long> ids = match(keyword, MAX_FILTER_IDS);
+        return ids != null ? new KeywordFilter("", true, ids) : new KeywordFilter(keyword, false, List.of());
+    }
+
+    /**
+     * 启动完成后构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * 定时全量重建，回收更新和删除留下的失效条目，并修正可能遗漏的变更
+     */
+    @Scheduled(initialDelayString = "${warehouse.goods-search.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${warehouse.goods-search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        try {
+            Segment fresh = new Segment();
+            // 按编码顺序写入，联想时包含匹配的结果可以提前结束
+            jdbcTemplate.query(GoodsRepository.SEARCH_SNAPSHOT_SQL + " WHERE deleted = false ORDER BY code", rs -> {
+                fresh.put(readDoc(rs));
+            });
+            fresh.sortedCount = fresh.docs.size();
+            lock.writeLock().lock();
+            try {
+                segment = fresh;
+                rebuilding = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("货物搜索索引构建完成，共{}条，耗时{}ms", fresh.liveCount, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            rebuilding = false;
+            logger.error("货物搜索索引构建失败，继续使用当前索引: {}", e.getMessage());
+        }
+        // 重建期间提交的变更可能只写入了旧索引，在新索引上重新应用
+        List<Long> missed = new ArrayList<>(changedDuringRebuild);
+        changedDuringRebuild.removeAll(missed);
+        if (!missed.isEmpty()) {
+            reload(missed);
+        }
+    }
+
+    /**
+     * 货物变更事务提交后按ID刷新索引
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGoodsChanged(GoodsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.addAll(event.getGoodsIds());
+        }
+        reload(event.getGoodsIds());
+    }
+
+    private void reload(List<Long> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += RELOAD_BATCH_SIZE) {
+                List<Long> batch = ids.subList(from, Math.min(from + RELOAD_BATCH_SIZE, ids.size()));
+                List<Doc> docs = new ArrayList<>(batch.size());
+                jdbcTemplate.query(GoodsRepository.SEARCH_SNAPSHOT_SQL + " WHERE id IN (:ids)",
+                        new MapSqlParameterSource("ids", batch), rs -> {
+                            docs.add(readDoc(rs));
+                        });
+
+                lock.writeLock().lock();
+                try {
+                    Set<Long> found = new HashSet<>();
+                    for (Doc doc : docs) {
+                        found.add(doc.id);
+                        segment.update(doc);
+                    }
+                    // 已物理删除的货物
+                    for (Long id : batch) {
+                        if (!found.contains(id)) {
+                            segment.remove(id);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (Exception e) {
+            // 刷新失败时索引可能落后于数据库，暂停使用直到下一次全量重建完成
+            ready = false;
+            logger.error("刷新货物搜索索引失败，暂停使用索引: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 规范化关键字；索引未就绪或关键字为空时返回null
+     */
+    private String normalizeQuery(String keyword) {
+        if (!enabled || keyword == null || keyword.isBlank()) {
+            return null;
+        }
+        if (!ready) {
+            fallbackCounter.increment();
+            return null;
+        }
+        String query = keyword.trim().toLowerCase(Locale.ROOT);
+        return query.indexOf(FIELD_SEPARATOR) < 0 ? query : null;
+    }
+
+    private static Doc readDoc(ResultSet rs) throws SQLException {
+        long categoryId = rs.getLong("category_id");
+        Long category = rs.wasNull() ? null : categoryId;
+        return new Doc(rs.getLong("id"), rs.getLong("version"), rs.getBoolean("deleted"),
+                rs.getBoolean("enabled"), category,
+                rs.getString("code"), rs.getString("name"), rs.getString("short_name"),
+                rs.getString("english_name"), rs.getString("model"), rs.getString("brand"),
+                rs.getString("barcode"), rs.getString("specification"), rs.getString("unit"));
+    }
+
+    /**
+     * 单字词元（只用于汉字）
+     */
+    private static long unigram(char c) {
+        return c;
+    }
+
+    /**
+     * 相邻两字符词元
+     */
+    private static long bigram(char first, char second) {
+        return (1L << 32) | ((long) first << 16) | second;
+    }
+
+    /**
+     * 编码、名称、拼音首字母（field 为 0、1、2）开头的词元，按字段区分：关键字为单个汉字时取该字，否则取前两个字符
+     */
+    private static long prefixToken(int field, String text, int start) {
+        char first = text.charAt(start);
+        boolean single = start + 1 >= text.length() || text.charAt(start + 1) == FIELD_SEPARATOR;
+        return ((2L + field) << 32) | ((long) first << 16) | (single ? 0 : text.charAt(start + 1));
+    }
+
+    /**
+     * 索引数据：文档按序号追加，更新和删除只把旧序号置空，失效条目在全量重建时回收
+     */
+    private static final class Segment {
+
+        private final List<Doc> docs = new ArrayList<>();
+
+        private final Map<Long, Integer> ordinalById = new HashMap<>();
+
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        private int liveCount;
+
+        /**
+         * 全量重建时按编码顺序写入的文档数，此后增量写入的文档追加在后面
+         */
+        private int sortedCount;
+
+        void put(Doc doc) {
+            if (doc.deleted) {
+                return;
+            }
+            int ordinal = docs.size();
+            docs.add(doc);
+            ordinalById.put(doc.id, ordinal);
+            liveCount++;
+
+            String text = doc.text;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == FIELD_SEPARATOR) {
+                    continue;
+                }
+                if (PinyinInitials.isCjk(c)) {
+                    add(unigram(c), ordinal);
+                }
+                if (i + 1 < text.length() && text.charAt(i + 1) != FIELD_SEPARATOR) {
+                    add(bigram(c, text.charAt(i + 1)), ordinal);
+                }
+            }
+            int[] starts = {0, doc.nameStart, doc.initialsStart};
+            for (int field = 0; field < PREFIX_FIELDS; field++) {
+                int start = starts[field];
+                if (start < text.length() && text.charAt(start) != FIELD_SEPARATOR) {
+                    char c = text.charAt(start);
+                    if (PinyinInitials.isCjk(c)) {
+                        add(prefixToken(field, String.valueOf(c), 0), ordinal);
+                    }
+                    add(prefixToken(field, text, start), ordinal);
+                }
+            }
+        }
+
+        void update(Doc doc) {
+            Integer ordinal = ordinalById.get(doc.id);
+            if (ordinal != null) {
+                if (docs.get(ordinal).version > doc.version) {
+                    return;
+                }
+                remove(doc.id);
+            }
+            put(doc);
+        }
+
+        void remove(Long id) {
+            Integer ordinal = ordinalById.remove(id);
+            if (ordinal != null) {
+                docs.set(ordinal, null);
+                liveCount--;
+            }
+        }
+
+        /**
+         * 查询候选文档序号（升序，可能包含失效或不匹配的文档，由调用方校验）；关键字无法通过索引查询时返回null
+         */
+        int[] candidates(String query) {
+            List<Postings> lists = new ArrayList<>();
+            if (query.length() == 1) {
+                char c = query.charAt(0);
+                if (!PinyinInitials.isCjk(c)) {
+                    return null;
+                }
+                lists.add(postings.get(unigram(c)));
+            } else {
+                for (int i = 0; i + 1 < query.length(); i++) {
+                    Postings list = postings.get(bigram(query.charAt(i), query.charAt(i + 1)));
+                    // 重复的词元只求一次交集
+                    if (list == null || !lists.contains(list)) {
+                        lists.add(list);
+                    }
+                }
+            }
+            if (lists.contains(null)) {
+                return new int[0];
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] result = Arrays.copyOf(lists.get(0).ordinals, lists.get(0).size);
+            for (int i = 1; i < Math.min(lists.size(), MAX_INTERSECT_LISTS) && result.length > 0; i++) {
+                result = lists.get(i).intersect(result);
+            }
+            return result;
+        }
+
+        /**
+         * 候选文档中指定字段（0 编码、1 名称、2 拼音首字母）可能以关键字开头的文档
+         */
+        int[] prefixCandidates(String query, int[] candidates, int field) {
+            String head = PinyinInitials.isCjk(query.charAt(0)) && query.length() == 1 ? query : query.substring(0, 2);
+            Postings list = postings.get(prefixToken(field, head, 0));
+            return list != null ? list.intersect(candidates) : new int[0];
+        }
+
+        private void add(long token, int ordinal) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(ordinal);
+        }
+    }
+
+    /**
+     * 倒排表：按文档序号升序保存
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+
+        private int size;
+
+        void add(int ordinal) {
+            // 同一文档的重复词元只记录一次（文档按序号递增写入）
+            if (size > 0 && ordinals[size - 1] == ordinal) {
+                return;
+            }
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        int[] intersect(int[] sorted) {
+            int[] result = new int[Math.min(sorted.length, size)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < sorted.length && j < size) {
+                if (sorted[i] == ordinals[j]) {
+                    result[count++] = sorted[i];
+                    i++;
+                    j++;
+                } else if (sorted[i] < ordinals[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+    }
+
+    /**
+     * 索引中的货物
+     */
+    private static final class Doc {
+
+        static final int TIER_COUNT = 5;
+
+        final long id;
+        final long version;
+        final boolean deleted;
+        final boolean enabled;
+        final Long categoryId;
+        final String code;
+        final String name;
+        final String specification;
+        final String unit;
+
+        /**
+         * 规范化后的检索文本：编码、名称、名称拼音首字母、简称、简称拼音首字母、英文名、型号、品牌、条形码
+         */
+        final String text;
+
+        final int nameStart;
+
+        final int initialsStart;
+
+        Doc(long id, long version, boolean deleted, boolean enabled, Long categoryId,
+            String code, String name, String shortName, String englishName, String model,
+            String brand, String barcode, String specification, String unit) {
+            this.id = id;
+            this.version = version;
+            this.deleted = deleted;
+            this.enabled = enabled;
+            this.categoryId = categoryId;
+            this.code = code != null ? code : "";
+            this.name = name != null ? name : "";
+            this.specification = specification;
+            this.unit = unit;
+
+            String searchCode = this.code.toLowerCase(Locale.ROOT);
+            String searchName = this.name.toLowerCase(Locale.ROOT);
+            this.nameStart = searchCode.length() + 1;
+            this.initialsStart = nameStart + searchName.length() + 1;
+            this.text = String.join(String.valueOf(FIELD_SEPARATOR),
+                    searchCode, searchName, PinyinInitials.of(this.name),
+                    lower(shortName), PinyinInitials.of(shortName),
+                    lower(englishName), lower(model), lower(brand), lower(barcode));
+        }
+
+        /**
+         * 档位对应的前缀字段：0、1 档为编码，2 档为名称，3 档为拼音首字母；其他返回-1
+         */
+        static int fieldOf(int tier) {
+            return tier < 0 || tier >= TIER_COUNT - 1 ? -1 : Math.max(0, tier - 1);
+        }
+
+        /**
+         * 联想排序档位：0 编码完全匹配，1 编码前缀，2 名称前缀，3 拼音首字母前缀；
+         * 都不是时返回-1（调用方再做包含匹配，归入第4档）
+         */
+        int prefixTier(String query) {
+            if (text.startsWith(query)) {
+                return text.length() == query.length() || text.charAt(query.length()) == FIELD_SEPARATOR ? 0 : 1;
+            }
+            if (text.startsWith(query, nameStart)) {
+                return 2;
+            }
+            if (text.startsWith(query, initialsStart)) {
+                return 3;
+            }
+            return -1;
+        }
+
+        GoodsDTO.Suggestion toSuggestion() {
+            return new GoodsDTO.Suggestion(id, code, name, specification, unit, categoryId);
+        }
+
+        private static String lower(String value) {
+            return value != null ? value.toLowerCase(Locale.ROOT) : "";
+        }
+    }
+
+    /**
+     * 列表查询的关键字条件：goodsIdFilter 为 true 时按 goodsIds 筛选，keyword 为空串
+     */
+    public static final class KeywordFilter {
+
+        private final String keyword;
+
+        private final boolean goodsIdFilter;
+
+        private final List<Long> goodsIds;
+
+        KeywordFilter(String keyword, boolean goodsIdFilter, List<Long> goodsIds) {
+            this.keyword = keyword;
+            this.goodsIdFilter = goodsIdFilter;
+            // IN () 不能为空列表，没有匹配时用不存在的ID占位
+            this.goodsIds = goodsIds.isEmpty() ? List.of(-1L) : goodsIds;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public boolean isGoodsIdFilter() {
+            return goodsIdFilter;
+        }
+
+        public List<Long> getGoodsIds() {
+            return goodsIds;
+        }
+    }
+}
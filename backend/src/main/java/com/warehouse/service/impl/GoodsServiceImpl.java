@@ -1,10 +1,11 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
 import com.warehouse.dto.GoodsDTO;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.entity.Goods;
 import com.warehouse.entity.GoodsCategory;
-
+import com.warehouse.event.GoodsChangedEvent;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.GoodsCategoryRepository;
@@ -12,10 +13,16 @@ import com.warehouse.repository.GoodsRepository;
 import com.warehouse.repository.InventoryRepository;
 
 import com.warehouse.service.GoodsService;
-import org.springframework.beans.BeanUtils;
+import com.warehouse.service.SequenceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,13 +30,19 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 货物服务实现类
@@ -40,12 +53,20 @@ import java.util.stream.Collectors;
 @Transactional
 public class GoodsServiceImpl implements GoodsService {
 
+    /**
+     * 导出时每写出多少行清空一次持久化上下文
+     */
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+
     @Autowired
     private GoodsRepository goodsRepository;
 
     @Autowired
     private GoodsCategoryRepository categoryRepository;
 
+    @Autowired
+    private SequenceService sequenceService;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -54,7 +75,17 @@ public class GoodsServiceImpl implements GoodsService {
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private GoodsSearchIndex goodsSearchIndex;
+
+    @Autowired
+    private GoodsImportPipeline goodsImportPipeline;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     public GoodsDTO createGoods(GoodsDTO.CreateRequest request) {
         // 验证分类是否存在
         GoodsCategory category = null;
@@ -106,6 +137,7 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setRemark(request.getRemark());
 
         goods = goodsRepository.save(goods);
+        publishGoodsChanged(goods.getId());
         return convertToDTO(goods);
     }
 
@@ -151,10 +183,12 @@ public class GoodsServiceImpl implements GoodsService {
         goods.setRemark(request.getRemark());
 
         goods = goodsRepository.save(goods);
+        publishGoodsChanged(goods.getId());
         return convertToDTO(goods);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.DASHBOARD_STATS, allEntries = true)
     public void deleteGoods(Long id) {
         Goods goods = goodsRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("货物", "id", id));
@@ -167,6 +201,7 @@ public class GoodsServiceImpl implements GoodsService {
 
         goods.setDeleted(true);
         goodsRepository.save(goods);
+        publishGoodsChanged(id);
     }
 
     @Override
@@ -177,6 +212,7 @@ public class GoodsServiceImpl implements GoodsService {
 
         goods.setEnabled(!goods.getEnabled());
         goodsRepository.save(goods);
+        publishGoodsChanged(id);
     }
 
     @Override
@@ -235,10 +271,33 @@ public class GoodsServiceImpl implements GoodsService {
     @Override
     @Transactional(readOnly = true)
     public PageResponse<GoodsDTO> findByPage(String keyword, Long categoryId, Boolean enabled, Pageable pageable) {
-        Page<Goods> page = goodsRepository.findByKeywordAndCategoryAndEnabled(keyword, categoryId, enabled, pageable);
+        GoodsSearchIndex.KeywordFilter filter = goodsSearchIndex.keywordFilter(keyword);
+        Page<Goods> page = goodsRepository.findByKeywordAndCategoryAndEnabled(filter.getKeyword(),
+                filter.isGoodsIdFilter(), filter.getGoodsIds(), categoryId, enabled, pageable);
         return PageResponse.of(page.map(this::convertToDTO));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<GoodsDTO.Suggestion> suggest(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        List<GoodsDTO.Suggestion> suggestions = goodsSearchIndex.suggest(keyword, limit);
+        if (suggestions != null) {
+            return suggestions;
+        }
+        // 索引不可用时回退到数据库模糊查询
+        int size = Math.max(1, Math.min(limit, GoodsSearchIndex.MAX_SUGGESTIONS));
+        return goodsRepository.findByKeywordAndCategoryAndEnabled(keyword.trim(), false, List.of(-1L), null, true,
+                        PageRequest.of(0, size, Sort.by("code")))
+                .stream()
+                .map(goods -> new GoodsDTO.Suggestion(goods.getId(), goods.getCode(), goods.getName(),
+                        goods.getSpecification(), goods.getUnit(),
+                        goods.getCategory() != null ? goods.getCategory().getId() : null))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PageResponse<GoodsDTO> findByCategoryAndPage(Long categoryId, String keyword, Pageable pageable) {
@@ -261,6 +320,7 @@ public class GoodsServiceImpl implements GoodsService {
                 .orElseThrow(() -> new ResourceNotFoundException("货物", "id", id));
         goods.setEnabled(true);
         goodsRepository.save(goods);
+        publishGoodsChanged(id);
     }
 
     @Override
@@ -269,6 +329,7 @@ public class GoodsServiceImpl implements GoodsService {
                 .orElseThrow(() -> new ResourceNotFoundException("货物", "id", id));
         goods.setEnabled(false);
         goodsRepository.save(goods);
+        publishGoodsChanged(id);
     }
 
     @Override
@@ -404,195 +465,48 @@ public class GoodsServiceImpl implements GoodsService {
     }
 
     /**
-     * 转换为DTO
+     * 导入货物数据，按批写入、每批独立提交，不加入外层事务
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public GoodsDTO.ImportResult importGoods(List<GoodsDTO.ImportData> importDataList) {
-        GoodsDTO.ImportResult result = new GoodsDTO.ImportResult();
-        int successCount = 0;
-        int failCount = 0;
-        int updateCount = 0;
-        int skipCount = 0;
-
-        System.out.println("=== 开始导入货物，总数: " + importDataList.size() + " ===");
-
-        for (int i = 0; i < importDataList.size(); i++) {
-            GoodsDTO.ImportData importData = importDataList.get(i);
-            int rowNumber = i + 2; // Excel行号从2开始（第1行是表头）
-
-            try {
-                System.out.println("处理第 " + rowNumber + " 行: " + importData.getCode() + " - " + importData.getName());
-
-                // 验证必填字段
-                if (importData.getName() == null || importData.getName().trim().isEmpty()) {
-                    result.addError(rowNumber, "货物名称不能为空");
-                    failCount++;
-                    continue;
-                }
-
-                // 使用独立事务处理单个货物
-                boolean success = importSingleGoods(importData, rowNumber, result);
-                if (success) {
-                    successCount++;
-                } else {
-                    failCount++;
-                }
-
-            } catch (Exception e) {
-                System.out.println("处理第 " + rowNumber + " 行失败: " + e.getMessage());
-                e.printStackTrace();
-                result.addError(rowNumber, "导入失败: " + e.getMessage());
-                failCount++;
-            }
-        }
-
-        result.setSuccessCount(successCount);
-        result.setFailCount(failCount);
-
-        System.out.println("=== 导入完成 ===");
-        System.out.println("新增: " + successCount + ", 更新: " + updateCount + ", 跳过: " + skipCount + ", 失败: " + failCount);
-
-        return result;
+        return goodsImportPipeline.importRows(importDataList, currentUsername());
     }
 
-    /**
-     * 查找或创建分类
-     */
-    private GoodsCategory findOrCreateCategory(String categoryCode, int rowNumber, GoodsDTO.ImportResult result) {
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GoodsDTO.ImportProgress startExcelImport(InputStream inputStream, String fileName) {
+        if (fileName == null || !fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new BusinessException("仅支持导入 .xlsx 格式的Excel文件");
+        }
+        // 事件接口按随机访问读取压缩包，先落到临时文件，由导入任务结束后删除
+        File file;
         try {
-            // 查找现有分类
-            Optional<GoodsCategory> existingCategory = categoryRepository.findByCodeAndDeletedFalse(categoryCode);
-            if (existingCategory.isPresent()) {
-                System.out.println("使用现有分类: " + categoryCode);
-                return existingCategory.get();
-            }
-
-            // 创建新分类
-            System.out.println("创建新分类: " + categoryCode);
-            GoodsCategory category = new GoodsCategory();
-            category.setCode(categoryCode);
-            category.setName(categoryCode);
-            category.setDescription("导入时自动创建的分类");
-            category.setEnabled(true);
-            category.setSortOrder(999);
-            category = categoryRepository.save(category);
-
-            result.addWarning(rowNumber, "自动创建了新分类: " + categoryCode);
-            return category;
-
-        } catch (Exception e) {
-            System.out.println("处理分类失败: " + categoryCode + ", 错误: " + e.getMessage());
-            result.addError(rowNumber, "创建分类失败: " + e.getMessage());
-            return null;
+            file = File.createTempFile("goods-import-", ".xlsx");
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new BusinessException("保存导入文件失败: " + e.getMessage(), e);
         }
+        return goodsImportPipeline.startExcelImport(file, fileName, currentUsername());
     }
 
-    /**
-     * 自动生成货物编码
-     */
-    private String generateGoodsCode() {
-        // 简单的编码生成策略：GOODS + 时间戳
-        return "GOODS" + System.currentTimeMillis();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public GoodsDTO.ImportProgress getImportProgress(String jobId) {
+        return goodsImportPipeline.getProgress(jobId);
     }
 
-    /**
-     * 查找已删除的货物
-     */
-    private Optional<Goods> findDeletedGoodsByNameCategorySpec(String name, GoodsCategory category, String specification) {
-        return goodsRepository.findByNameAndCategoryAndSpecificationAndDeletedTrue(name, category, specification);
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
     }
 
     /**
-     * 使用独立事务处理单个货物导入
+     * 自动生成货物编码
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
-    public boolean importSingleGoods(GoodsDTO.ImportData importData, int rowNumber, GoodsDTO.ImportResult result) {
-        try {
-            String goodsName = importData.getName().trim();
-            String specification = importData.getSpecification() != null ? importData.getSpecification().trim() : "";
-            String categoryCode = importData.getCategoryCode() != null ? importData.getCategoryCode().trim() : "";
-
-            // 查找或创建分类
-            GoodsCategory category = null;
-            if (!categoryCode.isEmpty()) {
-                category = findOrCreateCategory(categoryCode, rowNumber, result);
-                if (category == null) {
-                    return false;
-                }
-            }
-
-            // 检查是否存在相同的货物（包括已删除的记录）
-            System.out.println("检查重复货物: 名称=" + goodsName + ", 分类ID=" + (category != null ? category.getId() : "null") + ", 规格=" + specification);
-
-            // 先检查未删除的记录
-            Optional<Goods> existingActiveGoods = goodsRepository.findByNameAndCategoryAndSpecificationAndDeletedFalse(
-                goodsName, category, specification);
-
-            if (existingActiveGoods.isPresent()) {
-                System.out.println("跳过重复货物(活跃): " + goodsName + " (分类: " + categoryCode + ", 规格: " + specification + "), 已存在ID: " + existingActiveGoods.get().getId());
-                result.addWarning(rowNumber, "跳过重复货物: " + goodsName + " (规格: " + specification + ")");
-                return true; // 跳过不算失败
-            }
-
-            // 再检查已删除的记录，如果存在则恢复
-            Optional<Goods> existingDeletedGoods = findDeletedGoodsByNameCategorySpec(goodsName, category, specification);
-            if (existingDeletedGoods.isPresent()) {
-                System.out.println("恢复已删除的货物: " + goodsName + " (分类: " + categoryCode + ", 规格: " + specification + "), ID: " + existingDeletedGoods.get().getId());
-                Goods deletedGoods = existingDeletedGoods.get();
-
-                // 恢复货物并更新数据
-                deletedGoods.setDeleted(false);
-                deletedGoods.setUnit(importData.getUnit() != null ? importData.getUnit().trim() : null);
-                deletedGoods.setMinStock(importData.getMinStock() != null ? importData.getMinStock() : BigDecimal.ZERO);
-                deletedGoods.setMaxStock(importData.getMaxStock() != null ? importData.getMaxStock() : BigDecimal.ZERO);
-                deletedGoods.setRemark(importData.getDescription() != null ? importData.getDescription().trim() : null);
-                deletedGoods.setEnabled(true);
-
-                goodsRepository.save(deletedGoods);
-                System.out.println("成功恢复货物: " + goodsName + " (分类: " + categoryCode + ", 规格: " + specification + ")");
-                return true;
-            }
-
-            System.out.println("货物不存在，可以创建: " + goodsName);
-
-            // 创建新货物
-            Goods goods = new Goods();
-            goods.setCode(generateGoodsCode()); // 自动生成编码
-            goods.setName(goodsName);
-            goods.setCategory(category);
-            goods.setUnit(importData.getUnit() != null ? importData.getUnit().trim() : null);
-            goods.setSpecification(specification);
-            goods.setMinStock(importData.getMinStock() != null ? importData.getMinStock() : BigDecimal.ZERO);
-            goods.setMaxStock(importData.getMaxStock() != null ? importData.getMaxStock() : BigDecimal.ZERO);
-            goods.setRemark(importData.getDescription() != null ? importData.getDescription().trim() : null);
-            goods.setEnabled(true);
-
-            // 保存货物
-            goodsRepository.save(goods);
-            System.out.println("成功导入货物: " + goodsName + " (分类: " + categoryCode + ", 规格: " + specification + ")");
-            return true;
-
-        } catch (Exception e) {
-            System.out.println("保存货物失败: " + importData.getName() + ", 详细错误: " + e.getMessage());
-            e.printStackTrace();
-
-            // 清理Session，避免Session污染
-            try {
-                entityManager.clear();
-                System.out.println("Session已清理");
-            } catch (Exception clearException) {
-                System.out.println("清理Session失败: " + clearException.getMessage());
-            }
-
-            // 检查是否是约束冲突
-            String errorMsg = e.getMessage();
-            if (errorMsg != null && errorMsg.contains("constraint")) {
-                result.addError(rowNumber, "数据约束冲突: " + importData.getName() + " 可能已存在相似记录");
-            } else {
-                result.addError(rowNumber, "保存失败: " + errorMsg);
-            }
-            return false;
-        }
+    private String generateGoodsCode() {
+        // GOODS + 年月日 + 至少3位序号，批量导入时同一毫秒内也不会重复
+        return sequenceService.nextDailyNumber("GOODS", goodsRepository::findMaxCodeStartingWith);
     }
 
     @Transactional
@@ -618,61 +532,20 @@ public class GoodsServiceImpl implements GoodsService {
 
 
     @Override
-    public byte[] exportGoodsToExcel(String keyword, Long categoryId, Boolean enabled) {
-        try {
-            // 获取所有货物数据（不分页）
-            List<Goods> goodsList;
-            if (keyword != null || categoryId != null || enabled != null) {
-                // 使用筛选条件
-                goodsList = goodsRepository.findAll().stream()
-                    .filter(goods -> {
-                        if (keyword != null && !keyword.trim().isEmpty()) {
-                            String lowerKeyword = keyword.toLowerCase();
-                            if (!goods.getName().toLowerCase().contains(lowerKeyword) &&
-                                !goods.getCode().toLowerCase().contains(lowerKeyword)) {
-                                return false;
-                            }
-                        }
-                        if (categoryId != null && !categoryId.equals(goods.getCategory().getId())) {
-                            return false;
-                        }
-                        if (enabled != null && !enabled.equals(goods.getEnabled())) {
-                            return false;
-                        }
-                        return true;
-                    })
-                    .collect(Collectors.toList());
-            } else {
-                goodsList = goodsRepository.findAll();
-            }
-
-            // 创建Excel工作簿
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("货物数据");
-
-            // 创建表头样式
-            CellStyle headerStyle = workbook.createCellStyle();
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-
-            // 创建表头
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"货物编码", "货物名称", "分类名称", "分类编码", "单位", "规格/型号",
-                              "最小库存", "最大库存", "状态", "创建时间", "备注"};
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // 填充数据
-            for (int i = 0; i < goodsList.size(); i++) {
-                Goods goods = goodsList.get(i);
-                Row row = sheet.createRow(i + 1);
+    @Transactional(readOnly = true)
+    public void exportGoodsToExcel(String keyword, Long categoryId, Boolean enabled, OutputStream outputStream) {
+        GoodsSearchIndex.KeywordFilter filter = goodsSearchIndex.keywordFilter(keyword);
+        String[] headers = {"货物编码", "货物名称", "分类名称", "分类编码", "单位", "规格/型号",
+                          "最小库存", "最大库存", "状态", "创建时间", "备注"};
+        int[] columnWidths = {18, 30, 16, 14, 8, 24, 12, 12, 8, 22, 30};
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter("货物数据", headers, columnWidths);
+             Stream<Goods> goodsStream = goodsRepository.streamForExport(filter.getKeyword(),
+                     filter.isGoodsIdFilter(), filter.getGoodsIds(), categoryId, enabled)) {
+            Iterator<Goods> iterator = goodsStream.iterator();
+            while (iterator.hasNext()) {
+                Goods goods = iterator.next();
+                Row row = writer.nextRow();
 
                 row.createCell(0).setCellValue(goods.getCode() != null ? goods.getCode() : "");
                 row.createCell(1).setCellValue(goods.getName() != null ? goods.getName() : "");
@@ -685,27 +558,48 @@ public class GoodsServiceImpl implements GoodsService {
                 row.createCell(8).setCellValue(goods.getEnabled() != null && goods.getEnabled() ? "启用" : "禁用");
                 row.createCell(9).setCellValue(goods.getCreatedTime() != null ? goods.getCreatedTime().toString() : "");
                 row.createCell(10).setCellValue(goods.getRemark() != null ? goods.getRemark() : "");
-            }
 
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                // 定期清空持久化上下文，已写出的实体不再驻留内存
+                if (writer.getDataRowCount() % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
             }
 
-            // 转换为字节数组
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            workbook.close();
-
-            return outputStream.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("导出Excel失败", e);
+            writer.writeTo(outputStream);
+        } catch (IOException e) {
+            throw new BusinessException("导出Excel失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 发布货物变更事件，事务提交后刷新货物搜索索引
+     */
+    private void publishGoodsChanged(Long goodsId) {
+        eventPublisher.publishEvent(new GoodsChangedEvent(List.of(goodsId)));
+    }
+
     private GoodsDTO convertToDTO(Goods goods) {
         GoodsDTO dto = new GoodsDTO();
-        BeanUtils.copyProperties(goods, dto);
+        dto.setId(goods.getId());
+        dto.setCode(goods.getCode());
+        dto.setName(goods.getName());
+        dto.setShortName(goods.getShortName());
+        dto.setModel(goods.getModel());
+        dto.setSpecification(goods.getSpecification());
+        dto.setBrand(goods.getBrand());
+        dto.setBarcode(goods.getBarcode());
+        dto.setUnit(goods.getUnit());
+        dto.setMinStock(goods.getMinStock());
+        dto.setMaxStock(goods.getMaxStock());
+        dto.setSafetyStock(goods.getSafetyStock());
+        dto.setShelfLifeDays(goods.getShelfLifeDays());
+        dto.setStorageConditions(goods.getStorageConditions());
+        dto.setEnabled(goods.getEnabled());
+        dto.setRemark(goods.getRemark());
+        dto.setCreatedTime(goods.getCreatedTime());
+        dto.setUpdatedTime(goods.getUpdatedTime());
+        dto.setCreatedBy(goods.getCreatedBy());
+        dto.setUpdatedBy(goods.getUpdatedBy());
 
         // 设置分类信息
         if (goods.getCategory() != null) {
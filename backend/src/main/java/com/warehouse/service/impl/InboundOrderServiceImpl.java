@@ -1,17 +1,25 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.EvictOrderCaches;
+import com.warehouse.config.RetryOnOptimisticLock;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InboundOrderDTO;
+import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.PageResponse;
+import com.warehouse.dto.SeekCursor;
 import com.warehouse.entity.*;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.BusinessType;
+import com.warehouse.event.OrderChangedEvent;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.*;
 import com.warehouse.service.InboundOrderService;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.InventoryService;
-import org.springframework.beans.BeanUtils;
+import com.warehouse.service.SequenceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +31,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -36,6 +47,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class InboundOrderServiceImpl implements InboundOrderService {
 
+    /**
+     * 入库单列表游标分页的排序字段（创建时间倒序）
+     */
+    private static final String CURSOR_SORT_KEY = "createdTime";
+
+    /**
+     * 批量加载明细时每次查询的单据数量上限
+     */
+    private static final int DETAIL_BATCH_SIZE = 500;
+
     @Autowired
     private InboundOrderRepository inboundOrderRepository;
 
@@ -51,10 +72,20 @@ public class InboundOrderServiceImpl implements InboundOrderService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @EvictOrderCaches
     public InboundOrderDTO createInboundOrder(InboundOrderDTO.CreateRequest request) {
         // 调试日志
         System.out.println("创建入库单 - 接收到的createdBy: " + request.getCreatedBy());
@@ -88,6 +119,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         order.setTotalAmount(totalAmount);
 
         order = inboundOrderRepository.save(order);
+        publishOrderChanged(order);
 
         // 创建入库单明细
         for (InboundOrderDTO.InboundOrderDetailDTO detailDTO : request.getDetails()) {
@@ -112,6 +144,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
 
     @Override
     @Transactional
+    @EvictOrderCaches
     public InboundOrderDTO createInboundOrderWithoutStockCheck(InboundOrderDTO.CreateRequest request) {
         // 验证仓库是否存在
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
@@ -147,6 +180,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
 
         // 保存入库单
         order = inboundOrderRepository.save(order);
+        publishOrderChanged(order);
 
         // 创建入库单明细
         for (InboundOrderDTO.InboundOrderDetailDTO detailDTO : request.getDetails()) {
@@ -170,6 +204,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
     }
 
     @Override
+    @EvictOrderCaches
     public InboundOrderDTO updateInboundOrder(Long id, InboundOrderDTO.UpdateRequest request) {
         InboundOrder order = inboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("入库单", "id", id));
@@ -220,10 +255,12 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         }
 
         order = inboundOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public void deleteInboundOrder(Long id) {
         InboundOrder order = inboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("入库单", "id", id));
@@ -235,6 +272,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
 
         order.setDeleted(true);
         inboundOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -255,19 +293,13 @@ public class InboundOrderServiceImpl implements InboundOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findAll() {
-        return inboundOrderRepository.findByDeletedFalseOrderByCreatedTimeDesc()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findByDeletedFalseOrderByCreatedTimeDesc());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findByWarehouse(Long warehouseId) {
-        return inboundOrderRepository.findByWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(warehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findByWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(warehouseId));
     }
 
 
@@ -275,60 +307,82 @@ public class InboundOrderServiceImpl implements InboundOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findByStatus(ApprovalStatus status) {
-        return inboundOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findByBusinessType(BusinessType businessType) {
-        return inboundOrderRepository.findByBusinessTypeAndDeletedFalseOrderByCreatedTimeDesc(businessType)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findByBusinessTypeAndDeletedFalseOrderByCreatedTimeDesc(businessType));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findPendingOrders() {
-        return inboundOrderRepository.findPendingOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findPendingOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findPendingOrdersByWarehouse(Long warehouseId) {
-        return inboundOrderRepository.findPendingOrdersByWarehouse(warehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findPendingOrdersByWarehouse(warehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findApprovedButNotExecuted() {
-        return inboundOrderRepository.findApprovedButNotExecuted()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findApprovedButNotExecuted());
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InboundOrderDTO> findByPage(String keyword, Pageable pageable) {
         Page<InboundOrder> page = inboundOrderRepository.findByKeyword(keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InboundOrderDTO> findByPageWithFilters(String keyword, Long warehouseId,
             BusinessType businessType, ApprovalStatus status, String startDate, String endDate, Pageable pageable) {
-        // 获取当前用户并应用权限控制
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        Page<InboundOrder> page = inboundOrderRepository.findByFilters(
+                keyword, finalWarehouseId, businessType, status, startDate, endDate, pageable);
+        return PageResponse.of(page, this::convertToDTOs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InboundOrderDTO> findByCursorWithFilters(String keyword, Long warehouseId,
+            BusinessType businessType, ApprovalStatus status, String startDate, String endDate,
+            String cursor, int size, boolean withTotal) {
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        SeekCursor after = SeekCursor.decode(cursor, CURSOR_SORT_KEY);
+        int pageSize = CursorPageResponse.pageSize(size);
+
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<InboundOrder> orders = after == null
+                ? inboundOrderRepository.findByFiltersFirst(
+                        keyword, finalWarehouseId, businessType, status, startDate, endDate, limit)
+                : inboundOrderRepository.findByFiltersAfter(
+                        keyword, finalWarehouseId, businessType, status, startDate, endDate,
+                        after.getSortValue(), after.getId(), limit);
+        Map<Long, List<InboundOrderDetail>> details = findDetailsByOrders(orders);
+        CursorPageResponse<InboundOrderDTO> response = CursorPageResponse.of(orders, pageSize,
+                order -> convertToDTO(order, details.getOrDefault(order.getId(), List.of())),
+                order -> SeekCursor.of(CURSOR_SORT_KEY, order.getCreatedTime(), order.getId()));
+        if (withTotal) {
+            response.setTotalElements(inboundOrderRepository.countByFilters(
+                    keyword, finalWarehouseId, businessType, status, startDate, endDate));
+        }
+        return response;
+    }
+
+    /**
+     * 确定当前用户可查询的仓库：非管理员未指定仓库时使用其第一个仓库，指定了无权限的仓库时抛出异常
+     */
+    private Long resolveAccessibleWarehouseId(Long warehouseId) {
         Long finalWarehouseId = warehouseId;
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
@@ -361,35 +415,31 @@ public class InboundOrderServiceImpl implements InboundOrderService {
             }
         }
 
-        Page<InboundOrder> page = inboundOrderRepository.findByFilters(
-                keyword, finalWarehouseId, businessType, status, startDate, endDate, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return finalWarehouseId;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InboundOrderDTO> findByWarehouseAndPage(Long warehouseId, String keyword, Pageable pageable) {
         Page<InboundOrder> page = inboundOrderRepository.findByWarehouseAndKeyword(warehouseId, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InboundOrderDTO> findByStatusAndPage(ApprovalStatus status, String keyword, Pageable pageable) {
         Page<InboundOrder> page = inboundOrderRepository.findByStatusAndKeyword(status, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findByDateRange(LocalDate startDate, LocalDate endDate) {
-        return inboundOrderRepository.findByDateRange(startDate, endDate)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findByDateRange(startDate, endDate));
     }
 
     @Override
+    @EvictOrderCaches
     public InboundOrderDTO approveInboundOrder(Long id, InboundOrderDTO.ApprovalRequest request) {
         InboundOrder order = inboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("入库单", "id", id));
@@ -404,10 +454,13 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         order.setApprovalRemark(request.getApprovalRemark());
 
         order = inboundOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
+    @RetryOnOptimisticLock
     public InboundOrderDTO executeInboundOrder(Long id) {
         InboundOrder order = inboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("入库单", "id", id));
@@ -417,39 +470,14 @@ public class InboundOrderServiceImpl implements InboundOrderService {
             throw new BusinessException("当前状态不允许执行入库操作");
         }
 
-        // 执行入库操作
+        // 执行入库操作，所有明细一次加载、批量写回
         List<InboundOrderDetail> details = inboundOrderDetailRepository.findByInboundOrderId(id);
-        System.out.println("=== 执行入库单 ===");
-        System.out.println("入库单号: " + order.getOrderNumber());
-        System.out.println("入库明细数量: " + details.size());
-
-        for (InboundOrderDetail detail : details) {
-            System.out.println("处理入库明细 - 货物ID: " + detail.getGoods().getId() +
-                             ", 数量: " + detail.getQuantity() +
-                             ", 货物名称: " + detail.getGoods().getName());
-
-            // 使用带业务类型的入库方法
-            try {
-                InventoryServiceImpl inventoryServiceImpl = (InventoryServiceImpl) inventoryService;
-                inventoryServiceImpl.inboundInventoryWithBusinessType(
-                        order.getWarehouse().getId(),
-                        detail.getGoods().getId(),
-                        detail.getQuantity(),
-                        detail.getUnitPrice(),
-                        detail.getProductionDate(),
-                        detail.getExpiryDate(),
-                        "INBOUND",  // 业务类型为入库
-                        order.getOrderNumber()  // 入库单号
-                );
-                System.out.println("入库明细处理完成 - 货物: " + detail.getGoods().getName());
-            } catch (Exception e) {
-                System.err.println("入库明细处理失败: " + e.getMessage());
-                e.printStackTrace();
-                throw e;
-            }
-
-            System.out.println("入库明细处理完成");
-        }
+        List<InventoryDTO.StockMovement> movements = details.stream()
+                .map(detail -> new InventoryDTO.StockMovement(detail.getGoods().getId(), detail.getQuantity(),
+                        detail.getUnitPrice(), detail.getProductionDate(), detail.getExpiryDate()))
+                .collect(Collectors.toList());
+        inventoryService.batchInbound(order.getWarehouse().getId(), movements,
+                "INBOUND", order.getOrderNumber());
 
         // 更新入库单状态为已执行
         order.setStatus(ApprovalStatus.EXECUTED);
@@ -457,10 +485,13 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         order.setActualDate(LocalDate.now());
 
         order = inboundOrderRepository.save(order);
+        publishOrderChanged(order);
+        dailyBusinessStatsService.recordInboundOrder(order, details);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public void cancelInboundOrder(Long id, String reason) {
         InboundOrder order = inboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("入库单", "id", id));
@@ -475,6 +506,7 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         order.setApprovalTime(LocalDateTime.now());
 
         inboundOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -485,27 +517,8 @@ public class InboundOrderServiceImpl implements InboundOrderService {
 
     @Override
     public String generateOrderNumber() {
-        // 使用Java代码生成订单号：IN + 年月日 + 3位序号
-        String dateStr = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "IN" + dateStr;
-
-        // 查找今天已有的最大序号
-        List<InboundOrder> todayOrders = inboundOrderRepository.findByOrderNumberStartingWithOrderByOrderNumberDesc(prefix);
-
-        int nextSeq = 1;
-        if (!todayOrders.isEmpty()) {
-            String lastOrderNumber = todayOrders.get(0).getOrderNumber();
-            if (lastOrderNumber.length() >= prefix.length() + 3) {
-                try {
-                    String seqStr = lastOrderNumber.substring(prefix.length());
-                    nextSeq = Integer.parseInt(seqStr) + 1;
-                } catch (NumberFormatException e) {
-                    nextSeq = 1;
-                }
-            }
-        }
-
-        return prefix + String.format("%03d", nextSeq);
+        // 订单号：IN + 年月日 + 至少3位序号，序号由序号服务分配，并发创建不会重复
+        return sequenceService.nextDailyNumber("IN", inboundOrderRepository::findMaxOrderNumberStartingWith);
     }
 
 
@@ -513,19 +526,13 @@ public class InboundOrderServiceImpl implements InboundOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findTodayOrders() {
-        return inboundOrderRepository.findTodayOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findTodayOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InboundOrderDTO> findOverdueOrders() {
-        return inboundOrderRepository.findOverdueOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(inboundOrderRepository.findOverdueOrders());
     }
 
     @Override
@@ -553,12 +560,68 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         return inboundOrderRepository.sumAmountByWarehouseAndDateRange(warehouseId, startDate, endDate);
     }
 
+    /**
+     * 发布单据变更事件，事务提交后推送给订阅相关仓库的客户端
+     */
+    private void publishOrderChanged(InboundOrder order) {
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.TYPE_INBOUND, order.getId(), order.getOrderNumber(),
+                Boolean.TRUE.equals(order.getDeleted()) ? null : order.getStatus(),
+                List.of(order.getWarehouse().getId())));
+    }
+
     /**
      * 转换为DTO
      */
     private InboundOrderDTO convertToDTO(InboundOrder order) {
+        return convertToDTO(order, inboundOrderDetailRepository.findByInboundOrderId(order.getId()));
+    }
+
+    /**
+     * 批量转换为DTO：一次查询加载所有入库单的明细及货物，不再逐单查询明细
+     */
+    private List<InboundOrderDTO> convertToDTOs(List<InboundOrder> orders) {
+        Map<Long, List<InboundOrderDetail>> details = findDetailsByOrders(orders);
+        return orders.stream()
+                .map(order -> convertToDTO(order, details.getOrDefault(order.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按入库单分组加载明细，每次查询最多 DETAIL_BATCH_SIZE 张入库单
+     */
+    private Map<Long, List<InboundOrderDetail>> findDetailsByOrders(List<InboundOrder> orders) {
+        List<Long> orderIds = orders.stream().map(InboundOrder::getId).collect(Collectors.toList());
+        Map<Long, List<InboundOrderDetail>> details = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += DETAIL_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + DETAIL_BATCH_SIZE, orderIds.size()));
+            for (InboundOrderDetail detail : inboundOrderDetailRepository.findWithGoodsByInboundOrderIdIn(batch)) {
+                details.computeIfAbsent(detail.getInboundOrder().getId(), id -> new ArrayList<>()).add(detail);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * 转换为DTO（明细由调用方提供）
+     */
+    private InboundOrderDTO convertToDTO(InboundOrder order, List<InboundOrderDetail> details) {
         InboundOrderDTO dto = new InboundOrderDTO();
-        BeanUtils.copyProperties(order, dto);
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setBusinessType(order.getBusinessType());
+        dto.setStatus(order.getStatus());
+        dto.setReferenceNumber(order.getReferenceNumber());
+        dto.setPlannedDate(order.getPlannedDate());
+        dto.setActualDate(order.getActualDate());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setRemark(order.getRemark());
+        dto.setApprovalTime(order.getApprovalTime());
+        dto.setApprovalRemark(order.getApprovalRemark());
+        dto.setOperationTime(order.getOperationTime());
+        dto.setCreatedTime(order.getCreatedTime());
+        dto.setCreatedBy(order.getCreatedBy());
+        dto.setUpdatedTime(order.getUpdatedTime());
+        dto.setUpdatedBy(order.getUpdatedBy());
 
         // 直接使用数据库中存储的制单人姓名
         // 不需要转换，因为我们现在直接存储用户填写的姓名
@@ -570,7 +633,6 @@ public class InboundOrderServiceImpl implements InboundOrderService {
         }
 
         // 设置明细信息
-        List<InboundOrderDetail> details = inboundOrderDetailRepository.findByInboundOrderId(order.getId());
         List<InboundOrderDTO.InboundOrderDetailDTO> detailDTOs = details.stream()
                 .map(this::convertDetailToDTO)
                 .collect(Collectors.toList());
@@ -584,7 +646,13 @@ public class InboundOrderServiceImpl implements InboundOrderService {
      */
     private InboundOrderDTO.InboundOrderDetailDTO convertDetailToDTO(InboundOrderDetail detail) {
         InboundOrderDTO.InboundOrderDetailDTO dto = new InboundOrderDTO.InboundOrderDetailDTO();
-        BeanUtils.copyProperties(detail, dto);
+        dto.setId(detail.getId());
+        dto.setQuantity(detail.getQuantity());
+        dto.setUnitPrice(detail.getUnitPrice());
+        dto.setAmount(detail.getAmount());
+        dto.setProductionDate(detail.getProductionDate());
+        dto.setExpiryDate(detail.getExpiryDate());
+        dto.setRemark(detail.getRemark());
         
         if (detail.getGoods() != null) {
             dto.setGoodsId(detail.getGoods().getId());
@@ -0,0 +1,277 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.config.CacheConfig;
+import com.warehouse.entity.InventoryAlert;
+import com.warehouse.event.GoodsChangedEvent;
+import com.warehouse.event.InventoryAlertsChangedEvent;
+import com.warehouse.event.InventoryChangedEvent;
+import com.warehouse.repository.InventoryAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 库存预警计算器
+ * 库存或货物变更事务提交后，按ID重新读取相关库存，与 inventory_alerts 中的有效预警比较，
+ * 只写入新触发和已解除的预警；每日巡检全量重算一次，处理随日期推移进入临期、过期的库存并修正遗漏。
+ * 启动后先全量计算一次，完成前读取方回退到原有的全表查询。预警有变化时发布 InventoryAlertsChangedEvent。
+ * 提交后的重新计算在单独的线程中执行：提交回调里调用方仍占着数据库连接，在回调中再开启新事务时，
+ * 并发写入数达到连接池大小就会互相等待连接。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class InventoryAlertEvaluator implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryAlertEvaluator.class);
+
+    /**
+     * 提交后按ID重新计算时每条 IN 查询的最大ID数
+     */
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int nearExpiryDays;
+
+    private final Counter raisedCounter;
+
+    private final Counter clearedCounter;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean ready;
+
+    public InventoryAlertEvaluator(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${warehouse.inventory-alerts.near-expiry-days:30}") int nearExpiryDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        // 提交后回调中原事务已结束，预警写入使用独立事务
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.nearExpiryDays = nearExpiryDays;
+
+        this.raisedCounter = Counter.builder("inventory.alerts.raised")
+                .description("触发的库存预警数")
+                .register(meterRegistry);
+        this.clearedCounter = Counter.builder("inventory.alerts.cleared")
+                .description("解除的库存预警数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 预警表是否已完成首次全量计算，可替代全表查询
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 启动完成后全量计算
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        sweep();
+    }
+
+    /**
+     * 每日巡检：全量重算所有库存的预警
+     */
+    @Scheduled(cron = "${warehouse.inventory-alerts.sweep-cron:0 5 0 * * ?}")
+    public synchronized void sweep() {
+        long start = System.currentTimeMillis();
+        try {
+            int changed = evaluate(InventoryAlertRepository.EVALUATION_SNAPSHOT_SQL,
+                    InventoryAlertRepository.ACTIVE_ALERTS_SQL, new MapSqlParameterSource());
+            ready = true;
+            logger.info("库存预警巡检完成，变化{}条，耗时{}ms", changed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            ready = false;
+            logger.error("库存预警巡检失败，暂停使用预警表: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 库存变更事务提交后重新计算这些库存的预警
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        List<Long> ids = event.getInventoryIds();
+        executor.execute(() -> reevaluate(" WHERE i.id IN (:ids)", " AND inventory_id IN (:ids)", ids));
+    }
+
+    /**
+     * 货物变更（最小库存修改、删除等）提交后重新计算该货物所有库存的预警
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGoodsChanged(GoodsChangedEvent event) {
+        List<Long> ids = event.getGoodsIds();
+        executor.execute(() -> reevaluate(" WHERE i.goods_id IN (:ids)", " AND goods_id IN (:ids)", ids));
+    }
+
+    private synchronized void reevaluate(String snapshotCondition, String alertCondition, List<Long> ids) {
+        try {
+            for (int from = 0; from < ids.size(); from += RELOAD_BATCH_SIZE) {
+                MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                        ids.subList(from, Math.min(from + RELOAD_BATCH_SIZE, ids.size())));
+                evaluate(InventoryAlertRepository.EVALUATION_SNAPSHOT_SQL + snapshotCondition,
+                        InventoryAlertRepository.ACTIVE_ALERTS_SQL + alertCondition, params);
+            }
+        } catch (Exception e) {
+            // 预警表可能落后于库存，暂停使用直到下一次巡检完成
+            ready = false;
+            logger.error("计算库存预警失败，暂停使用预警表: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 比较库存应有的预警和当前有效预警，写入变化；返回变化条数
+     */
+    private int evaluate(String snapshotSql, String activeSql, MapSqlParameterSource params) {
+        Set<Long> changedWarehouses = new HashSet<>();
+        Integer changed = transactionTemplate.execute(status -> {
+            // 预警键 -> [预警ID, 仓库ID]
+            Map<String, long[]> active = new HashMap<>();
+            jdbcTemplate.query(activeSql, params, rs -> {
+                active.put(alertKey(rs.getLong("inventory_id"), rs.getString("alert_type")),
+                        new long[]{rs.getLong("id"), rs.getLong("warehouse_id")});
+            });
+
+            LocalDate today = LocalDate.now();
+            LocalDateTime now = LocalDateTime.now();
+            List<MapSqlParameterSource> raised = new ArrayList<>();
+            jdbcTemplate.query(snapshotSql, params, rs -> {
+                if (rs.getBoolean("deleted")) {
+                    return;
+                }
+                long inventoryId = rs.getLong("id");
+                BigDecimal quantity = rs.getBigDecimal("quantity");
+                BigDecimal minStock = rs.getBigDecimal("min_stock");
+                Date expiry = rs.getDate("expiry_date");
+                LocalDate expiryDate = expiry != null ? expiry.toLocalDate() : null;
+                for (String type : alertTypes(quantity, minStock, expiryDate, today)) {
+                    if (active.remove(alertKey(inventoryId, type)) == null) {
+                        changedWarehouses.add(rs.getLong("warehouse_id"));
+                        raised.add(new MapSqlParameterSource()
+                                .addValue("inventoryId", inventoryId)
+                                .addValue("warehouseId", rs.getLong("warehouse_id"))
+                                .addValue("goodsId", rs.getLong("goods_id"))
+                                .addValue("alertType", type)
+                                .addValue("raisedTime", now)
+                                .addValue("quantity", quantity)
+                                .addValue("threshold", InventoryAlert.TYPE_LOW_STOCK.equals(type) ? minStock : null)
+                                .addValue("expiryDate", expiryDate));
+                    }
+                }
+            });
+
+            // 剩下的有效预警条件已不满足（包括库存已删除）
+            List<MapSqlParameterSource> cleared = new ArrayList<>(active.size());
+            for (long[] alert : active.values()) {
+                cleared.add(new MapSqlParameterSource().addValue("id", alert[0]).addValue("clearedTime", now));
+                changedWarehouses.add(alert[1]);
+            }
+            if (!raised.isEmpty()) {
+                jdbcTemplate.batchUpdate(InventoryAlertRepository.INSERT_SQL, raised.toArray(new MapSqlParameterSource[0]));
+            }
+            if (!cleared.isEmpty()) {
+                jdbcTemplate.batchUpdate(InventoryAlertRepository.CLEAR_SQL, cleared.toArray(new MapSqlParameterSource[0]));
+            }
+            raisedCounter.increment(raised.size());
+            clearedCounter.increment(cleared.size());
+            return raised.size() + cleared.size();
+        });
+
+        if (changed != null && changed > 0) {
+            evictCache(CacheConfig.DASHBOARD_ALERTS);
+            evictCache(CacheConfig.DASHBOARD_STATS);
+            eventPublisher.publishEvent(new InventoryAlertsChangedEvent(changedWarehouses));
+        }
+        return changed != null ? changed : 0;
+    }
+
+    /**
+     * 库存应有的预警类型：零库存、低库存（有库存且低于最小库存）、已过期、即将过期（有库存时）
+     */
+    private List<String> alertTypes(BigDecimal quantity, BigDecimal minStock, LocalDate expiryDate, LocalDate today) {
+        List<String> types = new ArrayList<>(2);
+        int sign = quantity != null ? quantity.signum() : 0;
+        if (sign == 0) {
+            types.add(InventoryAlert.TYPE_ZERO_STOCK);
+            return types;
+        }
+        if (sign < 0) {
+            return types;
+        }
+        if (minStock != null && minStock.signum() > 0 && quantity.compareTo(minStock) < 0) {
+            types.add(InventoryAlert.TYPE_LOW_STOCK);
+        }
+        if (expiryDate != null) {
+            if (expiryDate.isBefore(today)) {
+                types.add(InventoryAlert.TYPE_EXPIRED);
+            } else if (!expiryDate.isAfter(today.plusDays(nearExpiryDays))) {
+                types.add(InventoryAlert.TYPE_NEAR_EXPIRY);
+            }
+        }
+        return types;
+    }
+
+    private void evictCache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static String alertKey(long inventoryId, String alertType) {
+        return inventoryId + ":" + alertType;
+    }
+}
@@ -0,0 +1,283 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.event.InventoryChangedEvent;
+import com.warehouse.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 库存可用量投影
+ * 在进程内按 (仓库ID, 货物ID) 组合成的 long 键保存每条库存的总量、可用量和锁定量，供库存校验等高频读取使用。
+ * 启动完成后从 inventories 表预热；库存变更事务提交后按库存ID重新读取并刷新，只接受版本号更新的数据；
+ * 定时一致性校验以数据库为准修正偏差。投影未就绪，或当前事务已修改过库存时，读取方回退到数据库查询。
+ * 投影只用于读取，出库、锁定等扣减仍由数据库条件更新或行锁保证不超卖。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class InventoryAvailabilityProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryAvailabilityProjection.class);
+
+    /**
+     * 库存数量小数位数（与 inventories 表数量列一致），投影中以该精度的整数保存
+     */
+    private static final int QUANTITY_SCALE = 3;
+
+    /**
+     * 提交后按ID重新读取时每条 IN 查询的最大ID数
+     */
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+
+    private final Map<Long, Availability> entries = new ConcurrentHashMap<>();
+
+    private final Timer lagTimer;
+
+    private final Counter driftCounter;
+
+    private final Counter fallbackCounter;
+
+    private volatile boolean ready;
+
+    public InventoryAvailabilityProjection(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                           @Value("${warehouse.inventory-projection.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+
+        Gauge.builder("inventory.projection.size", entries, Map::size)
+                .description("库存可用量投影中的库存记录数")
+                .register(meterRegistry);
+        Gauge.builder("inventory.projection.ready", this, projection -> projection.ready ? 1 : 0)
+                .description("库存可用量投影是否可用于读取")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("inventory.projection.lag")
+                .description("库存变更发布到投影刷新完成的延迟")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("inventory.projection.drift")
+                .description("一致性校验发现并修正的投影偏差条数")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("inventory.projection.fallback")
+                .description("投影无法提供结果而回退到数据库的读取次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 查询库存数量；仓库中没有该货物的库存记录时返回数量全为0的结果，投影无法提供结果时返回null
+     */
+    public Availability find(Long warehouseId, Long goodsId) {
+        if (!enabled) {
+            return null;
+        }
+        long key = key(warehouseId, goodsId);
+        if (!ready || key < 0 || changedInCurrentTransaction()) {
+            fallbackCounter.increment();
+            return null;
+        }
+        Availability availability = entries.get(key);
+        return availability != null ? availability : Availability.EMPTY;
+    }
+
+    /**
+     * 启动完成后预热
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            jdbcTemplate.query(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL, rs -> {
+                refresh(rs);
+            });
+            ready = true;
+            logger.info("库存可用量投影预热完成，共{}条，耗时{}ms", entries.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("库存可用量投影预热失败，等待一致性校验重建: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 事务中发生库存变更：标记当前事务，之后同一事务内的读取回退到数据库以读到本事务的修改
+     */
+    @EventListener
+    public void markChanged(InventoryChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(InventoryAvailabilityProjection.this);
+            }
+        });
+    }
+
+    /**
+     * 事务提交后按库存ID重新读取并刷新投影
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Long> ids = event.getInventoryIds();
+            for (int from = 0; from < ids.size(); from += RELOAD_BATCH_SIZE) {
+                MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                        ids.subList(from, Math.min(from + RELOAD_BATCH_SIZE, ids.size())));
+                jdbcTemplate.query(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL + " WHERE id IN (:ids)", params, rs -> {
+                    refresh(rs);
+                });
+            }
+            lagTimer.record(System.nanoTime() - event.getPublishedNanos(), TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            // 刷新失败时投影可能落后于数据库，暂停使用直到下一次一致性校验完成
+            ready = false;
+            logger.error("刷新库存可用量投影失败，暂停使用投影: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 一致性校验：全量比对数据库，修正缺失或落后的记录；完成后恢复使用投影
+     */
+    @Scheduled(initialDelayString = "${warehouse.inventory-projection.reconcile-interval-ms:300000}",
+               fixedDelayString = "${warehouse.inventory-projection.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        AtomicLong drift = new AtomicLong();
+        try {
+            jdbcTemplate.query(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL, rs -> {
+                if (refresh(rs)) {
+                    drift.incrementAndGet();
+                }
+            });
+            if (ready && drift.get() > 0) {
+                logger.warn("库存可用量投影一致性校验修正{}条记录", drift.get());
+            }
+            driftCounter.increment(drift.get());
+            ready = true;
+        } catch (Exception e) {
+            ready = false;
+            logger.error("库存可用量投影一致性校验失败，暂停使用投影: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 用数据库当前行刷新投影，只接受版本号更新的数据；返回投影是否因此发生变化
+     */
+    private boolean refresh(ResultSet rs) throws SQLException {
+        long key = key(rs.getLong("warehouse_id"), rs.getLong("goods_id"));
+        if (key < 0) {
+            return false;
+        }
+        long version = rs.getLong("version");
+        if (rs.getBoolean("deleted")) {
+            Availability current = entries.get(key);
+            return current != null && current.version <= version && entries.remove(key, current);
+        }
+
+        Availability latest = new Availability(version,
+                toUnits(rs.getBigDecimal("quantity")),
+                toUnits(rs.getBigDecimal("available_quantity")),
+                toUnits(rs.getBigDecimal("locked_quantity")));
+        Availability[] previous = new Availability[1];
+        Availability result = entries.merge(key, latest, (current, candidate) -> {
+            previous[0] = current;
+            return candidate.version > current.version
+                    || (candidate.version == current.version && !candidate.sameQuantities(current)) ? candidate : current;
+        });
+        return result == latest && (previous[0] == null || !latest.sameQuantities(previous[0]));
+    }
+
+    private boolean changedInCurrentTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.hasResource(this);
+    }
+
+    /**
+     * 组合仓库ID和货物ID；任一ID超出int范围时返回-1，由数据库查询处理
+     */
+    private static long key(Long warehouseId, Long goodsId) {
+        if (warehouseId == null || goodsId == null
+                || warehouseId < 0 || warehouseId > Integer.MAX_VALUE
+                || goodsId < 0 || goodsId > Integer.MAX_VALUE) {
+            return -1;
+        }
+        return (warehouseId << 32) | goodsId;
+    }
+
+    private static long toUnits(BigDecimal value) {
+        return value != null ? value.setScale(QUANTITY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0;
+    }
+
+    /**
+     * 单条库存的数量快照（不可变）
+     */
+    public static final class Availability {
+        private static final Availability EMPTY = new Availability(-1, 0, 0, 0);
+
+        private final long version;
+        private final long quantity;
+        private final long availableQuantity;
+        private final long lockedQuantity;
+
+        private Availability(long version, long quantity, long availableQuantity, long lockedQuantity) {
+            this.version = version;
+            this.quantity = quantity;
+            this.availableQuantity = availableQuantity;
+            this.lockedQuantity = lockedQuantity;
+        }
+
+        public BigDecimal getQuantity() {
+            return BigDecimal.valueOf(quantity, QUANTITY_SCALE);
+        }
+
+        public BigDecimal getAvailableQuantity() {
+            return BigDecimal.valueOf(availableQuantity, QUANTITY_SCALE);
+        }
+
+        public BigDecimal getLockedQuantity() {
+            return BigDecimal.valueOf(lockedQuantity, QUANTITY_SCALE);
+        }
+
+        private boolean sameQuantities(Availability other) {
+            return quantity == other.quantity
+                    && availableQuantity == other.availableQuantity
+                    && lockedQuantity == other.lockedQuantity;
+        }
+    }
+}
@@ -1,42 +1,61 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
+import com.warehouse.config.EvictInventoryCaches;
+import com.warehouse.config.RetryOnOptimisticLock;
+import com.warehouse.dto.CursorPageResponse;
+import com.warehouse.dto.SeekCursor;
 import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.InventoryHistoryDTO;
 import com.warehouse.dto.PageResponse;
+import com.warehouse.entity.FixedPoint;
 import com.warehouse.entity.Goods;
 import com.warehouse.entity.Inventory;
+import com.warehouse.entity.InventoryAlert;
+import com.warehouse.entity.InventoryMovement;
 import com.warehouse.entity.OperationLog;
 import com.warehouse.entity.User;
 import com.warehouse.entity.Warehouse;
+import com.warehouse.event.InventoryChangedEvent;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.InventoryMovementRepository;
 import com.warehouse.repository.InventoryRepository;
 import com.warehouse.repository.OperationLogRepository;
 import com.warehouse.repository.UserRepository;
 import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.security.UserDetailsServiceImpl.UserPrincipal;
 import com.warehouse.service.InventoryService;
-import org.springframework.beans.BeanUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.time.format.DateTimeFormatter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +70,28 @@ public class InventoryServiceImpl implements InventoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
 
+    /**
+     * 不分页的历史接口最多返回的流水条数
+     */
+    private static final int HISTORY_LIST_LIMIT = 500;
+
+    /**
+     * 分页历史接口每页最大条数
+     */
+    private static final int HISTORY_PAGE_MAX_SIZE = 200;
+
+    /**
+     * 库存列表游标分页的排序字段（创建时间倒序，库存变动不改变顺序）
+     */
+    private static final String CURSOR_SORT_KEY = "createdTime";
+
+    /**
+     * 批量调整时每条 IN 查询的最大ID数
+     */
+    private static final int ADJUST_BATCH_SIZE = 1000;
+
+    private static final DateTimeFormatter EXPORT_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     @Autowired
     private InventoryRepository inventoryRepository;
 
@@ -63,9 +104,33 @@ public class InventoryServiceImpl implements InventoryService {
     @Autowired
     private OperationLogRepository operationLogRepository;
 
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+
+    @Autowired
+    private OperationLogWriter operationLogWriter;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InventoryAvailabilityProjection availabilityProjection;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private GoodsSearchIndex goodsSearchIndex;
+
+    @Autowired
+    private InventoryAlertEvaluator alertEvaluator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     @Transactional(readOnly = true)
     public Optional<InventoryDTO> findById(Long id) {
@@ -156,15 +221,50 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InventoryDTO> findByPage(String keyword, Pageable pageable) {
-        Page<Inventory> page = inventoryRepository.findByKeyword(keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(inventoryRepository.findByKeyword(keyword, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InventoryDTO> findByPageWithFilters(String keyword, Long warehouseId,
                                                           Long categoryId, String stockStatus, Pageable pageable) {
-        // 获取当前用户
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        GoodsSearchIndex.KeywordFilter filter = goodsSearchIndex.keywordFilter(keyword);
+        return PageResponse.of(inventoryRepository.findByFilters(filter.getKeyword(), filter.isGoodsIdFilter(),
+                filter.getGoodsIds(), finalWarehouseId, categoryId, stockStatus, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InventoryDTO> findByCursorWithFilters(String keyword, Long warehouseId, Long categoryId,
+                                                                  String stockStatus, String cursor, int size,
+                                                                  boolean withTotal) {
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        SeekCursor after = SeekCursor.decode(cursor, CURSOR_SORT_KEY);
+        int pageSize = CursorPageResponse.pageSize(size);
+        GoodsSearchIndex.KeywordFilter filter = goodsSearchIndex.keywordFilter(keyword);
+
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<InventoryDTO> inventories = after == null
+                ? inventoryRepository.findByFiltersFirst(filter.getKeyword(), filter.isGoodsIdFilter(),
+                        filter.getGoodsIds(), finalWarehouseId, categoryId, stockStatus, limit)
+                : inventoryRepository.findByFiltersAfter(filter.getKeyword(), filter.isGoodsIdFilter(),
+                        filter.getGoodsIds(), finalWarehouseId, categoryId, stockStatus,
+                        after.getSortValue(), after.getId(), limit);
+        CursorPageResponse<InventoryDTO> response = CursorPageResponse.of(inventories, pageSize, Function.identity(),
+                inventory -> SeekCursor.of(CURSOR_SORT_KEY, inventory.getCreatedTime(), inventory.getId()));
+        if (withTotal) {
+            response.setTotalElements(inventoryRepository.countByFilters(filter.getKeyword(),
+                    filter.isGoodsIdFilter(), filter.getGoodsIds(), finalWarehouseId, categoryId, stockStatus));
+        }
+        return response;
+    }
+
+    /**
+     * 确定当前用户可查询的仓库：非管理员未指定仓库时使用其第一个仓库，指定了无权限的仓库时抛出异常
+     */
+    private Long resolveAccessibleWarehouseId(Long warehouseId) {
         Long finalWarehouseId = warehouseId;
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
@@ -197,25 +297,24 @@ public class InventoryServiceImpl implements InventoryService {
             }
         }
 
-        Page<Inventory> page = inventoryRepository.findByFilters(keyword, finalWarehouseId, categoryId, stockStatus, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return finalWarehouseId;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InventoryDTO> findByWarehouseAndPage(Long warehouseId, String keyword, Pageable pageable) {
-        Page<Inventory> page = inventoryRepository.findByWarehouseAndKeyword(warehouseId, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(inventoryRepository.findByWarehouseAndKeyword(warehouseId, keyword, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<InventoryDTO> findByGoodsAndPage(Long goodsId, String keyword, Pageable pageable) {
-        Page<Inventory> page = inventoryRepository.findByGoodsAndKeyword(goodsId, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(inventoryRepository.findByGoodsAndKeyword(goodsId, keyword, pageable));
     }
 
     @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#request.warehouseId", goods = "#request.goodsId")
     public InventoryDTO adjustInventory(InventoryDTO.AdjustRequest request) {
         // 验证仓库和货物是否存在
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
@@ -225,7 +324,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("货物", "id", request.getGoodsId()));
 
         // 查找或创建库存记录
-        Optional<Inventory> inventoryOpt = inventoryRepository.findByWarehouseIdAndGoodsId(
+        Optional<Inventory> inventoryOpt = inventoryRepository.findForUpdate(
                 request.getWarehouseId(), request.getGoodsId());
         
         Inventory inventory;
@@ -306,6 +405,12 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         inventory = inventoryRepository.save(inventory);
+        publishInventoryChanged(List.of(inventory));
+
+        if (changeQuantity.compareTo(BigDecimal.ZERO) != 0) {
+            saveMovements(List.of(new StockChange(inventory, changeQuantity, beforeQuantity)),
+                    operationType, "INVENTORY", null, request.getReason());
+        }
 
         // 记录操作日志
         try {
@@ -335,17 +440,19 @@ public class InventoryServiceImpl implements InventoryService {
                 log.setRequestParams(String.format("inventoryId:%d,adjustQuantity:%s,setQuantity:%s,beforeQuantity:%s,afterQuantity:%s,reason:%s",
                         inventory.getId(), adjustQuantityParam, setQuantityParam, beforeQuantity, inventory.getQuantity(), request.getReason()));
 
-                operationLogRepository.save(log);
+                operationLogWriter.writeInTransaction(log);
             }
         } catch (Exception e) {
-            // 日志记录失败不影响主业务
-            System.err.println("记录库存操作日志失败: " + e.getMessage());
+            // 组装日志失败不影响主业务（写入失败由 OperationLogWriter 在提交前捕获）
+            logger.error("记录库存操作日志失败: {}", e.getMessage());
         }
 
         return convertToDTO(inventory);
     }
 
     @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId", goods = "#goodsId")
     public InventoryDTO inboundInventory(Long warehouseId, Long goodsId, BigDecimal quantity,
                                        BigDecimal costPrice, LocalDate productionDate, LocalDate expiryDate) {
         return inboundInventoryWithBusinessType(warehouseId, goodsId, quantity, costPrice,
@@ -355,12 +462,13 @@ public class InventoryServiceImpl implements InventoryService {
     /**
      * 带业务类型的入库方法
      */
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId", goods = "#goodsId")
     public InventoryDTO inboundInventoryWithBusinessType(Long warehouseId, Long goodsId, BigDecimal quantity,
                                                        BigDecimal costPrice, LocalDate productionDate, LocalDate expiryDate,
                                                        String businessType, String businessNumber) {
-        System.out.println("=== 执行带业务类型的入库操作 ===");
-        System.out.println("仓库ID: " + warehouseId + ", 货物ID: " + goodsId + ", 数量: " + quantity);
-        System.out.println("业务类型: " + businessType + ", 业务单据号: " + businessNumber);
+        logger.debug("执行带业务类型的入库操作 - 仓库ID: {}, 货物ID: {}, 数量: {}, 业务类型: {}, 业务单据号: {}",
+                warehouseId, goodsId, quantity, businessType, businessNumber);
         // 验证仓库和货物是否存在
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
@@ -369,7 +477,7 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("货物", "id", goodsId));
 
         // 查找或创建库存记录
-        Optional<Inventory> inventoryOpt = inventoryRepository.findByWarehouseIdAndGoodsId(warehouseId, goodsId);
+        Optional<Inventory> inventoryOpt = inventoryRepository.findForUpdate(warehouseId, goodsId);
 
         Inventory inventory;
         if (inventoryOpt.isPresent()) {
@@ -403,16 +511,14 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         inventory = inventoryRepository.save(inventory);
+        publishInventoryChanged(List.of(inventory));
+
+        saveMovements(List.of(new StockChange(inventory, quantity, beforeQuantity)),
+                "入库", businessType, businessNumber, null);
 
         // 记录操作日志 - 使用指定的业务类型
         try {
             User currentUser = getCurrentUser();
-            System.out.println("=== 入库操作日志记录 ===");
-            System.out.println("当前用户: " + (currentUser != null ? currentUser.getUsername() : "null"));
-            System.out.println("业务类型: " + businessType);
-            System.out.println("业务单据号: " + businessNumber);
-            System.out.println("库存ID: " + inventory.getId());
-
             if (currentUser != null) {
                 String operationDesc = String.format("入库 %s - %s，变动数量：%s，调整前：%s，调整后：%s",
                         goods.getName(),
@@ -421,8 +527,6 @@ public class InventoryServiceImpl implements InventoryService {
                         beforeQuantity,
                         inventory.getQuantity());
 
-                System.out.println("操作描述: " + operationDesc);
-
                 // 构建请求参数，用于历史记录解析
                 String requestParams = String.format(
                     "{\"warehouseId\":%d,\"goodsId\":%d,\"adjustQuantity\":%s,\"beforeQuantity\":%s,\"afterQuantity\":%s}",
@@ -442,33 +546,19 @@ public class InventoryServiceImpl implements InventoryService {
                 // 设置请求参数
                 log.setRequestParams(requestParams);
 
-                System.out.println("准备保存操作日志...");
-                OperationLog savedLog = operationLogRepository.save(log);
-                System.out.println("操作日志保存成功，日志ID: " + savedLog.getId());
-
-                // 验证日志是否真的保存了
-                List<OperationLog> recentLogs = operationLogRepository.findInventoryOperationLogs(inventory.getId());
-                System.out.println("该库存的操作日志总数: " + recentLogs.size());
-                if (!recentLogs.isEmpty()) {
-                    OperationLog latestLog = recentLogs.get(0);
-                    System.out.println("最新日志 - ID: " + latestLog.getId() +
-                                     ", 操作类型: " + latestLog.getOperationType() +
-                                     ", 业务类型: " + latestLog.getBusinessType() +
-                                     ", 业务单据号: " + latestLog.getBusinessNumber());
-                }
-            } else {
-                System.out.println("当前用户为空，无法记录操作日志");
+                operationLogWriter.writeInTransaction(log);
             }
         } catch (Exception e) {
-            // 日志记录失败不影响主业务
-            System.err.println("记录入库操作日志失败: " + e.getMessage());
-            e.printStackTrace();
+            // 组装日志失败不影响主业务（写入失败由 OperationLogWriter 在提交前捕获）
+            logger.error("记录入库操作日志失败: {}", e.getMessage());
         }
 
         return convertToDTO(inventory);
     }
 
     @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId", goods = "#goodsId")
     public InventoryDTO outboundInventory(Long warehouseId, Long goodsId, BigDecimal quantity) {
         return outboundInventoryWithBusinessType(warehouseId, goodsId, quantity, "OUTBOUND", null);
     }
@@ -476,11 +566,12 @@ public class InventoryServiceImpl implements InventoryService {
     /**
      * 带业务类型的出库方法
      */
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId", goods = "#goodsId")
     public InventoryDTO outboundInventoryWithBusinessType(Long warehouseId, Long goodsId, BigDecimal quantity,
                                                         String businessType, String businessNumber) {
-        // 检查库存是否充足
-        if (!checkStockAvailable(warehouseId, goodsId, quantity)) {
-            throw new BusinessException("库存不足，无法出库");
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessException("出库数量必须大于0");
         }
 
         // 验证仓库和货物是否存在
@@ -494,13 +585,18 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory inventory = inventoryRepository.findByWarehouseIdAndGoodsId(warehouseId, goodsId)
                 .orElseThrow(() -> new BusinessException("库存记录不存在"));
 
-        // 记录库存变动前的数量
-        BigDecimal beforeQuantity = inventory.getQuantity();
+        // 条件更新：检查可用库存与扣减在同一条语句中完成，热点货物并发出库时无需重试
+        if (inventoryRepository.deductAvailableQuantity(inventory.getId(), quantity, LocalDate.now()) == 0) {
+            throw new BusinessException("库存不足，无法出库");
+        }
+        entityManager.refresh(inventory);
+        publishInventoryChanged(List.of(inventory));
 
-        // 执行出库操作
-        inventory.outbound(quantity);
+        // 记录库存变动前的数量
+        BigDecimal beforeQuantity = inventory.getQuantity().add(quantity);
 
-        inventory = inventoryRepository.save(inventory);
+        saveMovements(List.of(new StockChange(inventory, quantity.negate(), beforeQuantity)),
+                "出库", businessType, businessNumber, null);
 
         // 记录操作日志 - 使用指定的业务类型
         try {
@@ -532,76 +628,490 @@ public class InventoryServiceImpl implements InventoryService {
                 // 设置请求参数
                 log.setRequestParams(requestParams);
 
-                operationLogRepository.save(log);
+                operationLogWriter.writeInTransaction(log);
             }
         } catch (Exception e) {
-            // 日志记录失败不影响主业务
-            System.err.println("记录出库操作日志失败: " + e.getMessage());
+            // 组装日志失败不影响主业务（写入失败由 OperationLogWriter 在提交前捕获）
+            logger.error("记录出库操作日志失败: {}", e.getMessage());
         }
 
         return convertToDTO(inventory);
     }
 
     @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId")
+    public void batchInbound(Long warehouseId, List<InventoryDTO.StockMovement> movements,
+                             String businessType, String businessNumber) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
+
+        Map<Long, Inventory> inventories = loadInventories(warehouseId, movements);
+
+        // 仓库中还没有库存记录的货物，一次查询后新建
+        Set<Long> missingGoodsIds = movements.stream()
+                .map(InventoryDTO.StockMovement::getGoodsId)
+                .filter(goodsId -> !inventories.containsKey(goodsId))
+                .collect(Collectors.toSet());
+        if (!missingGoodsIds.isEmpty()) {
+            for (Goods goods : goodsRepository.findAllById(missingGoodsIds)) {
+                Inventory inventory = new Inventory();
+                inventory.setWarehouse(warehouse);
+                inventory.setGoods(goods);
+                inventory.setQuantity(BigDecimal.ZERO);
+                inventory.setAvailableQuantity(BigDecimal.ZERO);
+                inventory.setLockedQuantity(BigDecimal.ZERO);
+                inventories.put(goods.getId(), inventory);
+            }
+        }
+
+        List<StockChange> changes = new ArrayList<>();
+        for (InventoryDTO.StockMovement movement : movements) {
+            Inventory inventory = inventories.get(movement.getGoodsId());
+            if (inventory == null) {
+                throw new ResourceNotFoundException("货物", "id", movement.getGoodsId());
+            }
+
+            BigDecimal beforeQuantity = inventory.getQuantity();
+            inventory.inbound(movement.getQuantity(),
+                    movement.getUnitPrice() != null ? movement.getUnitPrice() : BigDecimal.ZERO);
+            if (movement.getProductionDate() != null) {
+                inventory.setProductionDate(movement.getProductionDate());
+            }
+            if (movement.getExpiryDate() != null) {
+                inventory.setExpiryDate(movement.getExpiryDate());
+            }
+            if (inventory.getCostPrice() != null) {
+                inventory.setTotalValue(inventory.getQuantity().multiply(inventory.getCostPrice()));
+            }
+            changes.add(new StockChange(inventory, movement.getQuantity(), beforeQuantity));
+        }
+
+        inventoryRepository.saveAll(inventories.values());
+        publishInventoryChanged(inventories.values());
+        saveMovements(changes, "入库", businessType, businessNumber, null);
+        saveBatchLogs(changes, "入库", businessType, businessNumber, warehouse);
+    }
+
+    @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock(warehouse = "#warehouseId")
+    public void batchOutbound(Long warehouseId, List<InventoryDTO.StockMovement> movements, boolean releaseLocked,
+                              String businessType, String businessNumber) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
+
+        Map<Long, Inventory> inventories = loadInventories(warehouseId, movements);
+
+        List<StockChange> changes = new ArrayList<>();
+        for (InventoryDTO.StockMovement movement : movements) {
+            Inventory inventory = inventories.get(movement.getGoodsId());
+            if (inventory == null) {
+                throw new BusinessException("货物 " + goodsName(movement.getGoodsId()) + " 库存记录不存在，无法出库");
+            }
+
+            BigDecimal quantity = movement.getQuantity();
+            if (releaseLocked) {
+                if (inventory.getLockedQuantity().compareTo(quantity) < 0) {
+                    throw new BusinessException("货物 " + inventory.getGoods().getName() + " 锁定库存不足，无法解锁");
+                }
+                inventory.unlockStock(quantity);
+            }
+            if (inventory.getAvailableQuantity().compareTo(quantity) < 0) {
+                throw new BusinessException("货物 " + inventory.getGoods().getName() + " 库存不足，无法出库");
+            }
+
+            BigDecimal beforeQuantity = inventory.getQuantity();
+            inventory.outbound(quantity);
+            changes.add(new StockChange(inventory, quantity.negate(), beforeQuantity));
+        }
+
+        inventoryRepository.saveAll(inventories.values());
+        publishInventoryChanged(inventories.values());
+        saveMovements(changes, "出库", businessType, businessNumber, null);
+        saveBatchLogs(changes, "出库", businessType, businessNumber, warehouse);
+    }
+
+    @Override
+    @EvictInventoryCaches
+    public void batchAdjust(Long warehouseId, List<InventoryDTO.StockMovement> adjustments,
+                            String businessType, String businessNumber) {
+        if (adjustments.isEmpty()) {
+            return;
+        }
+        Warehouse warehouse = warehouseRepository.findById(warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
+
+        // 先不加锁读取当前数量，流水在更新库存之前写入，库存行锁只在最后一次批量更新到事务提交之间持有
+        List<Long> goodsIds = adjustments.stream().map(InventoryDTO.StockMovement::getGoodsId).distinct().toList();
+        Map<Long, Long> inventoryIds = new HashMap<>();
+        Map<Long, BigDecimal> quantities = new HashMap<>();
+        for (int from = 0; from < goodsIds.size(); from += ADJUST_BATCH_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource("warehouseId", warehouseId)
+                    .addValue("goodsIds", goodsIds.subList(from, Math.min(from + ADJUST_BATCH_SIZE, goodsIds.size())));
+            jdbcTemplate.query(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL +
+                            " WHERE warehouse_id = :warehouseId AND goods_id IN (:goodsIds) AND deleted = false", params,
+                    rs -> {
+                        inventoryIds.put(rs.getLong("goods_id"), rs.getLong("id"));
+                        quantities.put(rs.getLong("id"), rs.getBigDecimal("quantity"));
+                    });
+        }
+
+        // 盘盈需新建库存记录的货物一次查出
+        List<Long> newGoodsIds = adjustments.stream()
+                .filter(adjustment -> adjustment.getQuantity() != null && adjustment.getQuantity().signum() > 0
+                        && !inventoryIds.containsKey(adjustment.getGoodsId()))
+                .map(InventoryDTO.StockMovement::getGoodsId)
+                .distinct()
+                .toList();
+        Map<Long, Goods> newGoods = newGoodsIds.isEmpty() ? Map.of() : goodsRepository.findAllById(newGoodsIds).stream()
+                .collect(Collectors.toMap(Goods::getId, Function.identity()));
+
+        List<StockChange> updated = new ArrayList<>();
+        List<Inventory> created = new ArrayList<>();
+        List<StockChange> changes = new ArrayList<>();
+        for (InventoryDTO.StockMovement adjustment : adjustments) {
+            BigDecimal delta = adjustment.getQuantity();
+            if (delta == null || delta.signum() == 0) {
+                continue;
+            }
+            Long inventoryId = inventoryIds.get(adjustment.getGoodsId());
+            if (inventoryId != null) {
+                BigDecimal beforeQuantity = quantities.get(inventoryId);
+                StockChange change = new StockChange(inventoryId, warehouseId, adjustment.getGoodsId(), delta,
+                        beforeQuantity, beforeQuantity.add(delta));
+                updated.add(change);
+                changes.add(change);
+                continue;
+            }
+            if (delta.signum() < 0) {
+                throw new BusinessException("货物 " + goodsName(adjustment.getGoodsId()) + " 库存记录不存在，无法盘亏调整");
+            }
+            Goods goods = newGoods.get(adjustment.getGoodsId());
+            if (goods == null) {
+                throw new ResourceNotFoundException("货物", "id", adjustment.getGoodsId());
+            }
+            Inventory inventory = new Inventory();
+            inventory.setWarehouse(warehouse);
+            inventory.setGoods(goods);
+            inventory.setQuantity(BigDecimal.ZERO);
+            inventory.setAvailableQuantity(BigDecimal.ZERO);
+            inventory.setLockedQuantity(BigDecimal.ZERO);
+            inventory.inbound(delta, adjustment.getUnitPrice() != null ? adjustment.getUnitPrice() : BigDecimal.ZERO);
+            created.add(inventory);
+            changes.add(new StockChange(inventory, delta, BigDecimal.ZERO));
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        List<Long> changedIds = new ArrayList<>(changes.size());
+        if (!created.isEmpty()) {
+            inventoryRepository.saveAll(created);
+            created.forEach(inventory -> changedIds.add(inventory.getId()));
+        }
+        LocalDateTime operationTime = saveMovements(changes, "盘点调整", businessType, businessNumber, null);
+        saveAdjustmentLog(changes, businessType, businessNumber, warehouse);
+
+        if (!updated.isEmpty()) {
+            // 按库存ID顺序加锁，避免与并发的批量出入库死锁；数量未被并发修改时流水中的前后数量即为实际值
+            updated.sort(Comparator.comparing(StockChange::inventoryId));
+            LocalDateTime now = LocalDateTime.now();
+            MapSqlParameterSource[] updates = new MapSqlParameterSource[updated.size()];
+            for (int i = 0; i < updates.length; i++) {
+                StockChange change = updated.get(i);
+                updates[i] = new MapSqlParameterSource("id", change.inventoryId())
+                        .addValue("delta", change.changeQuantity)
+                        .addValue("beforeQuantity", change.beforeQuantity)
+                        .addValue("now", now);
+            }
+            int[] counts = jdbcTemplate.batchUpdate(InventoryRepository.ADJUST_QUANTITY_SQL + " AND quantity = :beforeQuantity",
+                    updates);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    adjustConcurrentlyChanged(updated.get(i), updates[i], businessNumber, operationTime);
+                }
+                changedIds.add(updated.get(i).inventoryId());
+            }
+        }
+
+        eventPublisher.publishEvent(new InventoryChangedEvent(changedIds));
+    }
+
+    /**
+     * 读取之后数量已被其他业务修改的库存：不带数量条件重新调整，并按实际前后数量更正已写入的流水
+     */
+    private void adjustConcurrentlyChanged(StockChange change, MapSqlParameterSource update, String businessNumber,
+                                           LocalDateTime operationTime) {
+        if (jdbcTemplate.update(InventoryRepository.ADJUST_QUANTITY_SQL, update) == 0) {
+            throw new BusinessException("货物 " + goodsName(change.goodsId()) + " 可用库存不足，无法按盘点结果调整");
+        }
+        // 行锁由本事务持有，此时读到的就是调整后的数量
+        BigDecimal afterQuantity = jdbcTemplate.queryForObject(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL + " WHERE id = :id",
+                new MapSqlParameterSource("id", change.inventoryId()), (rs, rowNum) -> rs.getBigDecimal("quantity"));
+        jdbcTemplate.update(InventoryMovementRepository.CORRECT_QUANTITIES_SQL, new MapSqlParameterSource()
+                .addValue("inventoryId", change.inventoryId())
+                .addValue("orderNumber", businessNumber)
+                .addValue("operationTime", operationTime)
+                .addValue("beforeQuantity", afterQuantity.subtract(change.changeQuantity))
+                .addValue("afterQuantity", afterQuantity));
+    }
+
+    /**
+     * 盘点调整只记录一条汇总操作日志（逐条变动已写入库存流水）
+     */
+    private void saveAdjustmentLog(List<StockChange> changes, String businessType, String businessNumber,
+                                   Warehouse warehouse) {
+        try {
+            User currentUser = getCurrentUser();
+            if (currentUser == null) {
+                return;
+            }
+            long gainItems = changes.stream().filter(change -> change.changeQuantity.signum() > 0).count();
+            String operationDesc = String.format("盘点调整 %s - %s，调整%d项，其中盘盈%d项、盘亏%d项",
+                    businessNumber, warehouse.getName(), changes.size(), gainItems, changes.size() - gainItems);
+            operationLogWriter.writeInTransaction(OperationLog.createBusinessLog(currentUser, "盘点调整", operationDesc,
+                    businessType, null, businessNumber, warehouse));
+        } catch (Exception e) {
+            // 组装日志失败不影响主业务（写入失败由 OperationLogWriter 在提交前捕获）
+            logger.error("记录盘点调整操作日志失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 发布库存变更事件，事务提交后刷新库存可用量投影和库存预警
+     */
+    private void publishInventoryChanged(Collection<Inventory> inventories) {
+        List<Long> inventoryIds = new ArrayList<>(inventories.size());
+        for (Inventory inventory : inventories) {
+            inventoryIds.add(inventory.getId());
+        }
+        eventPublisher.publishEvent(new InventoryChangedEvent(inventoryIds));
+    }
+
+    /**
+     * 一次查询加载仓库中涉及货物的库存记录，按货物ID索引
+     */
+    private Map<Long, Inventory> loadInventories(Long warehouseId, List<InventoryDTO.StockMovement> movements) {
+        Set<Long> goodsIds = movements.stream()
+                .map(InventoryDTO.StockMovement::getGoodsId)
+                .collect(Collectors.toSet());
+        Map<Long, Inventory> inventories = new LinkedHashMap<>();
+        for (Inventory inventory : inventoryRepository.findByWarehouseIdAndGoodsIdIn(warehouseId, goodsIds)) {
+            inventories.put(inventory.getGoods().getId(), inventory);
+        }
+        return inventories;
+    }
+
+    private String goodsName(Long goodsId) {
+        return goodsRepository.findById(goodsId).map(Goods::getName).orElse(String.valueOf(goodsId));
+    }
+
+    /**
+     * 写入库存变动流水
+     * 与库存变更处于同一事务，失败时整体回滚；库存记录使用自增主键，保存后即有ID，无需提前flush。
+     */
+    private LocalDateTime saveMovements(List<StockChange> changes, String operationType, String businessType,
+                                        String businessNumber, String remark) {
+        Long operatorId = null;
+        String operatorName = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            operatorId = principal.getId();
+            operatorName = principal.getRealName();
+        }
+
+        LocalDateTime operationTime = LocalDateTime.now();
+        MapSqlParameterSource[] movements = new MapSqlParameterSource[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            StockChange change = changes.get(i);
+            movements[i] = new MapSqlParameterSource()
+                    .addValue("inventoryId", change.inventoryId())
+                    .addValue("warehouseId", change.warehouseId())
+                    .addValue("goodsId", change.goodsId())
+                    .addValue("operationType", operationType)
+                    .addValue("businessType", businessType)
+                    .addValue("orderNumber", businessNumber)
+                    .addValue("changeQuantity", change.changeQuantity)
+                    .addValue("beforeQuantity", change.beforeQuantity)
+                    .addValue("afterQuantity", change.afterQuantity)
+                    .addValue("operatorId", operatorId)
+                    .addValue("operatorName", operatorName)
+                    .addValue("operationTime", operationTime)
+                    .addValue("remark", remark);
+        }
+        jdbcTemplate.batchUpdate(InventoryMovementRepository.INSERT_SQL, movements);
+        return operationTime;
+    }
+
+    /**
+     * 批量记录出入库操作日志
+     */
+    private void saveBatchLogs(List<StockChange> changes, String operationType, String businessType,
+                               String businessNumber, Warehouse warehouse) {
+        try {
+            User currentUser = getCurrentUser();
+            if (currentUser == null) {
+                return;
+            }
+            List<OperationLog> logs = new ArrayList<>(changes.size());
+            for (StockChange change : changes) {
+                Inventory inventory = change.inventory;
+                BigDecimal changeQuantity = change.changeQuantity;
+
+                String operationDesc = String.format("%s %s - %s，变动数量：%s，调整前：%s，调整后：%s",
+                        operationType,
+                        inventory.getGoods().getName(),
+                        warehouse.getName(),
+                        changeQuantity.abs(),
+                        change.beforeQuantity,
+                        change.afterQuantity);
+
+                String requestParams = String.format(
+                    "{\"warehouseId\":%d,\"goodsId\":%d,\"adjustQuantity\":%s,\"beforeQuantity\":%s,\"afterQuantity\":%s}",
+                    warehouse.getId(), inventory.getGoods().getId(), changeQuantity, change.beforeQuantity, change.afterQuantity
+                );
+
+                OperationLog log = OperationLog.createBusinessLog(currentUser, operationType, operationDesc,
+                        businessType, inventory.getId(), businessNumber, warehouse);
+                log.setRequestParams(requestParams);
+                logs.add(log);
+            }
+            operationLogWriter.writeInTransaction(logs);
+        } catch (Exception e) {
+            // 组装日志失败不影响主业务（写入失败由 OperationLogWriter 在提交前捕获）
+            logger.error("批量记录{}操作日志失败: {}", operationType, e.getMessage());
+        }
+    }
+
+    /**
+     * 单条库存变动（用于记录流水和日志）；按SQL直接调整的库存没有实体，只记录ID
+     */
+    private static class StockChange {
+        private final Inventory inventory;
+        private final Long inventoryId;
+        private final Long warehouseId;
+        private final Long goodsId;
+        private final BigDecimal changeQuantity;
+        private final BigDecimal beforeQuantity;
+        private final BigDecimal afterQuantity;
+
+        StockChange(Inventory inventory, BigDecimal changeQuantity, BigDecimal beforeQuantity) {
+            this.inventory = inventory;
+            this.inventoryId = null;
+            this.warehouseId = null;
+            this.goodsId = null;
+            this.changeQuantity = changeQuantity;
+            this.beforeQuantity = beforeQuantity;
+            this.afterQuantity = inventory.getQuantity();
+        }
+
+        StockChange(Long inventoryId, Long warehouseId, Long goodsId, BigDecimal changeQuantity,
+                    BigDecimal beforeQuantity, BigDecimal afterQuantity) {
+            this.inventory = null;
+            this.inventoryId = inventoryId;
+            this.warehouseId = warehouseId;
+            this.goodsId = goodsId;
+            this.changeQuantity = changeQuantity;
+            this.beforeQuantity = beforeQuantity;
+            this.afterQuantity = afterQuantity;
+        }
+
+        // 新建的库存记录保存后才有ID，需要时再从实体读取
+        Long inventoryId() {
+            return inventory != null ? inventory.getId() : inventoryId;
+        }
+
+        Long warehouseId() {
+            return inventory != null ? inventory.getWarehouse().getId() : warehouseId;
+        }
+
+        Long goodsId() {
+            return inventory != null ? inventory.getGoods().getId() : goodsId;
+        }
+    }
+
+    @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock
     public void lockInventory(InventoryDTO.LockRequest request) {
-        Inventory inventory = inventoryRepository.findById(request.getInventoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("库存", "id", request.getInventoryId()));
+        if (request.getLockQuantity() == null || request.getLockQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessException("锁定数量必须大于0");
+        }
 
-        // 检查可用库存是否充足
-        if (inventory.getAvailableQuantity().compareTo(request.getLockQuantity()) < 0) {
+        // 条件更新：检查可用库存与锁定在同一条语句中完成，并发锁定同一库存时不会超锁
+        if (inventoryRepository.lockAvailableQuantity(request.getInventoryId(), request.getLockQuantity()) == 0) {
+            if (!inventoryRepository.existsById(request.getInventoryId())) {
+                throw new ResourceNotFoundException("库存", "id", request.getInventoryId());
+            }
             throw new BusinessException("可用库存不足，无法锁定");
         }
-
-        // 锁定库存
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity().subtract(request.getLockQuantity()));
-        inventory.setLockedQuantity(inventory.getLockedQuantity().add(request.getLockQuantity()));
-        
-        inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new InventoryChangedEvent(List.of(request.getInventoryId())));
     }
 
     @Override
+    @EvictInventoryCaches
+    @RetryOnOptimisticLock
     public void unlockInventory(InventoryDTO.UnlockRequest request) {
-        Inventory inventory = inventoryRepository.findById(request.getInventoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("库存", "id", request.getInventoryId()));
+        if (request.getUnlockQuantity() == null || request.getUnlockQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BusinessException("解锁数量必须大于0");
+        }
 
-        // 检查锁定库存是否充足
-        if (inventory.getLockedQuantity().compareTo(request.getUnlockQuantity()) < 0) {
+        if (inventoryRepository.unlockLockedQuantity(request.getInventoryId(), request.getUnlockQuantity()) == 0) {
+            if (!inventoryRepository.existsById(request.getInventoryId())) {
+                throw new ResourceNotFoundException("库存", "id", request.getInventoryId());
+            }
             throw new BusinessException("锁定库存不足，无法解锁");
         }
-
-        // 解锁库存
-        inventory.setLockedQuantity(inventory.getLockedQuantity().subtract(request.getUnlockQuantity()));
-        inventory.setAvailableQuantity(inventory.getAvailableQuantity().add(request.getUnlockQuantity()));
-        
-        inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new InventoryChangedEvent(List.of(request.getInventoryId())));
     }
 
+    // 以下数量查询优先读取库存可用量投影，不开启事务；投影无法提供结果时回退到数据库查询
+
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public boolean checkStockAvailable(Long warehouseId, Long goodsId, BigDecimal requiredQuantity) {
         BigDecimal availableQuantity = getAvailableQuantity(warehouseId, goodsId);
         return availableQuantity.compareTo(requiredQuantity) >= 0;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BigDecimal getAvailableQuantity(Long warehouseId, Long goodsId) {
+        InventoryAvailabilityProjection.Availability availability = availabilityProjection.find(warehouseId, goodsId);
+        if (availability != null) {
+            return availability.getAvailableQuantity();
+        }
         return inventoryRepository.findByWarehouseIdAndGoodsId(warehouseId, goodsId)
                 .map(Inventory::getAvailableQuantity)
                 .orElse(BigDecimal.ZERO);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BigDecimal getTotalQuantity(Long warehouseId, Long goodsId) {
+        InventoryAvailabilityProjection.Availability availability = availabilityProjection.find(warehouseId, goodsId);
+        if (availability != null) {
+            return availability.getQuantity();
+        }
         return inventoryRepository.findByWarehouseIdAndGoodsId(warehouseId, goodsId)
                 .map(Inventory::getQuantity)
                 .orElse(BigDecimal.ZERO);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public BigDecimal getLockedQuantity(Long warehouseId, Long goodsId) {
+        InventoryAvailabilityProjection.Availability availability = availabilityProjection.find(warehouseId, goodsId);
+        if (availability != null) {
+            return availability.getLockedQuantity();
+        }
         return inventoryRepository.findByWarehouseIdAndGoodsId(warehouseId, goodsId)
                 .map(Inventory::getLockedQuantity)
                 .orElse(BigDecimal.ZERO);
@@ -631,10 +1141,12 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.INVENTORY_STATS,
+               key = "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication()?.getName() ?: ''")
     public InventoryStatistics getInventoryStatistics() {
         // 获取当前用户
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Long userWarehouseId = null;
+        List<Long> userWarehouseIds = null;
 
         if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
             org.springframework.security.core.userdetails.UserDetails userDetails =
@@ -645,73 +1157,25 @@ public class InventoryServiceImpl implements InventoryService {
                 .anyMatch(auth -> "ROLE_ADMIN".equals(auth.getAuthority()));
 
             if (!isAdmin) {
-                // 获取用户有权限的仓库
-                User user = userRepository.findByUsernameAndDeletedFalse(userDetails.getUsername())
-                    .orElseThrow(() -> new ResourceNotFoundException("用户", "username", userDetails.getUsername()));
-
-                // 如果用户有仓库权限，使用第一个仓库进行统计
-                if (!user.getWarehouses().isEmpty()) {
-                    userWarehouseId = user.getWarehouses().iterator().next().getId();
+                // 获取用户有权限的仓库，令牌主体已携带时不再查询用户
+                if (userDetails instanceof UserPrincipal principal) {
+                    userWarehouseIds = principal.getWarehouseIds();
+                } else {
+                    User user = userRepository.findByUsernameAndDeletedFalse(userDetails.getUsername())
+                        .orElseThrow(() -> new ResourceNotFoundException("用户", "username", userDetails.getUsername()));
+                    userWarehouseIds = user.getWarehouses().stream().map(Warehouse::getId).toList();
                 }
             }
         }
 
-        // 根据仓库权限进行统计
-        if (userWarehouseId != null) {
-            return getWarehouseInventoryStatistics(userWarehouseId);
-        } else {
-            // 系统管理员或无仓库限制，统计所有数据
-            long totalItems = inventoryRepository.count();
-            Long totalQuantityLong = inventoryRepository.sumTotalQuantity();
-            Long totalAvailableQuantityLong = inventoryRepository.sumTotalAvailableQuantity();
-            Long totalLockedQuantityLong = inventoryRepository.sumTotalLockedQuantity();
-
-            BigDecimal totalQuantity = totalQuantityLong != null ? BigDecimal.valueOf(totalQuantityLong) : BigDecimal.ZERO;
-            BigDecimal totalAvailableQuantity = totalAvailableQuantityLong != null ? BigDecimal.valueOf(totalAvailableQuantityLong) : BigDecimal.ZERO;
-            BigDecimal totalLockedQuantity = totalLockedQuantityLong != null ? BigDecimal.valueOf(totalLockedQuantityLong) : BigDecimal.ZERO;
-            BigDecimal totalValue = inventoryRepository.sumTotalValue();
-            long lowStockItems = inventoryRepository.findLowStock().size();
-            long zeroStockItems = inventoryRepository.findZeroStock().size();
-            long nearExpiryItems = inventoryRepository.findNearExpiry(LocalDate.now().plusDays(30)).size();
-            long expiredItems = inventoryRepository.findExpired(LocalDate.now()).size();
-            long warehousesCount = inventoryRepository.countDistinctWarehouses();
-            long goodsCount = inventoryRepository.countDistinctGoods();
-
-            return new InventoryStatistics(totalItems,
-                    totalQuantity != null ? totalQuantity : BigDecimal.ZERO,
-                    totalAvailableQuantity != null ? totalAvailableQuantity : BigDecimal.ZERO,
-                    totalLockedQuantity != null ? totalLockedQuantity : BigDecimal.ZERO,
-                    totalValue != null ? totalValue : BigDecimal.ZERO,
-                    lowStockItems, zeroStockItems, nearExpiryItems, expiredItems, warehousesCount, goodsCount);
-        }
+        // 根据仓库权限进行统计：有仓库权限时统计其所有仓库，系统管理员或无仓库限制时统计所有数据
+        return aggregateStatistics(userWarehouseIds != null && !userWarehouseIds.isEmpty() ? userWarehouseIds : null);
     }
 
     @Override
     @Transactional(readOnly = true)
     public InventoryStatistics getWarehouseInventoryStatistics(Long warehouseId) {
-        // 根据仓库ID进行统计
-        long totalItems = inventoryRepository.countByWarehouseId(warehouseId);
-        Long totalQuantityLong = inventoryRepository.sumTotalQuantityByWarehouse(warehouseId);
-        Long totalAvailableQuantityLong = inventoryRepository.sumTotalAvailableQuantityByWarehouse(warehouseId);
-        Long totalLockedQuantityLong = inventoryRepository.sumTotalLockedQuantityByWarehouse(warehouseId);
-
-        BigDecimal totalQuantity = totalQuantityLong != null ? BigDecimal.valueOf(totalQuantityLong) : BigDecimal.ZERO;
-        BigDecimal totalAvailableQuantity = totalAvailableQuantityLong != null ? BigDecimal.valueOf(totalAvailableQuantityLong) : BigDecimal.ZERO;
-        BigDecimal totalLockedQuantity = totalLockedQuantityLong != null ? BigDecimal.valueOf(totalLockedQuantityLong) : BigDecimal.ZERO;
-        BigDecimal totalValue = inventoryRepository.sumTotalValueByWarehouse(warehouseId);
-        long lowStockItems = inventoryRepository.findLowStockByWarehouse(warehouseId).size();
-        long zeroStockItems = inventoryRepository.findZeroStockByWarehouse(warehouseId).size();
-        long nearExpiryItems = inventoryRepository.findNearExpiryByWarehouse(warehouseId, LocalDate.now().plusDays(30)).size();
-        long expiredItems = inventoryRepository.findExpiredByWarehouse(warehouseId, LocalDate.now()).size();
-        long warehousesCount = 1; // 单个仓库
-        long goodsCount = inventoryRepository.countDistinctGoodsByWarehouse(warehouseId);
-
-        return new InventoryStatistics(totalItems,
-                totalQuantity != null ? totalQuantity : BigDecimal.ZERO,
-                totalAvailableQuantity != null ? totalAvailableQuantity : BigDecimal.ZERO,
-                totalLockedQuantity != null ? totalLockedQuantity : BigDecimal.ZERO,
-                totalValue != null ? totalValue : BigDecimal.ZERO,
-                lowStockItems, zeroStockItems, nearExpiryItems, expiredItems, warehousesCount, goodsCount);
+        return aggregateStatistics(List.of(warehouseId));
     }
 
     @Override
@@ -724,18 +1188,59 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDTO> checkInventoryAlerts() {
+        if (alertEvaluator.isReady()) {
+            return inventoryRepository.findWithActiveAlerts(List.of(InventoryAlert.TYPE_LOW_STOCK,
+                            InventoryAlert.TYPE_NEAR_EXPIRY, InventoryAlert.TYPE_EXPIRED))
+                    .stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        }
+        // 预警表尚未完成首次计算
         List<InventoryDTO> alerts = findLowStock();
         alerts.addAll(findNearExpiry(30));
         alerts.addAll(findExpired());
         return alerts.stream().distinct().collect(Collectors.toList());
     }
 
+    /**
+     * 单条聚合查询统计库存概况；warehouseIds 为null时统计所有仓库
+     */
+    private InventoryStatistics aggregateStatistics(Collection<Long> warehouseIds) {
+        LocalDate today = LocalDate.now();
+        Object[] row = inventoryRepository.aggregateStatistics(warehouseIds == null,
+                warehouseIds != null ? warehouseIds : List.of(-1L), today.plusDays(30), today).get(0);
+
+        return new InventoryStatistics(((Number) row[0]).longValue(),
+                toDecimal(row[1]), toDecimal(row[2]), toDecimal(row[3]), toDecimal(row[4]),
+                ((Number) row[5]).longValue(), ((Number) row[6]).longValue(),
+                ((Number) row[7]).longValue(), ((Number) row[8]).longValue(),
+                ((Number) row[9]).longValue(), ((Number) row[10]).longValue());
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return value != null ? new BigDecimal(value.toString()) : BigDecimal.ZERO;
+    }
+
     /**
      * 转换为DTO
      */
     private InventoryDTO convertToDTO(Inventory inventory) {
         InventoryDTO dto = new InventoryDTO();
-        BeanUtils.copyProperties(inventory, dto);
+        dto.setId(inventory.getId());
+        dto.setQuantity(inventory.getQuantity());
+        dto.setAvailableQuantity(inventory.getAvailableQuantity());
+        dto.setLockedQuantity(inventory.getLockedQuantity());
+        dto.setCostPrice(inventory.getAverageCost());
+        dto.setTotalValue(inventory.getTotalValue());
+        dto.setProductionDate(inventory.getProductionDate());
+        dto.setExpiryDate(inventory.getExpiryDate());
+        dto.setCreatedTime(inventory.getCreatedTime());
+        dto.setUpdatedTime(inventory.getUpdatedTime());
+        dto.setCreatedBy(inventory.getCreatedBy());
+        dto.setUpdatedBy(inventory.getUpdatedBy());
         
         // 设置仓库信息
         if (inventory.getWarehouse() != null) {
@@ -766,107 +1271,26 @@ public class InventoryServiceImpl implements InventoryService {
      * 生成库存状态
      */
     private InventoryDTO.InventoryStatus generateInventoryStatus(Inventory inventory) {
-        boolean isLowStock = false;
-        boolean isHighStock = false;
-        boolean isZeroStock = false;
-        boolean isNearExpiry = false;
-        boolean isExpired = false;
-        boolean hasLocked = inventory.getLockedQuantity().compareTo(BigDecimal.ZERO) > 0;
-
-        // 按优先级检查库存状态
-        if (inventory.getQuantity().compareTo(BigDecimal.ZERO) == 0) {
-            // 1. 零库存 - 最高优先级
-            isZeroStock = true;
-            isLowStock = false;
-            isHighStock = false;
-        } else if (inventory.getGoods() != null) {
-            // 2. 检查超量库存 - 第二优先级（增加15%预留空间）
-            if (inventory.getGoods().getMaxStock() != null) {
-                // 计算带15%预留的最大库存阈值
-                BigDecimal maxStockWithBuffer = inventory.getGoods().getMaxStock()
-                    .multiply(BigDecimal.valueOf(1.15)); // 增加15%预留
-
-                if (inventory.getQuantity().compareTo(maxStockWithBuffer) > 0) {
-                    isHighStock = true;
-                    isLowStock = false; // 超量时不算低库存
-                    isZeroStock = false;
-                }
-                // 3. 检查低库存 - 第三优先级（只有在不超量的情况下）
-                else if (inventory.getGoods().getMinStock() != null &&
-                         inventory.getQuantity().compareTo(inventory.getGoods().getMinStock()) < 0) {
-                    isLowStock = true;
-                    isHighStock = false;
-                    isZeroStock = false;
-                }
-                // 4. 正常状态 - 在最低库存和最高库存+15%之间
-                else {
-                    isLowStock = false;
-                    isHighStock = false;
-                    isZeroStock = false;
-                }
-            }
-            // 如果只设置了最低库存，没有设置最高库存
-            else if (inventory.getGoods().getMinStock() != null &&
-                     inventory.getQuantity().compareTo(inventory.getGoods().getMinStock()) < 0) {
-                isLowStock = true;
-                isHighStock = false;
-                isZeroStock = false;
-            }
-            // 没有设置库存限制的情况
-            else {
-                isLowStock = false;
-                isHighStock = false;
-                isZeroStock = false;
-            }
-        }
-
-        // 检查过期状态
-        if (inventory.getExpiryDate() != null) {
-            LocalDate now = LocalDate.now();
-            isExpired = inventory.getExpiryDate().isBefore(now);
-            isNearExpiry = !isExpired && inventory.getExpiryDate().isBefore(now.plusDays(30));
-        }
-
-        return new InventoryDTO.InventoryStatus(isLowStock, isHighStock, isZeroStock, isNearExpiry, isExpired, hasLocked);
+        Goods goods = inventory.getGoods();
+        return InventoryDTO.InventoryStatus.of(inventory.getQuantity(), inventory.getLockedQuantity(),
+                goods != null ? goods.getMinStock() : null, goods != null ? goods.getMaxStock() : null,
+                inventory.getExpiryDate());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryHistoryDTO> getInventoryHistory(Long inventoryId) {
-        System.out.println("=== 查询库存历史记录 ===");
-        System.out.println("库存ID: " + inventoryId);
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("库存记录不存在"));
 
-        Optional<Inventory> inventoryOpt = inventoryRepository.findById(inventoryId);
-        if (!inventoryOpt.isPresent()) {
-            throw new ResourceNotFoundException("库存记录不存在");
+        if (inventoryMovementRepository.existsByInventoryId(inventoryId)) {
+            return inventoryMovementRepository.findLatest(inventoryId, PageRequest.of(0, HISTORY_LIST_LIMIT)).stream()
+                    .map(movement -> convertMovementToHistory(movement, inventory))
+                    .collect(Collectors.toList());
         }
 
-        Inventory inventory = inventoryOpt.get();
-        System.out.println("库存记录 - 货物: " + inventory.getGoods().getName() +
-                         ", 仓库: " + inventory.getWarehouse().getName() +
-                         ", 当前数量: " + inventory.getQuantity());
-
-        // 查询与该库存相关的操作日志（包括所有业务类型）
+        // 流水表启用前的库存没有流水，仍从操作日志中还原
         List<OperationLog> operationLogs = operationLogRepository.findAllInventoryRelatedLogs(inventoryId);
-        System.out.println("找到操作日志数量: " + operationLogs.size());
-
-        // 同时查询所有相关的日志（用于调试）
-        List<OperationLog> allLogs = operationLogRepository.findByBusinessTypeAndBusinessIdAndDeletedFalseOrderByOperationTimeDesc("INBOUND", inventoryId);
-        System.out.println("INBOUND类型日志数量: " + allLogs.size());
-
-        List<OperationLog> inventoryLogs = operationLogRepository.findByBusinessTypeAndBusinessIdAndDeletedFalseOrderByOperationTimeDesc("INVENTORY", inventoryId);
-        System.out.println("INVENTORY类型日志数量: " + inventoryLogs.size());
-
-        // 打印每个日志的详细信息
-        for (int i = 0; i < Math.min(operationLogs.size(), 5); i++) {
-            OperationLog log = operationLogs.get(i);
-            System.out.println("日志" + (i+1) + " - ID: " + log.getId() +
-                             ", 操作类型: " + log.getOperationType() +
-                             ", 业务类型: " + log.getBusinessType() +
-                             ", 业务ID: " + log.getBusinessId() +
-                             ", 业务单据号: " + log.getBusinessNumber() +
-                             ", 操作时间: " + log.getOperationTime());
-        }
 
         // 如果没有找到操作日志，返回一些示例数据以便测试
         if (operationLogs.isEmpty()) {
@@ -902,6 +1326,59 @@ public class InventoryServiceImpl implements InventoryService {
         return historyList;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<InventoryHistoryDTO> getInventoryHistoryPage(Long inventoryId, Long cursor, int size) {
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("库存记录不存在"));
+        int pageSize = Math.max(1, Math.min(size, HISTORY_PAGE_MAX_SIZE));
+
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<InventoryMovement> movements;
+        if (cursor == null) {
+            movements = inventoryMovementRepository.findLatest(inventoryId, limit);
+        } else {
+            InventoryMovement last = inventoryMovementRepository.findById(cursor)
+                    .filter(movement -> movement.getInventoryId().equals(inventoryId))
+                    .orElseThrow(() -> new BusinessException("无效的分页游标"));
+            movements = inventoryMovementRepository.findBefore(inventoryId, last.getOperationTime(), last.getId(), limit);
+        }
+
+        boolean hasNext = movements.size() > pageSize;
+        if (hasNext) {
+            movements = movements.subList(0, pageSize);
+        }
+        List<InventoryHistoryDTO> content = movements.stream()
+                .map(movement -> convertMovementToHistory(movement, inventory))
+                .collect(Collectors.toList());
+        String nextCursor = hasNext ? String.valueOf(movements.get(movements.size() - 1).getId()) : null;
+        return new CursorPageResponse<>(content, pageSize, nextCursor);
+    }
+
+    /**
+     * 将库存流水转换为库存历史记录
+     */
+    private InventoryHistoryDTO convertMovementToHistory(InventoryMovement movement, Inventory inventory) {
+        InventoryHistoryDTO history = new InventoryHistoryDTO();
+        history.setId(movement.getId());
+        history.setInventoryId(movement.getInventoryId());
+        history.setOperationType(mapBusinessTypeToOperationType(movement.getBusinessType(), movement.getOperationType()));
+        history.setQuantity(movement.getChangeQuantity());
+        history.setBeforeQuantity(movement.getBeforeQuantity());
+        history.setAfterQuantity(movement.getAfterQuantity());
+        history.setReason(movement.getRemark());
+        history.setOperatedBy(movement.getOperatorName() != null ? movement.getOperatorName() : "系统");
+        history.setOperatedTime(movement.getOperationTime());
+        history.setRemark(movement.getOrderNumber());
+        history.setRelatedOrderNumber(movement.getOrderNumber());
+        history.setBusinessType(movement.getBusinessType());
+        history.setWarehouseName(inventory.getWarehouse().getName());
+        history.setGoodsName(inventory.getGoods().getName());
+        history.setGoodsCode(inventory.getGoods().getCode());
+        return history;
+    }
+
     /**
      * 将操作日志转换为库存历史记录
      */
@@ -1109,77 +1586,45 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
-    public byte[] exportInventoryToExcel(String keyword, Long warehouseId, Long categoryId, String stockStatus) {
-        try {
-            // 获取所有库存数据（不分页）
-            Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-            Page<Inventory> inventoryPage = inventoryRepository.findByFilters(keyword, warehouseId, categoryId, stockStatus, pageable);
-            List<Inventory> inventories = inventoryPage.getContent();
-
-            // 创建Excel工作簿
-            Workbook workbook = new XSSFWorkbook();
-            Sheet sheet = workbook.createSheet("库存报表");
-
-            // 创建标题行
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {
-                "序号", "仓库名称", "货物编码", "货物名称", "分类", "规格型号",
-                "单位", "当前库存", "可用库存", "锁定库存", "单价", "库存价值",
-                "库存状态", "更新时间"
-            };
-
-            CellStyle headerStyle = workbook.createCellStyle();
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            // 填充数据行
-            int rowNum = 1;
-            for (Inventory inventory : inventories) {
-                Row row = sheet.createRow(rowNum++);
-
-                row.createCell(0).setCellValue(rowNum - 1); // 序号
-                row.createCell(1).setCellValue(inventory.getWarehouse() != null ? inventory.getWarehouse().getName() : "");
-                row.createCell(2).setCellValue(inventory.getGoods() != null ? inventory.getGoods().getCode() : "");
-                row.createCell(3).setCellValue(inventory.getGoods() != null ? inventory.getGoods().getName() : "");
-                row.createCell(4).setCellValue(inventory.getGoods() != null && inventory.getGoods().getCategory() != null ?
-                    inventory.getGoods().getCategory().getName() : "");
-                row.createCell(5).setCellValue(inventory.getGoods() != null ? inventory.getGoods().getSpecification() : "");
-                row.createCell(6).setCellValue(inventory.getGoods() != null ? inventory.getGoods().getUnit() : "");
+    @Transactional(readOnly = true)
+    public void exportInventoryToExcel(String keyword, Long warehouseId, Long categoryId, String stockStatus,
+                                       OutputStream outputStream) {
+        String[] headers = {
+            "序号", "仓库名称", "货物编码", "货物名称", "分类", "规格型号",
+            "单位", "当前库存", "可用库存", "锁定库存", "单价", "库存价值",
+            "库存状态", "更新时间"
+        };
+        int[] columnWidths = {8, 20, 18, 30, 16, 24, 8, 12, 12, 12, 12, 14, 12, 18};
+        GoodsSearchIndex.KeywordFilter filter = goodsSearchIndex.keywordFilter(keyword);
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter("库存报表", headers, columnWidths);
+             Stream<InventoryDTO> inventories = inventoryRepository.streamByFilters(filter.getKeyword(),
+                     filter.isGoodsIdFilter(), filter.getGoodsIds(), warehouseId, categoryId, stockStatus)) {
+            Iterator<InventoryDTO> iterator = inventories.iterator();
+            while (iterator.hasNext()) {
+                InventoryDTO inventory = iterator.next();
+                Row row = writer.nextRow();
+                int rowNum = writer.getDataRowCount();
+
+                row.createCell(0).setCellValue(rowNum); // 序号
+                row.createCell(1).setCellValue(inventory.getWarehouseName() != null ? inventory.getWarehouseName() : "");
+                row.createCell(2).setCellValue(inventory.getGoodsCode() != null ? inventory.getGoodsCode() : "");
+                row.createCell(3).setCellValue(inventory.getGoodsName() != null ? inventory.getGoodsName() : "");
+                row.createCell(4).setCellValue(inventory.getCategoryName() != null ? inventory.getCategoryName() : "");
+                row.createCell(5).setCellValue(inventory.getSpecification() != null ? inventory.getSpecification() : "");
+                row.createCell(6).setCellValue(inventory.getGoodsUnit() != null ? inventory.getGoodsUnit() : "");
                 row.createCell(7).setCellValue(inventory.getQuantity().doubleValue());
                 row.createCell(8).setCellValue(inventory.getAvailableQuantity().doubleValue());
                 row.createCell(9).setCellValue(inventory.getLockedQuantity().doubleValue());
-                row.createCell(10).setCellValue(inventory.getAverageCost().doubleValue());
-                row.createCell(11).setCellValue(inventory.getQuantity().multiply(inventory.getAverageCost()).doubleValue());
-
-                // 生成库存状态
-                InventoryDTO.InventoryStatus status = generateInventoryStatus(inventory);
-                row.createCell(12).setCellValue(status.getStatusText());
+                row.createCell(10).setCellValue(inventory.getCostPrice() != null ? inventory.getCostPrice().doubleValue() : 0);
+                row.createCell(11).setCellValue(inventory.getTotalValue() != null ? inventory.getTotalValue().doubleValue() : 0);
+                row.createCell(12).setCellValue(inventory.getInventoryStatus().getStatusText());
                 row.createCell(13).setCellValue(inventory.getUpdatedTime() != null ?
-                    inventory.getUpdatedTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : "");
-            }
-
-            // 自动调整列宽
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                    inventory.getUpdatedTime().format(EXPORT_TIME_FORMATTER) : "");
             }
 
-            // 将工作簿写入字节数组
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            workbook.write(outputStream);
-            workbook.close();
-
-            return outputStream.toByteArray();
-
-        } catch (Exception e) {
+            writer.writeTo(outputStream);
+        } catch (IOException e) {
             throw new BusinessException("导出Excel失败: " + e.getMessage());
         }
     }
@@ -1245,26 +1690,44 @@ public class InventoryServiceImpl implements InventoryService {
                 return new InventoryDTO.StockInfo(BigDecimal.ZERO, BigDecimal.ZERO, "");
             }
 
-            // 计算总库存
-            BigDecimal totalStock = inventories.stream()
-                    .map(Inventory::getQuantity)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            // 计算加权平均价
-            BigDecimal totalValue = BigDecimal.ZERO;
-            BigDecimal totalQuantity = BigDecimal.ZERO;
-
-            for (Inventory inventory : inventories) {
-                if (inventory.getQuantity().compareTo(BigDecimal.ZERO) > 0 && inventory.getAverageCost() != null) {
-                    BigDecimal value = inventory.getQuantity().multiply(inventory.getAverageCost());
-                    totalValue = totalValue.add(value);
-                    totalQuantity = totalQuantity.add(inventory.getQuantity());
-                }
-            }
-
+            // 计算总库存和加权平均价：在定点整数上汇总（数量单位0.001，金额单位0.0000001），溢出时按 BigDecimal 计算
+            BigDecimal totalStock;
             BigDecimal weightedAveragePrice = BigDecimal.ZERO;
-            if (totalQuantity.compareTo(BigDecimal.ZERO) > 0) {
-                weightedAveragePrice = totalValue.divide(totalQuantity, 2, RoundingMode.HALF_UP);
+            try {
+                long totalStockUnits = 0;
+                long totalValueUnits = 0;
+                long totalQuantityUnits = 0;
+                for (Inventory inventory : inventories) {
+                    long quantityUnits = inventory.getQuantityUnits();
+                    totalStockUnits = Math.addExact(totalStockUnits, quantityUnits);
+                    if (quantityUnits > 0 && inventory.getAverageCostUnits() != FixedPoint.NULL) {
+                        totalValueUnits = Math.addExact(totalValueUnits,
+                                Math.multiplyExact(quantityUnits, inventory.getAverageCostUnits()));
+                        totalQuantityUnits = Math.addExact(totalQuantityUnits, quantityUnits);
+                    }
+                }
+                totalStock = BigDecimal.valueOf(totalStockUnits, FixedPoint.QUANTITY_SCALE);
+                if (totalQuantityUnits > 0) {
+                    // 金额(7位小数)÷数量(3位小数)得到4位小数，除数再乘100直接得到保留2位小数的结果
+                    weightedAveragePrice = BigDecimal.valueOf(
+                            FixedPoint.divideHalfUp(totalValueUnits, Math.multiplyExact(totalQuantityUnits, 100L)), 2);
+                }
+            } catch (ArithmeticException overflow) {
+                totalStock = inventories.stream()
+                        .map(Inventory::getQuantity)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+                BigDecimal totalValue = BigDecimal.ZERO;
+                BigDecimal totalQuantity = BigDecimal.ZERO;
+                for (Inventory inventory : inventories) {
+                    if (inventory.getQuantity().compareTo(BigDecimal.ZERO) > 0 && inventory.getAverageCost() != null) {
+                        totalValue = totalValue.add(inventory.getQuantity().multiply(inventory.getAverageCost()));
+                        totalQuantity = totalQuantity.add(inventory.getQuantity());
+                    }
+                }
+                if (totalQuantity.compareTo(BigDecimal.ZERO) > 0) {
+                    weightedAveragePrice = totalValue.divide(totalQuantity, 2, RoundingMode.HALF_UP);
+                }
             }
 
             // 获取单位
@@ -0,0 +1,300 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.dto.LiveUpdateMessage;
+import com.warehouse.event.InventoryAlertsChangedEvent;
+import com.warehouse.event.InventoryChangedEvent;
+import com.warehouse.event.OrderChangedEvent;
+import com.warehouse.repository.InventoryRepository;
+import com.warehouse.security.StompAuthenticationInterceptor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSubscription;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 实时推送发布器
+ * 库存、单据、预警变更事务提交后只记录变化的ID，每个合并窗口合并一次：按ID读取库存最新数量，
+ * 按仓库组装一条消息推送到 /topic/warehouses/{仓库ID}，并向 /topic/dashboard 推送刷新信号。
+ * 窗口内同一库存、同一单据多次变化只推送最后状态；没有订阅者的仓库不组装消息。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class LiveUpdatePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdatePublisher.class);
+
+    /**
+     * 按ID读取库存时每条 IN 查询的最大ID数
+     */
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final SimpUserRegistry userRegistry;
+
+    private final boolean enabled;
+
+    private final int maxStockDeltas;
+
+    private final int maxOrderDeltas;
+
+    private final int maxPendingInventories;
+
+    private final Counter messageCounter;
+
+    private final Counter truncatedCounter;
+
+    private final Object lock = new Object();
+
+    // 以下待推送变化由 lock 保护，flush 时整体换出
+
+    private Set<Long> pendingInventoryIds = new LinkedHashSet<>();
+
+    /**
+     * 待推送库存超过上限，本窗口不再逐条推送库存，改为通知所有仓库重新查询
+     */
+    private boolean inventoryOverflow;
+
+    private Map<Long, Map<String, LiveUpdateMessage.OrderDelta>> pendingOrders = new HashMap<>();
+
+    private Set<Long> pendingAlertWarehouses = new HashSet<>();
+
+    public LiveUpdatePublisher(NamedParameterJdbcTemplate jdbcTemplate, SimpMessagingTemplate messagingTemplate,
+                               SimpUserRegistry userRegistry, MeterRegistry meterRegistry,
+                               @Value("${warehouse.push.enabled:true}") boolean enabled,
+                               @Value("${warehouse.push.max-stock-deltas:200}") int maxStockDeltas,
+                               @Value("${warehouse.push.max-order-deltas:50}") int maxOrderDeltas,
+                               @Value("${warehouse.push.max-pending-inventories:10000}") int maxPendingInventories) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.enabled = enabled;
+        this.maxStockDeltas = maxStockDeltas;
+        this.maxOrderDeltas = maxOrderDeltas;
+        this.maxPendingInventories = maxPendingInventories;
+
+        this.messageCounter = Counter.builder("live.push.messages")
+                .description("实时推送消息数")
+                .register(meterRegistry);
+        this.truncatedCounter = Counter.builder("live.push.truncated")
+                .description("因超过单条消息上限而截断的推送消息数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 库存变更事务提交后记录变化的库存
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            if (inventoryOverflow) {
+                return;
+            }
+            pendingInventoryIds.addAll(event.getInventoryIds());
+            if (pendingInventoryIds.size() > maxPendingInventories) {
+                pendingInventoryIds = new LinkedHashSet<>();
+                inventoryOverflow = true;
+            }
+        }
+    }
+
+    /**
+     * 单据变更事务提交后记录单据最新状态
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        LiveUpdateMessage.OrderDelta delta = new LiveUpdateMessage.OrderDelta(
+                event.getOrderType(), event.getOrderId(), event.getOrderNumber(), event.getStatus());
+        synchronized (lock) {
+            for (Long warehouseId : event.getWarehouseIds()) {
+                pendingOrders.computeIfAbsent(warehouseId, id -> new LinkedHashMap<>())
+                        .put(event.getOrderType() + ":" + event.getOrderId(), delta);
+            }
+        }
+    }
+
+    /**
+     * 预警变化（预警计算器在自身事务提交后发布，不在原事务内）
+     */
+    @EventListener
+    public void onAlertsChanged(InventoryAlertsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            pendingAlertWarehouses.addAll(event.getWarehouseIds());
+        }
+    }
+
+    /**
+     * 合并窗口到期：换出待推送变化并推送
+     */
+    @Scheduled(fixedDelayString = "${warehouse.push.coalesce-window-ms:500}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> inventoryIds;
+        boolean overflow;
+        Map<Long, Map<String, LiveUpdateMessage.OrderDelta>> orders;
+        Set<Long> alertWarehouses;
+        synchronized (lock) {
+            if (pendingInventoryIds.isEmpty() && !inventoryOverflow && pendingOrders.isEmpty()
+                    && pendingAlertWarehouses.isEmpty()) {
+                return;
+            }
+            inventoryIds = pendingInventoryIds;
+            overflow = inventoryOverflow;
+            orders = pendingOrders;
+            alertWarehouses = pendingAlertWarehouses;
+            pendingInventoryIds = new LinkedHashSet<>();
+            inventoryOverflow = false;
+            pendingOrders = new HashMap<>();
+            pendingAlertWarehouses = new HashSet<>();
+        }
+
+        try {
+            Set<Long> subscribedWarehouses = new HashSet<>();
+            boolean dashboardSubscribed = collectSubscriptions(subscribedWarehouses);
+            if (subscribedWarehouses.isEmpty() && !dashboardSubscribed) {
+                return;
+            }
+
+            Map<Long, LiveUpdateMessage> messages = new LinkedHashMap<>();
+            boolean stockChanged = overflow || !inventoryIds.isEmpty();
+            if (overflow) {
+                for (Long warehouseId : subscribedWarehouses) {
+                    message(messages, warehouseId).setStocksTruncated(true);
+                }
+            } else if (!inventoryIds.isEmpty() && !subscribedWarehouses.isEmpty()) {
+                loadStockDeltas(new ArrayList<>(inventoryIds), subscribedWarehouses, messages);
+            }
+
+            for (Map.Entry<Long, Map<String, LiveUpdateMessage.OrderDelta>> entry : orders.entrySet()) {
+                if (!subscribedWarehouses.contains(entry.getKey())) {
+                    continue;
+                }
+                LiveUpdateMessage message = message(messages, entry.getKey());
+                for (LiveUpdateMessage.OrderDelta delta : entry.getValue().values()) {
+                    if (message.getOrders().size() >= maxOrderDeltas) {
+                        message.setOrdersTruncated(true);
+                        break;
+                    }
+                    message.getOrders().add(delta);
+                }
+                message.setTodosChanged(true);
+            }
+
+            for (Long warehouseId : alertWarehouses) {
+                if (subscribedWarehouses.contains(warehouseId)) {
+                    message(messages, warehouseId).setAlertsChanged(true);
+                }
+            }
+
+            for (LiveUpdateMessage message : messages.values()) {
+                message.setStatsChanged(!message.getStocks().isEmpty() || message.isStocksTruncated()
+                        || !message.getOrders().isEmpty());
+                send(StompAuthenticationInterceptor.WAREHOUSE_TOPIC_PREFIX + message.getWarehouseId(), message);
+            }
+
+            if (dashboardSubscribed) {
+                LiveUpdateMessage dashboard = new LiveUpdateMessage(null);
+                dashboard.setAlertsChanged(!alertWarehouses.isEmpty());
+                dashboard.setStatsChanged(stockChanged || !orders.isEmpty());
+                dashboard.setTodosChanged(!orders.isEmpty());
+                send(StompAuthenticationInterceptor.DASHBOARD_TOPIC, dashboard);
+            }
+        } catch (Exception e) {
+            // 推送失败不影响业务，客户端下次查询时可得到最新数据
+            logger.warn("实时推送失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 收集当前订阅的仓库ID，返回是否有人订阅仪表盘
+     */
+    private boolean collectSubscriptions(Set<Long> warehouseIds) {
+        boolean dashboard = false;
+        for (SimpSubscription subscription : userRegistry.findSubscriptions(s -> true)) {
+            String destination = subscription.getDestination();
+            if (StompAuthenticationInterceptor.DASHBOARD_TOPIC.equals(destination)) {
+                dashboard = true;
+            } else if (destination.startsWith(StompAuthenticationInterceptor.WAREHOUSE_TOPIC_PREFIX)) {
+                try {
+                    warehouseIds.add(Long.valueOf(destination.substring(
+                            StompAuthenticationInterceptor.WAREHOUSE_TOPIC_PREFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // 订阅时已校验，不会出现
+                }
+            }
+        }
+        return dashboard;
+    }
+
+    /**
+     * 按ID读取库存最新数量，放入所属仓库的消息；每个仓库超过上限的部分只标记截断
+     */
+    private void loadStockDeltas(List<Long> inventoryIds, Set<Long> subscribedWarehouses,
+                                 Map<Long, LiveUpdateMessage> messages) {
+        for (int from = 0; from < inventoryIds.size(); from += RELOAD_BATCH_SIZE) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids",
+                    inventoryIds.subList(from, Math.min(from + RELOAD_BATCH_SIZE, inventoryIds.size())));
+            jdbcTemplate.query(InventoryRepository.AVAILABILITY_SNAPSHOT_SQL + " WHERE id IN (:ids)", params, rs -> {
+                long warehouseId = rs.getLong("warehouse_id");
+                if (!subscribedWarehouses.contains(warehouseId)) {
+                    return;
+                }
+                LiveUpdateMessage message = message(messages, warehouseId);
+                if (message.getStocks().size() >= maxStockDeltas) {
+                    message.setStocksTruncated(true);
+                    return;
+                }
+                message.getStocks().add(new LiveUpdateMessage.StockDelta(
+                        rs.getLong("id"), rs.getLong("goods_id"), rs.getBigDecimal("quantity"),
+                        rs.getBigDecimal("available_quantity"), rs.getBigDecimal("locked_quantity"),
+                        rs.getBoolean("deleted")));
+            });
+        }
+    }
+
+    private void send(String destination, LiveUpdateMessage message) {
+        messagingTemplate.convertAndSend(destination, message);
+        messageCounter.increment();
+        if (message.isStocksTruncated() || message.isOrdersTruncated()) {
+            truncatedCounter.increment();
+        }
+    }
+
+    private static LiveUpdateMessage message(Map<Long, LiveUpdateMessage> messages, Long warehouseId) {
+        return messages.computeIfAbsent(warehouseId, LiveUpdateMessage::new);
+    }
+}
@@ -1,7 +1,9 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.OperationLogDTO;
 import com.warehouse.dto.PageResponse;
+import com.warehouse.dto.SeekCursor;
 import com.warehouse.entity.OperationLog;
 import com.warehouse.entity.User;
 import com.warehouse.entity.Warehouse;
@@ -9,7 +11,6 @@ import com.warehouse.repository.OperationLogRepository;
 import com.warehouse.repository.UserRepository;
 import com.warehouse.repository.WarehouseRepository;
 import com.warehouse.service.OperationLogService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -31,6 +32,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class OperationLogServiceImpl implements OperationLogService {
 
+    /**
+     * 操作日志游标分页的排序字段（操作时间倒序）
+     */
+    private static final String CURSOR_SORT_KEY = "operationTime";
+
     @Autowired
     private OperationLogRepository operationLogRepository;
 
@@ -40,6 +46,9 @@ public class OperationLogServiceImpl implements OperationLogService {
     @Autowired
     private WarehouseRepository warehouseRepository;
 
+    @Autowired
+    private OperationLogWriter operationLogWriter;
+
     @Override
     public OperationLogDTO createOperationLog(OperationLogDTO.CreateRequest request) {
         User operator = userRepository.findById(request.getOperatorId())
@@ -150,11 +159,30 @@ public class OperationLogServiceImpl implements OperationLogService {
         return new PageResponse<>(content, page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OperationLogDTO> findByCursor(String keyword, String cursor, int size, boolean withTotal) {
+        SeekCursor after = SeekCursor.decode(cursor, CURSOR_SORT_KEY);
+        int pageSize = CursorPageResponse.pageSize(size);
+
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<OperationLog> logs = after == null
+                ? operationLogRepository.findByKeywordFirst(keyword, limit)
+                : operationLogRepository.findByKeywordAfter(keyword, after.getSortValue(), after.getId(), limit);
+        CursorPageResponse<OperationLogDTO> response = CursorPageResponse.of(logs, pageSize, this::convertToDTO,
+                log -> SeekCursor.of(CURSOR_SORT_KEY, log.getOperationTime(), log.getId()));
+        if (withTotal) {
+            response.setTotalElements(operationLogRepository.countByKeyword(keyword));
+        }
+        return response;
+    }
+
     @Override
     public void recordLoginLog(User user, String ipAddress, String userAgent) {
         try {
             OperationLog log = OperationLog.createLoginLog(user, ipAddress, userAgent);
-            operationLogRepository.save(log);
+            operationLogWriter.submit(log);
         } catch (Exception e) {
             // 日志记录失败不影响主业务
             System.err.println("记录登录日志失败: " + e.getMessage());
@@ -165,7 +193,7 @@ public class OperationLogServiceImpl implements OperationLogService {
     public void recordLogoutLog(User user, String ipAddress) {
         try {
             OperationLog log = OperationLog.createLogoutLog(user, ipAddress);
-            operationLogRepository.save(log);
+            operationLogWriter.submit(log);
         } catch (Exception e) {
             // 日志记录失败不影响主业务
             System.err.println("记录登出日志失败: " + e.getMessage());
@@ -185,7 +213,7 @@ public class OperationLogServiceImpl implements OperationLogService {
             log.setRequestUri(requestUri);
             log.setRequestMethod(requestMethod);
             log.setRequestParams(requestParams);
-            operationLogRepository.save(log);
+            operationLogWriter.submit(log);
         } catch (Exception e) {
             // 日志记录失败不影响主业务
             System.err.println("记录业务日志失败: " + e.getMessage());
@@ -196,7 +224,7 @@ public class OperationLogServiceImpl implements OperationLogService {
     public void recordSimpleLog(User user, String operationType, String operationDesc) {
         try {
             OperationLog log = new OperationLog(user, operationType, operationDesc);
-            operationLogRepository.save(log);
+            operationLogWriter.submit(log);
         } catch (Exception e) {
             // 日志记录失败不影响主业务
             System.err.println("记录操作日志失败: " + e.getMessage());
@@ -247,7 +275,23 @@ public class OperationLogServiceImpl implements OperationLogService {
      */
     private OperationLogDTO convertToDTO(OperationLog log) {
         OperationLogDTO dto = new OperationLogDTO();
-        BeanUtils.copyProperties(log, dto);
+        dto.setId(log.getId());
+        dto.setOperationType(log.getOperationType());
+        dto.setOperationDesc(log.getOperationDesc());
+        dto.setBusinessType(log.getBusinessType());
+        dto.setBusinessId(log.getBusinessId());
+        dto.setBusinessNumber(log.getBusinessNumber());
+        dto.setOperationTime(log.getOperationTime());
+        dto.setIpAddress(log.getIpAddress());
+        dto.setUserAgent(log.getUserAgent());
+        dto.setRequestUri(log.getRequestUri());
+        dto.setRequestMethod(log.getRequestMethod());
+        dto.setRequestParams(log.getRequestParams());
+        dto.setResponseResult(log.getResponseResult());
+        dto.setErrorMessage(log.getErrorMessage());
+        dto.setExecutionTime(log.getExecutionTime());
+        dto.setCreatedTime(log.getCreatedTime());
+        dto.setUpdatedTime(log.getUpdatedTime());
 
         if (log.getOperator() != null) {
             dto.setOperatorId(log.getOperator().getId());
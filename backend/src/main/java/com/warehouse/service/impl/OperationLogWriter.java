@@ -0,0 +1,292 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.entity.OperationLog;
+import com.warehouse.repository.OperationLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 操作日志写入器
+ * 业务关键日志（库存变动等）随业务事务写入：同一事务内的日志先缓存，提交前在保存点内一次批量插入，
+ * 与业务数据一起提交；插入失败时回滚到保存点并记录错误，不影响业务事务提交。缓存随事务挂起和恢复，
+ * REQUIRES_NEW 内层事务的日志只随内层事务提交。审计类日志（登录、登出等）进入有界队列，由专用线程按条数或时间阈值批量写入。
+ * 队列满时调用方最多等待一段时间，仍然放不进去就在调用线程直接写入，不丢日志；停机时写完队列中剩余日志。
+ *
+ * @author Warehouse Team
+ */
+@Component
+public class OperationLogWriter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationLogWriter.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final BlockingQueue<MapSqlParameterSource> queue;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final long offerTimeoutMillis;
+
+    private final Thread writerThread;
+
+    private final Counter writtenCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter callerRunsCounter;
+
+    private volatile boolean running = true;
+
+    public OperationLogWriter(NamedParameterJdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${warehouse.operation-log.queue-capacity:10000}") int queueCapacity,
+                              @Value("${warehouse.operation-log.batch-size:200}") int batchSize,
+                              @Value("${warehouse.operation-log.flush-interval-ms:500}") long flushIntervalMillis,
+                              @Value("${warehouse.operation-log.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        Gauge.builder("operation.log.queue.size", queue, BlockingQueue::size)
+                .description("待写入的异步操作日志条数")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("operation.log.written")
+                .description("写入的操作日志条数")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("operation.log.failed")
+                .description("写入失败被丢弃的操作日志条数")
+                .register(meterRegistry);
+        this.callerRunsCounter = Counter.builder("operation.log.caller.runs")
+                .description("队列已满时由调用线程直接写入的操作日志条数")
+                .register(meterRegistry);
+
+        this.writerThread = new Thread(this::runWriter, "operation-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 写入业务关键日志：存在事务时在提交前与业务数据一起批量写入；没有事务时直接写入。写入失败只记录错误，不抛出
+     */
+    public void writeInTransaction(List<OperationLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeQuietly(toParams(logs));
+            return;
+        }
+        List<MapSqlParameterSource> pending = pendingLogs();
+        pending.addAll(toParams(logs));
+    }
+
+    /**
+     * 写入单条业务关键日志
+     */
+    public void writeInTransaction(OperationLog log) {
+        writeInTransaction(List.of(log));
+    }
+
+    /**
+     * 提交审计日志，异步批量写入
+     */
+    public void submit(OperationLog log) {
+        MapSqlParameterSource params = toParams(log);
+        try {
+            if (queue.offer(params, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 队列持续积压时由调用线程写入，降低提交速度
+        callerRunsCounter.increment();
+        writeQuietly(List.of(params));
+    }
+
+    /**
+     * 当前事务待写入的日志；首次使用时注册事务回调。
+     * 事务挂起时解绑缓存、恢复时重新绑定，内层 REQUIRES_NEW 事务使用自己的缓存。
+     */
+    @SuppressWarnings("unchecked")
+    private List<MapSqlParameterSource> pendingLogs() {
+        List<MapSqlParameterSource> pending =
+                (List<MapSqlParameterSource>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<MapSqlParameterSource> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(OperationLogWriter.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(OperationLogWriter.this, buffer);
+                }
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!buffer.isEmpty()) {
+                        insertInSavepoint(new ArrayList<>(buffer));
+                        buffer.clear();
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OperationLogWriter.this);
+                }
+            });
+            pending = buffer;
+        }
+        return pending;
+    }
+
+    /**
+     * 在业务事务的连接上以保存点包裹批量插入：失败时只撤销本批日志，业务数据照常提交
+     */
+    private void insertInSavepoint(List<MapSqlParameterSource> batch) {
+        try {
+            jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+                Savepoint savepoint = connection.setSavepoint();
+                try {
+                    insert(batch);
+                } catch (RuntimeException e) {
+                    connection.rollback(savepoint);
+                    throw e;
+                }
+                connection.releaseSavepoint(savepoint);
+                return null;
+            });
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("事务内写入操作日志失败，丢弃{}条: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 写入线程：取到第一条后在刷新间隔内凑满一批再写入
+     */
+    private void runWriter() {
+        List<MapSqlParameterSource> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                MapSqlParameterSource first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    MapSqlParameterSource next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                writeQuietly(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeQuietly(batch);
+        }
+    }
+
+    /**
+     * 停机时停止写入线程并写完队列中剩余的日志
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        // 不中断写入线程，避免打断正在执行的批量插入；线程最多等待一个刷新间隔后退出
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<MapSqlParameterSource> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            writeQuietly(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    private void writeQuietly(List<MapSqlParameterSource> batch) {
+        try {
+            insert(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("批量写入操作日志失败，丢弃{}条: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private void insert(List<MapSqlParameterSource> batch) {
+        jdbcTemplate.batchUpdate(OperationLogRepository.INSERT_SQL, batch.toArray(new MapSqlParameterSource[0]));
+    }
+
+    private List<MapSqlParameterSource> toParams(List<OperationLog> logs) {
+        List<MapSqlParameterSource> params = new ArrayList<>(logs.size());
+        for (OperationLog log : logs) {
+            params.add(toParams(log));
+        }
+        return params;
+    }
+
+    /**
+     * 提交时即取出关联实体的ID，队列中不持有实体对象
+     */
+    private MapSqlParameterSource toParams(OperationLog log) {
+        return new MapSqlParameterSource()
+                .addValue("operatorId", log.getOperator() != null ? log.getOperator().getId() : null)
+                .addValue("operationType", log.getOperationType())
+                .addValue("operationDesc", truncate(log.getOperationDesc(), 500))
+                .addValue("businessType", log.getBusinessType())
+                .addValue("businessId", log.getBusinessId())
+                .addValue("businessNumber", log.getBusinessNumber())
+                .addValue("warehouseId", log.getWarehouse() != null ? log.getWarehouse().getId() : null)
+                .addValue("operationTime", log.getOperationTime())
+                .addValue("ipAddress", truncate(log.getIpAddress(), 50))
+                .addValue("userAgent", truncate(log.getUserAgent(), 500))
+                .addValue("requestUri", truncate(log.getRequestUri(), 200))
+                .addValue("requestMethod", log.getRequestMethod())
+                .addValue("requestParams", truncate(log.getRequestParams(), 2000))
+                .addValue("responseResult", log.getResponseResult())
+                .addValue("errorMessage", truncate(log.getErrorMessage(), 1000))
+                .addValue("executionTime", log.getExecutionTime());
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
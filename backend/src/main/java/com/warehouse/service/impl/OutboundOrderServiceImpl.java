@@ -1,19 +1,27 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.EvictOrderCaches;
+import com.warehouse.config.RetryOnOptimisticLock;
+import com.warehouse.dto.CursorPageResponse;
 import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.OutboundOrderDTO;
 import com.warehouse.dto.PageResponse;
+import com.warehouse.dto.SeekCursor;
 import com.warehouse.entity.*;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.BusinessType;
+import com.warehouse.event.OrderChangedEvent;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.*;
 import com.warehouse.service.OutboundOrderService;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.InventoryService;
-import org.springframework.beans.BeanUtils;
+import com.warehouse.service.SequenceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -24,7 +32,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -37,6 +48,16 @@ import java.util.stream.Collectors;
 @Transactional
 public class OutboundOrderServiceImpl implements OutboundOrderService {
 
+    /**
+     * 出库单列表游标分页的排序字段（创建时间倒序）
+     */
+    private static final String CURSOR_SORT_KEY = "createdTime";
+
+    /**
+     * 批量加载明细时每次查询的单据数量上限
+     */
+    private static final int DETAIL_BATCH_SIZE = 500;
+
     @Autowired
     private OutboundOrderRepository outboundOrderRepository;
 
@@ -57,10 +78,20 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
     @Autowired
     private InventoryRepository inventoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @EvictOrderCaches
     public OutboundOrderDTO createOutboundOrder(OutboundOrderDTO.CreateRequest request) {
         // 验证仓库是否存在
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
@@ -106,6 +137,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         order.setTotalQuantity(totalQuantity);
 
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
 
         // 创建出库单明细
         for (OutboundOrderDTO.OutboundOrderDetailDTO detailDTO : request.getDetails()) {
@@ -129,6 +161,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
 
     @Override
     @Transactional
+    @EvictOrderCaches
     public OutboundOrderDTO createOutboundOrderWithoutStockCheck(OutboundOrderDTO.CreateRequest request) {
         // 验证仓库是否存在
         Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
@@ -169,6 +202,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
 
         // 保存出库单
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
 
         // 创建出库单明细
         for (OutboundOrderDTO.OutboundOrderDetailDTO detailDTO : request.getDetails()) {
@@ -191,6 +225,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
     }
 
     @Override
+    @EvictOrderCaches
     public OutboundOrderDTO updateOutboundOrder(Long id, OutboundOrderDTO.UpdateRequest request) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -259,10 +294,12 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         }
 
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public void deleteOutboundOrder(Long id) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -274,6 +311,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
 
         order.setDeleted(true);
         outboundOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -294,88 +332,103 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findAll() {
-        return outboundOrderRepository.findAll()
+        return convertToDTOs(outboundOrderRepository.findAll()
                 .stream()
                 .filter(order -> !order.getDeleted())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findByWarehouse(Long warehouseId) {
-        return outboundOrderRepository.findByWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(warehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findByWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(warehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findByCustomer(Long customerId) {
-        return outboundOrderRepository.findByCustomerIdAndDeletedFalseOrderByCreatedTimeDesc(customerId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findByCustomerIdAndDeletedFalseOrderByCreatedTimeDesc(customerId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findByStatus(ApprovalStatus status) {
-        return outboundOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findByBusinessType(BusinessType businessType) {
-        return outboundOrderRepository.findByBusinessTypeAndDeletedFalseOrderByCreatedTimeDesc(businessType)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findByBusinessTypeAndDeletedFalseOrderByCreatedTimeDesc(businessType));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findPendingOrders() {
-        return outboundOrderRepository.findPendingOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findPendingOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findPendingOrdersByWarehouse(Long warehouseId) {
-        return outboundOrderRepository.findPendingOrdersByWarehouse(warehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findPendingOrdersByWarehouse(warehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findApprovedButNotExecuted() {
-        return outboundOrderRepository.findApprovedButNotExecuted()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findApprovedButNotExecuted());
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OutboundOrderDTO> findByPage(String keyword, Pageable pageable) {
         Page<OutboundOrder> page = outboundOrderRepository.findByKeyword(keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OutboundOrderDTO> findByPageWithFilters(String keyword, String orderNumber, Long warehouseId,
             BusinessType businessType, ApprovalStatus status, String startDate, String endDate, Pageable pageable) {
-        // 获取当前用户并应用权限控制
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        Page<OutboundOrder> page = outboundOrderRepository.findByFilters(
+                keyword, orderNumber, finalWarehouseId, businessType, status, startDate, endDate, pageable);
+        return PageResponse.of(page, this::convertToDTOs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OutboundOrderDTO> findByCursorWithFilters(String keyword, String orderNumber, Long warehouseId,
+            BusinessType businessType, ApprovalStatus status, String startDate, String endDate,
+            String cursor, int size, boolean withTotal) {
+        Long finalWarehouseId = resolveAccessibleWarehouseId(warehouseId);
+        SeekCursor after = SeekCursor.decode(cursor, CURSOR_SORT_KEY);
+        int pageSize = CursorPageResponse.pageSize(size);
+
+        // 多取一条用于判断是否还有下一页
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<OutboundOrder> orders = after == null
+                ? outboundOrderRepository.findByFiltersFirst(
+                        keyword, orderNumber, finalWarehouseId, businessType, status, startDate, endDate, limit)
+                : outboundOrderRepository.findByFiltersAfter(
+                        keyword, orderNumber, finalWarehouseId, businessType, status, startDate, endDate,
+                        after.getSortValue(), after.getId(), limit);
+        Map<Long, List<OutboundOrderDetail>> details = findDetailsByOrders(orders);
+        CursorPageResponse<OutboundOrderDTO> response = CursorPageResponse.of(orders, pageSize,
+                order -> convertToDTO(order, details.getOrDefault(order.getId(), List.of())),
+                order -> SeekCursor.of(CURSOR_SORT_KEY, order.getCreatedTime(), order.getId()));
+        if (withTotal) {
+            response.setTotalElements(outboundOrderRepository.countByFilters(
+                    keyword, orderNumber, finalWarehouseId, businessType, status, startDate, endDate));
+        }
+        return response;
+    }
+
+    /**
+     * 确定当前用户可查询的仓库：管理员、队长、班长不受限制；其他用户未指定仓库时使用其第一个仓库，指定了无权限的仓库时抛出异常
+     */
+    private Long resolveAccessibleWarehouseId(Long warehouseId) {
         Long finalWarehouseId = warehouseId;
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof org.springframework.security.core.userdetails.UserDetails) {
@@ -413,36 +466,32 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
             }
         }
 
-        Page<OutboundOrder> page = outboundOrderRepository.findByFilters(
-                keyword, orderNumber, finalWarehouseId, businessType, status, startDate, endDate, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return finalWarehouseId;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OutboundOrderDTO> findByWarehouseAndPage(Long warehouseId, String keyword, Pageable pageable) {
         Page<OutboundOrder> page = outboundOrderRepository.findByWarehouseAndKeyword(warehouseId, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<OutboundOrderDTO> findByStatusAndPage(ApprovalStatus status, String keyword, Pageable pageable) {
         Page<OutboundOrder> page = outboundOrderRepository.findByStatusAndKeyword(status, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findByDateRange(LocalDate startDate, LocalDate endDate) {
-        return outboundOrderRepository.findByDateRange(startDate, endDate)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findByDateRange(startDate, endDate));
     }
 
     @Override
     @Transactional
+    @EvictOrderCaches
     public OutboundOrderDTO submitOutboundOrder(Long id) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -470,11 +519,14 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         order.setUpdatedTime(LocalDateTime.now());
 
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
     @Transactional
+    @EvictOrderCaches
+    @RetryOnOptimisticLock
     public OutboundOrderDTO approveOutboundOrder(Long id, OutboundOrderDTO.ApprovalRequest request) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -504,6 +556,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         }
 
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
@@ -591,6 +644,8 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
     }
 
     @Override
+    @EvictOrderCaches
+    @RetryOnOptimisticLock
     public OutboundOrderDTO executeOutboundOrder(Long id) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -600,34 +655,13 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
             throw new BusinessException("只有完成所有审批流程的出库单才能执行出库操作，当前状态：" + order.getStatus().getDisplayName());
         }
 
-        // 执行出库操作
+        // 执行出库操作：释放审批时锁定的库存并出库，所有明细一次加载、批量写回
         List<OutboundOrderDetail> details = outboundOrderDetailRepository.findByOutboundOrderId(id);
-        for (OutboundOrderDetail detail : details) {
-            // 查找对应的库存记录
-            Optional<Inventory> inventoryOpt = inventoryRepository.findByWarehouseIdAndGoodsId(
-                order.getWarehouse().getId(), detail.getGoods().getId());
-
-            if (inventoryOpt.isPresent()) {
-                Inventory inventory = inventoryOpt.get();
-
-                // 先解锁库存
-                InventoryDTO.UnlockRequest unlockRequest = new InventoryDTO.UnlockRequest();
-                unlockRequest.setInventoryId(inventory.getId());
-                unlockRequest.setUnlockQuantity(detail.getQuantity());
-                unlockRequest.setReason("出库单执行，解锁库存：" + order.getOrderNumber());
-
-                inventoryService.unlockInventory(unlockRequest);
-
-                // 再执行出库
-                inventoryService.outboundInventory(
-                        order.getWarehouse().getId(),
-                        detail.getGoods().getId(),
-                        detail.getQuantity()
-                );
-            } else {
-                throw new BusinessException("货物 " + detail.getGoods().getName() + " 库存记录不存在，无法执行出库");
-            }
-        }
+        List<InventoryDTO.StockMovement> movements = details.stream()
+                .map(detail -> new InventoryDTO.StockMovement(detail.getGoods().getId(), detail.getQuantity()))
+                .collect(Collectors.toList());
+        inventoryService.batchOutbound(order.getWarehouse().getId(), movements, true,
+                "OUTBOUND", order.getOrderNumber());
 
         // 更新出库单状态为已执行
         order.setStatus(ApprovalStatus.EXECUTED);
@@ -635,10 +669,13 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         order.setActualDate(LocalDate.now());
 
         order = outboundOrderRepository.save(order);
+        publishOrderChanged(order);
+        dailyBusinessStatsService.recordOutboundOrder(order, details);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public void cancelOutboundOrder(Long id, String reason) {
         OutboundOrder order = outboundOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("出库单", "id", id));
@@ -653,6 +690,7 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         order.setApprovalTime(LocalDateTime.now());
 
         outboundOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -663,45 +701,20 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
 
     @Override
     public String generateOrderNumber() {
-        // 使用Java代码生成订单号：OUT + 年月日 + 3位序号
-        String dateStr = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "OUT" + dateStr;
-
-        // 查找今天已有的最大序号
-        List<OutboundOrder> todayOrders = outboundOrderRepository.findByOrderNumberStartingWithOrderByOrderNumberDesc(prefix);
-
-        int nextSeq = 1;
-        if (!todayOrders.isEmpty()) {
-            String lastOrderNumber = todayOrders.get(0).getOrderNumber();
-            if (lastOrderNumber.length() >= prefix.length() + 3) {
-                try {
-                    String seqStr = lastOrderNumber.substring(prefix.length());
-                    nextSeq = Integer.parseInt(seqStr) + 1;
-                } catch (NumberFormatException e) {
-                    nextSeq = 1;
-                }
-            }
-        }
-
-        return prefix + String.format("%03d", nextSeq);
+        // 订单号：OUT + 年月日 + 至少3位序号，序号由序号服务分配，并发创建不会重复
+        return sequenceService.nextDailyNumber("OUT", outboundOrderRepository::findMaxOrderNumberStartingWith);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findTodayOrders() {
-        return outboundOrderRepository.findTodayOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findTodayOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OutboundOrderDTO> findOverdueOrders() {
-        return outboundOrderRepository.findOverdueOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(outboundOrderRepository.findOverdueOrders());
     }
 
     @Override
@@ -733,12 +746,67 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         return outboundOrderRepository.sumAmountByWarehouseAndDateRange(warehouseId, startDate, endDate);
     }
 
+    /**
+     * 发布单据变更事件，事务提交后推送给订阅相关仓库的客户端
+     */
+    private void publishOrderChanged(OutboundOrder order) {
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.TYPE_OUTBOUND, order.getId(), order.getOrderNumber(),
+                Boolean.TRUE.equals(order.getDeleted()) ? null : order.getStatus(),
+                List.of(order.getWarehouse().getId())));
+    }
+
     /**
      * 转换为DTO
      */
     private OutboundOrderDTO convertToDTO(OutboundOrder order) {
+        return convertToDTO(order, outboundOrderDetailRepository.findByOutboundOrderId(order.getId()));
+    }
+
+    /**
+     * 批量转换为DTO：一次查询加载所有出库单的明细及货物，不再逐单查询明细
+     */
+    private List<OutboundOrderDTO> convertToDTOs(List<OutboundOrder> orders) {
+        Map<Long, List<OutboundOrderDetail>> details = findDetailsByOrders(orders);
+        return orders.stream()
+                .map(order -> convertToDTO(order, details.getOrDefault(order.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按出库单分组加载明细，每次查询最多 DETAIL_BATCH_SIZE 张出库单
+     */
+    private Map<Long, List<OutboundOrderDetail>> findDetailsByOrders(List<OutboundOrder> orders) {
+        List<Long> orderIds = orders.stream().map(OutboundOrder::getId).collect(Collectors.toList());
+        Map<Long, List<OutboundOrderDetail>> details = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += DETAIL_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + DETAIL_BATCH_SIZE, orderIds.size()));
+            for (OutboundOrderDetail detail : outboundOrderDetailRepository.findWithGoodsByOutboundOrderIdIn(batch)) {
+                details.computeIfAbsent(detail.getOutboundOrder().getId(), id -> new ArrayList<>()).add(detail);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * 转换为DTO（明细由调用方提供）
+     */
+    private OutboundOrderDTO convertToDTO(OutboundOrder order, List<OutboundOrderDetail> details) {
         OutboundOrderDTO dto = new OutboundOrderDTO();
-        BeanUtils.copyProperties(order, dto);
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setBusinessType(order.getBusinessType());
+        dto.setStatus(order.getStatus());
+        dto.setReferenceNumber(order.getReferenceNumber());
+        dto.setPlannedDate(order.getPlannedDate());
+        dto.setActualDate(order.getActualDate());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setRemark(order.getRemark());
+        dto.setApprovalTime(order.getApprovalTime());
+        dto.setApprovalRemark(order.getApprovalRemark());
+        dto.setOperationTime(order.getOperationTime());
+        dto.setCreatedTime(order.getCreatedTime());
+        dto.setUpdatedTime(order.getUpdatedTime());
+        dto.setUpdatedBy(order.getUpdatedBy());
         
         // 设置仓库信息
         if (order.getWarehouse() != null) {
@@ -774,7 +842,6 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
         }
 
         // 设置明细信息
-        List<OutboundOrderDetail> details = outboundOrderDetailRepository.findByOutboundOrderId(order.getId());
         List<OutboundOrderDTO.OutboundOrderDetailDTO> detailDTOs = details.stream()
                 .map(this::convertDetailToDTO)
                 .collect(Collectors.toList());
@@ -794,7 +861,11 @@ public class OutboundOrderServiceImpl implements OutboundOrderService {
      */
     private OutboundOrderDTO.OutboundOrderDetailDTO convertDetailToDTO(OutboundOrderDetail detail) {
         OutboundOrderDTO.OutboundOrderDetailDTO dto = new OutboundOrderDTO.OutboundOrderDetailDTO();
-        BeanUtils.copyProperties(detail, dto);
+        dto.setId(detail.getId());
+        dto.setQuantity(detail.getQuantity());
+        dto.setUnitPrice(detail.getUnitPrice());
+        dto.setAmount(detail.getAmount());
+        dto.setRemark(detail.getRemark());
 
         if (detail.getGoods() != null) {
             dto.setGoodsId(detail.getGoods().getId());
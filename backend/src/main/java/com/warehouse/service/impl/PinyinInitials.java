@@ -0,0 +1,94 @@
+package com.warehouse.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+
+/**
+ * 汉字拼音首字母
+ * GB2312 一级汉字（3755个常用字）按拼音排序，根据区位码所在区间即可得到拼音首字母，不需要拼音字典；
+ * 二级汉字按部首排序，无法确定首字母，保留原字。启动时一次性生成 CJK 基本区的首字母表。
+ *
+ * @author Warehouse Team
+ */
+public final class PinyinInitials {
+
+    private static final char CJK_FIRST = '一';
+
+    private static final char CJK_LAST = '龥';
+
+    /**
+     * 各首字母在 GB2312 一级汉字中的起始区位码（最后一项为一级汉字结束位置）
+     */
+    private static final int[] SECTION_STARTS = {
+            1601, 1637, 1833, 2078, 2274, 2302, 2433, 2594, 2787, 3106, 3212, 3472,
+            3635, 3722, 3730, 3858, 4027, 4086, 4390, 4558, 4684, 4925, 5249, 5590
+    };
+
+    private static final char[] SECTION_LETTERS = "abcdefghjklmnopqrstwxyz".toCharArray();
+
+    /**
+     * CJK 基本区每个汉字的首字母，0 表示无法确定
+     */
+    private static final char[] INITIALS = buildTable();
+
+    private PinyinInitials() {
+    }
+
+    /**
+     * 生成拼音首字母串：一级汉字替换为首字母，字母转为小写，其余字符原样保留
+     */
+    public static String of(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char initial = c >= CJK_FIRST && c <= CJK_LAST ? INITIALS[c - CJK_FIRST] : 0;
+            builder.append(initial != 0 ? initial : Character.toLowerCase(c));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 判断是否为 CJK 基本区汉字
+     */
+    public static boolean isCjk(char c) {
+        return c >= CJK_FIRST && c <= CJK_LAST;
+    }
+
+    private static char[] buildTable() {
+        char[] table = new char[CJK_LAST - CJK_FIRST + 1];
+        if (!Charset.isSupported("GB2312")) {
+            return table;
+        }
+        CharsetEncoder encoder = Charset.forName("GB2312").newEncoder();
+        for (char c = CJK_FIRST; c <= CJK_LAST; c++) {
+            try {
+                ByteBuffer bytes = encoder.encode(CharBuffer.wrap(new char[]{c}));
+                if (bytes.remaining() == 2) {
+                    int position = ((bytes.get(0) & 0xFF) - 160) * 100 + ((bytes.get(1) & 0xFF) - 160);
+                    table[c - CJK_FIRST] = initialOf(position);
+                }
+            } catch (CharacterCodingException e) {
+                // 不在 GB2312 中的字没有首字母
+            }
+        }
+        return table;
+    }
+
+    private static char initialOf(int position) {
+        if (position < SECTION_STARTS[0] || position >= SECTION_STARTS[SECTION_STARTS.length - 1]) {
+            return 0;
+        }
+        for (int i = SECTION_LETTERS.length - 1; i >= 0; i--) {
+            if (position >= SECTION_STARTS[i]) {
+                return SECTION_LETTERS[i];
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.entity.DailyBusinessStat;
+import com.warehouse.repository.StocktakeOrderRepository;
+import com.warehouse.service.DailyBusinessStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 报表引擎
+ * 出入库、调拨数据从每日业务统计表读取，与概览、热力图口径一致：只统计已执行的单据，按实际执行日期归属；
+ * 整个日期范围一次分组查询（可选仓库），再在内存中补齐没有业务数据的日期，避免逐日查询带来的大量数据库往返。
+ * 盘点单不在统计表中，按计划日期单独分组查询。
+ *
+ * @author Warehouse Team
+ */
+@Component
+@Transactional(readOnly = true)
+public class ReportEngine {
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
+    @Autowired
+    private StocktakeOrderRepository stocktakeOrderRepository;
+
+    /**
+     * 汇总日期范围内每天的业务数据
+     *
+     * @param startDate        开始日期（含）
+     * @param endDate          结束日期（含）
+     * @param warehouseId      仓库ID，为空时统计所有仓库
+     * @param includeStocktake 是否统计盘点单
+     * @return 按日期升序排列、覆盖范围内每一天的汇总数据
+     */
+    public Map<LocalDate, DailyFigures> aggregateDaily(LocalDate startDate, LocalDate endDate,
+                                                       Long warehouseId, boolean includeStocktake) {
+        Map<LocalDate, DailyFigures> result = new LinkedHashMap<>();
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            return result;
+        }
+
+        // 先补齐所有日期，保证没有单据的日期也返回0
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            result.put(date, new DailyFigures());
+        }
+
+        // 入库、出库、调拨（已执行单据，按实际日期）
+        Map<LocalDate, Map<String, DailyBusinessStatsService.StatTotals>> orderTotals =
+            dailyBusinessStatsService.getDailyOrderTotals(startDate, endDate, warehouseId);
+        for (Map.Entry<LocalDate, DailyFigures> entry : result.entrySet()) {
+            Map<String, DailyBusinessStatsService.StatTotals> totals =
+                orderTotals.getOrDefault(entry.getKey(), Collections.emptyMap());
+            DailyBusinessStatsService.StatTotals inbound =
+                totals.getOrDefault(DailyBusinessStat.TYPE_INBOUND, DailyBusinessStatsService.StatTotals.EMPTY);
+            DailyBusinessStatsService.StatTotals outbound =
+                totals.getOrDefault(DailyBusinessStat.TYPE_OUTBOUND, DailyBusinessStatsService.StatTotals.EMPTY);
+            DailyFigures figures = entry.getValue();
+            figures.inboundCount = inbound.getOrderCount();
+            figures.inboundAmount = inbound.getTotalAmount();
+            figures.outboundCount = outbound.getOrderCount();
+            figures.outboundAmount = outbound.getTotalAmount();
+            figures.transferCount = DailyBusinessStatsService.countTransfers(totals, warehouseId);
+        }
+
+        // 盘点单（按计划日期）
+        if (includeStocktake) {
+            List<Object[]> stocktakeRows = warehouseId != null ?
+                stocktakeOrderRepository.countGroupByPlannedDateAndWarehouse(warehouseId, startDate, endDate) :
+                stocktakeOrderRepository.countGroupByPlannedDate(startDate, endDate);
+            for (Object[] row : stocktakeRows) {
+                DailyFigures figures = result.get(toLocalDate(row[0]));
+                if (figures != null) {
+                    figures.stocktakeCount = toLong(row[1]);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 不同数据库驱动对日期分组列返回的类型不同，这里统一转换为 LocalDate
+     */
+    private LocalDate toLocalDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    /**
+     * 单日业务汇总数据
+     */
+    public static class DailyFigures {
+        private long inboundCount;
+        private BigDecimal inboundAmount = BigDecimal.ZERO;
+        private long outboundCount;
+        private BigDecimal outboundAmount = BigDecimal.ZERO;
+        private long transferCount;
+        private long stocktakeCount;
+
+        public long getInboundCount() { return inboundCount; }
+        public BigDecimal getInboundAmount() { return inboundAmount; }
+        public long getOutboundCount() { return outboundCount; }
+        public BigDecimal getOutboundAmount() { return outboundAmount; }
+        public long getTransferCount() { return transferCount; }
+        public long getStocktakeCount() { return stocktakeCount; }
+    }
+}
@@ -1,6 +1,8 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.entity.DailyBusinessStat;
 import com.warehouse.repository.*;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.ReportsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -35,25 +37,28 @@ public class ReportsServiceImpl implements ReportsService {
     @Autowired
     private StocktakeOrderRepository stocktakeOrderRepository;
 
+    @Autowired
+    private ReportEngine reportEngine;
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
     @Override
     public Map<String, Object> getOverviewStats(LocalDate startDate, LocalDate endDate, Long warehouseId) {
         Map<String, Object> stats = new HashMap<>();
 
         try {
-            // 入库单统计
-            long totalInbound = warehouseId != null ?
-                inboundOrderRepository.countByWarehouseAndDateRange(warehouseId, startDate, endDate) :
-                inboundOrderRepository.countByDateRange(startDate, endDate);
-
-            // 出库单统计
-            long totalOutbound = warehouseId != null ?
-                outboundOrderRepository.countByWarehouseAndDateRange(warehouseId, startDate, endDate) :
-                outboundOrderRepository.countByDateRange(startDate, endDate);
-
-            // 调拨单统计
-            long totalTransfer = warehouseId != null ?
-                transferOrderRepository.countByWarehouseAndDateRange(warehouseId, startDate, endDate) :
-                transferOrderRepository.countByDateRange(startDate, endDate);
+            // 从每日业务统计表汇总，只读取日期范围内的单据级汇总行
+            Map<String, DailyBusinessStatsService.StatTotals> totals =
+                dailyBusinessStatsService.getOrderTotals(startDate, endDate, warehouseId);
+            DailyBusinessStatsService.StatTotals inbound =
+                totals.getOrDefault(DailyBusinessStat.TYPE_INBOUND, DailyBusinessStatsService.StatTotals.EMPTY);
+            DailyBusinessStatsService.StatTotals outbound =
+                totals.getOrDefault(DailyBusinessStat.TYPE_OUTBOUND, DailyBusinessStatsService.StatTotals.EMPTY);
+
+            long totalInbound = inbound.getOrderCount();
+            long totalOutbound = outbound.getOrderCount();
+            long totalTransfer = DailyBusinessStatsService.countTransfers(totals, warehouseId);
 
             // 盘点单统计 - 暂时注释掉
             // long totalStocktake = warehouseId != null ?
@@ -62,13 +67,8 @@ public class ReportsServiceImpl implements ReportsService {
             long totalStocktake = 0; // 暂时返回0
 
             // 金额统计
-            BigDecimal inboundAmount = warehouseId != null ?
-                inboundOrderRepository.sumAmountByWarehouseAndDateRange(warehouseId, startDate, endDate) :
-                inboundOrderRepository.sumAmountByDateRange(startDate, endDate);
-
-            BigDecimal outboundAmount = warehouseId != null ?
-                outboundOrderRepository.sumAmountByWarehouseAndDateRange(warehouseId, startDate, endDate) :
-                outboundOrderRepository.sumAmountByDateRange(startDate, endDate);
+            BigDecimal inboundAmount = inbound.getTotalAmount();
+            BigDecimal outboundAmount = outbound.getTotalAmount();
 
             // 计算利润率和周转率（简化计算）
             double profitMargin = 0.0;
@@ -111,35 +111,24 @@ public class ReportsServiceImpl implements ReportsService {
         List<Map<String, Object>> trendData = new ArrayList<>();
 
         try {
-            // 按天生成趋势数据
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
-                Map<String, Object> dayData = new HashMap<>();
-                dayData.put("date", current.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-
-                // 获取真实数据
-                long inboundCount = warehouseId != null ?
-                    inboundOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    inboundOrderRepository.countByDate(current);
-
-                long outboundCount = warehouseId != null ?
-                    outboundOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    outboundOrderRepository.countByDate(current);
+            // 从每日业务统计表按日汇总（与概览同一口径），缺失日期在内存中补齐
+            Map<LocalDate, ReportEngine.DailyFigures> dailyFigures =
+                reportEngine.aggregateDaily(startDate, endDate, warehouseId, false);
 
-                long transferCount = warehouseId != null ?
-                    transferOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    transferOrderRepository.countByDate(current);
+            for (Map.Entry<LocalDate, ReportEngine.DailyFigures> entry : dailyFigures.entrySet()) {
+                ReportEngine.DailyFigures figures = entry.getValue();
+                Map<String, Object> dayData = new HashMap<>();
+                dayData.put("date", entry.getKey().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
 
                 // 为前端提供完整的数据结构
-                dayData.put("inboundQuantity", inboundCount);
-                dayData.put("outboundQuantity", outboundCount);
-                dayData.put("transferQuantity", transferCount);
-                dayData.put("inboundAmount", 0); // 暂时返回0，避免模拟数据
-                dayData.put("outboundAmount", 0);
-                dayData.put("transferAmount", 0);
+                dayData.put("inboundQuantity", figures.getInboundCount());
+                dayData.put("outboundQuantity", figures.getOutboundCount());
+                dayData.put("transferQuantity", figures.getTransferCount());
+                dayData.put("inboundAmount", figures.getInboundAmount().doubleValue());
+                dayData.put("outboundAmount", figures.getOutboundAmount().doubleValue());
+                dayData.put("transferAmount", 0); // 调拨单没有金额
 
                 trendData.add(dayData);
-                current = current.plusDays(1);
             }
         } catch (Exception e) {
             // 如果查询失败，返回空数据
@@ -214,19 +203,17 @@ public class ReportsServiceImpl implements ReportsService {
         List<Map<String, Object>> heatmapData = new ArrayList<>();
 
         try {
-            // 获取活跃商品数据
-            List<Object[]> activeGoods = warehouseId != null ?
-                inventoryRepository.findActiveGoodsByWarehouse(warehouseId) :
-                inventoryRepository.findActiveGoods();
+            // 按星期汇总各商品的业务明细数，按活跃度降序
+            List<DailyBusinessStatsService.GoodsActivity> activities =
+                dailyBusinessStatsService.getGoodsWeekdayActivity(startDate, endDate, warehouseId);
 
-            for (Object[] goods : activeGoods) {
+            for (DailyBusinessStatsService.GoodsActivity activity : activities) {
                 Map<String, Object> item = new HashMap<>();
-                item.put("goodsName", goods[0] != null ? goods[0].toString() : "未知商品");
+                item.put("goodsName", activity.getGoodsName() != null ? activity.getGoodsName() : "未知商品");
 
-                // 暂时返回空的活跃度数据，避免模拟数据
                 List<Integer> weekData = new ArrayList<>();
-                for (int i = 0; i < 7; i++) {
-                    weekData.add(0);
+                for (long count : activity.getWeekData()) {
+                    weekData.add((int) count);
                 }
                 item.put("weekData", weekData);
                 heatmapData.add(item);
@@ -273,49 +260,25 @@ public class ReportsServiceImpl implements ReportsService {
         List<Map<String, Object>> businessSummary = new ArrayList<>();
 
         try {
-            // 按日期生成业务汇总数据
-            LocalDate current = startDate;
-            while (!current.isAfter(endDate)) {
+            // 从每日业务统计表按日汇总（与概览同一口径），缺失日期在内存中补齐
+            Map<LocalDate, ReportEngine.DailyFigures> dailyFigures =
+                reportEngine.aggregateDaily(startDate, endDate, warehouseId, true);
+
+            for (Map.Entry<LocalDate, ReportEngine.DailyFigures> entry : dailyFigures.entrySet()) {
+                ReportEngine.DailyFigures figures = entry.getValue();
                 Map<String, Object> dayData = new HashMap<>();
-                dayData.put("date", current.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-
-                // 入库数据
-                long inboundCount = warehouseId != null ?
-                    inboundOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    inboundOrderRepository.countByDate(current);
-                BigDecimal inboundAmount = warehouseId != null ?
-                    inboundOrderRepository.sumAmountByWarehouseAndDate(warehouseId, current) :
-                    inboundOrderRepository.sumAmountByDate(current);
-
-                // 出库数据
-                long outboundCount = warehouseId != null ?
-                    outboundOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    outboundOrderRepository.countByDate(current);
-                BigDecimal outboundAmount = warehouseId != null ?
-                    outboundOrderRepository.sumAmountByWarehouseAndDate(warehouseId, current) :
-                    outboundOrderRepository.sumAmountByDate(current);
-
-                // 调拨数据
-                long transferCount = warehouseId != null ?
-                    transferOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    transferOrderRepository.countByDate(current);
-
-                // 盘点数据
-                long stocktakeCount = warehouseId != null ?
-                    stocktakeOrderRepository.countByWarehouseAndDate(warehouseId, current) :
-                    stocktakeOrderRepository.countByDate(current);
-
-                dayData.put("inboundCount", inboundCount);
+                dayData.put("date", entry.getKey().format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+
+                dayData.put("inboundCount", figures.getInboundCount());
                 dayData.put("inboundQuantity", 0); // 暂时返回0，避免模拟数据
-                dayData.put("inboundAmount", inboundAmount != null ? inboundAmount.doubleValue() : 0.0);
-                dayData.put("outboundCount", outboundCount);
+                dayData.put("inboundAmount", figures.getInboundAmount().doubleValue());
+                dayData.put("outboundCount", figures.getOutboundCount());
                 dayData.put("outboundQuantity", 0); // 暂时返回0，避免模拟数据
-                dayData.put("outboundAmount", outboundAmount != null ? outboundAmount.doubleValue() : 0.0);
-                dayData.put("transferCount", transferCount);
-                dayData.put("stocktakeCount", stocktakeCount);
+                dayData.put("outboundAmount", figures.getOutboundAmount().doubleValue());
+                dayData.put("transferCount", figures.getTransferCount());
+                dayData.put("stocktakeCount", figures.getStocktakeCount());
 
                 businessSummary.add(dayData);
-                current = current.plusDays(1);
             }
         } catch (Exception e) {
             // 如果查询失败，返回空数据
@@ -0,0 +1,164 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.repository.SequenceCounterRepository;
+import com.warehouse.service.SequenceService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 序号服务实现类
+ * 每个前缀在内存中持有一个号段，分配时只做一次原子自增；
+ * 号段用完或日期变化时从 sequence_counters 预留新号段。
+ * 预留使用独立的小连接池并单独提交：调用方事务回滚不会撤销预留，
+ * 也不会出现调用方占满主连接池后预留拿不到连接而相互等待的情况。
+ *
+ * @author Warehouse Team
+ */
+@Service
+public class SequenceServiceImpl implements SequenceService, DisposableBean {
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Value("${warehouse.sequence.block-size:20}")
+    private int blockSize;
+
+    private final HikariDataSource sequenceDataSource;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> reserveLocks = new ConcurrentHashMap<>();
+
+    public SequenceServiceImpl(DataSourceProperties dataSourceProperties,
+                               @Value("${warehouse.sequence.pool-size:2}") int poolSize) {
+        this.sequenceDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        this.sequenceDataSource.setPoolName("sequence-pool");
+        this.sequenceDataSource.setMaximumPoolSize(poolSize);
+        this.sequenceDataSource.setMinimumIdle(0);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(sequenceDataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(sequenceDataSource));
+    }
+
+    @Override
+    public void destroy() {
+        sequenceDataSource.close();
+    }
+
+    @Override
+    public String nextDailyNumber(String prefix, Function<String, String> lastNumberLookup) {
+        String sequenceName = prefix + LocalDate.now().format(DAY_FORMATTER);
+        long value = nextValue(prefix, sequenceName, lastNumberLookup);
+        return sequenceName + String.format("%03d", value);
+    }
+
+    /**
+     * 直接预留 count 大小的号段，不经过内存号段；内存号段中剩余的序号仍然有效，两者不重叠
+     */
+    @Override
+    public List<String> nextDailyNumbers(String prefix, int count, Function<String, String> lastNumberLookup) {
+        List<String> numbers = new ArrayList<>(count);
+        if (count <= 0) {
+            return numbers;
+        }
+        String sequenceName = prefix + LocalDate.now().format(DAY_FORMATTER);
+        Block block = reserve(sequenceName, lastNumberLookup, count);
+        for (long value = block.next.get(); value < block.limit; value++) {
+            numbers.add(sequenceName + String.format("%03d", value));
+        }
+        return numbers;
+    }
+
+    /**
+     * 从前缀当前号段分配序号，号段耗尽或已切换到新的序号名称（跨天）时预留新号段
+     */
+    private long nextValue(String prefix, String sequenceName, Function<String, String> lastNumberLookup) {
+        Long value = tryAllocate(blocks.get(prefix), sequenceName);
+        if (value != null) {
+            return value;
+        }
+        synchronized (reserveLocks.computeIfAbsent(prefix, key -> new Object())) {
+            value = tryAllocate(blocks.get(prefix), sequenceName);
+            if (value != null) {
+                return value;
+            }
+            Block block = reserve(sequenceName, lastNumberLookup, blockSize);
+            // 发布前先取走本次的序号，否则发布后快路径线程可能先把新号段用完
+            long reserved = block.next.getAndIncrement();
+            blocks.put(prefix, block);
+            return reserved;
+        }
+    }
+
+    private Long tryAllocate(Block block, String sequenceName) {
+        if (block == null || !block.sequenceName.equals(sequenceName)) {
+            return null;
+        }
+        long value = block.next.getAndIncrement();
+        return value < block.limit ? value : null;
+    }
+
+    private Block reserve(String sequenceName, Function<String, String> lastNumberLookup, int size) {
+        Long nextValue = transactionTemplate.execute(status -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("sequenceName", sequenceName)
+                    .addValue("blockSize", size);
+            if (jdbcTemplate.update(SequenceCounterRepository.RESERVE_SQL, params) == 0) {
+                params.addValue("startValue", lastIssued(sequenceName, lastNumberLookup) + 1);
+                jdbcTemplate.update(SequenceCounterRepository.INSERT_OR_RESERVE_SQL, params);
+            }
+            return jdbcTemplate.queryForObject(SequenceCounterRepository.SELECT_NEXT_VALUE_SQL, params, Long.class);
+        });
+        return new Block(sequenceName, nextValue - size, nextValue);
+    }
+
+    /**
+     * 解析计数器启用前已生成的最大编号中的序号部分
+     */
+    private long lastIssued(String sequenceName, Function<String, String> lastNumberLookup) {
+        String lastNumber = lastNumberLookup.apply(sequenceName);
+        if (lastNumber == null || lastNumber.length() <= sequenceName.length()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(lastNumber.substring(sequenceName.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 内存中的号段 [next, limit)
+     */
+    private static class Block {
+        private final String sequenceName;
+        private final AtomicLong next;
+        private final long limit;
+
+        Block(String sequenceName, long start, long limit) {
+            this.sequenceName = sequenceName;
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
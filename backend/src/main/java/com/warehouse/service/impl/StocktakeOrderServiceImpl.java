@@ -0,0 +1,727 @@
+package com.warehouse.service.impl;
+
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.dto.PageResponse;
+import com.warehouse.dto.StocktakeOrderDTO;
+import com.warehouse.entity.StocktakeOrder;
+import com.warehouse.entity.StocktakeOrderDetail;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.ApprovalStatus;
+import com.warehouse.enums.StocktakeType;
+import com.warehouse.event.OrderChangedEvent;
+import com.warehouse.exception.BusinessException;
+import com.warehouse.exception.ResourceNotFoundException;
+import com.warehouse.repository.StocktakeOrderDetailRepository;
+import com.warehouse.repository.StocktakeOrderRepository;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.security.UserDetailsServiceImpl.UserPrincipal;
+import com.warehouse.service.InventoryService;
+import com.warehouse.service.SequenceService;
+import com.warehouse.service.StocktakeOrderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 盘点单服务实现类
+ * 开始盘点时用一条 INSERT ... SELECT 快照账面数量，盘点期间仓库照常出入库；
+ * 手持终端按批提交实盘数量，差异数量和金额在同一条 UPDATE 中计算；
+ * 完成盘点时把差异作为增减量在一个事务内批量过账，盘点期间发生的出入库不会被覆盖。
+ *
+ * @author Warehouse Team
+ */
+@Service
+@Transactional
+public class StocktakeOrderServiceImpl implements StocktakeOrderService {
+
+    /**
+     * 盘点范围写入、实盘提交和回读时每批的最大条数
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * 实盘提交锁的分段数
+     */
+    private static final int COUNT_LOCK_STRIPES = 64;
+
+    /**
+     * 实盘提交与完成盘点之间的读写锁，按盘点单ID分段。
+     * 不使用盘点单行上的共享锁：H2 没有共享行锁，多个终端的提交会被串行化；系统按单实例部署（缓存、推送均在进程内）。
+     */
+    private final ReadWriteLock[] countLocks = IntStream.range(0, COUNT_LOCK_STRIPES)
+            .mapToObj(i -> new ReentrantReadWriteLock())
+            .toArray(ReadWriteLock[]::new);
+
+    @Autowired
+    private StocktakeOrderRepository stocktakeOrderRepository;
+
+    @Autowired
+    private StocktakeOrderDetailRepository stocktakeOrderDetailRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public StocktakeOrderDTO createStocktakeOrder(StocktakeOrderDTO.CreateRequest request) {
+        Warehouse warehouse = warehouseRepository.findById(request.getWarehouseId())
+                .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", request.getWarehouseId()));
+        checkRange(request.getStocktakeType(), request.getDetails());
+
+        StocktakeOrder order = new StocktakeOrder();
+        order.setOrderNumber(generateOrderNumber());
+        order.setWarehouse(warehouse);
+        order.setStocktakeType(request.getStocktakeType());
+        order.setPlannedDate(request.getPlannedDate());
+        order.setDescription(request.getRemark());
+        order.setStocktakeUserNames(request.getStocktakeUserNames());
+        order.setStatus(ApprovalStatus.PENDING);
+        order.setCreatedBy(currentUserName());
+
+        order = stocktakeOrderRepository.save(order);
+        saveRanges(order, request.getDetails());
+        publishOrderChanged(order);
+        return convertToDTO(order);
+    }
+
+    @Override
+    public StocktakeOrderDTO updateStocktakeOrder(Long id, StocktakeOrderDTO.UpdateRequest request) {
+        StocktakeOrder order = stocktakeOrderRepository.findById(id)
+                .filter(existing -> !existing.getDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+
+        // 只有待审批状态的单据可以修改
+        if (order.getStatus() != ApprovalStatus.PENDING) {
+            throw new BusinessException("只有待审批状态的盘点单可以修改");
+        }
+
+        if (request.getPlannedDate() != null) {
+            order.setPlannedDate(request.getPlannedDate());
+        }
+        if (request.getRemark() != null) {
+            order.setDescription(request.getRemark());
+        }
+        if (request.getStocktakeUserNames() != null) {
+            order.setStocktakeUserNames(request.getStocktakeUserNames());
+        }
+        if (request.getDetails() != null) {
+            checkRange(order.getStocktakeType(), request.getDetails());
+            jdbcTemplate.update(StocktakeOrderRepository.RANGE_DELETE_SQL,
+                    new MapSqlParameterSource("orderId", id).addValue("now", LocalDateTime.now()));
+            saveRanges(order, request.getDetails());
+        }
+
+        order = stocktakeOrderRepository.save(order);
+        publishOrderChanged(order);
+        return convertToDTO(order);
+    }
+
+    @Override
+    public void deleteStocktakeOrder(Long id) {
+        StocktakeOrder order = stocktakeOrderRepository.findForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+
+        // 已开始的盘点有实盘记录，不能删除
+        if (order.getStartedTime() != null) {
+            throw new BusinessException("已开始的盘点单不能删除");
+        }
+
+        order.setDeleted(true);
+        stocktakeOrderRepository.save(order);
+        publishOrderChanged(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StocktakeOrderDTO> findById(Long id) {
+        return stocktakeOrderRepository.findById(id)
+                .filter(order -> !order.getDeleted())
+                .map(this::convertToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StocktakeOrderDTO> findByOrderNumber(String orderNumber) {
+        return stocktakeOrderRepository.findByOrderNumberAndDeletedFalse(orderNumber)
+                .map(this::convertToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findAll() {
+        return stocktakeOrderRepository.findByDeletedFalseOrderByCreatedTimeDesc()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findByWarehouse(Long warehouseId) {
+        return stocktakeOrderRepository.findByWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(warehouseId)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findByStatus(ApprovalStatus status) {
+        return stocktakeOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findByStocktakeType(StocktakeType stocktakeType) {
+        return stocktakeOrderRepository.findByStocktakeTypeAndDeletedFalseOrderByCreatedTimeDesc(stocktakeType)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<StocktakeOrderDTO> findByPage(String keyword, Pageable pageable) {
+        Page<StocktakeOrder> page = keyword == null || keyword.trim().isEmpty()
+                ? stocktakeOrderRepository.findByDeletedFalse(pageable)
+                : stocktakeOrderRepository.findByOrderNumberContainingAndDeletedFalse(keyword.trim(), pageable);
+        return PageResponse.of(page.map(this::convertToDTO));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return stocktakeOrderRepository.findByDateRange(startDate, endDate)
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public StocktakeOrderDTO approveStocktakeOrder(Long id, StocktakeOrderDTO.ApprovalRequest request) {
+        StocktakeOrder order = stocktakeOrderRepository.findForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+
+        // 检查状态是否可以审批
+        if (order.getStatus() != ApprovalStatus.PENDING) {
+            throw new BusinessException("当前状态不允许审批");
+        }
+        if (request.getStatus() != ApprovalStatus.APPROVED && request.getStatus() != ApprovalStatus.REJECTED) {
+            throw new BusinessException("审批结果只能为通过或拒绝");
+        }
+
+        order.setStatus(request.getStatus());
+        order.setApprovedBy(currentUserName());
+        order.setApprovedTime(LocalDateTime.now());
+        order.setApprovalRemark(request.getApprovalRemark());
+
+        order = stocktakeOrderRepository.save(order);
+        publishOrderChanged(order);
+        return convertToDTO(order);
+    }
+
+    @Override
+    public StocktakeOrderDTO startStocktake(Long id) {
+        StocktakeOrder order = stocktakeOrderRepository.findForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+
+        if (order.getStatus() != ApprovalStatus.APPROVED || order.getStartedTime() != null) {
+            throw new BusinessException("只有已审批且未开始的盘点单可以开始盘点");
+        }
+
+        // 账面快照：一条语句写入全部明细，只读取已提交的库存，不锁库存行
+        String userName = currentUserName();
+        LocalDateTime now = LocalDateTime.now();
+        MapSqlParameterSource params = new MapSqlParameterSource("orderId", id)
+                .addValue("warehouseId", order.getWarehouse().getId())
+                .addValue("createdBy", userName)
+                .addValue("now", now);
+        int totalItems = jdbcTemplate.update(order.getStocktakeType() == StocktakeType.FULL
+                ? StocktakeOrderDetailRepository.FULL_SNAPSHOT_SQL
+                : StocktakeOrderDetailRepository.RANGE_SNAPSHOT_SQL, params);
+
+        order.setStartedBy(userName);
+        order.setStartedTime(now);
+        order.setActualDate(LocalDate.now());
+        order.setTotalItems(totalItems);
+
+        order = stocktakeOrderRepository.save(order);
+        publishOrderChanged(order);
+        return convertToDTO(order);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StocktakeOrderDTO completeStocktake(Long id) {
+        // 写锁等待进行中的实盘提交提交事务，过账期间新的提交排队，之后会看到已完成状态
+        Lock lock = countLock(id).writeLock();
+        lock.lock();
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> doCompleteStocktake(id));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private StocktakeOrderDTO doCompleteStocktake(Long id) {
+        StocktakeOrder order = stocktakeOrderRepository.findForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+        checkCounting(order);
+
+        // 已盘点且有差异的明细按差异量过账；未盘点的明细不调整库存
+        MapSqlParameterSource params = new MapSqlParameterSource("orderId", id).addValue("now", LocalDateTime.now());
+        List<InventoryDTO.StockMovement> adjustments = jdbcTemplate.query(
+                StocktakeOrderDetailRepository.PENDING_ADJUSTMENTS_SQL, params,
+                (rs, rowNum) -> new InventoryDTO.StockMovement(rs.getLong("goods_id"),
+                        rs.getBigDecimal("difference_quantity"), rs.getBigDecimal("unit_price"), null, null));
+        jdbcTemplate.update(StocktakeOrderDetailRepository.MARK_ADJUSTED_SQL, params);
+
+        Object[] summary = stocktakeOrderDetailRepository.summarize(id).get(0);
+        order.setTotalItems(toInt(summary[0]));
+        order.setCompletedItems(toInt(summary[1]));
+        order.setGainItems(toInt(summary[2]));
+        order.setLossItems(toInt(summary[3]));
+        order.setNormalItems(toInt(summary[4]));
+        order.setDifferenceItems(order.getGainItems() + order.getLossItems());
+        order.setStatus(ApprovalStatus.EXECUTED);
+        order.setCompletedBy(currentUserName());
+        order.setCompletedTime(LocalDateTime.now());
+        order = stocktakeOrderRepository.saveAndFlush(order);
+
+        // 库存过账放在最后，库存行锁只持有到本事务提交
+        inventoryService.batchAdjust(order.getWarehouse().getId(), adjustments, "STOCKTAKE", order.getOrderNumber());
+        publishOrderChanged(order);
+        return convertToDTO(order);
+    }
+
+    @Override
+    public void cancelStocktakeOrder(Long id, String reason) {
+        StocktakeOrder order = stocktakeOrderRepository.findForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", id));
+
+        // 已完成的盘点已调整库存，不能取消
+        if (order.getCompletedTime() != null) {
+            throw new BusinessException("已完成的盘点单不能取消");
+        }
+
+        order.setStatus(ApprovalStatus.CANCELLED);
+        order.setApprovalRemark(reason);
+        order.setApprovedTime(LocalDateTime.now());
+
+        stocktakeOrderRepository.save(order);
+        publishOrderChanged(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsByOrderNumber(String orderNumber) {
+        return stocktakeOrderRepository.existsByOrderNumberAndDeletedFalse(orderNumber);
+    }
+
+    @Override
+    public String generateOrderNumber() {
+        // 订单号：ST + 年月日 + 至少3位序号，序号由序号服务分配，并发创建不会重复
+        return sequenceService.nextDailyNumber("ST", stocktakeOrderRepository::findMaxOrderNumberStartingWith);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findTodayOrders() {
+        return stocktakeOrderRepository.findTodayOrders()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO> findOverdueOrders() {
+        return stocktakeOrderRepository.findOverdueOrders()
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StocktakeStatistics getStocktakeStatistics() {
+        StocktakeStatistics statistics = new StocktakeStatistics();
+        long total = 0;
+        for (Object[] row : stocktakeOrderRepository.countGroupByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            total += count;
+            switch ((ApprovalStatus) row[0]) {
+                case PENDING -> statistics.setPendingOrders(count);
+                case APPROVED -> statistics.setApprovedOrders(count);
+                case EXECUTED -> statistics.setCompletedOrders(count);
+                case CANCELLED -> statistics.setCancelledOrders(count);
+                default -> { }
+            }
+        }
+        statistics.setTotalOrders(total);
+        statistics.setOverdueOrders(stocktakeOrderRepository.countOverdueOrders());
+        return statistics;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countStocktakeByWarehouseAndDateRange(Long warehouseId, LocalDate startDate, LocalDate endDate) {
+        return stocktakeOrderRepository.countByWarehouseAndDateRange(warehouseId, startDate, endDate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO.StocktakeOrderDetailDTO> getStocktakeOrderDetails(Long stocktakeOrderId) {
+        return stocktakeOrderDetailRepository.findWithGoodsByStocktakeOrderId(stocktakeOrderId)
+                .stream()
+                .map(this::convertDetailToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StocktakeOrderDTO.StocktakeOrderDetailDTO updateStocktakeOrderDetail(Long stocktakeOrderId, Long detailId,
+                                                                               StocktakeOrderDTO.UpdateDetailRequest request) {
+        request.setId(detailId);
+        return batchUpdateStocktakeOrderDetails(stocktakeOrderId, List.of(request)).get(0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<StocktakeOrderDTO.StocktakeOrderDetailDTO> batchUpdateStocktakeOrderDetails(
+            Long stocktakeOrderId, List<StocktakeOrderDTO.UpdateDetailRequest> requests) {
+        // 读锁：多个终端的提交并发执行，事务提交后才释放，完成盘点会等待这些提交
+        Lock lock = countLock(stocktakeOrderId).readLock();
+        lock.lock();
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> doBatchUpdate(stocktakeOrderId, requests));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<StocktakeOrderDTO.StocktakeOrderDetailDTO> doBatchUpdate(
+            Long stocktakeOrderId, List<StocktakeOrderDTO.UpdateDetailRequest> requests) {
+        StocktakeOrder order = stocktakeOrderRepository.findById(stocktakeOrderId)
+                .filter(existing -> !existing.getDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", stocktakeOrderId));
+        checkCounting(order);
+
+        String userName = currentUserName();
+        LocalDateTime now = LocalDateTime.now();
+        List<MapSqlParameterSource> byId = new ArrayList<>();
+        List<MapSqlParameterSource> byGoods = new ArrayList<>();
+        for (StocktakeOrderDTO.UpdateDetailRequest request : requests) {
+            if (request.getActualQuantity() == null || request.getActualQuantity().signum() < 0) {
+                throw new BusinessException("实盘数量不能为空或负数");
+            }
+            MapSqlParameterSource params = new MapSqlParameterSource("orderId", stocktakeOrderId)
+                    .addValue("actualQuantity", request.getActualQuantity())
+                    .addValue("remark", request.getRemark())
+                    .addValue("stocktakeUser", request.getStocktakeUser() != null ? request.getStocktakeUser() : userName)
+                    .addValue("completed", request.getIsCompleted() == null || request.getIsCompleted())
+                    .addValue("createdBy", userName)
+                    .addValue("now", now);
+            if (request.getId() != null) {
+                byId.add(params.addValue("id", request.getId()));
+            } else if (request.getGoodsId() != null) {
+                byGoods.add(params.addValue("goodsId", request.getGoodsId()));
+            } else {
+                throw new BusinessException("盘点明细ID和货物ID不能同时为空");
+            }
+        }
+
+        if (!byId.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(StocktakeOrderDetailRepository.COUNT_UPDATE_SQL + " AND id = :id",
+                    byId.toArray(new MapSqlParameterSource[0]));
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    throw new ResourceNotFoundException("盘点明细", "id", byId.get(i).getValue("id"));
+                }
+            }
+        }
+        if (!byGoods.isEmpty()) {
+            MapSqlParameterSource[] batch = byGoods.toArray(new MapSqlParameterSource[0]);
+            // 全盘时盘到账面上没有的货物，补一条账面为0的明细；按范围盘点时不在范围内的货物不能提交
+            if (order.getStocktakeType() == StocktakeType.FULL) {
+                jdbcTemplate.batchUpdate(StocktakeOrderDetailRepository.FOUND_GOODS_INSERT_SQL, batch);
+            }
+            int[] counts = jdbcTemplate.batchUpdate(
+                    StocktakeOrderDetailRepository.COUNT_UPDATE_SQL + " AND goods_id = :goodsId", batch);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    throw new BusinessException("货物(id=" + byGoods.get(i).getValue("goodsId") + ")不在盘点范围内");
+                }
+            }
+        }
+
+        List<StocktakeOrderDTO.StocktakeOrderDetailDTO> result = new ArrayList<>(requests.size());
+        reloadDetails(byId, "id", ids -> stocktakeOrderDetailRepository.findWithGoodsByIds(stocktakeOrderId, ids), result);
+        reloadDetails(byGoods, "goodsId",
+                goodsIds -> stocktakeOrderDetailRepository.findWithGoodsByGoodsIds(stocktakeOrderId, goodsIds), result);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StocktakeOrderDTO.StocktakeReport generateStocktakeReport(Long stocktakeOrderId) {
+        StocktakeOrder order = stocktakeOrderRepository.findById(stocktakeOrderId)
+                .filter(existing -> !existing.getDeleted())
+                .orElseThrow(() -> new ResourceNotFoundException("盘点单", "id", stocktakeOrderId));
+
+        StocktakeOrderDTO.StocktakeReport report = new StocktakeOrderDTO.StocktakeReport();
+        report.setStocktakeOrderId(order.getId());
+        report.setOrderNumber(order.getOrderNumber());
+        report.setWarehouseName(order.getWarehouse().getName());
+        report.setStocktakeType(order.getStocktakeType());
+        report.setPlannedDate(order.getPlannedDate());
+        report.setActualDate(order.getActualDate());
+        report.setStatus(order.getStatus());
+        report.setCreatedBy(order.getCreatedBy());
+        report.setCreatedTime(order.getCreatedTime());
+        report.setCompletedBy(order.getCompletedBy());
+        report.setCompletedTime(order.getCompletedTime());
+
+        // 数量和金额由数据库汇总，明细只读取一次再按差异分组
+        Object[] summary = stocktakeOrderDetailRepository.summarize(stocktakeOrderId).get(0);
+        report.setTotalItems(toInt(summary[0]));
+        report.setCompletedItems(toInt(summary[1]));
+        report.setGainItems(toInt(summary[2]));
+        report.setLossItems(toInt(summary[3]));
+        report.setNormalItems(toInt(summary[4]));
+        report.setDifferenceItems(report.getGainItems() + report.getLossItems());
+        report.setTotalBookAmount((BigDecimal) summary[5]);
+        report.setTotalActualAmount((BigDecimal) summary[6]);
+        report.setTotalDifferenceAmount((BigDecimal) summary[7]);
+        report.setGainAmount((BigDecimal) summary[8]);
+        report.setLossAmount((BigDecimal) summary[9]);
+
+        List<StocktakeOrderDTO.StocktakeOrderDetailDTO> gainDetails = new ArrayList<>();
+        List<StocktakeOrderDTO.StocktakeOrderDetailDTO> lossDetails = new ArrayList<>();
+        List<StocktakeOrderDTO.StocktakeOrderDetailDTO> normalDetails = new ArrayList<>();
+        for (StocktakeOrderDetail detail : stocktakeOrderDetailRepository.findWithGoodsByStocktakeOrderId(stocktakeOrderId)) {
+            if (detail.getActualQuantity() == null) {
+                continue;
+            }
+            int sign = detail.getDifferenceQuantity().signum();
+            (sign > 0 ? gainDetails : sign < 0 ? lossDetails : normalDetails).add(convertDetailToDTO(detail));
+        }
+        report.setGainDetails(gainDetails);
+        report.setLossDetails(lossDetails);
+        report.setNormalDetails(normalDetails);
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StocktakeOrderDTO.StocktakeOrderDetailDTO> getStocktakeDifferences(Long stocktakeOrderId) {
+        return stocktakeOrderDetailRepository.findDifferencesByStocktakeOrderId(stocktakeOrderId)
+                .stream()
+                .map(this::convertDetailToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 盘点单对应的实盘提交锁（按ID分段）
+     */
+    private ReadWriteLock countLock(Long stocktakeOrderId) {
+        return countLocks[Math.floorMod(stocktakeOrderId.hashCode(), countLocks.length)];
+    }
+
+    /**
+     * 按范围盘点必须指定盘点范围
+     */
+    private void checkRange(StocktakeType stocktakeType, List<StocktakeOrderDTO.StocktakeOrderDetailDTO> details) {
+        if (stocktakeType != StocktakeType.FULL && (details == null || details.isEmpty())) {
+            throw new BusinessException(stocktakeType.getDescription() + "需要指定盘点范围");
+        }
+    }
+
+    /**
+     * 只有已开始且未完成的盘点可以提交实盘数量或完成
+     */
+    private void checkCounting(StocktakeOrder order) {
+        if (order.getStatus() != ApprovalStatus.APPROVED || order.getStartedTime() == null
+                || order.getCompletedTime() != null) {
+            throw new BusinessException("盘点单未开始或已结束");
+        }
+    }
+
+    /**
+     * 批量写入盘点范围，重复的货物只保留一条
+     */
+    private void saveRanges(StocktakeOrder order, List<StocktakeOrderDTO.StocktakeOrderDetailDTO> details) {
+        if (details == null || details.isEmpty()) {
+            return;
+        }
+        Map<Long, StocktakeOrderDTO.StocktakeOrderDetailDTO> byGoods = new LinkedHashMap<>();
+        for (StocktakeOrderDTO.StocktakeOrderDetailDTO detail : details) {
+            if (detail.getGoodsId() == null) {
+                throw new BusinessException("盘点范围的货物不能为空");
+            }
+            byGoods.putIfAbsent(detail.getGoodsId(), detail);
+        }
+
+        String userName = currentUserName();
+        LocalDateTime now = LocalDateTime.now();
+        List<MapSqlParameterSource> ranges = new ArrayList<>(byGoods.size());
+        for (StocktakeOrderDTO.StocktakeOrderDetailDTO detail : byGoods.values()) {
+            ranges.add(new MapSqlParameterSource("orderId", order.getId())
+                    .addValue("goodsId", detail.getGoodsId())
+                    .addValue("remark", detail.getRemark())
+                    .addValue("createdBy", userName)
+                    .addValue("now", now));
+        }
+        for (int from = 0; from < ranges.size(); from += BATCH_SIZE) {
+            List<MapSqlParameterSource> batch = ranges.subList(from, Math.min(from + BATCH_SIZE, ranges.size()));
+            int[] counts = jdbcTemplate.batchUpdate(StocktakeOrderRepository.RANGE_INSERT_SQL,
+                    batch.toArray(new MapSqlParameterSource[0]));
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    throw new ResourceNotFoundException("货物", "id", batch.get(i).getValue("goodsId"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按批回读提交后的明细
+     */
+    private void reloadDetails(List<MapSqlParameterSource> submitted, String key,
+                               Function<List<Long>, List<StocktakeOrderDetail>> loader,
+                               List<StocktakeOrderDTO.StocktakeOrderDetailDTO> result) {
+        List<Long> keys = submitted.stream().map(params -> (Long) params.getValue(key)).distinct().toList();
+        for (int from = 0; from < keys.size(); from += BATCH_SIZE) {
+            loader.apply(keys.subList(from, Math.min(from + BATCH_SIZE, keys.size())))
+                    .forEach(detail -> result.add(convertDetailToDTO(detail)));
+        }
+    }
+
+    /**
+     * 当前操作人姓名
+     */
+    private String currentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "系统";
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.getRealName() != null) {
+            return principal.getRealName();
+        }
+        return authentication.getName();
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * 发布单据变更事件，事务提交后推送给订阅该仓库的客户端
+     */
+    private void publishOrderChanged(StocktakeOrder order) {
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.TYPE_STOCKTAKE, order.getId(), order.getOrderNumber(),
+                Boolean.TRUE.equals(order.getDeleted()) ? null : order.getStatus(),
+                List.of(order.getWarehouse().getId())));
+    }
+
+    /**
+     * 转换为DTO
+     * 盘点明细可能有数万条，不随单据返回，通过 getStocktakeOrderDetails 单独查询
+     */
+    private StocktakeOrderDTO convertToDTO(StocktakeOrder order) {
+        StocktakeOrderDTO dto = new StocktakeOrderDTO();
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setStocktakeType(order.getStocktakeType());
+        dto.setStatus(order.getStatus());
+        dto.setPlannedDate(order.getPlannedDate());
+        dto.setActualDate(order.getActualDate());
+        dto.setTotalItems(order.getTotalItems());
+        dto.setCompletedItems(order.getCompletedItems());
+        dto.setDifferenceItems(order.getDifferenceItems());
+        dto.setGainItems(order.getGainItems());
+        dto.setLossItems(order.getLossItems());
+        dto.setNormalItems(order.getNormalItems());
+        dto.setStocktakeUserNames(order.getStocktakeUserNames());
+        dto.setRemark(order.getDescription());
+        dto.setApprovalRemark(order.getApprovalRemark());
+        dto.setApprovedBy(order.getApprovedBy());
+        dto.setApprovalTime(order.getApprovedTime());
+        dto.setOperatedBy(order.getCompletedBy());
+        dto.setOperationTime(order.getCompletedTime());
+        dto.setCreatedTime(order.getCreatedTime());
+        dto.setUpdatedTime(order.getUpdatedTime());
+        dto.setCreatedBy(order.getCreatedBy());
+        dto.setUpdatedBy(order.getUpdatedBy());
+
+        // 设置仓库信息
+        if (order.getWarehouse() != null) {
+            dto.setWarehouseId(order.getWarehouse().getId());
+            dto.setWarehouseName(order.getWarehouse().getName());
+        }
+        return dto;
+    }
+
+    /**
+     * 转换明细为DTO
+     */
+    private StocktakeOrderDTO.StocktakeOrderDetailDTO convertDetailToDTO(StocktakeOrderDetail detail) {
+        StocktakeOrderDTO.StocktakeOrderDetailDTO dto = new StocktakeOrderDTO.StocktakeOrderDetailDTO();
+        dto.setId(detail.getId());
+        dto.setGoodsCode(detail.getGoodsCode());
+        dto.setGoodsName(detail.getGoodsName());
+        dto.setBookQuantity(detail.getBookQuantity());
+        dto.setActualQuantity(detail.getActualQuantity());
+        dto.setDifferenceQuantity(detail.getDifferenceQuantity());
+        dto.setRemark(detail.getRemark());
+
+        if (detail.getGoods() != null) {
+            dto.setGoodsId(detail.getGoods().getId());
+            dto.setGoodsSpecification(detail.getGoods().getSpecification());
+            dto.setGoodsUnit(detail.getGoods().getUnit());
+        }
+        return dto;
+    }
+}
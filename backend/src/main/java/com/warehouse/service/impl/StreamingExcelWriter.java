@@ -0,0 +1,87 @@
+package com.warehouse.service.impl;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 流式Excel写入器
+ * 基于 SXSSFWorkbook，内存中只保留固定窗口的行，超出窗口的行压缩写入临时文件，
+ * 导出内存占用与行数无关；列宽预先固定，不做自动列宽计算。
+ *
+ * @author Warehouse Team
+ */
+public class StreamingExcelWriter implements AutoCloseable {
+
+    /**
+     * 内存中保留的行数
+     */
+    private static final int ROW_ACCESS_WINDOW = 200;
+
+    private final SXSSFWorkbook workbook;
+
+    private final SXSSFSheet sheet;
+
+    private int rowNum;
+
+    public StreamingExcelWriter(String sheetName, String[] headers, int[] columnWidths) {
+        this.workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+        Row headerRow = nextRow();
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+            // 列宽单位为1/256个字符
+            sheet.setColumnWidth(i, columnWidths[i] * 256);
+        }
+    }
+
+    /**
+     * 追加一行
+     */
+    public Row nextRow() {
+        return sheet.createRow(rowNum++);
+    }
+
+    /**
+     * 已写入的数据行数（不含表头）
+     */
+    public int getDataRowCount() {
+        return rowNum - 1;
+    }
+
+    /**
+     * 将工作簿写入输出流（不关闭输出流）
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    /**
+     * 删除临时文件并关闭工作簿
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+}
@@ -1,5 +1,7 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.EvictOrderCaches;
+import com.warehouse.config.RetryOnOptimisticLock;
 import com.warehouse.dto.InventoryDTO;
 import com.warehouse.dto.TransferOrderDTO;
 import com.warehouse.dto.InboundOrderDTO;
@@ -8,15 +10,18 @@ import com.warehouse.dto.PageResponse;
 import com.warehouse.entity.*;
 import com.warehouse.enums.ApprovalStatus;
 import com.warehouse.enums.BusinessType;
+import com.warehouse.event.OrderChangedEvent;
 import com.warehouse.exception.BusinessException;
 import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.*;
 import com.warehouse.service.TransferOrderService;
+import com.warehouse.service.DailyBusinessStatsService;
 import com.warehouse.service.InventoryService;
+import com.warehouse.service.SequenceService;
 import com.warehouse.service.InboundOrderService;
 import com.warehouse.service.OutboundOrderService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -27,8 +32,12 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -40,6 +49,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class TransferOrderServiceImpl implements TransferOrderService {
 
+    /**
+     * 批量加载明细时每次查询的单据数量上限
+     */
+    private static final int DETAIL_BATCH_SIZE = 500;
+
     @Autowired
     private TransferOrderRepository transferOrderRepository;
 
@@ -55,6 +69,12 @@ public class TransferOrderServiceImpl implements TransferOrderService {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
     @Autowired
     private InventoryRepository inventoryRepository;
 
@@ -64,7 +84,11 @@ public class TransferOrderServiceImpl implements TransferOrderService {
     @Autowired
     private OutboundOrderService outboundOrderService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @EvictOrderCaches
     public TransferOrderDTO createTransferOrder(TransferOrderDTO.CreateRequest request) {
         // 验证源仓库和目标仓库
         if (request.getSourceWarehouseId().equals(request.getTargetWarehouseId())) {
@@ -124,11 +148,13 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         // 重新计算总数量
         order.recalculateTotal();
         order = transferOrderRepository.save(order);
+        publishOrderChanged(order);
 
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public TransferOrderDTO updateTransferOrder(Long id, TransferOrderDTO.UpdateRequest request) {
         TransferOrder order = transferOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("调拨单", "id", id));
@@ -180,10 +206,12 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         // 重新计算总数量
         order.recalculateTotal();
         order = transferOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
     public void deleteTransferOrder(Long id) {
         TransferOrder order = transferOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("调拨单", "id", id));
@@ -195,6 +223,7 @@ public class TransferOrderServiceImpl implements TransferOrderService {
 
         order.setDeleted(true);
         transferOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -215,71 +244,50 @@ public class TransferOrderServiceImpl implements TransferOrderService {
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findAll() {
-        return transferOrderRepository.findByDeletedFalseOrderByCreatedTimeDesc()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findByDeletedFalseOrderByCreatedTimeDesc());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findBySourceWarehouse(Long sourceWarehouseId) {
-        return transferOrderRepository.findByFromWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(sourceWarehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findByFromWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(sourceWarehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findByTargetWarehouse(Long targetWarehouseId) {
-        return transferOrderRepository.findByToWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(targetWarehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findByToWarehouseIdAndDeletedFalseOrderByCreatedTimeDesc(targetWarehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findByStatus(ApprovalStatus status) {
-        return transferOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findByStatusAndDeletedFalseOrderByCreatedTimeDesc(status));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findPendingOrders() {
-        return transferOrderRepository.findPendingOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findPendingOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findPendingOrdersBySourceWarehouse(Long sourceWarehouseId) {
-        return transferOrderRepository.findPendingOrdersBySourceWarehouse(sourceWarehouseId)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findPendingOrdersBySourceWarehouse(sourceWarehouseId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findApprovedButNotExecuted() {
-        return transferOrderRepository.findApprovedButNotExecuted()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findApprovedButNotExecuted());
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<TransferOrderDTO> findByPage(String keyword, Pageable pageable) {
         Page<TransferOrder> page = transferOrderRepository.findByKeyword(keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
@@ -288,7 +296,7 @@ public class TransferOrderServiceImpl implements TransferOrderService {
                                                    Long sourceWarehouseId, Long targetWarehouseId, Pageable pageable) {
         Page<TransferOrder> page = transferOrderRepository.findByMultipleConditions(
                 orderNumber, status, sourceWarehouseId, targetWarehouseId, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
@@ -298,33 +306,32 @@ public class TransferOrderServiceImpl implements TransferOrderService {
                                                    LocalDate startDate, LocalDate endDate, Pageable pageable) {
         Page<TransferOrder> page = transferOrderRepository.findByMultipleConditionsWithDateRange(
                 orderNumber, status, sourceWarehouseId, targetWarehouseId, startDate, endDate, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<TransferOrderDTO> findBySourceWarehouseAndPage(Long sourceWarehouseId, String keyword, Pageable pageable) {
         Page<TransferOrder> page = transferOrderRepository.findBySourceWarehouseAndKeyword(sourceWarehouseId, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageResponse<TransferOrderDTO> findByStatusAndPage(ApprovalStatus status, String keyword, Pageable pageable) {
         Page<TransferOrder> page = transferOrderRepository.findByStatusAndKeyword(status, keyword, pageable);
-        return PageResponse.of(page.map(this::convertToDTO));
+        return PageResponse.of(page, this::convertToDTOs);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findByDateRange(LocalDate startDate, LocalDate endDate) {
-        return transferOrderRepository.findByDateRange(startDate, endDate)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findByDateRange(startDate, endDate));
     }
 
     @Override
+    @EvictOrderCaches
+    @RetryOnOptimisticLock
     public TransferOrderDTO approveTransferOrder(Long id, TransferOrderDTO.ApprovalRequest request) {
         TransferOrder order = transferOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("调拨单", "id", id));
@@ -344,10 +351,13 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         }
 
         order = transferOrderRepository.save(order);
+        publishOrderChanged(order);
         return convertToDTO(order);
     }
 
     @Override
+    @EvictOrderCaches
+    @RetryOnOptimisticLock
     public TransferOrderDTO executeTransferOrder(Long id) {
         TransferOrder order = transferOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("调拨单", "id", id));
@@ -357,48 +367,20 @@ public class TransferOrderServiceImpl implements TransferOrderService {
             throw new BusinessException("当前状态不允许执行调拨操作");
         }
 
-        // 执行调拨操作
+        // 执行调拨操作：源仓库释放锁定并出库，目标仓库按调拨单价入库，均为批量处理
         List<TransferOrderDetail> details = transferOrderDetailRepository.findByTransferOrderId(id);
-        for (TransferOrderDetail detail : details) {
-            // 查找源仓库对应的库存记录
-            Optional<Inventory> inventoryOpt = inventoryRepository.findByWarehouseIdAndGoodsId(
-                order.getFromWarehouse().getId(), detail.getGoods().getId());
-
-            if (inventoryOpt.isPresent()) {
-                Inventory inventory = inventoryOpt.get();
-
-                // 先解锁库存
-                InventoryDTO.UnlockRequest unlockRequest = new InventoryDTO.UnlockRequest();
-                unlockRequest.setInventoryId(inventory.getId());
-                unlockRequest.setUnlockQuantity(detail.getQuantity());
-                unlockRequest.setReason("调拨单执行，解锁源仓库库存：" + order.getOrderNumber());
-
-                inventoryService.unlockInventory(unlockRequest);
-
-                // 从源仓库出库（使用带业务类型的方法）
-                ((InventoryServiceImpl) inventoryService).outboundInventoryWithBusinessType(
-                        order.getFromWarehouse().getId(),
-                        detail.getGoods().getId(),
-                        detail.getQuantity(),
-                        "TRANSFER",  // 业务类型为调拨
-                        order.getOrderNumber()  // 调拨单号
-                );
-
-                // 向目标仓库入库（使用带业务类型的方法）
-                ((InventoryServiceImpl) inventoryService).inboundInventoryWithBusinessType(
-                        order.getToWarehouse().getId(),
-                        detail.getGoods().getId(),
-                        detail.getQuantity(),
-                        detail.getUnitPrice(), // 使用调拨单价
-                        null, // 调拨不涉及生产日期
-                        null, // 调拨不涉及过期日期
-                        "TRANSFER",  // 业务类型为调拨
-                        order.getOrderNumber()  // 调拨单号
-                );
-            } else {
-                throw new BusinessException("源仓库货物 " + detail.getGoods().getName() + " 库存记录不存在，无法执行调拨");
-            }
-        }
+        List<InventoryDTO.StockMovement> outMovements = details.stream()
+                .map(detail -> new InventoryDTO.StockMovement(detail.getGoods().getId(), detail.getQuantity()))
+                .collect(Collectors.toList());
+        List<InventoryDTO.StockMovement> inMovements = details.stream()
+                .map(detail -> new InventoryDTO.StockMovement(detail.getGoods().getId(), detail.getQuantity(),
+                        detail.getUnitPrice(), null, null))
+                .collect(Collectors.toList());
+        lockInventoriesInWarehouseOrder(order, details);
+        inventoryService.batchOutbound(order.getFromWarehouse().getId(), outMovements, true,
+                "TRANSFER", order.getOrderNumber());
+        inventoryService.batchInbound(order.getToWarehouse().getId(), inMovements,
+                "TRANSFER", order.getOrderNumber());
 
         // 更新调拨单状态
         order.setStatus(ApprovalStatus.EXECUTED);
@@ -406,6 +388,8 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         order.setActualDate(LocalDate.now());
 
         order = transferOrderRepository.save(order);
+        publishOrderChanged(order);
+        dailyBusinessStatsService.recordTransferOrder(order, details);
 
         // 在库存操作完成后自动生成出入库单
         generateInboundAndOutboundOrders(order);
@@ -413,7 +397,25 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         return convertToDTO(order);
     }
 
+    /**
+     * 按仓库ID顺序锁定调出、调入两个仓库涉及的库存行。
+     * 出库、入库依次执行时按调拨方向加锁，方向相反的两张调拨单同时执行会交叉等待对方已锁定的行；
+     * 先按固定顺序锁定后，之后批量出入库读取的是本事务中已锁定的记录。调入仓库尚无库存记录的货物在入库时新建。
+     */
+    private void lockInventoriesInWarehouseOrder(TransferOrder order, List<TransferOrderDetail> details) {
+        Set<Long> goodsIds = details.stream()
+                .map(detail -> detail.getGoods().getId())
+                .collect(Collectors.toSet());
+        Long fromWarehouseId = order.getFromWarehouse().getId();
+        Long toWarehouseId = order.getToWarehouse().getId();
+        inventoryRepository.findByWarehouseIdAndGoodsIdIn(Math.min(fromWarehouseId, toWarehouseId), goodsIds);
+        if (!fromWarehouseId.equals(toWarehouseId)) {
+            inventoryRepository.findByWarehouseIdAndGoodsIdIn(Math.max(fromWarehouseId, toWarehouseId), goodsIds);
+        }
+    }
+
     @Override
+    @EvictOrderCaches
     public void cancelTransferOrder(Long id, String reason) {
         TransferOrder order = transferOrderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("调拨单", "id", id));
@@ -428,6 +430,7 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         order.setApprovalTime(LocalDateTime.now());
 
         transferOrderRepository.save(order);
+        publishOrderChanged(order);
     }
 
     @Override
@@ -438,45 +441,20 @@ public class TransferOrderServiceImpl implements TransferOrderService {
 
     @Override
     public String generateOrderNumber() {
-        // 使用Java代码生成订单号：TR + 年月日 + 3位序号
-        String dateStr = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String prefix = "TR" + dateStr;
-
-        // 查找今天已有的最大序号
-        List<TransferOrder> todayOrders = transferOrderRepository.findByOrderNumberStartingWithOrderByOrderNumberDesc(prefix);
-
-        int nextSeq = 1;
-        if (!todayOrders.isEmpty()) {
-            String lastOrderNumber = todayOrders.get(0).getOrderNumber();
-            if (lastOrderNumber.length() >= prefix.length() + 3) {
-                try {
-                    String seqStr = lastOrderNumber.substring(prefix.length());
-                    nextSeq = Integer.parseInt(seqStr) + 1;
-                } catch (NumberFormatException e) {
-                    nextSeq = 1;
-                }
-            }
-        }
-
-        return prefix + String.format("%03d", nextSeq);
+        // 订单号：TR + 年月日 + 至少3位序号，序号由序号服务分配，并发创建不会重复
+        return sequenceService.nextDailyNumber("TR", transferOrderRepository::findMaxOrderNumberStartingWith);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findTodayOrders() {
-        return transferOrderRepository.findTodayOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findTodayOrders());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TransferOrderDTO> findOverdueOrders() {
-        return transferOrderRepository.findOverdueOrders()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(transferOrderRepository.findOverdueOrders());
     }
 
     @Override
@@ -505,12 +483,64 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         return transferOrderRepository.countTransferInByWarehouseAndDateRange(warehouseId, startDate, endDate);
     }
 
+    /**
+     * 发布单据变更事件，事务提交后推送给订阅相关仓库的客户端
+     */
+    private void publishOrderChanged(TransferOrder order) {
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.TYPE_TRANSFER, order.getId(), order.getOrderNumber(),
+                Boolean.TRUE.equals(order.getDeleted()) ? null : order.getStatus(),
+                List.of(order.getFromWarehouse().getId(), order.getToWarehouse().getId())));
+    }
+
     /**
      * 转换为DTO
      */
     private TransferOrderDTO convertToDTO(TransferOrder order) {
+        return convertToDTO(order, transferOrderDetailRepository.findByTransferOrderId(order.getId()));
+    }
+
+    /**
+     * 批量转换为DTO：一次查询加载所有调拨单的明细及货物，不再逐单查询明细
+     */
+    private List<TransferOrderDTO> convertToDTOs(List<TransferOrder> orders) {
+        Map<Long, List<TransferOrderDetail>> details = findDetailsByOrders(orders);
+        return orders.stream()
+                .map(order -> convertToDTO(order, details.getOrDefault(order.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按调拨单分组加载明细，每次查询最多 DETAIL_BATCH_SIZE 张调拨单
+     */
+    private Map<Long, List<TransferOrderDetail>> findDetailsByOrders(List<TransferOrder> orders) {
+        List<Long> orderIds = orders.stream().map(TransferOrder::getId).collect(Collectors.toList());
+        Map<Long, List<TransferOrderDetail>> details = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += DETAIL_BATCH_SIZE) {
+            List<Long> batch = orderIds.subList(from, Math.min(from + DETAIL_BATCH_SIZE, orderIds.size()));
+            for (TransferOrderDetail detail : transferOrderDetailRepository.findWithGoodsByTransferOrderIdIn(batch)) {
+                details.computeIfAbsent(detail.getTransferOrder().getId(), id -> new ArrayList<>()).add(detail);
+            }
+        }
+        return details;
+    }
+
+    /**
+     * 转换为DTO（明细由调用方提供）
+     */
+    private TransferOrderDTO convertToDTO(TransferOrder order, List<TransferOrderDetail> details) {
         TransferOrderDTO dto = new TransferOrderDTO();
-        BeanUtils.copyProperties(order, dto);
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setStatus(order.getStatus());
+        dto.setPlannedDate(order.getPlannedDate());
+        dto.setActualDate(order.getActualDate());
+        dto.setApprovalTime(order.getApprovalTime());
+        dto.setOperationTime(order.getOperationTime());
+        dto.setPriority(order.getPriority());
+        dto.setRemark(order.getRemark());
+        dto.setCreatedTime(order.getCreatedTime());
+        dto.setUpdatedTime(order.getUpdatedTime());
+        dto.setUpdatedBy(order.getUpdatedBy());
         
         // 设置源仓库信息
         if (order.getFromWarehouse() != null) {
@@ -531,7 +561,6 @@ public class TransferOrderServiceImpl implements TransferOrderService {
         dto.setCreatedBy(order.getCreatedBy());
 
         // 设置明细信息
-        List<TransferOrderDetail> details = transferOrderDetailRepository.findByTransferOrderId(order.getId());
         List<TransferOrderDTO.TransferOrderDetailDTO> detailDTOs = details.stream()
                 .map(this::convertDetailToDTO)
                 .collect(Collectors.toList());
@@ -555,7 +584,11 @@ public class TransferOrderServiceImpl implements TransferOrderService {
      */
     private TransferOrderDTO.TransferOrderDetailDTO convertDetailToDTO(TransferOrderDetail detail) {
         TransferOrderDTO.TransferOrderDetailDTO dto = new TransferOrderDTO.TransferOrderDetailDTO();
-        BeanUtils.copyProperties(detail, dto);
+        dto.setId(detail.getId());
+        dto.setSpecification(detail.getSpecification());
+        dto.setUnitPrice(detail.getUnitPrice());
+        dto.setQuantity(detail.getQuantity());
+        dto.setRemark(detail.getRemark());
         
         if (detail.getGoods() != null) {
             dto.setGoodsId(detail.getGoods().getId());
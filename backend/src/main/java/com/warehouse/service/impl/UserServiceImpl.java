@@ -1,5 +1,6 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.dto.UserDTO;
 import com.warehouse.dto.WarehouseDTO;
@@ -11,7 +12,6 @@ import com.warehouse.exception.ResourceNotFoundException;
 import com.warehouse.repository.UserRepository;
 import com.warehouse.repository.WarehouseRepository;
 import com.warehouse.service.UserService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
@@ -103,6 +103,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public UserDTO updateUser(Long id, UserDTO.UpdateRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -136,11 +137,17 @@ public class UserServiceImpl implements UserService {
                     throw new BusinessException("库房管理员只能设置班长、队长或普通用户角色");
                 }
             }
+            if (user.getRole() != request.getRole()) {
+                user.revokeTokens();
+            }
             user.setRole(request.getRole());
         }
 
         // 内置admin用户不允许禁用
         if (request.getEnabled() != null && !isBuiltinAdmin) {
+            if (Boolean.FALSE.equals(request.getEnabled()) && !Boolean.FALSE.equals(user.getEnabled())) {
+                user.revokeTokens();
+            }
             user.setEnabled(request.getEnabled());
         }
 
@@ -159,6 +166,7 @@ public class UserServiceImpl implements UserService {
                 }
             }
 
+            user.revokeTokens();
             user.getWarehouses().clear();
             if (!request.getWarehouseIds().isEmpty()) {
                 List<Warehouse> warehouses = warehouseRepository.findAllById(request.getWarehouseIds());
@@ -171,6 +179,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -197,6 +206,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setDeleted(true);
+        user.revokeTokens();
         userRepository.save(user);
     }
 
@@ -354,6 +364,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void enableUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -366,6 +377,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void disableUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -379,10 +391,12 @@ public class UserServiceImpl implements UserService {
         validateUserOperationPermission(user);
 
         user.setEnabled(false);
+        user.revokeTokens();
         userRepository.save(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void lockUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -393,10 +407,12 @@ public class UserServiceImpl implements UserService {
         }
         
         user.setAccountNonLocked(false);
+        user.revokeTokens();
         userRepository.save(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void unlockUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -405,6 +421,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void resetPassword(Long id, String newPassword) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -413,10 +430,12 @@ public class UserServiceImpl implements UserService {
         validateUserOperationPermission(user);
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.revokeTokens();
         userRepository.save(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#id")
     public void changePassword(Long id, UserDTO.ChangePasswordRequest request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", id));
@@ -432,10 +451,12 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.revokeTokens();
         userRepository.save(user);
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#userId")
     public void assignWarehouses(Long userId, List<Long> warehouseIds) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", userId));
@@ -460,7 +481,8 @@ public class UserServiceImpl implements UserService {
             }
         }
 
-        // 清除用户原有的仓库权限
+        // 清除用户原有的仓库权限，已签发令牌中的仓库列表随之失效
+        user.revokeTokens();
         user.getWarehouses().clear();
 
         // 分配新的仓库权限
@@ -473,12 +495,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USER_TOKEN_STATES, key = "#userId")
     public void removeWarehouses(Long userId, List<Long> warehouseIds) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "id", userId));
 
         List<Warehouse> warehouses = warehouseRepository.findAllById(warehouseIds);
         warehouses.forEach(user::removeWarehouse);
+        user.revokeTokens();
         userRepository.save(user);
     }
 
@@ -556,7 +580,25 @@ public class UserServiceImpl implements UserService {
      */
     private UserDTO convertToDTO(User user) {
         UserDTO dto = new UserDTO();
-        BeanUtils.copyProperties(user, dto);
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setRealName(user.getRealName());
+        dto.setEmail(user.getEmail());
+        dto.setPhone(user.getPhone());
+        dto.setRole(user.getRole());
+        dto.setEnabled(user.getEnabled());
+        dto.setAccountNonExpired(user.getAccountNonExpired());
+        dto.setAccountNonLocked(user.getAccountNonLocked());
+        dto.setCredentialsNonExpired(user.getCredentialsNonExpired());
+        dto.setLastLoginTime(user.getLastLoginTime());
+        dto.setLastLoginIp(user.getLastLoginIp());
+        dto.setLoginCount(user.getLoginCount());
+        dto.setAvatarUrl(user.getAvatarUrl());
+        dto.setRemark(user.getRemark());
+        dto.setCreatedTime(user.getCreatedTime());
+        dto.setUpdatedTime(user.getUpdatedTime());
+        dto.setCreatedBy(user.getCreatedBy());
+        dto.setUpdatedBy(user.getUpdatedBy());
 
         // 转换仓库信息
         if (user.getWarehouses() != null) {
@@ -572,7 +614,20 @@ public class UserServiceImpl implements UserService {
      */
     private WarehouseDTO convertWarehouseToDTO(Warehouse warehouse) {
         WarehouseDTO dto = new WarehouseDTO();
-        BeanUtils.copyProperties(warehouse, dto);
+        dto.setId(warehouse.getId());
+        dto.setCode(warehouse.getCode());
+        dto.setName(warehouse.getName());
+        dto.setAddress(warehouse.getAddress());
+        dto.setContactPerson(warehouse.getContactPerson());
+        dto.setContactPhone(warehouse.getContactPhone());
+        dto.setArea(warehouse.getArea());
+        dto.setCapacity(warehouse.getCapacity());
+        dto.setEnabled(warehouse.getEnabled());
+        dto.setRemark(warehouse.getRemark());
+        dto.setCreatedTime(warehouse.getCreatedTime());
+        dto.setUpdatedTime(warehouse.getUpdatedTime());
+        dto.setCreatedBy(warehouse.getCreatedBy());
+        dto.setUpdatedBy(warehouse.getUpdatedBy());
         return dto;
     }
 
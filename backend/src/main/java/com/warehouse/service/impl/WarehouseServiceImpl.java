@@ -1,5 +1,6 @@
 package com.warehouse.service.impl;
 
+import com.warehouse.config.CacheConfig;
 import com.warehouse.dto.PageResponse;
 import com.warehouse.dto.UserDTO;
 import com.warehouse.dto.WarehouseDTO;
@@ -11,8 +12,9 @@ import com.warehouse.repository.InventoryRepository;
 import com.warehouse.repository.UserRepository;
 import com.warehouse.repository.WarehouseRepository;
 import com.warehouse.service.WarehouseService;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -48,6 +50,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     private InventoryRepository inventoryRepository;
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public WarehouseDTO createWarehouse(WarehouseDTO.CreateRequest request) {
         // 检查编码是否存在
         if (warehouseRepository.existsByCodeAndDeletedFalse(request.getCode())) {
@@ -82,6 +85,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public WarehouseDTO updateWarehouse(Long id, WarehouseDTO.UpdateRequest request) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", id));
@@ -118,6 +122,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void deleteWarehouse(Long id) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", id));
@@ -165,6 +170,7 @@ public class WarehouseServiceImpl implements WarehouseService {
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.WAREHOUSES, key = "'enabled'")
     public List<WarehouseDTO> findAllEnabled() {
         return warehouseRepository.findByEnabledTrueAndDeletedFalseOrderByCode()
                 .stream()
@@ -217,6 +223,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void enableWarehouse(Long id) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", id));
@@ -225,6 +232,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void disableWarehouse(Long id) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", id));
@@ -233,6 +241,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void toggleStatus(Long id) {
         Warehouse warehouse = warehouseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", id));
@@ -248,6 +257,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void assignManagers(Long warehouseId, List<Long> userIds) {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
@@ -258,6 +268,7 @@ public class WarehouseServiceImpl implements WarehouseService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.WAREHOUSES, allEntries = true)
     public void removeManagers(Long warehouseId, List<Long> userIds) {
         Warehouse warehouse = warehouseRepository.findById(warehouseId)
                 .orElseThrow(() -> new ResourceNotFoundException("仓库", "id", warehouseId));
@@ -374,7 +385,20 @@ public class WarehouseServiceImpl implements WarehouseService {
      */
     private WarehouseDTO convertToDTO(Warehouse warehouse) {
         WarehouseDTO dto = new WarehouseDTO();
-        BeanUtils.copyProperties(warehouse, dto);
+        dto.setId(warehouse.getId());
+        dto.setCode(warehouse.getCode());
+        dto.setName(warehouse.getName());
+        dto.setAddress(warehouse.getAddress());
+        dto.setContactPerson(warehouse.getContactPerson());
+        dto.setContactPhone(warehouse.getContactPhone());
+        dto.setArea(warehouse.getArea());
+        dto.setCapacity(warehouse.getCapacity());
+        dto.setEnabled(warehouse.getEnabled());
+        dto.setRemark(warehouse.getRemark());
+        dto.setCreatedTime(warehouse.getCreatedTime());
+        dto.setUpdatedTime(warehouse.getUpdatedTime());
+        dto.setCreatedBy(warehouse.getCreatedBy());
+        dto.setUpdatedBy(warehouse.getUpdatedBy());
         
         // 转换管理员信息
         if (warehouse.getManagers() != null) {
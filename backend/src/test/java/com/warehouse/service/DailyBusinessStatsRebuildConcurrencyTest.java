@@ -0,0 +1,148 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.InboundOrderDTO;
+import com.warehouse.entity.DailyBusinessStat;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.ApprovalStatus;
+import com.warehouse.enums.BusinessType;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 每日业务统计重建并发测试
+ * 多个线程持续执行入库单的同时反复重建当天的统计，结束后增量累加的统计必须与最后一次完整重建的结果一致，
+ * 执行的单据既不能被重复统计也不能丢失。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyBusinessStatsRebuildConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int ORDERS_PER_THREAD = 30;
+
+    @Autowired
+    private InboundOrderService inboundOrderService;
+
+    @Autowired
+    private DailyBusinessStatsService dailyBusinessStatsService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    @Test
+    void rebuildDuringOrderExecutionKeepsTotalsExact() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(new Warehouse("STATS-WH", "统计重建测试仓库"));
+        GoodsCategory category = goodsCategoryRepository.save(new GoodsCategory("STATS-CAT", "统计重建测试分类"));
+        List<Long> goodsIds = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            goodsIds.add(goodsRepository.save(new Goods("STATS-G" + t, "统计重建测试货物" + t, category, "个")).getId());
+        }
+        LocalDate today = LocalDate.now();
+
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger rebuilds = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        Future<?> rebuilder = executor.submit(() -> {
+            start.await();
+            while (running.get()) {
+                dailyBusinessStatsService.rebuild(today, today);
+                rebuilds.incrementAndGet();
+            }
+            return null;
+        });
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long goodsId = goodsIds.get(t);
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    try {
+                        executeOrder(warehouse.getId(), goodsId);
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        running.set(false);
+        rebuilder.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        assertTrue(errors.isEmpty(), () -> "执行入库单失败 " + errors.size() + " 次: " + errors.peek());
+        assertTrue(rebuilds.get() > 0);
+        DailyBusinessStatsService.StatTotals incremental = inboundTotals(today, warehouse.getId());
+        assertEquals(THREADS * ORDERS_PER_THREAD, incremental.getOrderCount());
+
+        dailyBusinessStatsService.rebuild(today, today);
+        DailyBusinessStatsService.StatTotals rebuilt = inboundTotals(today, warehouse.getId());
+        assertEquals(rebuilt.getOrderCount(), incremental.getOrderCount());
+        assertEquals(0, rebuilt.getTotalQuantity().compareTo(incremental.getTotalQuantity()));
+        assertEquals(0, rebuilt.getTotalAmount().compareTo(incremental.getTotalAmount()));
+    }
+
+    private void executeOrder(Long warehouseId, Long goodsId) {
+        InboundOrderDTO.InboundOrderDetailDTO detail = new InboundOrderDTO.InboundOrderDetailDTO();
+        detail.setGoodsId(goodsId);
+        detail.setQuantity(BigDecimal.valueOf(3));
+        detail.setUnitPrice(BigDecimal.TEN);
+        detail.setAmount(BigDecimal.valueOf(30));
+
+        InboundOrderDTO.CreateRequest request = new InboundOrderDTO.CreateRequest();
+        request.setWarehouseId(warehouseId);
+        request.setBusinessType(BusinessType.PURCHASE_IN);
+        request.setPlannedDate(LocalDate.now());
+        request.setCreatedBy("tester");
+        request.setDetails(List.of(detail));
+        Long orderId = inboundOrderService.createInboundOrder(request).getId();
+
+        InboundOrderDTO.ApprovalRequest approval = new InboundOrderDTO.ApprovalRequest();
+        approval.setStatus(ApprovalStatus.APPROVED);
+        inboundOrderService.approveInboundOrder(orderId, approval);
+        inboundOrderService.executeInboundOrder(orderId);
+    }
+
+    private DailyBusinessStatsService.StatTotals inboundTotals(LocalDate date, Long warehouseId) {
+        return dailyBusinessStatsService.getOrderTotals(date, date, warehouseId)
+                .getOrDefault(DailyBusinessStat.TYPE_INBOUND, DailyBusinessStatsService.StatTotals.EMPTY);
+    }
+}
@@ -0,0 +1,83 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.GoodsDTO;
+import com.warehouse.service.impl.GoodsImportPipeline;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 货物并发导入测试
+ * 多个线程同时导入相同的数据行（分类不存在，需自动创建），每个货物和分类只能写入一次，其余导入全部按重复跳过。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GoodsImportConcurrencyTest {
+
+    private static final int THREADS = 4;
+
+    private static final int ROWS = 50;
+
+    @Autowired
+    private GoodsImportPipeline goodsImportPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentImportsOfSameRowsCreateEachGoodsOnce() throws Exception {
+        List<GoodsDTO.ImportData> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            GoodsDTO.ImportData data = new GoodsDTO.ImportData();
+            data.setName("并发导入货物" + i);
+            data.setCategoryCode("IMPORT-RACE-CAT");
+            data.setUnit("个");
+            data.setSpecification("规格" + (i % 3));
+            rows.add(data);
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<GoodsDTO.ImportResult>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return goodsImportPipeline.importRows(rows, "tester");
+            }));
+        }
+        start.countDown();
+        int created = 0;
+        int skipped = 0;
+        for (Future<GoodsDTO.ImportResult> future : futures) {
+            GoodsDTO.ImportResult result = future.get(2, TimeUnit.MINUTES);
+            assertEquals(0, result.getFailCount(), () -> "导入失败: " + result.getErrors());
+            created += result.getCreatedCount();
+            skipped += result.getSkippedCount();
+        }
+        executor.shutdown();
+
+        assertEquals(ROWS, created);
+        assertEquals(ROWS * (THREADS - 1), skipped);
+        assertEquals(1, count("SELECT COUNT(*) FROM goods_categories WHERE code = 'IMPORT-RACE-CAT'"));
+        assertEquals(ROWS, count("SELECT COUNT(*) FROM goods WHERE name LIKE '并发导入货物%'"));
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,183 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.GoodsDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.event.GoodsChangedEvent;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.service.impl.GoodsSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 货物搜索索引测试
+ * 候选集求交后必须再做包含匹配（各词元都出现但不相邻的货物不算匹配），索引无法提供结果时返回null由调用方回退到 LIKE 查询，
+ * 全量重建期间提交的变更在新索引生效后仍然可见。每个测试使用独立的索引实例，数据库与其他测试共享。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class GoodsSearchIndexTest {
+
+    private static int run;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    private GoodsCategory category;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "SIDX" + (++run) + "-";
+        category = goodsCategoryRepository.save(new GoodsCategory(prefix + "CAT", "搜索索引测试分类"));
+    }
+
+    @Test
+    void candidatesAreVerifiedAfterIntersection() {
+        Long exact = createGoods("A", "甲乙丙丁戊己");
+        // 包含查询的全部相邻两字，但不连续
+        Long scattered = createGoods("B", "甲乙丙·乙丙丁·丁戊己");
+        // 只缺少最后一个词元，超出求交条数的词元由包含匹配校验
+        Long partial = createGoods("C", "甲乙丙丁戊庚");
+        GoodsSearchIndex index = rebuiltIndex();
+
+        assertEquals(sorted(exact, partial), index.match("乙丙丁戊", 10));
+        assertEquals(List.of(exact), index.match("甲乙丙丁戊己", 10));
+        assertEquals(sorted(exact, scattered, partial), index.match("乙丙", 10));
+        assertEquals(sorted(exact, scattered, partial), index.match("丙", 10));
+        assertEquals(List.of(), index.match("甲乙丙丁戊辛", 10));
+    }
+
+    @Test
+    void matchesCodeAndPinyinInitialsCaseInsensitively() {
+        Long goodsId = createGoods("RED", "红色苹果汁");
+        GoodsSearchIndex index = rebuiltIndex();
+
+        assertEquals(List.of(goodsId), index.match(prefix.toLowerCase() + "red", 10));
+        assertTrue(index.match("HSPGZ", 10).contains(goodsId));
+        assertTrue(index.match("苹果", 10).contains(goodsId));
+    }
+
+    @Test
+    void suggestRanksByTierThenCode() {
+        Long contained = createGoods("1", "大卯辰");
+        Long nameLater = createGoods("3", "卯辰酒");
+        Long nameFirst = createGoods("2", "卯辰");
+        Goods disabled = new Goods(prefix + "0", "卯辰灯", category, "个");
+        disabled.setEnabled(false);
+        goodsRepository.save(disabled);
+        Long codePrefix = goodsRepository.save(new Goods("卯辰" + prefix, "其他", category, "个")).getId();
+        GoodsSearchIndex index = rebuiltIndex();
+
+        assertEquals(List.of(codePrefix, nameFirst, nameLater, contained), suggestionIds(index.suggest("卯辰", 10)));
+        assertEquals(List.of(codePrefix, nameFirst), suggestionIds(index.suggest("卯辰", 2)));
+    }
+
+    @Test
+    void returnsNullWhenIndexCannotAnswer() {
+        Long first = createGoods("A", "壬癸子丑");
+        createGoods("B", "壬癸寅卯");
+        GoodsSearchIndex index = new GoodsSearchIndex(jdbcTemplate, new SimpleMeterRegistry(), true);
+
+        // 启动构建完成前不使用索引
+        assertNull(index.match("壬癸", 10));
+        index.rebuild();
+        // 单个非汉字字符没有词元
+        assertNull(index.match("x", 10));
+        assertNull(index.suggest("x", 10));
+        // 匹配数超过上限
+        assertNull(index.match("壬癸", 1));
+        assertEquals(List.of(first), index.match("癸子", 1));
+
+        GoodsSearchIndex.KeywordFilter fallback = index.keywordFilter("x");
+        assertFalse(fallback.isGoodsIdFilter());
+        assertEquals("x", fallback.getKeyword());
+        GoodsSearchIndex.KeywordFilter byIds = index.keywordFilter("癸子");
+        assertTrue(byIds.isGoodsIdFilter());
+        assertEquals(List.of(first), byIds.getGoodsIds());
+    }
+
+    @Test
+    void changeCommittedDuringRebuildSurvivesSwap() throws Exception {
+        Long goodsId = createGoods("A", "辰巳午未");
+        CountDownLatch snapshotRead = new CountDownLatch(1);
+        CountDownLatch changeApplied = new CountDownLatch(1);
+        // 全量重建读完快照后暂停，在新索引生效前提交并刷新一次变更
+        NamedParameterJdbcTemplate pausingTemplate = new NamedParameterJdbcTemplate(jdbcTemplate.getJdbcTemplate()) {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+                super.query(sql, rch);
+                if (sql.contains("ORDER BY code")) {
+                    snapshotRead.countDown();
+                    await(changeApplied);
+                }
+            }
+        };
+        GoodsSearchIndex index = new GoodsSearchIndex(pausingTemplate, new SimpleMeterRegistry(), true);
+
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(index::rebuild);
+        await(snapshotRead);
+        jdbcTemplate.getJdbcTemplate().update(
+                "UPDATE goods SET name = ?, version = version + 1 WHERE id = ?", "申酉戌亥", goodsId);
+        index.onGoodsChanged(new GoodsChangedEvent(List.of(goodsId)));
+        changeApplied.countDown();
+        rebuild.get(1, TimeUnit.MINUTES);
+
+        assertEquals(List.of(goodsId), index.match("申酉戌亥", 10));
+        assertEquals(List.of(), index.match("辰巳午未", 10));
+    }
+
+    private Long createGoods(String code, String name) {
+        return goodsRepository.save(new Goods(prefix + code, name, category, "个")).getId();
+    }
+
+    private static List<Long> suggestionIds(List<GoodsDTO.Suggestion> suggestions) {
+        return suggestions.stream().map(GoodsDTO.Suggestion::getId).toList();
+    }
+
+    private GoodsSearchIndex rebuiltIndex() {
+        GoodsSearchIndex index = new GoodsSearchIndex(jdbcTemplate, new SimpleMeterRegistry(), true);
+        index.rebuild();
+        return index;
+    }
+
+    private static List<Long> sorted(Long... ids) {
+        return Arrays.stream(ids).sorted().toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.MINUTES));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.exception.BusinessException;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热点货物库存并发测试
+ * 多个线程对同一条库存记录混合执行入库、出库、锁定/解锁和调整，只允许出现库存不足的业务失败；
+ * 结束后库存数量必须等于初始数量加上所有成功操作的变动之和（没有丢失更新），锁定数量归零。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    private static final long INITIAL_QUANTITY = 1000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    @Test
+    void concurrentMutationsOnHotSkuLoseNoUpdates() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(new Warehouse("HOT-WH", "并发测试仓库"));
+        GoodsCategory category = goodsCategoryRepository.save(new GoodsCategory("HOT-CAT", "并发测试分类"));
+        Goods goods = goodsRepository.save(new Goods("HOT-G001", "热点货物", category, "个"));
+        Long warehouseId = warehouse.getId();
+        Long goodsId = goods.getId();
+        Long inventoryId = inventoryService.inboundInventory(warehouseId, goodsId,
+                BigDecimal.valueOf(INITIAL_QUANTITY), BigDecimal.TEN, null, null).getId();
+
+        AtomicLong delta = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    try {
+                        switch (random.nextInt(4)) {
+                            case 0 -> {
+                                inventoryService.inboundInventory(warehouseId, goodsId, BigDecimal.valueOf(5),
+                                        BigDecimal.TEN, null, null);
+                                delta.addAndGet(5);
+                            }
+                            case 1 -> {
+                                inventoryService.outboundInventory(warehouseId, goodsId, BigDecimal.valueOf(7));
+                                delta.addAndGet(-7);
+                            }
+                            case 2 -> {
+                                inventoryService.lockInventory(lockRequest(inventoryId, 3));
+                                inventoryService.unlockInventory(unlockRequest(inventoryId, 3));
+                            }
+                            default -> {
+                                long change = random.nextBoolean() ? 4 : -6;
+                                inventoryService.adjustInventory(adjustRequest(warehouseId, goodsId, change));
+                                delta.addAndGet(change);
+                            }
+                        }
+                    } catch (BusinessException | IllegalArgumentException e) {
+                        // 库存不足属于正常的业务拒绝（调整减少库存时由库存实体校验），不计入变动
+                        rejected.incrementAndGet();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(errors.isEmpty(), () -> "并发操作失败 " + errors.size() + " 次: " + errors.peek());
+        InventoryDTO inventory = inventoryService.findById(inventoryId).orElseThrow();
+        BigDecimal expected = BigDecimal.valueOf(INITIAL_QUANTITY + delta.get());
+        assertEquals(0, expected.compareTo(inventory.getQuantity()),
+                () -> "库存数量 " + inventory.getQuantity() + "，期望 " + expected + "（业务拒绝 " + rejected.get() + " 次）");
+        assertEquals(0, BigDecimal.ZERO.compareTo(inventory.getLockedQuantity()), "锁定数量未归零");
+        assertEquals(0, inventory.getQuantity().compareTo(inventory.getAvailableQuantity()), "可用数量与库存数量不一致");
+    }
+
+    private static InventoryDTO.LockRequest lockRequest(Long inventoryId, long quantity) {
+        InventoryDTO.LockRequest request = new InventoryDTO.LockRequest();
+        request.setInventoryId(inventoryId);
+        request.setLockQuantity(BigDecimal.valueOf(quantity));
+        request.setReason("并发测试");
+        return request;
+    }
+
+    private static InventoryDTO.UnlockRequest unlockRequest(Long inventoryId, long quantity) {
+        InventoryDTO.UnlockRequest request = new InventoryDTO.UnlockRequest();
+        request.setInventoryId(inventoryId);
+        request.setUnlockQuantity(BigDecimal.valueOf(quantity));
+        request.setReason("并发测试");
+        return request;
+    }
+
+    private static InventoryDTO.AdjustRequest adjustRequest(Long warehouseId, Long goodsId, long change) {
+        InventoryDTO.AdjustRequest request = new InventoryDTO.AdjustRequest();
+        request.setWarehouseId(warehouseId);
+        request.setGoodsId(goodsId);
+        request.setAdjustQuantity(BigDecimal.valueOf(change));
+        request.setCostPrice(BigDecimal.TEN);
+        request.setReason("并发测试");
+        return request;
+    }
+}
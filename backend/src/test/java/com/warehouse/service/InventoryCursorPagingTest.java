@@ -0,0 +1,79 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.CursorPageResponse;
+import com.warehouse.dto.InventoryDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 库存游标分页测试
+ * 翻页过程中尚未读到的库存发生变动（更新时间改变），后续页仍然按原顺序返回，每条库存恰好出现一次。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryCursorPagingTest {
+
+    private static final int GOODS = 7;
+
+    private static final int PAGE_SIZE = 2;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    @Test
+    void stockChangesDuringPagingNeitherSkipNorRepeatRows() {
+        Warehouse warehouse = warehouseRepository.save(new Warehouse("CURSOR-WH", "游标分页测试仓库"));
+        GoodsCategory category = goodsCategoryRepository.save(new GoodsCategory("CURSOR-CAT", "游标分页测试分类"));
+        List<Long> goodsIds = new ArrayList<>();
+        for (int i = 0; i < GOODS; i++) {
+            Goods goods = goodsRepository.save(new Goods("CURSOR-G" + i, "游标分页测试货物" + i, category, "个"));
+            inventoryService.inboundInventory(warehouse.getId(), goods.getId(), BigDecimal.TEN, BigDecimal.ONE, null, null);
+            goodsIds.add(goods.getId());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        CursorPageResponse<InventoryDTO> page = inventoryService.findByCursorWithFilters(
+                "", warehouse.getId(), null, null, null, PAGE_SIZE, false);
+        page.getContent().forEach(inventory -> seen.add(inventory.getId()));
+        while (page.getNextCursor() != null) {
+            // 变动全部库存，包括还没读到的
+            for (Long goodsId : goodsIds) {
+                inventoryService.inboundInventory(warehouse.getId(), goodsId, BigDecimal.ONE, BigDecimal.ONE, null, null);
+            }
+            page = inventoryService.findByCursorWithFilters(
+                    "", warehouse.getId(), null, null, page.getNextCursor(), PAGE_SIZE, false);
+            page.getContent().forEach(inventory -> seen.add(inventory.getId()));
+        }
+
+        assertEquals(GOODS, seen.size());
+        Set<Long> distinct = new HashSet<>(seen);
+        assertEquals(GOODS, distinct.size());
+    }
+}
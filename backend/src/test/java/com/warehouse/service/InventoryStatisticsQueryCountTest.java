@@ -0,0 +1,136 @@
+package com.warehouse.service;
+
+import com.warehouse.config.QueryMetrics;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.UserRole;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.security.UserDetailsServiceImpl.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 库存统计查询次数测试
+ * 全部仓库、多个仓库（非管理员的仓库权限）和单个仓库三种范围的库存统计都只允许执行一条聚合语句，
+ * 语句数由 QueryMetrics 在当前线程上统计。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryStatisticsQueryCountTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private QueryMetrics queryMetrics;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    private static int run;
+
+    private Warehouse firstWarehouse;
+
+    private Warehouse secondWarehouse;
+
+    @BeforeEach
+    void setUp() {
+        String prefix = "STAT" + (++run) + "-";
+        firstWarehouse = warehouseRepository.save(new Warehouse(prefix + "WH1", "统计测试仓库一"));
+        secondWarehouse = warehouseRepository.save(new Warehouse(prefix + "WH2", "统计测试仓库二"));
+        Warehouse otherWarehouse = warehouseRepository.save(new Warehouse(prefix + "WH3", "统计测试仓库三"));
+        GoodsCategory category = goodsCategoryRepository.save(new GoodsCategory(prefix + "CAT", "统计测试分类"));
+        for (int i = 0; i < 5; i++) {
+            Goods goods = goodsRepository.save(new Goods(prefix + "G" + i, "统计测试货物" + i, category, "个"));
+            for (Warehouse warehouse : new Warehouse[] {firstWarehouse, secondWarehouse, otherWarehouse}) {
+                inventoryService.inboundInventory(warehouse.getId(), goods.getId(), BigDecimal.valueOf(10 + i),
+                        BigDecimal.TEN, null, null);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void allWarehousesUseSingleStatement() {
+        authenticate("stat-admin", UserRole.ROLE_ADMIN);
+
+        InventoryService.InventoryStatistics statistics = countStatements(inventoryService::getInventoryStatistics);
+
+        assertTrue(statistics.getTotalItems() >= 15);
+    }
+
+    @Test
+    void userWarehousesUseSingleStatement() {
+        authenticate("stat-keeper", UserRole.WAREHOUSE_ADMIN, firstWarehouse, secondWarehouse);
+
+        InventoryService.InventoryStatistics statistics = countStatements(inventoryService::getInventoryStatistics);
+
+        assertEquals(10, statistics.getTotalItems());
+        assertEquals(2, statistics.getWarehousesCount());
+    }
+
+    @Test
+    void singleWarehouseUsesSingleStatement() {
+        authenticate("stat-admin", UserRole.ROLE_ADMIN);
+
+        InventoryService.InventoryStatistics statistics =
+                countStatements(() -> inventoryService.getWarehouseInventoryStatistics(firstWarehouse.getId()));
+
+        assertEquals(5, statistics.getTotalItems());
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(statistics.getTotalQuantity()));
+    }
+
+    /**
+     * 执行统计并断言只产生一条JDBC语句
+     */
+    private InventoryService.InventoryStatistics countStatements(
+            Supplier<InventoryService.InventoryStatistics> statistics) {
+        queryMetrics.beginRequest("InventoryStatisticsQueryCountTest");
+        try {
+            InventoryService.InventoryStatistics result = statistics.get();
+            assertEquals(1, queryMetrics.currentStatementCount());
+            return result;
+        } finally {
+            queryMetrics.endRequest("test");
+        }
+    }
+
+    private void authenticate(String username, UserRole role, Warehouse... warehouses) {
+        User user = new User();
+        user.setUsername(username);
+        user.setRole(role);
+        user.setWarehouses(Set.of(warehouses));
+        UserPrincipal principal = new UserPrincipal(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
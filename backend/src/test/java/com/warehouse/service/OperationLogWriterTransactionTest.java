@@ -0,0 +1,127 @@
+package com.warehouse.service;
+
+import com.warehouse.entity.OperationLog;
+import com.warehouse.entity.User;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.UserRole;
+import com.warehouse.repository.UserRepository;
+import com.warehouse.repository.WarehouseRepository;
+import com.warehouse.service.impl.OperationLogWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 操作日志事务内写入测试
+ * REQUIRES_NEW 内层事务的日志只随内层事务提交，外层回滚不影响；日志写入失败时业务数据照常提交。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OperationLogWriterTransactionTest {
+
+    private static int run;
+
+    @Autowired
+    private OperationLogWriter operationLogWriter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User operator;
+
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        prefix = "LOGTX" + (++run) + "-";
+        User user = new User();
+        user.setUsername(prefix + "operator");
+        user.setPassword("{noop}password");
+        user.setEnabled(false);
+        user.setRealName("日志测试");
+        user.setRole(UserRole.ROLE_USER);
+        operator = userRepository.save(user);
+    }
+
+    @Test
+    void innerRequiresNewLogsCommitWithInnerTransaction() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            operationLogWriter.writeInTransaction(log("outer-before"));
+            inner.executeWithoutResult(innerStatus -> operationLogWriter.writeInTransaction(log("inner")));
+            operationLogWriter.writeInTransaction(log("outer-after"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, countLogs("inner"));
+        assertEquals(0, countLogs("outer-before"));
+        assertEquals(0, countLogs("outer-after"));
+    }
+
+    @Test
+    void outerLogsAreNotWrittenByInnerCommit() {
+        TransactionTemplate outer = new TransactionTemplate(transactionManager);
+        TransactionTemplate inner = new TransactionTemplate(transactionManager);
+        inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        outer.executeWithoutResult(status -> {
+            operationLogWriter.writeInTransaction(log("outer"));
+            inner.executeWithoutResult(innerStatus -> {
+                operationLogWriter.writeInTransaction(log("inner"));
+                innerStatus.setRollbackOnly();
+            });
+        });
+
+        assertEquals(1, countLogs("outer"));
+        assertEquals(0, countLogs("inner"));
+    }
+
+    @Test
+    void failedLogInsertDoesNotRollBackBusinessData() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        OperationLog invalid = log("invalid");
+        invalid.setOperator(null);
+
+        transaction.executeWithoutResult(status -> {
+            warehouseRepository.save(new Warehouse(prefix + "WH", "日志测试仓库"));
+            operationLogWriter.writeInTransaction(log("valid"));
+            operationLogWriter.writeInTransaction(invalid);
+        });
+
+        assertTrue(warehouseRepository.findByCodeAndDeletedFalse(prefix + "WH").isPresent());
+        assertEquals(0, countLogs("valid") + countLogs("invalid"));
+    }
+
+    private OperationLog log(String desc) {
+        return new OperationLog(operator, "TEST", prefix + desc);
+    }
+
+    private int countLogs(String desc) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM operation_logs WHERE operation_desc = ?", Integer.class, prefix + desc);
+        return count != null ? count : 0;
+    }
+}
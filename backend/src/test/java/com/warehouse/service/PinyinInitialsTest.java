@@ -0,0 +1,51 @@
+package com.warehouse.service;
+
+import com.warehouse.service.impl.PinyinInitials;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 拼音首字母测试
+ * 一级汉字按区位码区间取首字母（含区间边界），二级汉字和其他字符保留原样，字母转为小写。
+ *
+ * @author Warehouse Team
+ */
+class PinyinInitialsTest {
+
+    @Test
+    void levelOneCharactersMapToInitials() {
+        assertEquals("hspgz", PinyinInitials.of("红色苹果汁"));
+        assertEquals("cchj", PinyinInitials.of("仓储货架"));
+        assertEquals("xyj", PinyinInitials.of("洗衣机"));
+    }
+
+    @Test
+    void sectionBoundaries() {
+        // 啊、芭、擦、座 分别是 a、b、c 区间的起点和一级汉字的最后一个字
+        assertEquals("a", PinyinInitials.of("啊"));
+        assertEquals("a", PinyinInitials.of("熬"));
+        assertEquals("b", PinyinInitials.of("芭"));
+        assertEquals("c", PinyinInitials.of("擦"));
+        assertEquals("z", PinyinInitials.of("座"));
+    }
+
+    @Test
+    void otherCharactersAreKept() {
+        assertEquals("iphone15sj", PinyinInitials.of("iPhone15手机"));
+        assertEquals("a-4 x", PinyinInitials.of("A-4 X"));
+        // 二级汉字无法确定首字母
+        assertEquals("鑫", PinyinInitials.of("鑫"));
+        assertEquals("", PinyinInitials.of(null));
+        assertEquals("", PinyinInitials.of(""));
+    }
+
+    @Test
+    void detectsCjkCharacters() {
+        assertTrue(PinyinInitials.isCjk('货'));
+        assertFalse(PinyinInitials.isCjk('a'));
+        assertFalse(PinyinInitials.isCjk('·'));
+    }
+}
@@ -0,0 +1,148 @@
+package com.warehouse.service;
+
+import com.warehouse.dto.InboundOrderDTO;
+import com.warehouse.entity.Goods;
+import com.warehouse.entity.GoodsCategory;
+import com.warehouse.entity.Warehouse;
+import com.warehouse.enums.BusinessType;
+import com.warehouse.repository.GoodsCategoryRepository;
+import com.warehouse.repository.GoodsRepository;
+import com.warehouse.repository.WarehouseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 序号服务并发测试
+ * 32个线程并发创建1万张入库单，单据编号不能重复；号段设得很小，让号段预留频繁发生。
+ *
+ * @author Warehouse Team
+ */
+@SpringBootTest(properties = "warehouse.sequence.block-size=5")
+@ActiveProfiles("test")
+class SequenceServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    private static final int ORDERS = 10_000;
+
+    @Autowired
+    private InboundOrderService inboundOrderService;
+
+    @Autowired
+    private SequenceService sequenceService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private GoodsCategoryRepository goodsCategoryRepository;
+
+    @Autowired
+    private GoodsRepository goodsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentOrderCreationProducesUniqueNumbers() throws Exception {
+        Warehouse warehouse = warehouseRepository.save(new Warehouse("SEQ-WH", "序号测试仓库"));
+        GoodsCategory category = goodsCategoryRepository.save(new GoodsCategory("SEQ-CAT", "序号测试分类"));
+        Goods goods = goodsRepository.save(new Goods("SEQ-G001", "序号测试货物", category, "个"));
+
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int count = ORDERS / THREADS + (t < ORDERS % THREADS ? 1 : 0);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    try {
+                        inboundOrderService.createInboundOrder(createRequest(warehouse.getId(), goods.getId()));
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(errors.isEmpty(), () -> "创建入库单失败 " + errors.size() + " 次: " + errors.peek());
+        List<String> numbers = jdbcTemplate.queryForList(
+                "SELECT order_number FROM inbound_orders WHERE warehouse_id = ?", String.class, warehouse.getId());
+        assertEquals(ORDERS, numbers.size());
+        assertEquals(ORDERS, new HashSet<>(numbers).size(), "入库单编号重复");
+    }
+
+    @Test
+    void concurrentAllocationFromSmallBlocksIsUnique() throws Exception {
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        Queue<String> duplicates = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS / THREADS; i++) {
+                    String number = sequenceService.nextDailyNumber("SEQTEST", prefix -> null);
+                    if (!numbers.add(number)) {
+                        duplicates.add(number);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(duplicates.isEmpty(), () -> "编号重复: " + duplicates);
+        assertEquals(ORDERS / THREADS * THREADS, numbers.size());
+    }
+
+    private static InboundOrderDTO.CreateRequest createRequest(Long warehouseId, Long goodsId) {
+        InboundOrderDTO.InboundOrderDetailDTO detail = new InboundOrderDTO.InboundOrderDetailDTO();
+        detail.setGoodsId(goodsId);
+        detail.setQuantity(BigDecimal.ONE);
+        detail.setUnitPrice(BigDecimal.TEN);
+        detail.setAmount(BigDecimal.TEN);
+
+        InboundOrderDTO.CreateRequest request = new InboundOrderDTO.CreateRequest();
+        request.setWarehouseId(warehouseId);
+        request.setBusinessType(BusinessType.values()[0]);
+        request.setPlannedDate(LocalDate.now());
+        request.setCreatedBy("tester");
+        request.setDetails(List.of(detail));
+        return request;
+    }
+}